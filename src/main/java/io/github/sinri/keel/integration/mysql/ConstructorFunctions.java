@@ -0,0 +1,96 @@
+package io.github.sinri.keel.integration.mysql;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+
+/**
+ * 单参数构造器到 {@link Function} 的转换工具，用于替代逐次调用 {@link java.lang.reflect.Constructor#newInstance}。
+ * <p>
+ * 优先通过 {@link LambdaMetafactory} 生成直接调用构造器的函数实现，调用开销与手写 lambda 相同；
+ * 目标类所在模块未向本模块开放、无法生成时，退化为持有构造器 {@link MethodHandle} 的函数。
+ * <p>
+ * 生成过程有一定开销，调用方应按类缓存结果（例如使用 {@link ClassValue}）。
+ * 构造器抛出的异常原样传播，不再包装为 {@link java.lang.reflect.InvocationTargetException}。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ConstructorFunctions {
+    private ConstructorFunctions() {
+    }
+
+    /**
+     * 为 {@code clazz} 的 {@code (parameterType)} 构造器生成函数。
+     *
+     * @param clazz         目标类
+     * @param parameterType 构造器参数类型
+     * @param <P>           构造器参数类型
+     * @param <R>           目标类型
+     * @return 以参数调用构造器的函数
+     * @throws RuntimeException 目标类不存在可访问的对应构造器时
+     */
+    @SuppressWarnings("unchecked")
+    public static <P, R> Function<P, R> of(Class<R> clazz, Class<P> parameterType) {
+        MethodHandles.Lookup lookup = lookupFor(clazz);
+        MethodHandle constructor;
+        try {
+            constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class, parameterType));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    constructor,
+                    MethodType.methodType(clazz, parameterType)
+            );
+            return (Function<P, R>) callSite.getTarget().invoke();
+        } catch (LambdaConversionException | RuntimeException e) {
+            return viaMethodHandle(constructor);
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 取得在目标类中具备私有访问权限的查找对象，以便生成的函数与目标类处于同一类加载器与包中；
+     * 目标模块未开放时退化为公共查找对象。
+     */
+    private static MethodHandles.Lookup lookupFor(Class<?> clazz) {
+        Module self = ConstructorFunctions.class.getModule();
+        Module target = clazz.getModule();
+        try {
+            if (!self.canRead(target)) {
+                self.addReads(target);
+            }
+            return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    private static <P, R> Function<P, R> viaMethodHandle(MethodHandle constructor) {
+        MethodHandle handle = constructor.asType(MethodType.methodType(Object.class, Object.class));
+        return parameter -> {
+            try {
+                @SuppressWarnings("unchecked")
+                R r = (R) handle.invokeExact(parameter);
+                return r;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+}
@@ -7,9 +7,11 @@ import io.github.sinri.keel.base.configuration.ConfigPropertiesBuilder;
 import io.github.sinri.keel.base.configuration.NotConfiguredException;
 import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
 import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.net.ClientSSLOptions;
+import io.vertx.core.net.HostAndPort;
 import io.vertx.core.net.JksOptions;
 import io.vertx.core.net.KeyCertOptions;
 import io.vertx.core.net.PemKeyCertOptions;
@@ -23,8 +25,11 @@ import io.vertx.sqlclient.*;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -36,6 +41,16 @@ import java.util.function.Function;
  */
 @NullMarked
 public class KeelMySQLConfiguration extends ConfigElement {
+    /**
+     * 未配置 {@code pipeliningLimit} 时每个连接的流水线上限。
+     * <p>
+     * Vert.x 的 {@link MySQLConnectOptions#DEFAULT_PIPELINING_LIMIT} 为 1，即每个连接同一时刻只有一条命令在途，
+     * 流水线批量执行将退化为逐条执行，因此这里使用更大的默认值。
+     *
+     * @since 5.0.4
+     */
+    public static final int DEFAULT_PIPELINING_LIMIT = 256;
+
     public KeelMySQLConfiguration(ConfigElement base) {
         super(base);
     }
@@ -58,15 +73,22 @@ public class KeelMySQLConfiguration extends ConfigElement {
         builder.add(prefix, "password", "<YOUR_PASSWORD>");
         builder.add(prefix, "schema", "<YOUR_DATABASE>");
         builder.add(prefix, "charset", "utf8mb4");
+        builder.add(prefix, "pipeliningLimit", "256");
         builder.add(prefix, "ssl", "NO");
         builder.add(prefix, "sslMode", "DISABLED");
         builder.add(prefix, "sslCa", "<PATH_TO_CA_CERT_PEM>");
         builder.add(prefix, "sslCert", "<PATH_TO_CLIENT_CERT_PEM>");
         builder.add(prefix, "sslKey", "<PATH_TO_CLIENT_KEY_PEM>");
         builder.add(prefix, "poolMaxSize", "10");
+        builder.add(prefix, "poolMinSize", "0");
         builder.add(prefix, "poolShared", "YES");
         builder.add(prefix, "poolConnectionTimeout", "30");
         builder.add(prefix, "poolIdleTimeout", "300");
+        builder.add(prefix, "preparedStatementCacheMaxSize", "0");
+        builder.add(prefix, "replicas", "");
+        builder.add(prefix, "resultCacheMaxSize", "0");
+        builder.add(prefix, "resultCacheTtl", "60");
+        builder.add(prefix, "resultCacheTables", "");
 
         return builder.writeToString();
     }
@@ -99,6 +121,12 @@ public class KeelMySQLConfiguration extends ConfigElement {
         if (sslOptions != null) {
             mySQLConnectOptions.setSslOptions(sslOptions);
         }
+        mySQLConnectOptions.setPipeliningLimit(getPipeliningLimit());
+        int preparedStatementCacheMaxSize = getPreparedStatementCacheMaxSize();
+        if (preparedStatementCacheMaxSize > 0) {
+            mySQLConnectOptions.setCachePreparedStatements(true)
+                               .setPreparedStatementCacheMaxSize(preparedStatementCacheMaxSize);
+        }
 
         return mySQLConnectOptions;
     }
@@ -360,6 +388,171 @@ public class KeelMySQLConfiguration extends ConfigElement {
         }
     }
 
+    /**
+     * 获取每个连接上可同时发出、尚未收到响应的命令数上限（Vert.x MySQL 客户端的 pipelining limit）。
+     * <p>
+     * {@link io.github.sinri.keel.integration.mysql.connection.target.RunnableStatement#executeThroughPrepare(io.github.sinri.keel.base.async.Keel, List, int)}
+     * 的流水线深度超过该值时，超出的部分在客户端排队。
+     *
+     * @return 流水线上限，未配置或不大于 0 时为 {@link #DEFAULT_PIPELINING_LIMIT}
+     * @since 5.0.4
+     */
+    public int getPipeliningLimit() {
+        try {
+            int limit = readInteger(List.of("pipeliningLimit"));
+            return limit > 0 ? limit : DEFAULT_PIPELINING_LIMIT;
+        } catch (NotConfiguredException e) {
+            return DEFAULT_PIPELINING_LIMIT;
+        }
+    }
+
+    /**
+     * 获取数据源加载时预热的连接数。
+     * <p>
+     * 大于 0 时，{@link io.github.sinri.keel.integration.mysql.provider.KeelMySQLDataSourceProvider} 在加载数据源时
+     * 并行建立该数量的连接（不超过 {@code poolMaxSize}），使首批请求无需承担建连与连接初始化的开销。
+     * Vert.x 连接池不维持最小连接数，预热的连接在空闲超过 {@code poolIdleTimeout} 后仍会被回收。
+     *
+     * @return 预热连接数，未配置时为 0
+     * @since 5.0.4
+     */
+    public int getPoolMinSize() {
+        try {
+            return Math.max(0, readInteger(List.of("poolMinSize")));
+        } catch (NotConfiguredException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 获取每个物理连接可缓存的服务端预编译语句数量上限。
+     * <p>
+     * 大于 0 时，{@link #getConnectOptions()} 启用 Vert.x 客户端自带的预编译语句缓存
+     * （{@code cachePreparedStatements}），缓存由各连接自行持有，随连接关闭而释放；
+     * 未配置或不大于 0 时不启用缓存。
+     * 该值应小于 MySQL {@code max_prepared_stmt_count} 除以连接池大小。
+     *
+     * @return 预编译语句缓存上限，未启用时为 0
+     * @since 5.0.4
+     */
+    public int getPreparedStatementCacheMaxSize() {
+        try {
+            return Math.max(0, readInteger(List.of("preparedStatementCacheMaxSize")));
+        } catch (NotConfiguredException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 获取只读副本的地址列表。
+     * <p>
+     * 配置项 {@code replicas} 为逗号分隔的 {@code host} 或 {@code host:port}，端口缺省时沿用主库端口；
+     * 副本与主库共用用户名、密码、数据库、字符集与 SSL 配置。未配置或为空时不启用读写分离。
+     *
+     * @return 副本地址列表
+     * @since 5.0.4
+     */
+    public List<HostAndPort> getReplicaHosts() {
+        String replicas;
+        try {
+            replicas = readString(List.of("replicas"));
+        } catch (NotConfiguredException e) {
+            return List.of();
+        }
+        List<HostAndPort> hosts = new ArrayList<>();
+        int defaultPort = getPort();
+        for (String item : replicas.split(",")) {
+            String trimmed = item.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            HostAndPort hostAndPort = HostAndPort.parseAuthority(trimmed, defaultPort);
+            if (hostAndPort == null) {
+                throw new IllegalArgumentException("Invalid replica address: " + trimmed);
+            }
+            hosts.add(hostAndPort);
+        }
+        return hosts;
+    }
+
+    /**
+     * 获取查询结果缓存的条目数上限。
+     * <p>
+     * 大于 0 时，数据源为只读语句启用
+     * {@link io.github.sinri.keel.integration.mysql.datasource.ResultCache}；未配置或不大于 0 时不启用。
+     *
+     * @return 结果缓存条目数上限，未启用时为 0
+     * @since 5.0.4
+     */
+    public int getResultCacheMaxSize() {
+        try {
+            return Math.max(0, readInteger(List.of("resultCacheMaxSize")));
+        } catch (NotConfiguredException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 获取查询结果缓存条目的存活时间（秒），未配置时为 60 秒。
+     *
+     * @return 存活时间（秒）
+     * @since 5.0.4
+     */
+    public int getResultCacheTtl() {
+        try {
+            return Math.max(0, readInteger(List.of("resultCacheTtl")));
+        } catch (NotConfiguredException e) {
+            return 60;
+        }
+    }
+
+    /**
+     * 获取允许缓存查询结果的表。
+     * <p>
+     * 配置项 {@code resultCacheTables} 为逗号分隔的表名；非空时，仅引用的表全部在列的只读语句才会被缓存。
+     * 未配置或为空时不按表限制。
+     *
+     * @return 允许缓存的表名（已规范化）
+     * @since 5.0.4
+     */
+    public Set<String> getResultCacheTables() {
+        String tables;
+        try {
+            tables = readString(List.of("resultCacheTables"));
+        } catch (NotConfiguredException e) {
+            return Set.of();
+        }
+        Set<String> set = new HashSet<>();
+        for (String item : tables.split(",")) {
+            String name = AnyStatement.normalizeTableName(item);
+            if (name != null) {
+                set.add(name);
+            }
+        }
+        return Set.copyOf(set);
+    }
+
+    /**
+     * 获取各只读副本的连接选项：以 {@link #getConnectOptions()} 为基础替换主机与端口。
+     *
+     * @return 副本连接选项列表，顺序与 {@link #getReplicaHosts()} 一致
+     * @since 5.0.4
+     */
+    public List<MySQLConnectOptions> getReplicaConnectOptions() {
+        List<HostAndPort> hosts = getReplicaHosts();
+        if (hosts.isEmpty()) {
+            return List.of();
+        }
+        MySQLConnectOptions primaryOptions = getConnectOptions();
+        List<MySQLConnectOptions> list = new ArrayList<>(hosts.size());
+        for (HostAndPort host : hosts) {
+            list.add(new MySQLConnectOptions(primaryOptions)
+                             .setHost(host.host())
+                             .setPort(host.port()));
+        }
+        return list;
+    }
+
     /**
      * 获取数据源名称，用于MySQL客户端池名称
      * 为实际不同的数据源使用不同的名称；
@@ -3,7 +3,9 @@ package io.github.sinri.keel.integration.mysql.action.single;
 import io.github.sinri.keel.integration.mysql.action.mix.AbstractNamedMixinAction;
 import io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection;
 import io.github.sinri.keel.integration.mysql.connection.RunnableStatementFactory;
+import io.github.sinri.keel.integration.mysql.datasource.DataSourceServices;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 /**
  * 命名MySQL动作接口，定义了命名MySQL动作的接口
@@ -28,4 +30,15 @@ public interface NamedActionInterface<C extends NamedMySQLConnection> extends Ru
      * @return 与实现动作关联的命名MySQL连接实例，永不为null
      */
     C getNamedSqlConnection();
+
+    /**
+     * 获取关联连接所属数据源的执行期服务，使动作内创建的执行对象与直接经由连接创建时一致。
+     *
+     * @return 执行期服务；关联连接并非由数据源借出时为 {@code null}
+     * @since 5.0.4
+     */
+    @Override
+    default @Nullable DataSourceServices getDataSourceServices() {
+        return getNamedSqlConnection().getDataSourceServices();
+    }
 }
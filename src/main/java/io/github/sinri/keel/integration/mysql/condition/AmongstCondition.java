@@ -1,6 +1,7 @@
 package io.github.sinri.keel.integration.mysql.condition;
 
 import io.github.sinri.keel.integration.mysql.exception.KeelSQLGenerateError;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.mixin.ReadStatementMixin;
 import io.github.sinri.keel.integration.mysql.statement.quoter.Quoter;
 import org.jspecify.annotations.NullMarked;
@@ -10,6 +11,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 
 /**
@@ -23,10 +25,18 @@ public class AmongstCondition implements MySQLCondition {
     protected final List<String> targetSet;
     protected @Nullable String element;
     protected boolean inverseOperator;
+    /**
+     * 与 {@link #targetSet} 一一对应的参数化渲染方式；为 {@code null} 的项按原文输出。
+     *
+     * @since 5.0.4
+     */
+    private final List<@Nullable Function<SqlParameterBinder, String>> targetRenderers;
+    private SqlParameterBinder.@Nullable BoundValue elementBinding;
 
     public AmongstCondition() {
         this.inverseOperator = false;
         this.targetSet = new ArrayList<>();
+        this.targetRenderers = new ArrayList<>();
     }
 
     public AmongstCondition not() {
@@ -36,16 +46,19 @@ public class AmongstCondition implements MySQLCondition {
 
     public AmongstCondition elementAsExpression(String element) {
         this.element = element;
+        this.elementBinding = null;
         return this;
     }
 
     public AmongstCondition elementAsValue(@Nullable String element) {
         this.element = new Quoter().quoteValue(element);
+        this.elementBinding = new SqlParameterBinder.BoundValue(element);
         return this;
     }
 
     public AmongstCondition elementAsValue(@Nullable Number element) {
         this.element = new Quoter().quoteValue(element);
+        this.elementBinding = new SqlParameterBinder.BoundValue(SqlParameterBinder.normalizeValue(element));
         return this;
     }
 
@@ -66,8 +79,11 @@ public class AmongstCondition implements MySQLCondition {
     protected AmongstCondition amongstLiteralValue(@Nullable Object value) {
         if (value == null) {
             this.targetSet.add("NULL");
+            this.targetRenderers.add(binder -> binder.bind(null));
         } else {
-            this.targetSet.add(new Quoter().quoteLiteral(String.valueOf(value)));
+            String literal = String.valueOf(value);
+            this.targetSet.add(new Quoter().quoteLiteral(literal));
+            this.targetRenderers.add(binder -> binder.bind(literal));
         }
         return this;
     }
@@ -76,18 +92,22 @@ public class AmongstCondition implements MySQLCondition {
     protected AmongstCondition amongstNumericValue(@Nullable Number value) {
         if (value == null) {
             this.targetSet.add("NULL");
+            this.targetRenderers.add(binder -> binder.bind(null));
         } else {
             if (value instanceof BigDecimal) {
                 this.targetSet.add(((BigDecimal) value).toPlainString());
             } else {
                 this.targetSet.add(value.toString());
             }
+            Number numeric = SqlParameterBinder.normalizeNumeric(value);
+            this.targetRenderers.add(binder -> binder.bind(numeric));
         }
         return this;
     }
 
     protected AmongstCondition amongstExpression(String value) {
         this.targetSet.add(Objects.requireNonNull(value));
+        this.targetRenderers.add(null);
         return this;
     }
 
@@ -100,7 +120,9 @@ public class AmongstCondition implements MySQLCondition {
      * @param readStatement A READ Statement, such as SELECT.
      */
     public AmongstCondition amongstReadStatement(ReadStatementMixin<?> readStatement) {
-        return this.amongstExpression(readStatement.toString());
+        this.targetSet.add(readStatement.toString());
+        this.targetRenderers.add(readStatement::buildSql);
+        return this;
     }
 
     /**
@@ -121,4 +143,37 @@ public class AmongstCondition implements MySQLCondition {
         s += " " + OP_IN + " (" + String.join(",", targetSet) + ")";
         return s;
     }
+
+    /**
+     * 以参数化模式生成SQL的比较条件表达式文本，列表中的值输出为 {@code ?} 占位符，子查询按参数化模式渲染。
+     *
+     * @throws KeelSQLGenerateError sql generate error
+     * @since 5.0.4
+     */
+    @Override
+    public String toParameterizedString(SqlParameterBinder binder) {
+        if (targetSet.isEmpty()) {
+            throw new KeelSQLGenerateError("AmongstCondition Target Set Empty");
+        }
+        if (targetRenderers.size() != targetSet.size()) {
+            // 子类直接改写了 targetSet，无法确定各项能否参数化，退回内联形式
+            return toString();
+        }
+
+        StringBuilder s = new StringBuilder();
+        s.append(elementBinding == null ? element : binder.bind(elementBinding.value()));
+        if (inverseOperator) {
+            s.append(" NOT");
+        }
+        s.append(" ").append(OP_IN).append(" (");
+        for (int i = 0; i < targetSet.size(); i++) {
+            if (i > 0) {
+                s.append(",");
+            }
+            var renderer = targetRenderers.get(i);
+            s.append(renderer == null ? targetSet.get(i) : renderer.apply(binder));
+        }
+        s.append(")");
+        return s.toString();
+    }
 }
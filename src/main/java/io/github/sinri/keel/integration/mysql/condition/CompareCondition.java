@@ -1,6 +1,7 @@
 package io.github.sinri.keel.integration.mysql.condition;
 
 import io.github.sinri.keel.integration.mysql.exception.KeelSQLGenerateError;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.quoter.Quoter;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -27,6 +28,13 @@ public class CompareCondition implements MySQLCondition {
     protected @Nullable String operator;
     protected @Nullable String rightSide;
     protected boolean inverseOperator;
+    /**
+     * 左右操作数为值时记录的绑定值，供参数化渲染使用；为 {@code null} 时该侧为表达式，原样输出。
+     *
+     * @since 5.0.4
+     */
+    protected SqlParameterBinder.@Nullable BoundValue leftSideBinding;
+    protected SqlParameterBinder.@Nullable BoundValue rightSideBinding;
 
     public CompareCondition() {
         this.leftSide = null;
@@ -130,6 +138,7 @@ public class CompareCondition implements MySQLCondition {
      */
     public CompareCondition compareExpression(Object leftSide) {
         this.leftSide = leftSide.toString();
+        this.leftSideBinding = null;
         return this;
     }
 
@@ -140,7 +149,9 @@ public class CompareCondition implements MySQLCondition {
      * @return 自身实例
      */
     public CompareCondition compareValue(@Nullable Object leftSide) {
-        this.leftSide = new Quoter().quoteValue(leftSide == null ? null : String.valueOf(leftSide));
+        @Nullable String value = leftSide == null ? null : String.valueOf(leftSide);
+        this.leftSide = new Quoter().quoteValue(value);
+        this.leftSideBinding = new SqlParameterBinder.BoundValue(value);
         return this;
     }
 
@@ -163,6 +174,7 @@ public class CompareCondition implements MySQLCondition {
      */
     public CompareCondition againstExpression(String rightSide) {
         this.rightSide = rightSide;
+        this.rightSideBinding = null;
         return this;
     }
 
@@ -173,7 +185,9 @@ public class CompareCondition implements MySQLCondition {
      * @return 自身实例
      */
     public CompareCondition againstLiteralValue(@Nullable Object rightSide) {
-        this.rightSide = new Quoter().quoteValue(rightSide == null ? null : String.valueOf(rightSide));
+        @Nullable String value = rightSide == null ? null : String.valueOf(rightSide);
+        this.rightSide = new Quoter().quoteValue(value);
+        this.rightSideBinding = new SqlParameterBinder.BoundValue(value);
         return this;
     }
 
@@ -189,6 +203,7 @@ public class CompareCondition implements MySQLCondition {
         } else {
             this.rightSide = rightSide.toString();
         }
+        this.rightSideBinding = new SqlParameterBinder.BoundValue(SqlParameterBinder.normalizeNumeric(rightSide));
         return this;
     }
 
@@ -200,6 +215,7 @@ public class CompareCondition implements MySQLCondition {
     public CompareCondition isNull() {
         this.operator = OP_IS;
         this.rightSide = "NULL";
+        this.rightSideBinding = null;
         return this;
     }
 
@@ -211,6 +227,7 @@ public class CompareCondition implements MySQLCondition {
     public CompareCondition isTrue() {
         this.operator = OP_IS;
         this.rightSide = "TRUE";
+        this.rightSideBinding = null;
         return this;
     }
 
@@ -222,6 +239,7 @@ public class CompareCondition implements MySQLCondition {
     public CompareCondition isFalse() {
         this.operator = OP_IS;
         this.rightSide = "FALSE";
+        this.rightSideBinding = null;
         return this;
     }
 
@@ -233,6 +251,7 @@ public class CompareCondition implements MySQLCondition {
     public CompareCondition isUnknown() {
         this.operator = OP_IS;
         this.rightSide = "UNKNOWN";
+        this.rightSideBinding = null;
         return this;
     }
 
@@ -245,6 +264,7 @@ public class CompareCondition implements MySQLCondition {
     public CompareCondition contains(String rightSide) {
         this.operator = OP_LIKE;
         this.rightSide = new Quoter().quoteLikeContains(rightSide);
+        this.rightSideBinding = new SqlParameterBinder.BoundValue("%" + Quoter.escapeLikeWildcards(rightSide) + "%");
         return this;
     }
 
@@ -257,6 +277,7 @@ public class CompareCondition implements MySQLCondition {
     public CompareCondition hasPrefix(String rightSide) {
         this.operator = OP_LIKE;
         this.rightSide = new Quoter().quoteLikePrefix(rightSide);
+        this.rightSideBinding = new SqlParameterBinder.BoundValue(Quoter.escapeLikeWildcards(rightSide) + "%");
         return this;
     }
 
@@ -269,6 +290,7 @@ public class CompareCondition implements MySQLCondition {
     public CompareCondition hasSuffix(String rightSide) {
         this.operator = OP_LIKE;
         this.rightSide = new Quoter().quoteLikeSuffix(rightSide);
+        this.rightSideBinding = new SqlParameterBinder.BoundValue("%" + Quoter.escapeLikeWildcards(rightSide));
         return this;
     }
 
@@ -323,4 +345,29 @@ public class CompareCondition implements MySQLCondition {
         }
         return x;
     }
+
+    /**
+     * 以参数化模式生成SQL的条件表达式文本，作为值设置的操作数输出为 {@code ?} 占位符。
+     *
+     * @since 5.0.4
+     */
+    @Override
+    public String toParameterizedString(SqlParameterBinder binder) {
+        if (leftSide == null) {
+            throw new KeelSQLGenerateError("CompareCondition leftSide is not set");
+        }
+        if (operator == null) {
+            throw new KeelSQLGenerateError("CompareCondition operator is not set");
+        }
+        if (rightSide == null) {
+            throw new KeelSQLGenerateError("CompareCondition rightSide is not set");
+        }
+        String left = leftSideBinding == null ? leftSide : binder.bind(leftSideBinding.value());
+        String right = rightSideBinding == null ? rightSide : binder.bind(rightSideBinding.value());
+        String x = left + " " + operator + " " + right;
+        if (inverseOperator) {
+            x = "NOT (" + x + ")";
+        }
+        return x;
+    }
 }
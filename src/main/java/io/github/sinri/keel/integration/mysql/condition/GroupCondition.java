@@ -1,6 +1,7 @@
 package io.github.sinri.keel.integration.mysql.condition;
 
 import io.github.sinri.keel.integration.mysql.exception.KeelSQLGenerateError;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import org.jspecify.annotations.NullMarked;
 
 import java.util.ArrayList;
@@ -57,4 +58,25 @@ public class GroupCondition implements MySQLCondition {
         }
         return "(" + x + ")";
     }
+
+    /**
+     * 以参数化模式生成SQL的组合逻辑条件表达式文本，各子条件按参数化模式渲染。
+     *
+     * @throws KeelSQLGenerateError sql generate error
+     * @since 5.0.4
+     */
+    @Override
+    public String toParameterizedString(SqlParameterBinder binder) {
+        if (conditions.isEmpty()) {
+            return "";
+        }
+        StringBuilder x = new StringBuilder();
+        for (MySQLCondition condition : conditions) {
+            if (!x.isEmpty()) {
+                x.append(" ").append(junction).append(" ");
+            }
+            x.append(condition.toParameterizedString(binder));
+        }
+        return "(" + x + ")";
+    }
 }
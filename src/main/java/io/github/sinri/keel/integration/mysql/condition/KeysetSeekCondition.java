@@ -0,0 +1,90 @@
+package io.github.sinri.keel.integration.mysql.condition;
+
+import io.github.sinri.keel.integration.mysql.exception.KeelSQLGenerateError;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
+import io.github.sinri.keel.integration.mysql.statement.quoter.Quoter;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集（seek）分页条件类，用于生成"排在给定排序键之后"的SQL条件表达式。
+ * <p>
+ * 各排序键方向一致时生成行构造器比较，如 {@code (k1,k2) > (v1,v2)}，降序时使用 {@code <}；
+ * 方向混合时展开为等价的嵌套形式 {@code (k1 > v1 OR (k1 = v1 AND k2 < v2))}。
+ * 排序键的值不能为 {@code NULL}。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public class KeysetSeekCondition implements MySQLCondition {
+    private final List<String> expressions = new ArrayList<>();
+    private final List<Boolean> descendingFlags = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    /**
+     * 追加一个排序键
+     *
+     * @param expression 排序键表达式（不会被引用）
+     * @param descending 是否按降序排序
+     * @param value      上一页最后一行的排序键值（会被引用）
+     * @return 自身实例
+     */
+    public KeysetSeekCondition after(String expression, boolean descending, Object value) {
+        this.expressions.add(expression);
+        this.descendingFlags.add(descending);
+        this.values.add(value);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        Quoter quoter = new Quoter();
+        return render(quoter::quoteValue);
+    }
+
+    /**
+     * 以参数化模式生成SQL的条件表达式文本，排序键值输出为 {@code ?} 占位符。
+     */
+    @Override
+    public String toParameterizedString(SqlParameterBinder binder) {
+        return render(value -> binder.bind(SqlParameterBinder.normalizeValue(value)));
+    }
+
+    private String render(Function<Object, String> valueRenderer) {
+        if (expressions.isEmpty()) {
+            throw new KeelSQLGenerateError("KeysetSeekCondition has no sort key");
+        }
+        boolean firstDescending = descendingFlags.get(0);
+        boolean uniformDirection = descendingFlags.stream().allMatch(d -> d == firstDescending);
+        if (uniformDirection) {
+            String operator = firstDescending ? CompareCondition.OP_LT : CompareCondition.OP_GT;
+            if (expressions.size() == 1) {
+                return expressions.get(0) + " " + operator + " " + valueRenderer.apply(values.get(0));
+            }
+            StringBuilder renderedValues = new StringBuilder();
+            for (Object value : values) {
+                if (!renderedValues.isEmpty()) {
+                    renderedValues.append(",");
+                }
+                renderedValues.append(valueRenderer.apply(value));
+            }
+            return "(" + String.join(",", expressions) + ") " + operator + " (" + renderedValues + ")";
+        }
+        return renderNested(0, valueRenderer);
+    }
+
+    private String renderNested(int index, Function<Object, String> valueRenderer) {
+        String expression = expressions.get(index);
+        String operator = descendingFlags.get(index) ? CompareCondition.OP_LT : CompareCondition.OP_GT;
+        String x = expression + " " + operator + " " + valueRenderer.apply(values.get(index));
+        if (index == expressions.size() - 1) {
+            return x;
+        }
+        return "(" + x + " OR (" + expression + " " + CompareCondition.OP_EQ + " " + valueRenderer.apply(values.get(index))
+                + " AND " + renderNested(index + 1, valueRenderer) + "))";
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.sinri.keel.integration.mysql.condition;
 
 
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import org.jspecify.annotations.NullMarked;
 
 /**
@@ -20,4 +21,17 @@ public interface MySQLCondition {
      * @return 生成的SQL条件表达式字符串
      */
     String toString();
+
+    /**
+     * 以参数化模式生成SQL的条件表达式文本，可绑定的值登记到 {@code binder} 并以 {@code ?} 占位符输出。
+     * <p>
+     * 默认实现不做参数化，直接返回 {@link #toString()}。
+     *
+     * @param binder 参数收集器
+     * @return 带占位符的SQL条件表达式字符串
+     * @since 5.0.4
+     */
+    default String toParameterizedString(SqlParameterBinder binder) {
+        return toString();
+    }
 }
\ No newline at end of file
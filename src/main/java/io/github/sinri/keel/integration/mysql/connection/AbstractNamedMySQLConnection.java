@@ -1,5 +1,13 @@
 package io.github.sinri.keel.integration.mysql.connection;
 
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForModify;
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForReadAndPagination;
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForWrite;
+import io.github.sinri.keel.integration.mysql.datasource.DataSourceServices;
+import io.github.sinri.keel.integration.mysql.statement.impl.BulkUpdateStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.WriteIntoStatement;
+import io.vertx.core.Handler;
 import io.vertx.sqlclient.SqlConnection;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -10,6 +18,8 @@ public abstract non-sealed class AbstractNamedMySQLConnection implements NamedMy
     private @Nullable String mysqlVersion;
     private @Nullable String mysqlSqlMode;
     private @Nullable String mysqlCharacterSetConnection;
+    private @Nullable Long mysqlMaxAllowedPacket;
+    private @Nullable DataSourceServices dataSourceServices;
 
     /**
      * 构造命名MySQL连接
@@ -67,4 +77,85 @@ public abstract non-sealed class AbstractNamedMySQLConnection implements NamedMy
         this.mysqlCharacterSetConnection = mysqlCharacterSetConnection;
     }
 
+    @Override
+    public final @Nullable Long getMysqlMaxAllowedPacket() {
+        return mysqlMaxAllowedPacket;
+    }
+
+    @Override
+    public final void setMysqlMaxAllowedPacket(@Nullable Long mysqlMaxAllowedPacket) {
+        this.mysqlMaxAllowedPacket = mysqlMaxAllowedPacket;
+    }
+
+    @Override
+    public final @Nullable DataSourceServices getDataSourceServices() {
+        return dataSourceServices;
+    }
+
+    @Override
+    public final void setDataSourceServices(@Nullable DataSourceServices dataSourceServices) {
+        this.dataSourceServices = dataSourceServices;
+    }
+
+    /**
+     * 创建SELECT语句，按已知的服务器版本设置是否可用窗口函数分页，并以数据源名称作为分页总数缓存的命名空间。
+     *
+     * @param statementHandler SELECT语句处理器
+     * @return SELECT语句对象
+     */
+    @Override
+    public RunnableStatementForReadAndPagination pagination(Handler<SelectStatement> statementHandler) {
+        return NamedMySQLConnection.super.pagination(statementHandler)
+                                         .setWindowFunctionAvailable(isWindowFunctionSupported())
+                                         .setTotalCountCacheNamespace(getDataSourceName());
+    }
+
+    /**
+     * 创建SELECT语句，按已知的服务器版本设置是否可用窗口函数分页，并以数据源名称作为分页总数缓存的命名空间。
+     *
+     * @param statementHandler SELECT语句处理器
+     * @return SELECT语句对象
+     */
+    @Override
+    public RunnableStatementForReadAndPagination select(Handler<SelectStatement> statementHandler) {
+        return NamedMySQLConnection.super.select(statementHandler)
+                                         .setWindowFunctionAvailable(isWindowFunctionSupported())
+                                         .setTotalCountCacheNamespace(getDataSourceName());
+    }
+
+    /**
+     * 创建INSERT语句，并附上已知的服务端 {@code max_allowed_packet} 供分块执行使用。
+     *
+     * @param statementHandler INSERT语句处理器
+     * @return INSERT语句对象
+     */
+    @Override
+    public RunnableStatementForWrite insert(Handler<WriteIntoStatement> statementHandler) {
+        return NamedMySQLConnection.super.insert(statementHandler)
+                                         .setMaxAllowedPacket(getMysqlMaxAllowedPacket());
+    }
+
+    /**
+     * 创建REPLACE语句，并附上已知的服务端 {@code max_allowed_packet} 供分块执行使用。
+     *
+     * @param statementHandler REPLACE语句处理器
+     * @return REPLACE语句对象
+     */
+    @Override
+    public RunnableStatementForWrite replace(Handler<WriteIntoStatement> statementHandler) {
+        return NamedMySQLConnection.super.replace(statementHandler)
+                                         .setMaxAllowedPacket(getMysqlMaxAllowedPacket());
+    }
+
+    /**
+     * 创建按键批量更新语句，并附上已知的服务端 {@code max_allowed_packet} 供分块执行使用。
+     *
+     * @param bulkUpdateStatementHandler 批量更新语句处理器
+     * @return 批量更新语句对象
+     */
+    @Override
+    public RunnableStatementForModify bulkUpdate(Handler<BulkUpdateStatement> bulkUpdateStatementHandler) {
+        return NamedMySQLConnection.super.bulkUpdate(bulkUpdateStatementHandler)
+                                         .setMaxAllowedPacket(getMysqlMaxAllowedPacket());
+    }
 }
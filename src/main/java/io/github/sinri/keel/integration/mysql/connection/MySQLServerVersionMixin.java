@@ -60,6 +60,32 @@ interface MySQLServerVersionMixin {
      */
     void setMysqlCharacterSetConnection(@Nullable String mysqlCharacterSetConnection);
 
+    /**
+     * 获取 MySQL 服务端的 {@code max_allowed_packet}（字节）。
+     * <p>
+     * 该值来源于连接初始化时查询的 {@code @@max_allowed_packet}。
+     *
+     * <p>
+     * 默认实现不记录该值，始终返回 {@code null}，此时写入不按数据包尺寸分块。
+     *
+     * @return 单个数据包的最大字节数，若不可用则返回 {@code null}
+     * @since 5.0.4
+     */
+    default @Nullable Long getMysqlMaxAllowedPacket() {
+        return null;
+    }
+
+    /**
+     * 设置 MySQL 服务端的 {@code max_allowed_packet}（字节）。
+     * <p>
+     * 默认实现忽略该值。
+     *
+     * @param mysqlMaxAllowedPacket 单个数据包的最大字节数
+     * @since 5.0.4
+     */
+    default void setMysqlMaxAllowedPacket(@Nullable Long mysqlMaxAllowedPacket) {
+    }
+
     /**
      * 获取适用于当前 MySQL 会话的字符串字面量转义上下文。
      *
@@ -183,4 +209,23 @@ interface MySQLServerVersionMixin {
         MajorMinorVersion parsed = parseMajorMinor();
         return parsed.major() == 8 && parsed.minor() == 2;
     }
+
+    /**
+     * 判断服务器是否支持窗口函数（如 {@code COUNT(*) OVER()}），即版本不低于 MySQL 8.0。
+     * <p>
+     * 版本信息不可用或无法解析时返回 {@code false}。
+     *
+     * @return 是否支持窗口函数
+     * @since 5.0.4
+     */
+    default boolean isWindowFunctionSupported() {
+        if (getMysqlVersion() == null) {
+            return false;
+        }
+        try {
+            return isMySQLVersionAtLeast(8, 0);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 }
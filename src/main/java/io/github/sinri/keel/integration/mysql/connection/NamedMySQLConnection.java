@@ -1,5 +1,6 @@
 package io.github.sinri.keel.integration.mysql.connection;
 
+import io.github.sinri.keel.integration.mysql.datasource.DataSourceServices;
 import io.vertx.core.Future;
 import io.vertx.sqlclient.Transaction;
 import org.jspecify.annotations.NullMarked;
@@ -25,6 +26,14 @@ public sealed interface NamedMySQLConnection
      */
     String getDataSourceName();
 
+    /**
+     * 设置借出本连接的数据源提供的执行期服务，由数据源在借出连接时调用。
+     *
+     * @param dataSourceServices 执行期服务
+     * @since 5.0.4
+     */
+    void setDataSourceServices(@Nullable DataSourceServices dataSourceServices);
+
     /**
      * 判断是否用于事务
      *
@@ -33,8 +33,8 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
      * @return 可执行的 SQL 语句对象
      */
     default RunnableStatement rawForPreparedQuery(String sql) {
-        return new RawStatement(sql)
-                .attachToConnection(getSqlConnection());
+        return bind(new RawStatement(sql)
+                .attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -64,7 +64,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatementForReadAndPagination pagination(Handler<SelectStatement> statementHandler) {
         SelectStatement selectStatement = new SelectStatement();
         statementHandler.handle(selectStatement);
-        return selectStatement.attachToConnection(getSqlConnection());
+        return bind(selectStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -76,7 +76,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatementForReadAndPagination select(Handler<SelectStatement> statementHandler) {
         SelectStatement selectStatement = new SelectStatement();
         statementHandler.handle(selectStatement);
-        return selectStatement.attachToConnection(getSqlConnection());
+        return bind(selectStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -88,7 +88,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatementForRead union(Handler<UnionStatement> unionStatementHandler) {
         UnionStatement unionStatement = new UnionStatement();
         unionStatementHandler.handle(unionStatement);
-        return unionStatement.attachToConnection(getSqlConnection());
+        return bind(unionStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -100,7 +100,20 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatementForModify update(Handler<UpdateStatement> updateStatementHandler) {
         UpdateStatement updateStatement = new UpdateStatement();
         updateStatementHandler.handle(updateStatement);
-        return updateStatement.attachToConnection(getSqlConnection());
+        return bind(updateStatement.attachToConnection(getSqlConnection()));
+    }
+
+    /**
+     * 创建按键批量更新语句，将多条按键更新单行的 UPDATE 合并为一条。
+     *
+     * @param bulkUpdateStatementHandler 批量更新语句处理器
+     * @return 批量更新语句对象；数据量较大时以 {@link RunnableStatementForModify#executeInChunks()} 分块执行
+     * @since 5.0.4
+     */
+    default RunnableStatementForModify bulkUpdate(Handler<BulkUpdateStatement> bulkUpdateStatementHandler) {
+        BulkUpdateStatement bulkUpdateStatement = new BulkUpdateStatement();
+        bulkUpdateStatementHandler.handle(bulkUpdateStatement);
+        return bind(bulkUpdateStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -112,7 +125,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatementForModify delete(Handler<DeleteStatement> deleteStatementHandler) {
         DeleteStatement deleteStatement = new DeleteStatement();
         deleteStatementHandler.handle(deleteStatement);
-        return deleteStatement.attachToConnection(getSqlConnection());
+        return bind(deleteStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -124,7 +137,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatementForWrite insert(Handler<WriteIntoStatement> statementHandler) {
         WriteIntoStatement writeIntoStatement = new WriteIntoStatement(WriteIntoStatement.INSERT);
         statementHandler.handle(writeIntoStatement);
-        return writeIntoStatement.attachToConnection(getSqlConnection());
+        return bind(writeIntoStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -136,7 +149,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatementForWrite replace(Handler<WriteIntoStatement> statementHandler) {
         WriteIntoStatement writeIntoStatement = new WriteIntoStatement(WriteIntoStatement.REPLACE);
         statementHandler.handle(writeIntoStatement);
-        return writeIntoStatement.attachToConnection(getSqlConnection());
+        return bind(writeIntoStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -148,7 +161,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement call(Handler<CallStatement> statementHandler) {
         CallStatement callStatement = new CallStatement();
         statementHandler.handle(callStatement);
-        return callStatement.attachToConnection(getSqlConnection());
+        return bind(callStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -160,7 +173,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement truncateTable(Handler<TruncateTableStatement> statementHandler) {
         TruncateTableStatement truncateTableStatement = new TruncateTableStatement();
         statementHandler.handle(truncateTableStatement);
-        return truncateTableStatement.attachToConnection(getSqlConnection());
+        return bind(truncateTableStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -172,7 +185,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement createTable(Handler<CreateTableStatement> statementHandler) {
         CreateTableStatement createTableStatement = new CreateTableStatement();
         statementHandler.handle(createTableStatement);
-        return createTableStatement.attachToConnection(getSqlConnection());
+        return bind(createTableStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -184,7 +197,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement createTableLikeTable(Handler<CreateTableLikeTableStatement> statementHandler) {
         CreateTableLikeTableStatement createTableStatement = new CreateTableLikeTableStatement();
         statementHandler.handle(createTableStatement);
-        return createTableStatement.attachToConnection(getSqlConnection());
+        return bind(createTableStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -196,7 +209,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement alterTable(Handler<AlterTableStatement> statementHandler) {
         AlterTableStatement alterTableStatement = new AlterTableStatement();
         statementHandler.handle(alterTableStatement);
-        return alterTableStatement.attachToConnection(getSqlConnection());
+        return bind(alterTableStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -208,7 +221,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement createView(Handler<CreateViewStatement> statementHandler) {
         CreateViewStatement createViewStatement = new CreateViewStatement();
         statementHandler.handle(createViewStatement);
-        return createViewStatement.attachToConnection(getSqlConnection());
+        return bind(createViewStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -220,7 +233,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement alterView(Handler<AlterViewStatement> statementHandler) {
         AlterViewStatement alterViewStatement = new AlterViewStatement();
         statementHandler.handle(alterViewStatement);
-        return alterViewStatement.attachToConnection(getSqlConnection());
+        return bind(alterViewStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -232,7 +245,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
     default RunnableStatement dropView(Handler<DropViewStatement> statementHandler) {
         DropViewStatement dropViewStatement = new DropViewStatement();
         statementHandler.handle(dropViewStatement);
-        return dropViewStatement.attachToConnection(getSqlConnection());
+        return bind(dropViewStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -246,7 +259,7 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
         TemplatedReadStatement readStatement = TemplatedStatement.loadTemplateToRead(path);
         TemplateArgumentMapping arguments = readStatement.getArguments();
         templatedReadStatementHandler.handle(arguments);
-        return readStatement.attachToConnection(getSqlConnection());
+        return bind(readStatement.attachToConnection(getSqlConnection()));
     }
 
     /**
@@ -260,7 +273,14 @@ public interface RunnableStatementFactory extends SqlConnectionHolder {
         TemplatedModifyStatement templatedModifyStatement = TemplatedStatement.loadTemplateToModify(path);
         TemplateArgumentMapping arguments = templatedModifyStatement.getArguments();
         templatedModifyStatementHandler.handle(arguments);
-        return templatedModifyStatement.attachToConnection(getSqlConnection());
+        return bind(templatedModifyStatement.attachToConnection(getSqlConnection()));
     }
 
+    /**
+     * 使执行对象持有本连接所属数据源的执行期服务。
+     */
+    private <R extends AnyStatementWithSqlConnection> R bind(R runnable) {
+        runnable.setDataSourceServices(getDataSourceServices());
+        return runnable;
+    }
 }
@@ -1,9 +1,21 @@
 package io.github.sinri.keel.integration.mysql.connection;
 
+import io.github.sinri.keel.integration.mysql.datasource.DataSourceServices;
 import io.vertx.sqlclient.SqlConnection;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 @NullMarked
 interface SqlConnectionHolder {
     SqlConnection getSqlConnection();
+
+    /**
+     * 获取借出本连接的数据源提供的执行期服务，经由本对象创建的执行对象随之持有。
+     *
+     * @return 执行期服务；连接并非由数据源借出时为 {@code null}
+     * @since 5.0.4
+     */
+    default @Nullable DataSourceServices getDataSourceServices() {
+        return null;
+    }
 }
@@ -1,5 +1,7 @@
 package io.github.sinri.keel.integration.mysql.connection.target;
 
+import io.github.sinri.keel.integration.mysql.ConstructorFunctions;
+import io.github.sinri.keel.integration.mysql.datasource.DataSourceServices;
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
 import io.github.sinri.keel.integration.mysql.statement.MySQLAuditSpecificLog;
 import io.github.sinri.keel.integration.mysql.statement.StatementAuditorHolder;
@@ -7,14 +9,25 @@ import io.github.sinri.keel.logger.api.LateObject;
 import io.github.sinri.keel.logger.api.logger.SpecificLogger;
 import io.vertx.sqlclient.SqlConnection;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.util.UUID;
+import java.util.function.Function;
 
 @NullMarked
 public class AnyStatementWithSqlConnection {
+    private static final ClassValue<Function<AnyStatement<?>, ?>> FACTORIES = new ClassValue<>() {
+        @SuppressWarnings("unchecked")
+        @Override
+        protected Function<AnyStatement<?>, ?> computeValue(Class<?> type) {
+            return ConstructorFunctions.of(type, (Class<AnyStatement<?>>) (Class<?>) AnyStatement.class);
+        }
+    };
+
     private final AnyStatement<?> statement;
     private final LateObject<SqlConnection> lateConnection;
     private final String uuid;
+    private @Nullable DataSourceServices dataSourceServices;
 
     public AnyStatementWithSqlConnection(AnyStatement<?> statement) {
         this.statement = statement;
@@ -22,6 +35,19 @@ public class AnyStatementWithSqlConnection {
         this.lateConnection = new LateObject<>();
     }
 
+    /**
+     * 获取指定执行对象类的工厂函数，以 {@code (AnyStatement)} 构造器创建实例；按类生成一次并缓存，调用时不经过反射。
+     *
+     * @param clazz 执行对象类
+     * @param <R>   执行对象类型
+     * @return 工厂函数
+     * @since 5.0.4
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends AnyStatementWithSqlConnection> Function<AnyStatement<?>, R> factory(Class<R> clazz) {
+        return (Function<AnyStatement<?>, R>) FACTORIES.get(clazz);
+    }
+
     protected final SqlConnection getSqlConnection() {
         return lateConnection.get();
     }
@@ -30,6 +56,26 @@ public class AnyStatementWithSqlConnection {
         lateConnection.set(connection);
     }
 
+    /**
+     * @return 所附着连接的数据源提供的执行期服务；直接以 {@link SqlConnection} 附着时为 {@code null}
+     * @since 5.0.4
+     */
+    protected final @Nullable DataSourceServices getDataSourceServices() {
+        return dataSourceServices;
+    }
+
+    /**
+     * 设置所附着连接的数据源提供的执行期服务（副本路由、只读合并与结果缓存）。
+     * <p>
+     * 经由 {@link io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection} 创建执行对象时自动设置。
+     *
+     * @param dataSourceServices 执行期服务
+     * @since 5.0.4
+     */
+    public final void setDataSourceServices(@Nullable DataSourceServices dataSourceServices) {
+        this.dataSourceServices = dataSourceServices;
+    }
+
     protected final AnyStatement<?> getStatement() {
         return statement;
     }
@@ -2,15 +2,22 @@ package io.github.sinri.keel.integration.mysql.connection.target;
 
 import io.github.sinri.keel.base.annotations.TechnicalPreview;
 import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.integration.mysql.datasource.DataSourceServices;
+import io.github.sinri.keel.integration.mysql.datasource.PreparedStatementCache;
+import io.github.sinri.keel.integration.mysql.datasource.ResultCache;
 import io.github.sinri.keel.integration.mysql.result.StatementExecuteResult;
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.ParameterizedSql;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.sqlclient.*;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -22,9 +29,50 @@ import java.util.function.Function;
  */
 @NullMarked
 public class RunnableStatement extends AnyStatementWithSqlConnection {
+    private static volatile boolean defaultParameterBindingEnabled = false;
+    private boolean parameterBindingEnabled;
 
     public RunnableStatement(AnyStatement<?> statement) {
         super(statement);
+        this.parameterBindingEnabled = defaultParameterBindingEnabled;
+    }
+
+    /**
+     * 返回新建可执行语句时是否默认启用参数化渲染。
+     *
+     * @since 5.0.4
+     */
+    public static boolean isDefaultParameterBindingEnabled() {
+        return defaultParameterBindingEnabled;
+    }
+
+    /**
+     * 设置新建可执行语句时是否默认启用参数化渲染；已创建实例不受影响。
+     *
+     * @param enabled 是否启用
+     * @since 5.0.4
+     */
+    public static void setDefaultParameterBindingEnabled(boolean enabled) {
+        defaultParameterBindingEnabled = enabled;
+    }
+
+    /**
+     * @return 本实例的 {@link #execute()} 是否以参数化渲染执行
+     * @since 5.0.4
+     */
+    public final boolean isParameterBindingEnabled() {
+        return parameterBindingEnabled;
+    }
+
+    /**
+     * 设置本实例的 {@link #execute()} 是否以参数化渲染执行；
+     * 基于 {@link #execute()} 的各个结果处理方法（如 {@code executeForResultMatrix()}）随之生效。
+     *
+     * @param enabled 是否启用
+     * @since 5.0.4
+     */
+    public final void setParameterBindingEnabled(boolean enabled) {
+        this.parameterBindingEnabled = enabled;
     }
 
     /**
@@ -32,13 +80,32 @@ public class RunnableStatement extends AnyStatementWithSqlConnection {
      * <p>
      * 默认使用预编译路径执行，但不自动绑定参数。若 SQL 中包含 {@code ?} 占位符，
      * 请调用 {@link #executeThroughPrepare(Tuple)} 并传入对应参数。
+     * <p>
+     * 启用参数化渲染（见 {@link #setParameterBindingEnabled(boolean)}）时，等同于 {@link #executeWithParameterBinding()}。
      *
      * @return 语句执行结果
      */
     public Future<StatementExecuteResult> execute() {
+        if (parameterBindingEnabled) {
+            return executeWithParameterBinding();
+        }
         return executeThroughPrepare();
     }
 
+    /**
+     * 以参数化渲染执行当前语句。
+     * <p>
+     * 语句中的值以 {@code ?} 占位符输出并以 {@link Tuple} 绑定，同一形状的语句得到相同的 SQL 文本，
+     * 从而可以复用服务端的预编译语句。未支持参数化的语句按内联形式、无参数执行。
+     *
+     * @return 语句执行结果
+     * @since 5.0.4
+     */
+    public Future<StatementExecuteResult> executeWithParameterBinding() {
+        ParameterizedSql parameterizedSql = getStatement().buildParameterizedSql();
+        return executePrepared(parameterizedSql.sql(), parameterizedSql.tuple());
+    }
+
     /**
      * 通过普通查询协议执行当前语句。
      * <p>
@@ -50,7 +117,7 @@ public class RunnableStatement extends AnyStatementWithSqlConnection {
     public Future<StatementExecuteResult> executeThroughQuery() {
         String sql = getStatement().buildSql();
         getSqlAuditLogger().info(r -> r.setQuery(getUuid(), sql));
-        return getSqlConnection().query(sql).execute().compose(rows -> {
+        return executeOnConnection(sql, null, sqlConnection -> sqlConnection.query(sql).execute()).compose(rows -> {
                     StatementExecuteResult result = new StatementExecuteResult(rows);
                     getSqlAuditLogger().info(r -> r.setForDone(
                             getUuid(),
@@ -71,21 +138,32 @@ public class RunnableStatement extends AnyStatementWithSqlConnection {
      * 通过预编译路径执行当前语句，并可绑定 {@code ?} 占位符参数。
      * <p>
      * 当 {@code tuple} 为 {@code null} 或空时，将按无参数预编译语句执行。
+     * 数据源配置了 {@code preparedStatementCacheMaxSize} 时，同一连接上相同的 SQL 文本复用已缓存的预编译语句。
      *
      * @param tuple 绑定到 SQL 中 {@code ?} 占位符的参数
      * @return 语句执行结果
      * @since 5.0.4
      */
     public Future<StatementExecuteResult> executeThroughPrepare(@Nullable Tuple tuple) {
-        String sql = getStatement().buildSql();
+        return executePrepared(getStatement().buildSql(), tuple);
+    }
+
+    private Future<StatementExecuteResult> executePrepared(String sql, @Nullable Tuple tuple) {
         getSqlAuditLogger().info(r -> r.setPreparation(getUuid(), sql));
-        PreparedQuery<RowSet<Row>> rowSetPreparedQuery = getSqlConnection().preparedQuery(sql);
         return Future.succeededFuture().compose(v -> {
-            if (tuple == null || tuple.size() == 0) {
-                return rowSetPreparedQuery.execute();
-            } else {
-                return rowSetPreparedQuery.execute(tuple);
-            }
+            return executeOnConnection(
+                    sql,
+                    tuple == null ? Tuple.tuple() : tuple,
+                    sqlConnection -> {
+                        recordPreparedStatementUse(sqlConnection, sql);
+                        PreparedQuery<RowSet<Row>> rowSetPreparedQuery = sqlConnection.preparedQuery(sql);
+                        if (tuple == null || tuple.size() == 0) {
+                            return rowSetPreparedQuery.execute();
+                        } else {
+                            return rowSetPreparedQuery.execute(tuple);
+                        }
+                    }
+            );
         }).compose(rows -> {
             StatementExecuteResult result = new StatementExecuteResult(rows);
             getSqlAuditLogger().info(r -> r.setForDone(
@@ -102,6 +180,46 @@ public class RunnableStatement extends AnyStatementWithSqlConnection {
         });
     }
 
+    /**
+     * 选择执行单条语句所用的连接并在其上执行 {@code action}；默认使用本语句所附着的连接。
+     * <p>
+     * 子类可覆盖以将语句路由到其他连接，例如只读语句路由到副本。
+     *
+     * @param sql    待执行的 SQL 文本
+     * @param tuple  绑定参数；通过普通查询协议执行时为 {@code null}，预编译执行时不为 {@code null}（无参数时为空元组）
+     * @param action 在选定连接上执行的异步操作
+     * @param <T>    操作结果类型
+     * @return 操作结果
+     * @since 5.0.4
+     */
+    protected <T> Future<T> executeOnConnection(
+            String sql,
+            @Nullable Tuple tuple,
+            Function<SqlConnection, Future<T>> action
+    ) {
+        SqlConnection sqlConnection = getSqlConnection();
+        return action.apply(sqlConnection)
+                     .andThen(ar -> onExecuted(sqlConnection, sql));
+    }
+
+    /**
+     * 语句在所附着的连接上执行结束后调用，无论成功与否；默认通知所附着连接的数据源的 {@link ResultCache}，使被写入的表的缓存结果失效。
+     * <p>
+     * 执行失败时语句可能已部分生效（如多行写入中途出错、分块或管道化执行中的部分批次已提交、连接在收到响应前中断），
+     * 因此同样使缓存失效。
+     *
+     * @param sqlConnection 执行语句的连接
+     * @param sql           已执行的 SQL 文本
+     * @since 5.0.4
+     */
+    protected void onExecuted(SqlConnection sqlConnection, String sql) {
+        DataSourceServices services = getDataSourceServices();
+        ResultCache resultCache = services == null ? null : services.resultCache();
+        if (resultCache != null) {
+            resultCache.onStatementExecuted(sqlConnection, sql, getStatement().getReferencedTables());
+        }
+    }
+
     /**
      * 通过无参数预编译路径执行当前语句。
      * <p>
@@ -113,18 +231,53 @@ public class RunnableStatement extends AnyStatementWithSqlConnection {
         return executeThroughPrepare(null);
     }
 
+    /**
+     * 在所附着的连接上以同一 SQL 文本的预编译查询执行 {@code function}，供批量与流水线执行复用。
+     * <p>
+     * 连接来自启用了预编译语句缓存的数据源时，经 {@link SqlConnection#preparedQuery(String)} 执行，
+     * 由客户端缓存复用已预编译的语句，不再逐次预编译与关闭；否则预编译一次，结束后关闭。
+     *
+     * @param keel     异步调度对象
+     * @param sql      SQL 文本
+     * @param function 使用预编译查询的异步操作
+     * @param <R>      操作结果类型
+     * @return 操作结果
+     */
     @TechnicalPreview(since = "5.0.4")
-    protected <R> Future<R> executeWithPreparedStatement(Keel keel, String sql, Function<PreparedStatement, Future<R>> function) {
-        return getSqlConnection().prepare(sql).compose(preparedStatement -> {
-            return function.apply(preparedStatement).eventually(preparedStatement::close);
-        });
+    protected <R> Future<R> executeWithPreparedStatement(Keel keel, String sql, Function<PreparedQuery<RowSet<Row>>, Future<R>> function) {
+        SqlConnection sqlConnection = getSqlConnection();
+        Future<R> future;
+        if (recordPreparedStatementUse(sqlConnection, sql)) {
+            future = Future.succeededFuture().compose(v -> function.apply(sqlConnection.preparedQuery(sql)));
+        } else {
+            future = sqlConnection.prepare(sql)
+                                  .compose(preparedStatement -> {
+                                      return function.apply(preparedStatement.query()).eventually(preparedStatement::close);
+                                  });
+        }
+        return future.andThen(ar -> onExecuted(sqlConnection, sql));
+    }
+
+    /**
+     * 若所附着连接的数据源启用了预编译语句缓存，在其 {@link PreparedStatementCache} 上记录一次使用。
+     *
+     * @return 数据源是否启用了预编译语句缓存
+     */
+    private boolean recordPreparedStatementUse(SqlConnection sqlConnection, String sql) {
+        DataSourceServices services = getDataSourceServices();
+        PreparedStatementCache preparedStatementCache = services == null ? null : services.preparedStatementCache();
+        if (preparedStatementCache == null) {
+            return false;
+        }
+        preparedStatementCache.record(sqlConnection, sql);
+        return true;
     }
 
     /**
      * 复用同一个预编译语句，按顺序执行多组 {@code Tuple} 参数。
      * <p>
      * 此方法适用于同一 SQL 模板的批量参数绑定场景；每组参数会产生一个
-     * {@link StatementExecuteResult}。
+     * {@link StatementExecuteResult}。数据源启用了预编译语句缓存时，批量执行同样复用已缓存的预编译语句。
      *
      * @param keel      异步调度对象
      * @param tupleList 参数组列表
@@ -135,9 +288,9 @@ public class RunnableStatement extends AnyStatementWithSqlConnection {
         String sql = getStatement().buildSql();
         getSqlAuditLogger().info(r -> r.setPreparation(getUuid(), sql));
         List<StatementExecuteResult> results = new ArrayList<>();
-        return executeWithPreparedStatement(keel, sql, preparedStatement -> {
+        return executeWithPreparedStatement(keel, sql, preparedQuery -> {
             return keel.asyncCallIteratively(tupleList, tuple -> {
-                return preparedStatement.query().execute(tuple)
+                return preparedQuery.execute(tuple)
                         .compose(rows -> {
                             StatementExecuteResult result = new StatementExecuteResult(rows);
                             getSqlAuditLogger().info(r -> r.setForDone(
@@ -156,4 +309,121 @@ public class RunnableStatement extends AnyStatementWithSqlConnection {
             return Future.failedFuture(throwable);
         });
     }
+
+    /**
+     * 复用同一个预编译语句，以流水线方式执行多组 {@code Tuple} 参数。
+     * <p>
+     * 最多同时发出 {@code pipelineDepth} 次执行而不等待响应，每收到一个响应即补发下一组，
+     * 使 N 组参数的耗时由 N 次往返降为约 N / {@code pipelineDepth} 次。连接上实际同时在途的命令数
+     * 还受连接选项的流水线上限（{@code pipeliningLimit}）约束，超出部分在客户端排队。
+     * <p>
+     * 结果按参数组的顺序返回。任一组执行失败后不再发出新的执行，待已发出的执行全部返回后以第一个错误失败；
+     * 此时已成功执行的参数组不会回滚，需要原子性时应在事务中调用。
+     *
+     * @param keel          异步调度对象
+     * @param tupleList     参数组列表
+     * @param pipelineDepth 同时在途的最大执行数；为 1 时等同于 {@link #executeThroughPrepare(Keel, List)}
+     * @return 每组参数对应的执行结果
+     * @since 5.0.4
+     */
+    @TechnicalPreview(since = "5.0.4")
+    public Future<List<StatementExecuteResult>> executeThroughPrepare(Keel keel, List<Tuple> tupleList, int pipelineDepth) {
+        if (pipelineDepth < 1) {
+            throw new IllegalArgumentException("pipelineDepth must be positive");
+        }
+        if (pipelineDepth == 1) {
+            return executeThroughPrepare(keel, tupleList);
+        }
+        String sql = getStatement().buildSql();
+        getSqlAuditLogger().info(r -> r.setPreparation(getUuid(), sql));
+        return executeWithPreparedStatement(
+                keel,
+                sql,
+                preparedQuery -> new PipelinedExecution(sql, preparedQuery, tupleList).start(pipelineDepth)
+        ).compose(Future::succeededFuture, throwable -> {
+            getSqlAuditLogger().error(r -> r.setForFailed(getUuid(), sql)
+                    .exception(throwable));
+            return Future.failedFuture(throwable);
+        });
+    }
+
+    /**
+     * 一次流水线批量执行的状态：按序号记录结果，在途执行数归零时完成。
+     */
+    private final class PipelinedExecution {
+        private final String sql;
+        private final PreparedQuery<RowSet<Row>> preparedQuery;
+        private final List<Tuple> tupleList;
+        private final @Nullable StatementExecuteResult[] results;
+        private final Promise<List<StatementExecuteResult>> promise = Promise.promise();
+        private int nextIndex = 0;
+        private int inflight = 0;
+        private @Nullable Throwable failure;
+
+        private PipelinedExecution(String sql, PreparedQuery<RowSet<Row>> preparedQuery, List<Tuple> tupleList) {
+            this.sql = sql;
+            this.preparedQuery = preparedQuery;
+            this.tupleList = tupleList;
+            this.results = new StatementExecuteResult[tupleList.size()];
+        }
+
+        Future<List<StatementExecuteResult>> start(int pipelineDepth) {
+            if (tupleList.isEmpty()) {
+                return Future.succeededFuture(new ArrayList<>());
+            }
+            for (int i = 0; i < pipelineDepth; i++) {
+                sendNext();
+            }
+            return promise.future();
+        }
+
+        private void sendNext() {
+            int index;
+            synchronized (this) {
+                if (failure != null || nextIndex >= tupleList.size()) {
+                    return;
+                }
+                index = nextIndex++;
+                inflight++;
+            }
+            Future.succeededFuture()
+                  .compose(v -> preparedQuery.execute(tupleList.get(index)))
+                  .onComplete(ar -> onResponse(index, ar));
+        }
+
+        private void onResponse(int index, AsyncResult<RowSet<Row>> ar) {
+            boolean finished;
+            synchronized (this) {
+                inflight--;
+                if (ar.succeeded()) {
+                    results[index] = new StatementExecuteResult(ar.result());
+                } else if (failure == null) {
+                    failure = ar.cause();
+                }
+                finished = inflight == 0 && (failure != null || nextIndex >= tupleList.size());
+            }
+            if (ar.succeeded()) {
+                StatementExecuteResult result = results[index];
+                getSqlAuditLogger().info(r -> r.setForDone(
+                        getUuid(),
+                        sql,
+                        result.getTotalAffectedRows(),
+                        result.getTotalFetchedRows()
+                ));
+            }
+            if (!finished) {
+                sendNext();
+                return;
+            }
+            if (failure != null) {
+                promise.fail(failure);
+            } else {
+                List<StatementExecuteResult> list = new ArrayList<>(results.length);
+                for (StatementExecuteResult result : results) {
+                    list.add(Objects.requireNonNull(result));
+                }
+                promise.complete(list);
+            }
+        }
+    }
 }
@@ -1,11 +1,30 @@
 package io.github.sinri.keel.integration.mysql.connection.target;
 
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.BulkUpdateStatement;
 import io.vertx.core.Future;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
 
 @NullMarked
 public class RunnableStatementForModify extends RunnableStatement {
+    /**
+     * 服务端 {@code max_allowed_packet} 未知时分块采用的上限，取 MySQL 5.7 的默认值 4 MiB。
+     */
+    static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024 * 1024;
+    /**
+     * 分块时为协议头与估算误差保留的字节数。
+     */
+    static final long PACKET_HEADROOM = 1024;
+    /**
+     * 预编译语句的占位符数量上限。
+     */
+    static final int MAX_PLACEHOLDERS = 65535;
+
+    private @Nullable Long maxAllowedPacket;
+
     public RunnableStatementForModify(AnyStatement<?> statement) {
         super(statement);
     }
@@ -21,4 +40,66 @@ public class RunnableStatementForModify extends RunnableStatement {
                     return Future.succeededFuture(afx);
                 });
     }
+
+    /**
+     * @return 服务端 {@code max_allowed_packet}（字节）；未知时为 {@code null}
+     * @since 5.0.4
+     */
+    public final @Nullable Long getMaxAllowedPacket() {
+        return maxAllowedPacket;
+    }
+
+    /**
+     * 设置服务端 {@code max_allowed_packet}，供 {@link #executeInChunks()} 决定每块的大小。
+     * 经数据源借出的连接创建的批量更新语句会自动设置。
+     *
+     * @param maxAllowedPacket 单个数据包的最大字节数；为 {@code null} 时按 4 MiB 分块
+     * @return 自身实例
+     * @since 5.0.4
+     */
+    public RunnableStatementForModify setMaxAllowedPacket(@Nullable Long maxAllowedPacket) {
+        this.maxAllowedPacket = maxAllowedPacket;
+        return this;
+    }
+
+    /**
+     * @return 每块 SQL 允许的最大字节数，即 {@code max_allowed_packet} 减去少量余量
+     */
+    final long getChunkSqlBytesLimit() {
+        long packet = maxAllowedPacket == null || maxAllowedPacket <= 0 ? DEFAULT_MAX_ALLOWED_PACKET : maxAllowedPacket;
+        return Math.max(1, packet - PACKET_HEADROOM);
+    }
+
+    /**
+     * 将按键批量更新（{@link BulkUpdateStatement}）按服务端 {@code max_allowed_packet} 自动分块，在当前连接上逐块顺序执行。
+     * <p>
+     * 每块 SQL 的字节数不超过 {@code max_allowed_packet} 减去少量余量；启用参数化渲染时每块的占位符数还不超过 65535。
+     * 各块是独立的语句，中途失败时之前的块已经生效；需要整体原子性时应在事务中调用。
+     * 其他语句按单条语句执行。
+     *
+     * @return 各块影响行数之和
+     * @since 5.0.4
+     */
+    public Future<Integer> executeInChunks() {
+        if (!(getStatement() instanceof BulkUpdateStatement bulkUpdateStatement)) {
+            return executeForAffectedRows();
+        }
+        List<BulkUpdateStatement> chunks = bulkUpdateStatement.divideByPacketSize(
+                getChunkSqlBytesLimit(),
+                isParameterBindingEnabled() ? MAX_PLACEHOLDERS : Integer.MAX_VALUE
+        );
+        if (chunks.size() == 1 && chunks.get(0) == bulkUpdateStatement) {
+            return executeForAffectedRows();
+        }
+        Future<Integer> future = Future.succeededFuture(0);
+        for (BulkUpdateStatement chunk : chunks) {
+            future = future.compose(affected -> {
+                RunnableStatementForModify runnable = chunk.attachToConnection(getSqlConnection());
+                runnable.setParameterBindingEnabled(isParameterBindingEnabled());
+                runnable.setDataSourceServices(getDataSourceServices());
+                return runnable.executeForAffectedRows().map(chunkAffected -> affected + chunkAffected);
+            });
+        }
+        return future;
+    }
 }
@@ -1,27 +1,207 @@
 package io.github.sinri.keel.integration.mysql.connection.target;
 
+import io.github.sinri.keel.integration.mysql.datasource.DataSourceServices;
+import io.github.sinri.keel.integration.mysql.datasource.ReadCoalescer;
+import io.github.sinri.keel.integration.mysql.datasource.ReplicaRouter;
+import io.github.sinri.keel.integration.mysql.datasource.ResultCache;
 import io.github.sinri.keel.integration.mysql.exception.KeelSQLResultRowIndexError;
+import io.github.sinri.keel.integration.mysql.result.columnar.ColumnarResult;
 import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
 import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.RowBackedResultRow;
 import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.StringDeduplicator;
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 @NullMarked
 public class RunnableStatementForRead extends RunnableStatement {
+    private boolean replicaRoutingAllowed = false;
+    private boolean readCoalescingAllowed = false;
+    private boolean resultCacheAllowed = true;
+    private @Nullable Set<String> resultCacheTables;
+
     public RunnableStatementForRead(AnyStatement<?> statement) {
         super(statement);
     }
 
+    /**
+     * @return 是否允许将本语句路由到只读副本
+     * @since 5.0.4
+     */
+    public final boolean isReplicaRoutingAllowed() {
+        return replicaRoutingAllowed;
+    }
+
+    /**
+     * 设置是否允许将本语句路由到只读副本，默认不允许。
+     * <p>
+     * 副本存在复制延迟，且副本连接不共享主库连接的会话状态（{@code LAST_INSERT_ID()}、用户变量、临时表等），
+     * 仅应对不依赖会话状态、可容忍读到稍旧数据的查询开启。
+     *
+     * @param allowed 是否允许
+     * @since 5.0.4
+     */
+    public final void setReplicaRoutingAllowed(boolean allowed) {
+        this.replicaRoutingAllowed = allowed;
+    }
+
+    /**
+     * @return 是否允许本语句与并发执行中的相同语句合并
+     * @since 5.0.4
+     */
+    public final boolean isReadCoalescingAllowed() {
+        return readCoalescingAllowed;
+    }
+
+    /**
+     * 设置是否允许本语句与并发执行中的相同语句合并为一次查询（须同时在数据源的 {@link ReadCoalescer} 上开启），默认不允许。
+     * <p>
+     * 合并后实际发出查询的可能是另一个连接，仅应对不依赖会话状态（临时表等）的查询开启；
+     * 引用 {@code LAST_INSERT_ID()}、用户变量等会话状态的 SQL 即使开启也不会合并。
+     * <p>
+     * 此处的合并发生在连接借出之后，只减少发往 MySQL 的查询，不减少占用的连接；需要在借出连接之前合并时，
+     * 使用 {@link io.github.sinri.keel.integration.mysql.datasource.NamedMySQLDataSource#executeRead(io.github.sinri.keel.integration.mysql.statement.mixin.ReadStatementMixin)}。
+     *
+     * @param allowed 是否允许
+     * @since 5.0.4
+     */
+    public final void setReadCoalescingAllowed(boolean allowed) {
+        this.readCoalescingAllowed = allowed;
+    }
+
+    /**
+     * @return 是否允许本语句使用数据源的结果缓存
+     * @since 5.0.4
+     */
+    public final boolean isResultCacheAllowed() {
+        return resultCacheAllowed;
+    }
+
+    /**
+     * 设置是否允许本语句使用数据源的结果缓存；条件中以子查询引用了其他表等缓存标签不完整的场景应设为 {@code false}。
+     *
+     * @param allowed 是否允许
+     * @since 5.0.4
+     */
+    public final void setResultCacheAllowed(boolean allowed) {
+        this.resultCacheAllowed = allowed;
+    }
+
+    /**
+     * 显式声明本语句读取的表，作为结果缓存的标签，取代由语句推断的表。
+     * <p>
+     * 原始 SQL、模板语句等无法推断所引用表的语句，须声明后才能被缓存。
+     *
+     * @param tables 读取的表
+     * @since 5.0.4
+     */
+    public final void setResultCacheTables(Collection<String> tables) {
+        Set<String> set = new HashSet<>();
+        for (String table : tables) {
+            String name = AnyStatement.normalizeTableName(table);
+            if (name == null) {
+                throw new IllegalArgumentException("Not a table name: " + table);
+            }
+            set.add(name);
+        }
+        this.resultCacheTables = Set.copyOf(set);
+    }
+
+    /**
+     * 将本语句的执行选项（参数化渲染、副本路由、只读合并与结果缓存设置）及数据源执行期服务复制到由本语句派生的语句上，
+     * 如分页查询的计数与分页语句。
+     *
+     * @param derived 派生的语句
+     * @since 5.0.4
+     */
+    protected final void copyExecutionOptionsTo(RunnableStatementForRead derived) {
+        derived.setParameterBindingEnabled(isParameterBindingEnabled());
+        derived.setDataSourceServices(getDataSourceServices());
+        derived.replicaRoutingAllowed = this.replicaRoutingAllowed;
+        derived.readCoalescingAllowed = this.readCoalescingAllowed;
+        derived.resultCacheAllowed = this.resultCacheAllowed;
+        derived.resultCacheTables = this.resultCacheTables;
+    }
+
+    /**
+     * 只读语句不使结果缓存失效。
+     */
+    @Override
+    protected void onExecuted(SqlConnection sqlConnection, String sql) {
+    }
+
+    /**
+     * 事务之外的非锁定读：所附着连接的数据源启用了结果缓存且本语句可缓存时，优先返回缓存的结果，未命中时在主库上查询并填充缓存；
+     * 本语句允许且数据源开启了只读语句合并时，与并发执行中的相同语句共享一次查询；
+     * 配置了只读副本且本语句允许路由时，不经过缓存的查询改在副本上执行。
+     * 事务之中或锁定读（{@code FOR UPDATE} 等）仍在主库连接上单独执行。
+     * <p>
+     * 缓存只从主库填充：副本的复制延迟可能使刚失效的条目被旧数据重新填充，并在存活时间内一直返回旧数据。
+     */
+    @Override
+    protected <T> Future<T> executeOnConnection(
+            String sql,
+            @Nullable Tuple tuple,
+            Function<SqlConnection, Future<T>> action
+    ) {
+        SqlConnection primary = getSqlConnection();
+        DataSourceServices services = getDataSourceServices();
+        if (services == null || primary.transaction() != null || ReplicaRouter.isLockingRead(sql)) {
+            return action.apply(primary);
+        }
+        if (resultCacheAllowed) {
+            ResultCache resultCache = services.resultCache();
+            Set<String> tables = resultCacheTables != null ? resultCacheTables : getStatement().getReferencedTables();
+            if (resultCache != null && tables != null && resultCache.isCacheable(tables)) {
+                return resultCache.execute(sql, tuple, tables, () -> coalesce(services, primary, sql, tuple, action, false));
+            }
+        }
+        return coalesce(services, primary, sql, tuple, action, replicaRoutingAllowed);
+    }
+
+    private <T> Future<T> coalesce(
+            DataSourceServices services,
+            SqlConnection primary,
+            String sql,
+            @Nullable Tuple tuple,
+            Function<SqlConnection, Future<T>> action,
+            boolean onReplica
+    ) {
+        ReadCoalescer readCoalescer = services.readCoalescer();
+        if (readCoalescingAllowed && readCoalescer.isEnabled() && !ReadCoalescer.referencesSessionState(sql)) {
+            return readCoalescer.execute(sql, tuple, onReplica, () -> routeToReplica(services, primary, action, onReplica));
+        }
+        return routeToReplica(services, primary, action, onReplica);
+    }
+
+    private <T> Future<T> routeToReplica(
+            DataSourceServices services,
+            SqlConnection primary,
+            Function<SqlConnection, Future<T>> action,
+            boolean onReplica
+    ) {
+        ReplicaRouter replicaRouter = services.replicaRouter();
+        if (onReplica && replicaRouter != null) {
+            return replicaRouter.route(action, () -> action.apply(primary));
+        }
+        return action.apply(primary);
+    }
+
     private <T extends ResultRow> Function<JsonObject, T> mapper(Class<T> classT) {
-        return jsonObject -> ResultRow.of(jsonObject, classT);
+        return ResultRow.factory(classT);
     }
 
     /**
@@ -60,6 +240,56 @@ public class RunnableStatementForRead extends RunnableStatement {
                 .compose(statementExecuteResult -> Future.succeededFuture(statementExecuteResult.toMatrix()));
     }
 
+    /**
+     * 执行查询并得到直接基于 {@link io.vertx.sqlclient.Row} 的结果矩阵，字段按需读取，不预先将每行转储为 JSON。
+     *
+     * @return 结果矩阵
+     * @since 5.0.4
+     */
+    public Future<ResultMatrix<RowBackedResultRow>> executeForRowBackedMatrix() {
+        return execute()
+                .compose(statementExecuteResult -> Future.succeededFuture(statementExecuteResult.toRowBackedMatrix()));
+    }
+
+    /**
+     * 执行查询并得到字符串按列去重的结果矩阵，适合状态、币种等低基数字符串列大量重复的结果。
+     *
+     * @param clazz          结果行类
+     * @param cardinalityCap 每列字典大小上限，超出后该列不再去重
+     * @param <R>            结果行类型
+     * @return 结果矩阵
+     * @see StringDeduplicator
+     * @since 5.0.4
+     */
+    public <R extends ResultRow> Future<ResultMatrix<R>> executeForDeduplicatedMatrix(Class<R> clazz, int cardinalityCap) {
+        return execute()
+                .compose(statementExecuteResult -> Future.succeededFuture(statementExecuteResult.toDeduplicatedMatrix(clazz, cardinalityCap)));
+    }
+
+    /**
+     * 以默认的每列字典大小上限执行查询并得到字符串按列去重的结果矩阵。
+     *
+     * @param clazz 结果行类
+     * @param <R>   结果行类型
+     * @return 结果矩阵
+     * @see #executeForDeduplicatedMatrix(Class, int)
+     * @since 5.0.4
+     */
+    public <R extends ResultRow> Future<ResultMatrix<R>> executeForDeduplicatedMatrix(Class<R> clazz) {
+        return executeForDeduplicatedMatrix(clazz, StringDeduplicator.DEFAULT_CARDINALITY_CAP);
+    }
+
+    /**
+     * 执行查询并得到列式结果，数值列以原始类型数组保存、字符串列以字典编码保存，适合对大量行做汇总。
+     *
+     * @return 列式结果
+     * @since 5.0.4
+     */
+    public Future<ColumnarResult> executeForColumnarResult() {
+        return execute()
+                .compose(statementExecuteResult -> Future.succeededFuture(statementExecuteResult.toColumnar()));
+    }
+
     public <R extends ResultRow> Future<ResultMatrix<R>> executeForResultMatrix(Class<R> clazz) {
         return execute()
                 .compose(statementExecuteResult -> Future.succeededFuture(statementExecuteResult.toMatrix(clazz)));
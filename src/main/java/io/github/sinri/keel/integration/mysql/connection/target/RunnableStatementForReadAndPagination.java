@@ -2,17 +2,108 @@ package io.github.sinri.keel.integration.mysql.connection.target;
 
 import io.github.sinri.keel.integration.mysql.exception.KeelSQLResultRowIndexError;
 import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.pagination.KeysetCursor;
+import io.github.sinri.keel.integration.mysql.result.pagination.KeysetPaginationResult;
 import io.github.sinri.keel.integration.mysql.result.pagination.PaginationResult;
+import io.github.sinri.keel.integration.mysql.result.pagination.PaginationTotalCountCache;
 import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
 import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
 import io.vertx.core.Future;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @NullMarked
 public class RunnableStatementForReadAndPagination extends RunnableStatementForRead {
+    /**
+     * 窗口函数总数列的别名，仅在查询内部使用，返回结果前会被移除。
+     */
+    private static final String WINDOW_TOTAL_COLUMN = "__keel_pagination_total";
+    private static volatile @Nullable PaginationTotalCountCache defaultTotalCountCache = null;
+    private boolean windowFunctionAvailable = false;
+    private @Nullable PaginationTotalCountCache totalCountCache;
+    private @Nullable String totalCountCacheNamespace;
+
     public RunnableStatementForReadAndPagination(AnyStatement<?> statement) {
         super(statement);
+        this.totalCountCache = defaultTotalCountCache;
+    }
+
+    /**
+     * @return 新建分页语句时默认使用的分页总数缓存
+     * @since 5.0.4
+     */
+    public static @Nullable PaginationTotalCountCache getDefaultTotalCountCache() {
+        return defaultTotalCountCache;
+    }
+
+    /**
+     * 设置新建分页语句时默认使用的分页总数缓存；已创建实例不受影响。
+     *
+     * @param cache 分页总数缓存，为 {@code null} 时不使用缓存
+     * @since 5.0.4
+     */
+    public static void setDefaultTotalCountCache(@Nullable PaginationTotalCountCache cache) {
+        defaultTotalCountCache = cache;
+    }
+
+    /**
+     * @return {@link #executeForPaginationInOneRoundTrip(long, long)} 是否使用窗口函数取得总数
+     * @since 5.0.4
+     */
+    public final boolean isWindowFunctionAvailable() {
+        return windowFunctionAvailable;
+    }
+
+    /**
+     * 设置服务器是否支持窗口函数（MySQL 8.0+）。
+     * <p>
+     * 经 {@link io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection} 创建时按已知的服务器版本自动设置。
+     *
+     * @param windowFunctionAvailable 是否支持窗口函数
+     * @return 自身实例
+     * @since 5.0.4
+     */
+    public final RunnableStatementForReadAndPagination setWindowFunctionAvailable(boolean windowFunctionAvailable) {
+        this.windowFunctionAvailable = windowFunctionAvailable;
+        return this;
+    }
+
+    /**
+     * 设置本实例使用的分页总数缓存。
+     *
+     * @param cache 分页总数缓存，为 {@code null} 时不使用缓存
+     * @return 自身实例
+     * @since 5.0.4
+     */
+    public final RunnableStatementForReadAndPagination setTotalCountCache(@Nullable PaginationTotalCountCache cache) {
+        this.totalCountCache = cache;
+        return this;
+    }
+
+    /**
+     * @return 分页总数缓存键的命名空间
+     * @since 5.0.4
+     */
+    public final @Nullable String getTotalCountCacheNamespace() {
+        return totalCountCacheNamespace;
+    }
+
+    /**
+     * 设置分页总数缓存键的命名空间，使相同的 SQL 在不同数据源上各自缓存总数。
+     * <p>
+     * 经 {@link io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection} 创建时自动设置为数据源名称。
+     *
+     * @param namespace 命名空间，为 {@code null} 时仅以 SQL 为键
+     * @return 自身实例
+     * @since 5.0.4
+     */
+    public final RunnableStatementForReadAndPagination setTotalCountCacheNamespace(@Nullable String namespace) {
+        this.totalCountCacheNamespace = namespace;
+        return this;
     }
 
     private SelectStatement getSelectStatementMixin() {
@@ -29,25 +120,22 @@ public class RunnableStatementForReadAndPagination extends RunnableStatementForR
         SelectStatement selectStatement = this.getSelectStatementMixin();
         if (pageSize <= 0) throw new IllegalArgumentException("page size <= 0");
         if (pageNo < 1) throw new IllegalArgumentException("page no < 1");
-        var countStatement = new SelectStatement(selectStatement)
-                .resetColumns()
-                .columnWithAlias("count(*)", "total")
-                .limit(0, 0);
-        selectStatement.limit(pageSize, (pageNo - 1) * pageSize);
-
-        Future<Long> totalFuture = countStatement.attachToConnection(getSqlConnection())
-                                                 .executeForResultMatrix()
-                                                 .compose(resultMatrix -> {
-                                                     try {
-                                                         long total = resultMatrix.getFirstRow()
-                                                                                  .readLongRequired("total");
-                                                         return Future.succeededFuture(total);
-                                                     } catch (KeelSQLResultRowIndexError e) {
-                                                         throw new RuntimeException(e);
-                                                     }
-                                                 });
-        Future<ResultMatrix<SimpleResultRow>> pageFuture = selectStatement.attachToConnection(getSqlConnection())
-                                                                          .executeForResultMatrix();
+        return executeForPaginationWithCountQuery(selectStatement, pageNo, pageSize);
+    }
+
+    /**
+     * 以计数查询与分页查询两次查询完成分页；{@code pageStatement} 会被设置 {@code LIMIT}。
+     */
+    private Future<PaginationResult> executeForPaginationWithCountQuery(
+            SelectStatement pageStatement,
+            long pageNo,
+            long pageSize
+    ) {
+        Future<Long> totalFuture = executeForTotalCount(pageStatement);
+        pageStatement.limit(pageSize, (pageNo - 1) * pageSize);
+        var pageRunnable = pageStatement.attachToConnection(getSqlConnection());
+        copyExecutionOptionsTo(pageRunnable);
+        Future<ResultMatrix<SimpleResultRow>> pageFuture = pageRunnable.executeForResultMatrix();
         return Future.all(totalFuture, pageFuture)
                      .compose(compositeFuture -> {
                          Long total = compositeFuture.resultAt(0);
@@ -56,4 +144,158 @@ public class RunnableStatementForReadAndPagination extends RunnableStatementForR
                      });
     }
 
+    private Future<Long> executeForTotalCount(SelectStatement selectStatement) {
+        var countStatement = new SelectStatement(selectStatement)
+                .resetColumns()
+                .columnWithAlias("count(*)", "total")
+                .limit(0, 0);
+        var countRunnable = countStatement.attachToConnection(getSqlConnection());
+        copyExecutionOptionsTo(countRunnable);
+        return countRunnable.executeForResultMatrix()
+                            .compose(resultMatrix -> {
+                                try {
+                                    long total = resultMatrix.getFirstRow()
+                                                             .readLongRequired("total");
+                                    return Future.succeededFuture(total);
+                                } catch (KeelSQLResultRowIndexError e) {
+                                    throw new RuntimeException(e);
+                                }
+                            });
+    }
+
+    /**
+     * 以尽量少的往返执行分页查询。
+     * <p>
+     * 若配置了 {@link PaginationTotalCountCache} 且命中（键为命名空间加上去掉 {@code LIMIT} 后的查询 SQL，
+     * 见 {@link #setTotalCountCacheNamespace(String)}），仅执行分页查询；
+     * 否则在支持窗口函数的服务器（MySQL 8.0+，见 {@link #setWindowFunctionAvailable(boolean)}）上以
+     * {@code COUNT(*) OVER()} 在同一次查询中取得总数，在不支持的服务器上回退为
+     * {@link #executeForPagination(long, long)} 的两次查询。得到的总数会写入缓存。
+     * <p>
+     * 当请求页超出范围而没有返回任何行时，窗口函数无法给出总数，此时会补充执行一次计数查询。
+     * 原查询不会被修改。
+     *
+     * @param pageNo   页码，从 1 开始
+     * @param pageSize 每页行数
+     * @return 分页结果
+     * @since 5.0.4
+     */
+    public Future<PaginationResult> executeForPaginationInOneRoundTrip(long pageNo, long pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("page size <= 0");
+        if (pageNo < 1) throw new IllegalArgumentException("page no < 1");
+        SelectStatement selectStatement = this.getSelectStatementMixin();
+        PaginationTotalCountCache cache = this.totalCountCache;
+        String sqlWithoutLimit = new SelectStatement(selectStatement).limit(0, 0).buildSql();
+        String namespace = this.totalCountCacheNamespace;
+        String cacheKey = namespace == null ? sqlWithoutLimit : namespace + ":" + sqlWithoutLimit;
+        Future<@Nullable Long> cachedTotalFuture = cache == null
+                ? Future.succeededFuture(null)
+                : cache.getTotal(cacheKey).recover(throwable -> Future.succeededFuture(null));
+        return cachedTotalFuture.compose(cachedTotal -> {
+            if (cachedTotal != null) {
+                var pageStatement = new SelectStatement(selectStatement)
+                        .limit(pageSize, (pageNo - 1) * pageSize);
+                var pageRunnable = pageStatement.attachToConnection(getSqlConnection());
+                copyExecutionOptionsTo(pageRunnable);
+                return pageRunnable.executeForResultMatrix()
+                                   .compose(resultMatrix -> Future.succeededFuture(
+                                           new PaginationResult(cachedTotal, resultMatrix)));
+            }
+            Future<PaginationResult> resultFuture;
+            if (windowFunctionAvailable) {
+                resultFuture = executeForPaginationWithWindowCount(selectStatement, pageNo, pageSize);
+            } else {
+                resultFuture = executeForPaginationWithCountQuery(new SelectStatement(selectStatement), pageNo, pageSize);
+            }
+            if (cache == null) {
+                return resultFuture;
+            }
+            return resultFuture.compose(result -> cache.putTotal(cacheKey, result.total())
+                                                       .recover(throwable -> Future.succeededFuture())
+                                                       .compose(v -> Future.succeededFuture(result)));
+        });
+    }
+
+    private Future<PaginationResult> executeForPaginationWithWindowCount(
+            SelectStatement selectStatement,
+            long pageNo,
+            long pageSize
+    ) {
+        var pageStatement = new SelectStatement(selectStatement);
+        if (pageStatement.getColumns().isEmpty()) {
+            pageStatement.columnAsExpression("*");
+        }
+        pageStatement.columnWithAlias("COUNT(*) OVER()", WINDOW_TOTAL_COLUMN)
+                     .limit(pageSize, (pageNo - 1) * pageSize);
+        var pageRunnable = pageStatement.attachToConnection(getSqlConnection());
+        copyExecutionOptionsTo(pageRunnable);
+        AtomicLong windowTotal = new AtomicLong(-1);
+        return pageRunnable.executeForResultMatrix(jsonObject -> {
+                               Object total = jsonObject.remove(WINDOW_TOTAL_COLUMN);
+                               if (total instanceof Number number) {
+                                   windowTotal.set(number.longValue());
+                               }
+                               return new SimpleResultRow(jsonObject);
+                           })
+                           .compose(resultMatrix -> {
+                               if (windowTotal.get() >= 0) {
+                                   return Future.succeededFuture(new PaginationResult(windowTotal.get(), resultMatrix));
+                               }
+                               if (pageNo == 1) {
+                                   return Future.succeededFuture(new PaginationResult(0, resultMatrix));
+                               }
+                               return executeForTotalCount(selectStatement)
+                                       .compose(total -> Future.succeededFuture(new PaginationResult(total, resultMatrix)));
+                           });
+    }
+
+    /**
+     * 以键集（seek）方式分页读取：按原查询的 {@code ORDER BY} 各项构造 {@code WHERE (k1,k2) > (?,?)}
+     * 形式的定位条件，直接从上一页最后一行之后开始读取，且不执行计数查询。
+     * <p>
+     * 排序键须能唯一确定行的顺序（通常以主键收尾），须以去掉表限定前缀后的名称出现在结果列中，且值不能为 {@code NULL}。
+     * 原查询不会被修改。
+     *
+     * @param cursor   上一页结果中的 {@link KeysetPaginationResult#nextCursor()}；为 {@code null} 时读取第一页
+     * @param pageSize 每页行数
+     * @return 本页数据及下一页游标
+     * @since 5.0.4
+     */
+    public Future<KeysetPaginationResult> executeForKeysetPagination(@Nullable String cursor, long pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("page size <= 0");
+        SelectStatement selectStatement = this.getSelectStatementMixin();
+        List<KeysetCursor.SortKey> sortKeys = KeysetCursor.parseSortRules(selectStatement.getSortRules());
+        if (sortKeys.isEmpty()) {
+            throw new IllegalArgumentException("keyset pagination requires ORDER BY");
+        }
+        var pageStatement = new SelectStatement(selectStatement)
+                .limit(pageSize + 1, 0);
+        if (cursor != null) {
+            List<Object> values = KeysetCursor.decode(cursor, sortKeys);
+            pageStatement.where(conditions -> conditions.keysetSeek(seek -> {
+                for (int i = 0; i < sortKeys.size(); i++) {
+                    seek.after(sortKeys.get(i).expression(), sortKeys.get(i).descending(), values.get(i));
+                }
+                return seek;
+            }));
+        }
+
+        var pageRunnable = pageStatement.attachToConnection(getSqlConnection());
+        copyExecutionOptionsTo(pageRunnable);
+        return pageRunnable.executeForResultMatrix()
+                           .compose(resultMatrix -> {
+                               if (resultMatrix.size() <= pageSize) {
+                                   return Future.succeededFuture(new KeysetPaginationResult(resultMatrix, null));
+                               }
+                               List<SimpleResultRow> rows = resultMatrix.getRowList().subList(0, (int) pageSize);
+                               String nextCursor = KeysetCursor.encodeAfter(
+                                       sortKeys,
+                                       rows.get(rows.size() - 1).toJsonObject()
+                               );
+                               return Future.succeededFuture(new KeysetPaginationResult(
+                                       ResultMatrix.ofRows(rows),
+                                       nextCursor
+                               ));
+                           });
+    }
 }
@@ -4,9 +4,11 @@ import io.github.sinri.keel.base.annotations.TechnicalPreview;
 import io.github.sinri.keel.base.async.Keel;
 import io.github.sinri.keel.integration.mysql.result.StatementExecuteResult;
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.mixin.WriteIntoStatementMixin;
 import io.vertx.core.Future;
 import io.vertx.sqlclient.Tuple;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.util.List;
 
@@ -16,6 +18,54 @@ public class RunnableStatementForWrite extends RunnableStatementForModify {
         super(statement);
     }
 
+    /**
+     * 设置服务端 {@code max_allowed_packet}，供 {@link #executeInChunks()} 决定每块的大小。
+     * 经数据源借出的连接创建的 INSERT/REPLACE 语句会自动设置。
+     *
+     * @param maxAllowedPacket 单个数据包的最大字节数；为 {@code null} 时按 4 MiB 分块
+     * @return 自身实例
+     * @since 5.0.4
+     */
+    @Override
+    public RunnableStatementForWrite setMaxAllowedPacket(@Nullable Long maxAllowedPacket) {
+        super.setMaxAllowedPacket(maxAllowedPacket);
+        return this;
+    }
+
+    /**
+     * 将多行写入按服务端 {@code max_allowed_packet} 自动分块，在当前连接上逐块顺序执行。
+     * <p>
+     * 每块 SQL 的字节数不超过 {@code max_allowed_packet} 减去少量余量；启用参数化渲染时每块的占位符数还不超过 65535。
+     * 各块是独立的语句，中途失败时之前的块已经写入；需要整体原子性时应在事务中调用。
+     * 非 {@code VALUES} 形式的写入（{@code SELECT}/{@code TABLE} 数据来源）按单条语句执行。
+     *
+     * @return 各块影响行数之和
+     * @since 5.0.4
+     */
+    @Override
+    public Future<Integer> executeInChunks() {
+        if (!(getStatement() instanceof WriteIntoStatementMixin<?> writeIntoStatement)) {
+            return super.executeInChunks();
+        }
+        List<? extends WriteIntoStatementMixin<?>> chunks = writeIntoStatement.divideByPacketSize(
+                getChunkSqlBytesLimit(),
+                isParameterBindingEnabled() ? MAX_PLACEHOLDERS : Integer.MAX_VALUE
+        );
+        if (chunks.size() == 1 && chunks.get(0) == writeIntoStatement) {
+            return executeForAffectedRows();
+        }
+        Future<Integer> future = Future.succeededFuture(0);
+        for (WriteIntoStatementMixin<?> chunk : chunks) {
+            future = future.compose(affected -> {
+                RunnableStatementForWrite runnable = chunk.attachToConnection(getSqlConnection());
+                runnable.setParameterBindingEnabled(isParameterBindingEnabled());
+                runnable.setDataSourceServices(getDataSourceServices());
+                return runnable.executeForAffectedRows().map(chunkAffected -> affected + chunkAffected);
+            });
+        }
+        return future;
+    }
+
     /**
      * @return future with last inserted id; if any error occurs, failed future returned instead.
      */
@@ -29,7 +79,7 @@ public class RunnableStatementForWrite extends RunnableStatementForModify {
      * <p>
      * This method is for parameterized write statements. For literal VALUES built
      * through {@code WriteIntoStatement}, callers may explicitly split the statement
-     * with {@code WriteIntoStatement#divide(int)}.
+     * with {@code WriteIntoStatement#divide(int)}, or use {@link #executeInChunks()}.
      *
      * @param keel   async scheduler
      * @param tuples tuple arguments to execute as a prepared batch
@@ -39,7 +89,7 @@ public class RunnableStatementForWrite extends RunnableStatementForModify {
     public Future<StatementExecuteResult> execute(Keel keel, List<Tuple> tuples) {
         String sql = getStatement().buildSql();
         getSqlAuditLogger().info(r -> r.setPreparation(getUuid(), sql));
-        return executeWithPreparedStatement(keel, sql, preparedStatement -> preparedStatement.query().executeBatch(tuples))
+        return executeWithPreparedStatement(keel, sql, preparedQuery -> preparedQuery.executeBatch(tuples))
                 .compose(rows -> {
                     StatementExecuteResult statementExecuteResult = new StatementExecuteResult(rows);
                     getSqlAuditLogger().info(r -> r.setForDone(
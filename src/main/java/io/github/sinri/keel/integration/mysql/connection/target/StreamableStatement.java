@@ -1,11 +1,26 @@
 package io.github.sinri.keel.integration.mysql.connection.target;
 
 import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.integration.mysql.result.matrix.SpillableResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.StringDeduplicator;
+import io.github.sinri.keel.integration.mysql.result.stream.ResultBatchReader;
+import io.github.sinri.keel.integration.mysql.result.stream.ResultRowStream;
 import io.github.sinri.keel.integration.mysql.result.stream.ResultStreamReader;
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Cursor;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 @NullMarked
 public class StreamableStatement extends AnyStatementWithSqlConnection {
@@ -22,28 +37,189 @@ public class StreamableStatement extends AnyStatementWithSqlConnection {
         return streamRead(resultStreamReader, 1);
     }
 
+    /**
+     * 逐行读取结果。
+     * <p>
+     * 自 5.0.4 起基于 {@link #streamReadInBatches(ResultBatchReader, int)} 实现，处理当前批次时已预取下一批次。
+     *
+     * @param resultStreamReader 逐行读取器，按顺序处理每一行
+     * @param batch              每次从游标读取的行数
+     */
     public final Future<Void> streamRead(ResultStreamReader resultStreamReader, int batch) {
+        return streamReadInBatches(rows -> getKeel().asyncCallIteratively(rows, resultStreamReader::read), batch);
+    }
+
+    /**
+     * 逐行读取结果，各行字符串值经同一个去重器按列去重后映射为指定的结果行类。
+     * <p>
+     * 与 {@link #streamRead(ResultStreamReader, int)} 一样按批次读取并预取下一批次；整个游标读取过程共用同一个去重器。
+     *
+     * @param resultRowReader 逐行读取器，按顺序处理每一个结果行
+     * @param batch           每次从游标读取的行数
+     * @param clazz           结果行类
+     * @param deduplicator    本次读取使用的字符串去重器
+     * @param <R>             结果行类型
+     * @return 全部读取完成的 Future
+     * @since 5.0.4
+     */
+    public final <R extends ResultRow> Future<Void> streamRead(
+            Function<R, Future<Void>> resultRowReader,
+            int batch,
+            Class<R> clazz,
+            StringDeduplicator deduplicator
+    ) {
+        Function<JsonObject, R> factory = ResultRow.factory(clazz);
+        return streamReadInBatches(
+                rows -> getKeel().asyncCallIteratively(rows, row -> resultRowReader.apply(factory.apply(deduplicator.toJsonObject(row)))),
+                batch
+        );
+    }
+
+    /**
+     * 按游标窗口批量读取结果。
+     * <p>
+     * 每个窗口的行一次性交给 {@code resultBatchReader}；在其处理当前窗口的同时，下一个窗口已经在读取（双缓冲预取），
+     * 而再下一个窗口要等当前窗口处理完成后才会读取，因此内存中最多同时持有两个窗口。
+     *
+     * @param resultBatchReader 批量读取器
+     * @param fetchSize         每次从游标读取的行数
+     * @return 全部读取完成的 Future
+     * @since 5.0.4
+     */
+    public final Future<Void> streamReadInBatches(ResultBatchReader resultBatchReader, int fetchSize) {
+        if (fetchSize <= 0) throw new IllegalArgumentException("fetch size <= 0");
         return getSqlConnection()
-                .prepare(toString())
+                .prepare(getStatement().buildSql())
                 .compose(preparedStatement -> {
                     Cursor cursor = preparedStatement.cursor();
+                    AtomicReference<@Nullable Future<RowSet<Row>>> prefetched = new AtomicReference<>(cursor.read(fetchSize));
 
                     return getKeel().asyncCallRepeatedly(routineResult -> {
-                                        if (!cursor.hasMore()) {
+                                        Future<RowSet<Row>> current = prefetched.get();
+                                        if (current == null) {
                                             routineResult.stop();
                                             return Future.succeededFuture();
                                         }
-
-                                        return cursor.read(batch)
-                                                     .compose(rows -> {
-                                                         return getKeel().asyncCallIteratively(rows, resultStreamReader::read);
-                                                     });
+                                        return current.compose(rows -> {
+                                            // 处理当前窗口之前先发起下一个窗口的读取
+                                            prefetched.set(cursor.hasMore() ? cursor.read(fetchSize) : null);
+                                            if (rows.size() == 0) {
+                                                return Future.succeededFuture();
+                                            }
+                                            List<Row> batch = new ArrayList<>(rows.size());
+                                            rows.forEach(batch::add);
+                                            return resultBatchReader.read(batch);
+                                        });
                                     })
                                     .eventually(cursor::close)
                                     .eventually(preparedStatement::close);
                 });
     }
 
+    /**
+     * 从游标读取全部结果，以紧凑二进制形式收集为 {@link SpillableResultMatrix}。
+     * <p>
+     * 堆内保存的编码字节超过 {@code memoryBudget} 后，其余行写入临时文件。
+     * 追加后可能写入临时文件的窗口（见 {@link SpillableResultMatrix.Builder#mayExceedBudget(int)}）在工作线程中编码写入，
+     * 使创建与写入临时文件不发生在事件循环线程上。
+     * 读取失败时删除已写入的临时文件。返回的结果矩阵用完后应调用 {@link SpillableResultMatrix#close()}。
+     *
+     * @param fetchSize    每次从游标读取的行数
+     * @param clazz        结果行类
+     * @param memoryBudget 堆内保存行数据的字节预算
+     * @param <R>          结果行类型
+     * @return 结果矩阵
+     * @since 5.0.4
+     */
+    public final <R extends ResultRow> Future<SpillableResultMatrix<R>> collectSpillable(int fetchSize, Class<R> clazz, long memoryBudget) {
+        SpillableResultMatrix.Builder<R> builder = new SpillableResultMatrix.Builder<>(ResultRow.factory(clazz), memoryBudget);
+        return streamReadInBatches(rows -> {
+                    if (builder.mayExceedBudget(rows.size())) {
+                        return getKeel().executeBlocking(() -> {
+                            rows.forEach(builder::append);
+                            return null;
+                        });
+                    }
+                    rows.forEach(builder::append);
+                    return Future.succeededFuture();
+                }, fetchSize)
+                .compose(
+                        v -> builder.isSpilled()
+                                ? getKeel().executeBlocking(builder::build)
+                                : Future.succeededFuture(builder.build()),
+                        throwable -> {
+                            builder.discard();
+                            return Future.failedFuture(throwable);
+                        }
+                );
+    }
+
+    /**
+     * 以 {@link io.vertx.core.streams.ReadStream} 形式读取结果，行映射为 {@link SimpleResultRow}。
+     *
+     * @param fetchSize 每次从游标读取的行数
+     * @return 结果行流；设置行处理器后开始读取
+     * @see #stream(int, Function)
+     * @since 5.0.4
+     */
+    public final Future<ResultRowStream<SimpleResultRow>> stream(int fetchSize) {
+        return stream(fetchSize, row -> new SimpleResultRow(row.toJson()));
+    }
+
+    /**
+     * 以 {@link io.vertx.core.streams.ReadStream} 形式读取结果，行映射为指定的结果行类。
+     *
+     * @param fetchSize 每次从游标读取的行数
+     * @param clazz     结果行类
+     * @param <R>       结果行类型
+     * @return 结果行流；设置行处理器后开始读取
+     * @since 5.0.4
+     */
+    public final <R extends ResultRow> Future<ResultRowStream<R>> stream(int fetchSize, Class<R> clazz) {
+        Function<JsonObject, R> factory = ResultRow.factory(clazz);
+        return stream(fetchSize, row -> factory.apply(row.toJson()));
+    }
+
+    /**
+     * 以 {@link io.vertx.core.streams.ReadStream} 形式读取结果，各行字符串值经同一个去重器按列去重后映射为指定的结果行类。
+     *
+     * @param fetchSize    每次从游标读取的行数
+     * @param clazz        结果行类
+     * @param deduplicator 本次读取使用的字符串去重器
+     * @param <R>          结果行类型
+     * @return 结果行流；设置行处理器后开始读取
+     * @since 5.0.4
+     */
+    public final <R extends ResultRow> Future<ResultRowStream<R>> stream(int fetchSize, Class<R> clazz, StringDeduplicator deduplicator) {
+        Function<JsonObject, R> factory = ResultRow.factory(clazz);
+        return stream(fetchSize, row -> factory.apply(deduplicator.toJsonObject(row)));
+    }
+
+    /**
+     * 以 {@link io.vertx.core.streams.ReadStream} 形式读取结果。
+     * <p>
+     * 流按需求驱动：{@code pause()} / {@code fetch(n)} 控制向下游交付的行数，缓冲区中最多保留两个游标窗口，
+     * 超出时停止读取游标。可直接 {@code pipeTo} 到任意 {@link io.vertx.core.streams.WriteStream}。
+     * 流结束、出错或调用 {@link ResultRowStream#close()} 后释放游标与预编译语句。
+     *
+     * @param fetchSize 每次从游标读取的行数
+     * @param mapper    行映射函数
+     * @param <R>       行映射后的类型
+     * @return 结果行流；设置行处理器后开始读取
+     * @since 5.0.4
+     */
+    public final <R> Future<ResultRowStream<R>> stream(int fetchSize, Function<Row, R> mapper) {
+        if (fetchSize <= 0) throw new IllegalArgumentException("fetch size <= 0");
+        return getSqlConnection()
+                .prepare(getStatement().buildSql())
+                .compose(preparedStatement -> Future.succeededFuture(new ResultRowStream<>(
+                        preparedStatement.cursor(),
+                        fetchSize,
+                        mapper,
+                        preparedStatement::close
+                )));
+    }
+
     public Keel getKeel() {
         return keel;
     }
@@ -0,0 +1,72 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 数据源指标接口，用于将连接池与事务的运行数据接入外部指标系统。
+ * <p>
+ * {@link NamedMySQLDataSource} 在各事件发生时回调本接口，所有方法默认不做任何处理，实现类按需覆盖。
+ * 回调可能在事件循环线程中并发执行，实现应快速返回且线程安全。
+ * 同一实例可被多个数据源共享，以 {@code dataSourceName} 区分来源。
+ * <p>
+ * 队列深度等瞬时量无需事件回调，可直接轮询 {@link NamedMySQLDataSource#getPendingAcquireCount()} 等方法。
+ *
+ * @see RecordingDataSourceMetrics
+ * @since 5.0.4
+ */
+@NullMarked
+public interface DataSourceMetrics {
+    /**
+     * 不做任何处理的实现。
+     */
+    DataSourceMetrics NOOP = new DataSourceMetrics() {
+    };
+
+    /**
+     * 从连接池获得连接。
+     *
+     * @param dataSourceName 数据源名称
+     * @param waitNanos      从请求到获得连接的等待时长（纳秒），含池满排队与新建连接的时间
+     */
+    default void onConnectionAcquired(String dataSourceName, long waitNanos) {
+    }
+
+    /**
+     * 从连接池获取连接失败。
+     *
+     * @param dataSourceName 数据源名称
+     * @param waitNanos      从请求到失败的等待时长（纳秒）
+     * @param timedOut       是否因超过 {@code poolConnectionTimeout} 而失败
+     */
+    default void onConnectionAcquireFailed(String dataSourceName, long waitNanos, boolean timedOut) {
+    }
+
+    /**
+     * 连接归还到连接池。
+     *
+     * @param dataSourceName 数据源名称
+     * @param holdNanos      连接从借出到归还的占用时长（纳秒）
+     */
+    default void onConnectionReleased(String dataSourceName, long holdNanos) {
+    }
+
+    /**
+     * 新建的物理连接完成初始化（连接设置函数与会话信息查询）。
+     *
+     * @param dataSourceName 数据源名称
+     * @param elapsedNanos   初始化耗时（纳秒）
+     * @param succeeded      初始化是否成功
+     */
+    default void onConnectionInitialized(String dataSourceName, long elapsedNanos, boolean succeeded) {
+    }
+
+    /**
+     * 事务因可重试错误而准备重试。
+     *
+     * @param dataSourceName 数据源名称
+     * @param failedAttempt  失败的尝试序号，从 1 开始
+     * @param cause          失败原因
+     */
+    default void onTransactionRetry(String dataSourceName, int failedAttempt, Throwable cause) {
+    }
+}
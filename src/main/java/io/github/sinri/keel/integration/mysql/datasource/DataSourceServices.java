@@ -0,0 +1,25 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 数据源提供给其借出连接的执行期服务：只读副本路由器、只读语句合并器、查询结果缓存与预编译语句缓存计数。
+ * <p>
+ * 数据源在借出连接时将本对象设置到连接包装对象上，经由该连接包装对象创建的执行对象（及其派生的分块、分页语句）随之持有；
+ * 直接以 {@link io.vertx.sqlclient.SqlConnection} 附着的语句不经过这些服务。
+ *
+ * @param replicaRouter          只读副本路由器；未配置副本时为 {@code null}
+ * @param readCoalescer          只读语句合并器
+ * @param resultCache            查询结果缓存；未启用时为 {@code null}
+ * @param preparedStatementCache 预编译语句缓存计数；未启用客户端预编译语句缓存时为 {@code null}
+ * @since 5.0.4
+ */
+@NullMarked
+public record DataSourceServices(
+        @Nullable ReplicaRouter replicaRouter,
+        ReadCoalescer readCoalescer,
+        @Nullable ResultCache resultCache,
+        @Nullable PreparedStatementCache preparedStatementCache
+) {
+}
@@ -0,0 +1,255 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection;
+import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 按整数键（通常为主键）批量加载行的加载器（DataLoader 模式）。
+ * <p>
+ * 同一事件循环轮次内（或配置的批处理窗口内）发起的单键加载被收集起来，
+ * 去重后以 {@code WHERE key IN (...)} 一次查询，超过单批上限时拆分为多个并发查询；
+ * 结果按键分发回各调用方，从而将 N+1 次查询合并为少数几次往返。
+ * <p>
+ * 查询通过 {@link NamedMySQLDataSource#withConnection(Function)} 借出连接执行，
+ * 因此同样适用读写分离、只读语句合并与查询结果缓存。加载器本身不缓存已加载的行。
+ *
+ * <pre>{@code
+ * KeyBatchLoader<UserRow> loader = new KeyBatchLoader<>(dataSource, "user", "id", UserRow.class);
+ * Future<UserRow> user = loader.load(userId);
+ * }</pre>
+ *
+ * @param <R> 结果行类型
+ * @since 5.0.4
+ */
+@NullMarked
+public final class KeyBatchLoader<R extends ResultRow> {
+    private final BiConsumer<Duration, Runnable> scheduler;
+    private final Function<List<Long>, Future<Map<Long, R>>> batchFunction;
+    private final AtomicLong loadCounter = new AtomicLong(0);
+    private final AtomicLong batchCounter = new AtomicLong(0);
+    private final AtomicLong queryCounter = new AtomicLong(0);
+    private Map<Long, List<Promise<@Nullable R>>> pending = new LinkedHashMap<>();
+    private boolean dispatchScheduled = false;
+    private volatile int maxBatchSize = 1000;
+    private volatile Duration batchWindow = Duration.ZERO;
+
+    /**
+     * @param dataSource 数据源
+     * @param table      表名（可含库名，原样写入 {@code FROM}）
+     * @param keyColumn  键列名（不含反引号），其值须为整数且在表中唯一
+     * @param rowClass   结果行类，须有 {@code (JsonObject)} 构造器
+     */
+    public KeyBatchLoader(
+            NamedMySQLDataSource<? extends NamedMySQLConnection> dataSource,
+            String table,
+            String keyColumn,
+            Class<R> rowClass
+    ) {
+        this((window, task) -> schedule(dataSource.getVertx(), window, task), keys -> dataSource.withConnection(
+                connection -> connection.select(statement -> statement
+                                                .from(table)
+                                                .where(conditions -> conditions.expressionAmongNumericValues("`" + keyColumn + "`", keys)))
+                                        .executeForResultMatrix(rowClass)
+                                        .compose(matrix -> matrix.buildUniqueKeyBoundRowMap(row -> readKey(row, keyColumn)))
+        ).map(map -> map == null ? Map.of() : map));
+    }
+
+    /**
+     * @param scheduler     按批处理窗口安排批次发出的方式
+     * @param batchFunction 以一批互不相同的键查询，返回查询到的键到行的映射
+     */
+    KeyBatchLoader(BiConsumer<Duration, Runnable> scheduler, Function<List<Long>, Future<Map<Long, R>>> batchFunction) {
+        this.scheduler = scheduler;
+        this.batchFunction = batchFunction;
+    }
+
+    private static long readKey(ResultRow row, String keyColumn) {
+        Object value = row.toJsonObject().getValue(keyColumn);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String string) {
+            return Long.parseLong(string);
+        }
+        throw new IllegalStateException("Key column " + keyColumn + " is not an integer: " + value);
+    }
+
+    /**
+     * @return 单次查询的 {@code IN} 列表最多包含的键数
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @param maxBatchSize 单次查询的 {@code IN} 列表最多包含的键数，默认 1000
+     * @return 自身实例
+     */
+    public KeyBatchLoader<R> setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * @return 批处理窗口
+     */
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+
+    /**
+     * 设置批处理窗口。为零（默认）时在当前事件循环轮次结束后立即发出批次；
+     * 大于零时自第一个键到达起等待该时长，以收集跨轮次的加载，代价是每次加载增加至多该时长的延迟。
+     *
+     * @param batchWindow 批处理窗口
+     * @return 自身实例
+     */
+    public KeyBatchLoader<R> setBatchWindow(Duration batchWindow) {
+        if (batchWindow.isNegative()) {
+            throw new IllegalArgumentException("batchWindow must not be negative");
+        }
+        this.batchWindow = batchWindow;
+        return this;
+    }
+
+    /**
+     * 加载一个键对应的行。
+     *
+     * @param key 键值
+     * @return 对应的行；不存在时为 {@code null}
+     */
+    public Future<@Nullable R> load(long key) {
+        loadCounter.incrementAndGet();
+        Promise<@Nullable R> promise = Promise.promise();
+        boolean schedule;
+        synchronized (this) {
+            pending.computeIfAbsent(key, k -> new ArrayList<>(1)).add(promise);
+            schedule = !dispatchScheduled;
+            dispatchScheduled = true;
+        }
+        if (schedule) {
+            scheduler.accept(batchWindow, this::dispatch);
+        }
+        return promise.future();
+    }
+
+    /**
+     * 加载多个键对应的行，与同一轮次内的其他加载合并查询。
+     *
+     * @param keys 键值
+     * @return 查询到的键到行的映射，不含不存在的键
+     */
+    public Future<Map<Long, R>> loadMany(Collection<Long> keys) {
+        Map<Long, Future<@Nullable R>> futures = new LinkedHashMap<>();
+        for (Long key : keys) {
+            futures.computeIfAbsent(key, this::load);
+        }
+        return Future.all(new ArrayList<>(futures.values()))
+                     .map(v -> {
+                         Map<Long, R> result = new LinkedHashMap<>();
+                         futures.forEach((key, future) -> {
+                             R row = future.result();
+                             if (row != null) {
+                                 result.put(key, row);
+                             }
+                         });
+                         return result;
+                     });
+    }
+
+    /**
+     * 立即发出当前已收集的键，不等待批处理窗口结束。
+     */
+    public void dispatch() {
+        Map<Long, List<Promise<@Nullable R>>> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            dispatchScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchCounter.incrementAndGet();
+        List<Long> keys = new ArrayList<>(batch.keySet());
+        int chunkSize = maxBatchSize;
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            List<Long> chunk = keys.subList(from, Math.min(keys.size(), from + chunkSize));
+            queryCounter.incrementAndGet();
+            Future.succeededFuture()
+                  .compose(v -> batchFunction.apply(chunk))
+                  .onComplete(ar -> {
+                      for (Long key : chunk) {
+                          List<Promise<@Nullable R>> promises = batch.get(key);
+                          for (Promise<@Nullable R> promise : promises) {
+                              if (ar.succeeded()) {
+                                  promise.complete(ar.result().get(key));
+                              } else {
+                                  promise.fail(ar.cause());
+                              }
+                          }
+                      }
+                  });
+        }
+    }
+
+    /**
+     * @return 单键加载的总次数
+     */
+    public long getLoadCount() {
+        return loadCounter.get();
+    }
+
+    /**
+     * @return 发出的批次数
+     */
+    public long getBatchCount() {
+        return batchCounter.get();
+    }
+
+    /**
+     * @return 实际执行的查询数（批次按单批上限拆分后的总数）
+     */
+    public long getQueryCount() {
+        return queryCounter.get();
+    }
+
+    private static void schedule(Vertx vertx, Duration window, Runnable task) {
+        long windowMillis = window.toMillis();
+        if (windowMillis > 0) {
+            vertx.setTimer(windowMillis, id -> task.run());
+            return;
+        }
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            context = vertx.getOrCreateContext();
+        }
+        context.runOnContext(v -> task.run());
+    }
+
+    /**
+     * @return 当前等待发出的不同键数
+     */
+    synchronized int getPendingKeyCount() {
+        return pending.size();
+    }
+}
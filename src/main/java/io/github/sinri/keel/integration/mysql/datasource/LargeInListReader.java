@@ -0,0 +1,424 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection;
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead;
+import io.github.sinri.keel.integration.mysql.result.StatementExecuteResult;
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.pagination.KeysetCursor;
+import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.statement.RawStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.WriteIntoStatement;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 大 {@code IN} 列表读取器，以键集合限定查询时，避免将数万个键拼入同一个 {@code IN (...)}。
+ * <p>
+ * 按键的数量选择执行方式（见 {@link Strategy}）：
+ * <ul>
+ *     <li>不超过 {@code chunkSize} 个键：一条语句；</li>
+ *     <li>不超过 {@code temporaryTableThreshold} 个键：按 {@code chunkSize} 分块，经连接池中的多个连接并行执行后合并结果；</li>
+ *     <li>更多的键：在一个连接上将键写入会话临时表，以 {@code key IN (SELECT k FROM 临时表)} 半连接读取。</li>
+ * </ul>
+ * 分块合并时，若原查询有 {@code ORDER BY}，按排序键归并各块结果，排序键须以去掉表限定前缀后的名称出现在结果列中；
+ * 原查询的 {@code LIMIT} 在合并后再次应用。
+ * 汇总查询（含 {@code GROUP BY}、{@code HAVING}、聚合函数或 {@code DISTINCT}，见 {@link SelectStatement#isAggregated()}）
+ * 与含 {@code OFFSET} 的查询无法按块合并，总是使用临时表。
+ * <p>
+ * 合并时字符串排序键按 Java 的 {@link String#compareTo(String)}（UTF-16 码元顺序）比较，不遵循列的排序规则（collation）：
+ * 只在二进制排序规则（如 {@code utf8mb4_bin}）下与 MySQL 的顺序基本一致；默认的大小写不敏感排序规则下，
+ * 仅大小写或重音不同的值、以及大小写混排的值的先后可能与 MySQL 不同，配合 {@code LIMIT} 时还会影响截取到哪些行。
+ * 需要与 MySQL 完全一致的顺序时，应以数值或时间列排序，或将 {@link #setTemporaryTableThreshold(int)} 设为不超过 {@code chunkSize}
+ * 使查询总在一个语句中完成。
+ * <p>
+ * 分块在不同的连接上执行，彼此不是同一个一致性快照。
+ *
+ * @param <R> 结果行类型
+ * @since 5.0.4
+ */
+@NullMarked
+public final class LargeInListReader<R extends ResultRow> {
+    /**
+     * 临时表方式使用的会话临时表名。
+     */
+    public static final String TEMPORARY_TABLE_NAME = "keel_in_list_keys";
+    /**
+     * 临时表中键列的列名。
+     */
+    public static final String TEMPORARY_KEY_COLUMN = "k";
+
+    private final Function<SelectStatement, Future<ResultMatrix<R>>> chunkReader;
+    private final BiFunction<List<Object>, SelectStatement, Future<ResultMatrix<R>>> temporaryTableReader;
+    private final AtomicLong chunkQueryCounter = new AtomicLong(0);
+    private final AtomicLong temporaryTableReadCounter = new AtomicLong(0);
+    private volatile int chunkSize = 1000;
+    private volatile int parallelism = 4;
+    private volatile int temporaryTableThreshold = 20000;
+
+    /**
+     * @param dataSource 数据源
+     * @param rowClass   结果行类，须有 {@code (JsonObject)} 构造器
+     */
+    public LargeInListReader(NamedMySQLDataSource<? extends NamedMySQLConnection> dataSource, Class<R> rowClass) {
+        this(
+                statement -> dataSource.withConnection(
+                        connection -> {
+                            RunnableStatementForRead runnable = statement.attachToConnection(connection.getSqlConnection());
+                            runnable.setDataSourceServices(connection.getDataSourceServices());
+                            return runnable.executeForResultMatrix(rowClass);
+                        }
+                ).map(matrix -> matrix == null ? ResultMatrix.ofRows(List.of()) : matrix),
+                (keys, statement) -> dataSource.withConnection(
+                        connection -> readThroughTemporaryTable(connection, keys, statement, rowClass)
+                ).map(matrix -> matrix == null ? ResultMatrix.ofRows(List.of()) : matrix)
+        );
+    }
+
+    /**
+     * @param chunkReader          执行一条（分块后的）查询
+     * @param temporaryTableReader 在同一连接上将键写入临时表并执行以临时表限定的查询
+     */
+    LargeInListReader(
+            Function<SelectStatement, Future<ResultMatrix<R>>> chunkReader,
+            BiFunction<List<Object>, SelectStatement, Future<ResultMatrix<R>>> temporaryTableReader
+    ) {
+        this.chunkReader = chunkReader;
+        this.temporaryTableReader = temporaryTableReader;
+    }
+
+    private static <R extends ResultRow> Future<ResultMatrix<R>> readThroughTemporaryTable(
+            NamedMySQLConnection connection,
+            List<Object> keys,
+            SelectStatement statement,
+            Class<R> rowClass
+    ) {
+        List<WriteIntoStatement.RowToWrite> rows = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            rows.add(new WriteIntoStatement.RowToWrite().put(TEMPORARY_KEY_COLUMN, key));
+        }
+        String drop = "DROP TEMPORARY TABLE IF EXISTS " + TEMPORARY_TABLE_NAME;
+        String create = "CREATE TEMPORARY TABLE " + TEMPORARY_TABLE_NAME
+                + " (" + TEMPORARY_KEY_COLUMN + " " + keyColumnDefinition(keys) + " PRIMARY KEY)";
+        return executeTemporaryTableDdl(connection, drop)
+                .compose(v -> executeTemporaryTableDdl(connection, create))
+                .compose(v -> connection.insert(w -> w.ignore()
+                                                      .intoTable(TEMPORARY_TABLE_NAME)
+                                                      .macroWriteRows(rows))
+                                        .executeInChunks())
+                .compose(v -> {
+                    // 临时表只存在于当前会话：不得路由到副本，也不得合并或缓存
+                    RunnableStatementForRead runnable = statement.attachToConnection(connection.getSqlConnection());
+                    runnable.setReplicaRoutingAllowed(false);
+                    runnable.setResultCacheAllowed(false);
+                    return runnable.executeForResultMatrix(rowClass);
+                })
+                .eventually(() -> executeTemporaryTableDdl(connection, drop));
+    }
+
+    /**
+     * 声明只涉及临时表，以免查询结果缓存把它当作无法确定所涉及表的写语句而全部失效。
+     */
+    private static Future<StatementExecuteResult> executeTemporaryTableDdl(NamedMySQLConnection connection, String sql) {
+        return new RawStatement(sql) {
+            @Override
+            public Set<String> getReferencedTables() {
+                return Set.of(TEMPORARY_TABLE_NAME);
+            }
+        }.attachToConnection(connection.getSqlConnection()).executeThroughQuery();
+    }
+
+    /**
+     * 整数键使用 {@code BIGINT}，其余按最长的文本长度使用 {@code VARCHAR}（采用会话默认字符集）。
+     */
+    static String keyColumnDefinition(List<Object> keys) {
+        int maxLength = 1;
+        boolean integral = true;
+        for (Object key : keys) {
+            if (!(key instanceof Long)) {
+                integral = false;
+            }
+            maxLength = Math.max(maxLength, String.valueOf(key).length());
+        }
+        return integral ? "BIGINT" : "VARCHAR(" + maxLength + ")";
+    }
+
+    /**
+     * 去掉 {@code null} 与重复的键；整数统一为 {@link Long}，以免同值不同类型的键被分到两个块中。
+     */
+    static List<Object> normalizeKeys(Collection<?> keys) {
+        Set<Object> set = new LinkedHashSet<>();
+        for (Object key : keys) {
+            if (key == null) {
+                continue;
+            }
+            if (key instanceof Integer || key instanceof Short || key instanceof Byte) {
+                set.add(((Number) key).longValue());
+            } else if (key instanceof BigInteger bigInteger && bigInteger.bitLength() < Long.SIZE) {
+                set.add(bigInteger.longValue());
+            } else {
+                set.add(key);
+            }
+        }
+        return new ArrayList<>(set);
+    }
+
+    /**
+     * @return 每块 {@code IN} 列表最多包含的键数
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize 每块 {@code IN} 列表最多包含的键数，默认 1000
+     * @return 自身实例
+     */
+    public LargeInListReader<R> setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return 分块方式下同时执行的查询数
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism 分块方式下同时执行的查询数（占用的连接数），默认 4；应小于连接池大小
+     * @return 自身实例
+     */
+    public LargeInListReader<R> setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @return 改用临时表方式的键数阈值
+     */
+    public int getTemporaryTableThreshold() {
+        return temporaryTableThreshold;
+    }
+
+    /**
+     * @param temporaryTableThreshold 键数超过该值时改用临时表方式，默认 20000；
+     *                                取 {@link Integer#MAX_VALUE} 时只在查询无法按块合并时使用临时表
+     * @return 自身实例
+     */
+    public LargeInListReader<R> setTemporaryTableThreshold(int temporaryTableThreshold) {
+        if (temporaryTableThreshold <= 0) {
+            throw new IllegalArgumentException("temporaryTableThreshold must be positive");
+        }
+        this.temporaryTableThreshold = temporaryTableThreshold;
+        return this;
+    }
+
+    /**
+     * @return 分块方式实际发出的查询数
+     */
+    public long getChunkQueryCount() {
+        return chunkQueryCounter.get();
+    }
+
+    /**
+     * @return 以临时表方式执行的读取次数
+     */
+    public long getTemporaryTableReadCount() {
+        return temporaryTableReadCounter.get();
+    }
+
+    /**
+     * 决定以给定数量的键执行查询时采用的方式。
+     *
+     * @param template 不含键条件的查询
+     * @param keyCount 去重后的键数
+     * @return 执行方式
+     */
+    public Strategy chooseStrategy(SelectStatement template, int keyCount) {
+        if (keyCount <= chunkSize) {
+            return Strategy.SINGLE;
+        }
+        if (keyCount > temporaryTableThreshold || template.isAggregated() || template.getOffset() > 0) {
+            return Strategy.TEMPORARY_TABLE;
+        }
+        return Strategy.CHUNKED;
+    }
+
+    /**
+     * 以 {@code keyExpression IN (keys)} 限定给定查询并读取结果。原查询不会被修改。
+     *
+     * @param template      不含键条件的查询，其余条件、排序与 {@code LIMIT} 照常生效
+     * @param keyExpression 键列表达式，原样写入条件左侧
+     * @param keys          键集合；{@code null} 与重复的键被忽略
+     * @return 查询结果；键集合为空时为空结果
+     */
+    public Future<ResultMatrix<R>> read(SelectStatement template, String keyExpression, Collection<?> keys) {
+        List<Object> normalizedKeys = normalizeKeys(keys);
+        if (normalizedKeys.isEmpty()) {
+            return Future.succeededFuture(ResultMatrix.ofRows(List.of()));
+        }
+        return switch (chooseStrategy(template, normalizedKeys.size())) {
+            case SINGLE -> {
+                chunkQueryCounter.incrementAndGet();
+                yield chunkReader.apply(withKeys(template, keyExpression, normalizedKeys));
+            }
+            case CHUNKED -> readInChunks(template, keyExpression, normalizedKeys);
+            case TEMPORARY_TABLE -> {
+                temporaryTableReadCounter.incrementAndGet();
+                SelectStatement statement = new SelectStatement(template)
+                        .where(conditions -> conditions.expressionInSubquery(
+                                keyExpression,
+                                new SelectStatement().from(TEMPORARY_TABLE_NAME).columnAsExpression(TEMPORARY_KEY_COLUMN)
+                        ));
+                yield temporaryTableReader.apply(normalizedKeys, statement);
+            }
+        };
+    }
+
+    private static SelectStatement withKeys(SelectStatement template, String keyExpression, List<Object> keys) {
+        boolean numeric = true;
+        for (Object key : keys) {
+            if (!(key instanceof Number)) {
+                numeric = false;
+                break;
+            }
+        }
+        if (numeric) {
+            List<Number> numbers = new ArrayList<>(keys.size());
+            keys.forEach(key -> numbers.add((Number) key));
+            return new SelectStatement(template).where(conditions -> conditions.expressionAmongNumericValues(keyExpression, numbers));
+        }
+        return new SelectStatement(template).where(conditions -> conditions.expressionAmongLiteralValues(keyExpression, keys));
+    }
+
+    private Future<ResultMatrix<R>> readInChunks(SelectStatement template, String keyExpression, List<Object> keys) {
+        List<SelectStatement> statements = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            statements.add(withKeys(template, keyExpression, keys.subList(from, Math.min(keys.size(), from + chunkSize))));
+        }
+
+        int total = statements.size();
+        AtomicReferenceArray<ResultMatrix<R>> results = new AtomicReferenceArray<>(total);
+        AtomicInteger nextIndex = new AtomicInteger(0);
+        AtomicInteger remaining = new AtomicInteger(total);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Promise<Void> promise = Promise.promise();
+        Runnable[] worker = new Runnable[1];
+        worker[0] = () -> {
+            int index = nextIndex.getAndIncrement();
+            if (index >= total || failed.get()) {
+                return;
+            }
+            chunkQueryCounter.incrementAndGet();
+            chunkReader.apply(statements.get(index)).onComplete(ar -> {
+                if (ar.failed()) {
+                    if (failed.compareAndSet(false, true)) {
+                        promise.fail(ar.cause());
+                    }
+                    return;
+                }
+                results.set(index, ar.result());
+                if (remaining.decrementAndGet() == 0) {
+                    promise.complete();
+                } else {
+                    worker[0].run();
+                }
+            });
+        };
+        for (int i = 0; i < Math.min(parallelism, total); i++) {
+            worker[0].run();
+        }
+
+        return promise.future().map(v -> {
+            List<R> rows = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                rows.addAll(results.get(i).getRowList());
+            }
+            List<KeysetCursor.SortKey> sortKeys = KeysetCursor.parseSortRules(template.getSortRules());
+            if (!sortKeys.isEmpty()) {
+                // 各块已按相同规则排好序，稳定排序在这种由有序段拼接的列表上接近线性
+                rows.sort(rowComparator(sortKeys));
+            }
+            if (template.getLimit() > 0 && rows.size() > template.getLimit()) {
+                rows = rows.subList(0, (int) template.getLimit());
+            }
+            return ResultMatrix.ofRows(rows);
+        });
+    }
+
+    static <R extends ResultRow> Comparator<R> rowComparator(List<KeysetCursor.SortKey> sortKeys) {
+        return (a, b) -> {
+            for (KeysetCursor.SortKey sortKey : sortKeys) {
+                String label = sortKey.columnLabel();
+                int compared = compareValues(a.toJsonObject().getValue(label), b.toJsonObject().getValue(label));
+                if (compared != 0) {
+                    return sortKey.descending() ? -compared : compared;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * 按 MySQL 的规则，{@code NULL} 小于任何值。字符串按 {@link String#compareTo(String)} 比较，不考虑列的排序规则。
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(@Nullable Object a, @Nullable Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        if (a instanceof Number x && b instanceof Number y) {
+            if ((x instanceof Long || x instanceof Integer) && (y instanceof Long || y instanceof Integer)) {
+                return Long.compare(x.longValue(), y.longValue());
+            }
+            return new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString()));
+        }
+        if (a instanceof Comparable comparable && a.getClass() == b.getClass()) {
+            return comparable.compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    /**
+     * 执行方式。
+     */
+    public enum Strategy {
+        /**
+         * 键数不超过一块，以一条语句执行。
+         */
+        SINGLE,
+        /**
+         * 分块并行执行后合并。
+         */
+        CHUNKED,
+        /**
+         * 将键写入会话临时表后以半连接执行。
+         */
+        TEMPORARY_TABLE
+    }
+}
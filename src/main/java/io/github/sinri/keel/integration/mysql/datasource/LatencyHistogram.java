@@ -0,0 +1,139 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的对数线性延迟直方图，单位为纳秒。
+ * <p>
+ * 每个 2 的幂区间再等分为 4 个桶，分位数的相对误差不超过 25%；记录操作为常数时间，可在事件循环中调用。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong(0);
+    private final AtomicLong sum = new AtomicLong(0);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * 记录一次时长。
+     *
+     * @param nanos 时长（纳秒），负数按 0 记录
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * @return 记录次数
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return 全部记录的时长之和（纳秒）
+     */
+    public long getSumNanos() {
+        return sum.get();
+    }
+
+    /**
+     * @return 记录到的最大时长（纳秒）
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * @return 平均时长（纳秒），无记录时为 0
+     */
+    public double getMeanNanos() {
+        long c = count.get();
+        return c == 0 ? 0 : (double) sum.get() / c;
+    }
+
+    /**
+     * 估算分位数，返回所在桶的上界（不超过最大值）。
+     *
+     * @param quantile 分位，取值 {@code [0, 1]}，如 {@code 0.99}
+     * @return 分位时长（纳秒），无记录时为 0
+     */
+    public long getQuantileNanos(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile out of [0, 1]: " + quantile);
+        }
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * 清空所有记录。并发记录期间调用时，结果可能包含部分新记录。
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @return 以毫秒为单位的摘要：{@code count}、{@code mean}、{@code p50}、{@code p90}、{@code p99}、{@code max}
+     */
+    public JsonObject toJsonObject() {
+        return new JsonObject()
+                .put("count", getCount())
+                .put("mean", getMeanNanos() / 1_000_000.0)
+                .put("p50", getQuantileNanos(0.5) / 1_000_000.0)
+                .put("p90", getQuantileNanos(0.9) / 1_000_000.0)
+                .put("p99", getQuantileNanos(0.99) / 1_000_000.0)
+                .put("max", getMaxNanos() / 1_000_000.0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long upper = lower + width - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
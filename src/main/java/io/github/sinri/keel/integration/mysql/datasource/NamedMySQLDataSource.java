@@ -1,29 +1,45 @@
 package io.github.sinri.keel.integration.mysql.datasource;
 
 import io.github.sinri.keel.base.annotations.TechnicalPreview;
+import io.github.sinri.keel.base.async.Keel;
 import io.github.sinri.keel.core.utils.ReflectionUtils;
 import io.github.sinri.keel.core.utils.value.ValueBox;
 import io.github.sinri.keel.integration.mysql.KeelMySQLConfiguration;
 import io.github.sinri.keel.integration.mysql.action.single.NamedActionInterface;
 import io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection;
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead;
 import io.github.sinri.keel.integration.mysql.exception.KeelMySQLConnectionException;
 import io.github.sinri.keel.integration.mysql.exception.KeelMySQLException;
+import io.github.sinri.keel.integration.mysql.result.StatementExecuteResult;
 import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.integration.mysql.statement.mixin.ReadStatementMixin;
 import io.github.sinri.keel.integration.mysql.statement.quoter.MySQLEscapeContext;
 import io.github.sinri.keel.logger.api.LateObject;
 import io.vertx.core.Closeable;
 import io.vertx.core.Completable;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
 import io.vertx.mysqlclient.MySQLBuilder;
+import io.vertx.mysqlclient.MySQLConnectOptions;
 import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
 import io.vertx.sqlclient.SqlConnection;
 import io.vertx.sqlclient.TransactionRollbackException;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -35,6 +51,7 @@ import java.util.function.Function;
 @NullMarked
 public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Closeable {
 
+    private final Vertx vertx;
     private final Pool pool;
     private final KeelMySQLConfiguration configuration;
 
@@ -45,6 +62,7 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
     private final Function<SqlConnection, C> sqlConnectionWrapper;
     private final LateObject<String> lateFullVersion = new LateObject<>();
     private final LateObject<MySQLEscapeContext> lateStringLiteralEscapeContext = new LateObject<>();
+    private final LateObject<Long> lateMaxAllowedPacket = new LateObject<>();
     /**
      * 一次性的 MySQL 会话信息初始化 Future 缓存。访问受 {@code synchronized(this)} 保护：
      * 冷启动并发建连时仅首个连接真正发起会话信息查询，其余连接复用同一 Future。
@@ -53,6 +71,50 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
      * @see #initializeServerSessionInfoOnce(SqlConnection)
      */
     private @Nullable Future<@Nullable ServerSessionInfo> serverSessionInfoInitFuture;
+    /**
+     * 预编译语句缓存计数；配置项 {@code preparedStatementCacheMaxSize} 不大于 0 时为 {@code null}。
+     */
+    private final @Nullable PreparedStatementCache preparedStatementCache;
+    /**
+     * 只读副本路由器；配置项 {@code replicas} 为空时为 {@code null}。
+     */
+    private final @Nullable ReplicaRouter replicaRouter;
+    /**
+     * 只读语句合并器，默认关闭。
+     */
+    private final ReadCoalescer readCoalescer = new ReadCoalescer();
+    /**
+     * 查询结果缓存；配置项 {@code resultCacheMaxSize} 不大于 0 时为 {@code null}。
+     */
+    private final @Nullable ResultCache resultCache;
+    /**
+     * 设置到借出连接上的执行期服务，由上述副本路由器、只读语句合并器、结果缓存与预编译语句缓存计数组成。
+     */
+    private final DataSourceServices dataSourceServices;
+    /**
+     * {@link #withTransaction(Function)} 默认采用的事务重试策略；为 {@code null} 时不重试。
+     */
+    private volatile @Nullable TransactionRetryPolicy transactionRetryPolicy;
+    /**
+     * 连接池与事务指标的接收者。
+     */
+    private volatile DataSourceMetrics metrics = DataSourceMetrics.NOOP;
+    /**
+     * 连接池获取连接的超时时长（纳秒），取自池选项的 {@code connectionTimeout}；不大于 0 时不超时。
+     */
+    private final long connectionTimeoutNanos;
+    /**
+     * 已向连接池发起请求、尚未获得连接的请求数。
+     */
+    private final AtomicInteger pendingAcquireCounter = new AtomicInteger(0);
+    /**
+     * 虚拟线程方式借出的连接及其借出时刻，用于在归还时计算占用时长。
+     */
+    private final Map<SqlConnection, Long> virtualThreadBorrowedAt = new ConcurrentHashMap<>();
+    /**
+     * 最近一次预热的耗时（毫秒）；尚未预热时为 -1。
+     */
+    private volatile long warmUpElapsedMillis = -1;
 
     /**
      * 检查 MySQL 会话信息。
@@ -65,7 +127,8 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
                                    SELECT
                                        VERSION() as v,
                                        @@session.sql_mode as sql_mode,
-                                       @@session.character_set_connection as character_set_connection;
+                                       @@session.character_set_connection as character_set_connection,
+                                       @@max_allowed_packet as max_allowed_packet;
                                    """)
                             .execute()
                             .compose(rows -> {
@@ -77,10 +140,12 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
                                     String versionExp = row.readString("v");
                                     String sqlMode = row.readString("sql_mode");
                                     String characterSetConnection = row.readString("character_set_connection");
+                                    Long maxAllowedPacket = row.readLong("max_allowed_packet");
                                     return Future.succeededFuture(new ServerSessionInfo(
                                             versionExp,
                                             sqlMode,
-                                            characterSetConnection
+                                            characterSetConnection,
+                                            maxAllowedPacket
                                     ));
                                 } catch (Throwable e) {
                                     // Keel.getLogger().exception(e);
@@ -118,14 +183,64 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
             @Nullable Function<SqlConnection, Future<Void>> connectionSetUpFunction,
             Function<SqlConnection, C> sqlConnectionWrapper
     ) {
+        this.vertx = vertx;
         this.configuration = configuration;
         this.sqlConnectionWrapper = sqlConnectionWrapper;
+        MySQLConnectOptions connectOptions = configuration.getConnectOptions();
+        this.preparedStatementCache = connectOptions.getCachePreparedStatements()
+                ? new PreparedStatementCache(
+                        connectOptions.getPreparedStatementCacheMaxSize(),
+                        connectOptions.getPreparedStatementCacheSqlFilter()
+                )
+                : null;
+        int resultCacheMaxSize = configuration.getResultCacheMaxSize();
+        this.resultCache = resultCacheMaxSize > 0
+                ? new ResultCache(
+                        resultCacheMaxSize,
+                        Duration.ofSeconds(configuration.getResultCacheTtl()),
+                        configuration.getResultCacheTables()
+                )
+                : null;
+        PoolOptions poolOptions = configuration.getPoolOptions();
+        this.connectionTimeoutNanos = poolOptions.getConnectionTimeoutUnit().toNanos(poolOptions.getConnectionTimeout());
         this.pool = MySQLBuilder.pool()
-                                .with(configuration.getPoolOptions())
-                                .connectingTo(configuration.getConnectOptions())
+                                .with(poolOptions)
+                                .connectingTo(connectOptions)
                                 .using(vertx)
                                 .withConnectHandler(sqlConnection -> initializeConnection(sqlConnection, connectionSetUpFunction))
                                 .build();
+        this.replicaRouter = createReplicaRouter(vertx, connectionSetUpFunction);
+        this.dataSourceServices = new DataSourceServices(replicaRouter, readCoalescer, resultCache, preparedStatementCache);
+    }
+
+    /**
+     * 按配置项 {@code replicas} 为每个副本建立连接池；副本连接池与主库使用相同的池选项，并以副本地址区分池名称。
+     * 副本上新建立的连接与主库连接经过相同的初始化（连接设置函数与会话信息读取）。
+     *
+     * @return 副本路由器；未配置副本时为 {@code null}
+     */
+    private @Nullable ReplicaRouter createReplicaRouter(
+            Vertx vertx,
+            @Nullable Function<SqlConnection, Future<Void>> connectionSetUpFunction
+    ) {
+        List<MySQLConnectOptions> replicaConnectOptions = configuration.getReplicaConnectOptions();
+        if (replicaConnectOptions.isEmpty()) {
+            return null;
+        }
+        List<ReplicaEndpoint> endpoints = new ArrayList<>(replicaConnectOptions.size());
+        for (MySQLConnectOptions connectOptions : replicaConnectOptions) {
+            String address = connectOptions.getHost() + ":" + connectOptions.getPort();
+            PoolOptions poolOptions = new PoolOptions(configuration.getPoolOptions());
+            poolOptions.setName(poolOptions.getName() + "-replica-" + address);
+            Pool replicaPool = MySQLBuilder.pool()
+                                           .with(poolOptions)
+                                           .connectingTo(connectOptions)
+                                           .using(vertx)
+                                           .withConnectHandler(sqlConnection -> initializeConnection(sqlConnection, connectionSetUpFunction))
+                                           .build();
+            endpoints.add(new ReplicaEndpoint(address, replicaPool));
+        }
+        return new ReplicaRouter(endpoints);
     }
 
     /**
@@ -152,6 +267,9 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
                     lateFullVersion.set(result.version());
                 }
                 lateStringLiteralEscapeContext.set(result.toEscapeContext());
+                if (result.maxAllowedPacket() != null) {
+                    lateMaxAllowedPacket.set(result.maxAllowedPacket());
+                }
             } else {
                 synchronized (this) {
                     serverSessionInfoInitFuture = null;
@@ -171,6 +289,7 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
             SqlConnection sqlConnection,
             @Nullable Function<SqlConnection, Future<Void>> connectionSetUpFunction
     ) {
+        long start = System.nanoTime();
         Future.succeededFuture()
               .compose(v -> {
                   if (connectionSetUpFunction != null) {
@@ -182,6 +301,11 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
               .compose(v -> initializeServerSessionInfoOnce(sqlConnection))
               .compose(ignored -> Future.succeededFuture())
               .onComplete(ar -> {
+                  metrics.onConnectionInitialized(
+                          configuration.getDataSourceName(),
+                          System.nanoTime() - start,
+                          ar.succeeded()
+                  );
                   sqlConnection.close();
               });
     }
@@ -196,10 +320,11 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
      */
     private Future<C> fetchMySQLConnection() {
         return Future.succeededFuture()
-                     .compose(v -> pool.getConnection())
+                     .compose(v -> acquireFromPool())
                      .compose(
                              sqlConnection -> {
                                  C c = this.sqlConnectionWrapper.apply(sqlConnection);
+                                 c.setDataSourceServices(dataSourceServices);
 
                                  // add mysql version to c;
                                  if (this.lateFullVersion.isInitialized()) {
@@ -210,6 +335,9 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
                                      c.setMysqlSqlMode(escapeContext.sqlMode());
                                      c.setMysqlCharacterSetConnection(escapeContext.characterSet());
                                  }
+                                 if (this.lateMaxAllowedPacket.isInitialized()) {
+                                     c.setMysqlMaxAllowedPacket(lateMaxAllowedPacket.get());
+                                 }
 
                                  return Future.succeededFuture(c);
                              },
@@ -224,6 +352,61 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
                      );
     }
 
+    /**
+     * 从池中获取一个 {@link SqlConnection}，并记录等待时长与排队数。
+     *
+     * @return 连接 Future
+     */
+    private Future<SqlConnection> acquireFromPool() {
+        long start = System.nanoTime();
+        pendingAcquireCounter.incrementAndGet();
+        return pool.getConnection()
+                   .andThen(ar -> {
+                       pendingAcquireCounter.decrementAndGet();
+                       long waitNanos = System.nanoTime() - start;
+                       if (ar.succeeded()) {
+                           metrics.onConnectionAcquired(configuration.getDataSourceName(), waitNanos);
+                       } else {
+                           metrics.onConnectionAcquireFailed(
+                                   configuration.getDataSourceName(),
+                                   waitNanos,
+                                   isAcquireTimeout(ar.cause(), waitNanos, connectionTimeoutNanos)
+                           );
+                       }
+                   });
+    }
+
+    /**
+     * 判断一次获取连接的失败是否为等待超时。
+     * <p>
+     * Vert.x 连接池在等待超过 {@code connectionTimeout} 后以消息为 {@code "Timeout"} 的
+     * {@link io.vertx.core.VertxException}（无堆栈）使请求失败，而不是 {@link TimeoutException}；
+     * 因此除异常类型外，也按该消息以及等待时长是否达到配置的超时时长判断。
+     *
+     * @param cause                  失败原因
+     * @param waitNanos              等待时长（纳秒）
+     * @param connectionTimeoutNanos 配置的超时时长（纳秒），不大于 0 时不超时
+     * @return 是否为等待超时
+     */
+    static boolean isAcquireTimeout(Throwable cause, long waitNanos, long connectionTimeoutNanos) {
+        if (cause instanceof TimeoutException) {
+            return true;
+        }
+        if (cause instanceof VertxException && "Timeout".equals(cause.getMessage())) {
+            return true;
+        }
+        return connectionTimeoutNanos > 0 && waitNanos >= connectionTimeoutNanos;
+    }
+
+    /**
+     * 记录连接归还及其占用时长。
+     *
+     * @param borrowedAt 借出时刻，取自 {@link System#nanoTime()}
+     */
+    private void recordRelease(long borrowedAt) {
+        metrics.onConnectionReleased(configuration.getDataSourceName(), System.nanoTime() - borrowedAt);
+    }
+
     /**
      * 获取MySQL配置
      *
@@ -234,6 +417,14 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
         return configuration;
     }
 
+    /**
+     * @return 本数据源使用的 Vertx 实例
+     * @since 5.0.4
+     */
+    Vertx getVertx() {
+        return vertx;
+    }
+
     /**
      * 获取当前池大小的近似值，委托 Vert.x {@link Pool#size()}。
      * <p>
@@ -280,6 +471,95 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
         return borrowedConnectionCounter.get();
     }
 
+    /**
+     * 获取已向连接池发起请求、尚未获得连接的请求数，即连接池的排队深度。
+     * <p>
+     * 该值持续大于 0 说明连接池容量不足或连接占用过久。
+     *
+     * @return 等待获取连接的请求数
+     * @since 5.0.4
+     */
+    public int getPendingAcquireCount() {
+        return pendingAcquireCounter.get();
+    }
+
+    /**
+     * 获取本数据源的指标接收者。
+     *
+     * @return 指标接收者；未设置时为 {@link DataSourceMetrics#NOOP}
+     * @since 5.0.4
+     */
+    public DataSourceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 设置本数据源的指标接收者，此后的连接获取、归还、初始化与事务重试事件将回调该接收者。
+     * <p>
+     * 构造期间即开始建立的连接不会被记录到之后才设置的接收者。
+     *
+     * @param metrics 指标接收者；为 {@code null} 时恢复为 {@link DataSourceMetrics#NOOP}
+     * @since 5.0.4
+     */
+    public void setMetrics(@Nullable DataSourceMetrics metrics) {
+        this.metrics = metrics == null ? DataSourceMetrics.NOOP : metrics;
+    }
+
+    /**
+     * 获取本数据源的预编译语句缓存计数，可用于读取命中、未命中与淘汰次数。
+     *
+     * @return 预编译语句缓存计数；未通过 {@code preparedStatementCacheMaxSize} 启用时为 {@code null}
+     * @since 5.0.4
+     */
+    public @Nullable PreparedStatementCache getPreparedStatementCache() {
+        return preparedStatementCache;
+    }
+
+    /**
+     * 获取本数据源的只读副本路由器，可用于读取各副本的延迟与请求计数。
+     *
+     * @return 副本路由器；未通过 {@code replicas} 配置副本时为 {@code null}
+     * @since 5.0.4
+     */
+    public @Nullable ReplicaRouter getReplicaRouter() {
+        return replicaRouter;
+    }
+
+    /**
+     * 获取本数据源的只读语句合并器，可用于开启合并及读取合并计数。
+     * <p>
+     * 开启后，事务之外相同 SQL 与参数的并发只读语句共享同一次查询，适用于热点行被大量并发读取的场景。
+     *
+     * @return 只读语句合并器
+     * @since 5.0.4
+     */
+    public ReadCoalescer getReadCoalescer() {
+        return readCoalescer;
+    }
+
+    /**
+     * 获取本数据源的查询结果缓存，可用于读取命中计数或手动失效。
+     *
+     * @return 结果缓存；未通过 {@code resultCacheMaxSize} 启用时为 {@code null}
+     * @since 5.0.4
+     */
+    public @Nullable ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * 创建按键范围分区的并行全表扫描，各分区在本数据源借出的不同连接上以游标读取。
+     *
+     * @param keel      异步调度器
+     * @param template  不含排序、{@code LIMIT} 与分组的查询，其结果列须包含键列
+     * @param keyColumn 用于划分区间的唯一键列，通常为主键
+     * @return 尚未开始的扫描，配置后调用 {@link PartitionedTableScan#run} 开始
+     * @since 5.0.4
+     */
+    public PartitionedTableScan partitionedScan(Keel keel, SelectStatement template, String keyColumn) {
+        return new PartitionedTableScan(this, keel, template, keyColumn);
+    }
+
     /**
      * 获取MySQL完整版本信息（如 {@code "8.0.35"}）。
      * <p>
@@ -292,6 +572,18 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
         return lateFullVersion.get();
     }
 
+    /**
+     * 获取服务端的 {@code max_allowed_packet}（字节）。
+     * <p>
+     * 与版本信息一同在首次连接初始化时读取，每个数据源只读取一次。
+     *
+     * @return 单个数据包的最大字节数，若尚未获取到则返回 {@code null}
+     * @since 5.0.4
+     */
+    public @Nullable Long getMaxAllowedPacket() {
+        return lateMaxAllowedPacket.isInitialized() ? lateMaxAllowedPacket.get() : null;
+    }
+
     /**
      * 从池中借出一个连接，执行给定的异步操作，操作完成后自动归还连接。
      * <p>
@@ -325,11 +617,18 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
         return Future.succeededFuture().compose(
                 v -> fetchMySQLConnection().compose(sqlConnectionWrapper -> {
                     borrowedConnectionCounter.incrementAndGet();
+                    long borrowedAt = System.nanoTime();
                     return function.apply(sqlConnectionWrapper).andThen(tAsyncResult -> {
                         Future.succeededFuture()
-                              .compose(vv -> sqlConnectionWrapper.getSqlConnection().close())
+                              .compose(vv -> {
+                                  if (resultCache != null) {
+                                      resultCache.flushPending(sqlConnectionWrapper.getSqlConnection());
+                                  }
+                                  return sqlConnectionWrapper.getSqlConnection().close();
+                              })
                               .andThen(ar -> {
                                   borrowedConnectionCounter.decrementAndGet();
+                                  recordRelease(borrowedAt);
                               });
                     }).recover(throwable -> Future.failedFuture(new KeelMySQLException(
                             "MySQLDataSource Failed Within SqlConnection: " + throwable,
@@ -339,6 +638,33 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
         );
     }
 
+    /**
+     * 从池中借出一个连接，在事务之外执行只读语句，完成后自动归还连接。
+     * <p>
+     * 开启了只读语句合并（见 {@link #getReadCoalescer()}）时，在借出连接之前按语句的完整 SQL 文本合并：
+     * 相同语句的并发调用只借出一个连接、发出一次查询，其余调用不借出连接，直接共享其结果，
+     * 因此热点数据被大量并发读取时不会耗尽连接池。引用会话状态的 SQL 不合并。
+     * <p>
+     * 语句在借出的连接上以 {@link RunnableStatementForRead#execute()} 执行，结果缓存照常生效；
+     * 共享的结果对象会被多个调用方同时读取，调用方不应修改它。
+     *
+     * @param statement 只读语句
+     * @return 语句执行结果
+     * @since 5.0.4
+     */
+    public Future<StatementExecuteResult> executeRead(ReadStatementMixin<?> statement) {
+        String sql = statement.buildSql();
+        Supplier<Future<StatementExecuteResult>> query = () -> withConnection(c -> {
+            RunnableStatementForRead runnable = statement.attachToConnection(c.getSqlConnection());
+            runnable.setDataSourceServices(dataSourceServices);
+            return runnable.execute();
+        }).map(Objects::requireNonNull);
+        if (readCoalescer.isEnabled() && !ReadCoalescer.referencesSessionState(sql)) {
+            return readCoalescer.executeBeforeAcquire(sql, query);
+        }
+        return query.get();
+    }
+
     /**
      * 在事务中执行给定的异步操作。
      * <p>
@@ -364,6 +690,8 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
      * <p>
      * 自动管理 {@code BEGIN} / {@code COMMIT} / {@code ROLLBACK} 生命周期：
      * 操作成功时提交事务，抛出异常时回滚事务。连接在事务结束后自动归还。
+     * <p>
+     * 若通过 {@link #setTransactionRetryPolicy(TransactionRetryPolicy)} 设置了重试策略，则按该策略重试。
      *
      * @param function 在事务连接上执行的异步操作
      * @param <T>      操作结果类型
@@ -371,6 +699,77 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
      * @since 5.0.0
      */
     public <T> Future<@Nullable T> withTransaction(Function<C, Future<@Nullable T>> function) {
+        TransactionRetryPolicy retryPolicy = this.transactionRetryPolicy;
+        if (retryPolicy == null) {
+            return withTransactionOnce(function);
+        }
+        return withTransaction(retryPolicy, function);
+    }
+
+    /**
+     * 在事务中执行给定的异步操作，遇到可重试的错误（默认为死锁与锁等待超时）时按策略重试。
+     * <p>
+     * 每次重试都借出新的连接、开启新的事务并重新执行 {@code function}；两次尝试之间按策略退避等待。
+     * 尝试次数用尽或遇到不可重试的错误时，返回最后一次失败。
+     *
+     * @param retryPolicy 事务重试策略
+     * @param function    在事务连接上执行的异步操作，会被完整重复执行
+     * @param <T>         操作结果类型
+     * @return 操作结果 Future，结果可能为 null
+     * @since 5.0.4
+     */
+    public <T> Future<@Nullable T> withTransaction(
+            TransactionRetryPolicy retryPolicy,
+            Function<C, Future<@Nullable T>> function
+    ) {
+        return attemptTransaction(retryPolicy, function, 1);
+    }
+
+    private <T> Future<@Nullable T> attemptTransaction(
+            TransactionRetryPolicy retryPolicy,
+            Function<C, Future<@Nullable T>> function,
+            int attempt
+    ) {
+        retryPolicy.recordAttempt();
+        return withTransactionOnce(function)
+                .recover(throwable -> {
+                    if (!retryPolicy.isRetryable(throwable)) {
+                        return Future.failedFuture(throwable);
+                    }
+                    if (attempt >= retryPolicy.getMaxAttempts()) {
+                        retryPolicy.recordExhausted();
+                        return Future.failedFuture(throwable);
+                    }
+                    retryPolicy.recordRetry();
+                    metrics.onTransactionRetry(configuration.getDataSourceName(), attempt, throwable);
+                    long delay = retryPolicy.computeBackoffMillis(attempt);
+                    Future<Void> backoff = delay > 0 ? vertx.timer(delay) : Future.succeededFuture();
+                    return backoff.compose(v -> attemptTransaction(retryPolicy, function, attempt + 1));
+                });
+    }
+
+    /**
+     * 获取 {@link #withTransaction(Function)} 默认采用的事务重试策略。
+     *
+     * @return 事务重试策略；未设置时为 {@code null}
+     * @since 5.0.4
+     */
+    public @Nullable TransactionRetryPolicy getTransactionRetryPolicy() {
+        return transactionRetryPolicy;
+    }
+
+    /**
+     * 设置 {@link #withTransaction(Function)}（以及基于它的 {@link #executeInTransaction(Function)}、
+     * {@code actInTransaction} 等）默认采用的事务重试策略；设为 {@code null} 时不重试。
+     *
+     * @param transactionRetryPolicy 事务重试策略
+     * @since 5.0.4
+     */
+    public void setTransactionRetryPolicy(@Nullable TransactionRetryPolicy transactionRetryPolicy) {
+        this.transactionRetryPolicy = transactionRetryPolicy;
+    }
+
+    private <T> Future<@Nullable T> withTransactionOnce(Function<C, Future<@Nullable T>> function) {
         return withConnection(c -> {
             return Future.succeededFuture()
                          .compose(v -> c.getSqlConnection().begin())
@@ -400,13 +799,71 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
         });
     }
 
+    /**
+     * 并行预热连接池：同时借出 {@code size} 个连接（不超过连接池上限），待其全部建立并完成初始化后归还。
+     * <p>
+     * 预热的连接留在池中供后续请求复用，首批请求因此无需承担建连、认证与连接初始化的开销；
+     * 其空闲超过 {@code poolIdleTimeout} 后仍会被连接池回收。预热不计入活跃连接数。
+     * <p>
+     * 部分连接建立失败时预热仍视为成功，仅当全部失败时返回失败。
+     *
+     * @param size 预热的连接数
+     * @return 预热耗时（毫秒）
+     * @since 5.0.4
+     */
+    public Future<Long> warmUp(int size) {
+        int target = Math.min(size, configuration.getPoolOptions().getMaxSize());
+        if (target <= 0) {
+            return Future.succeededFuture(0L);
+        }
+        long start = System.nanoTime();
+        List<Future<SqlConnection>> acquisitions = new ArrayList<>(target);
+        for (int i = 0; i < target; i++) {
+            acquisitions.add(acquireFromPool());
+        }
+        return Future.join(acquisitions)
+                     .transform(ar -> {
+                         long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                         int established = 0;
+                         @Nullable Throwable failure = null;
+                         for (Future<SqlConnection> acquisition : acquisitions) {
+                             if (acquisition.succeeded()) {
+                                 acquisition.result().close();
+                                 established++;
+                             } else if (failure == null) {
+                                 failure = acquisition.cause();
+                             }
+                         }
+                         if (established == 0 && failure != null) {
+                             return Future.failedFuture(new KeelMySQLConnectionException(
+                                     "MySQLDataSource Failed to warm up pool `" + configuration.getDataSourceName() + "`: " + failure,
+                                     failure));
+                         }
+                         this.warmUpElapsedMillis = elapsedMillis;
+                         return Future.succeededFuture(elapsedMillis);
+                     });
+    }
+
+    /**
+     * 获取最近一次 {@link #warmUp(int)} 的耗时。
+     *
+     * @return 预热耗时（毫秒）；尚未成功预热时为 -1
+     * @since 5.0.4
+     */
+    public long getWarmUpElapsedMillis() {
+        return warmUpElapsedMillis;
+    }
+
     /**
      * 关闭数据源
      *
      * @return 关闭操作Future
      */
     public Future<Void> close() {
-        return this.pool.close();
+        if (this.replicaRouter == null) {
+            return this.pool.close();
+        }
+        return Future.join(this.pool.close(), this.replicaRouter.close()).mapEmpty();
     }
 
     /**
@@ -416,7 +873,7 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
      */
     @Override
     public void close(Completable<Void> completion) {
-        this.pool.close().onComplete(completion);
+        this.close().onComplete(completion);
     }
 
     /**
@@ -439,9 +896,11 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
         if (!ReflectionUtils.isVirtualThreadsAvailable()) {
             throw new UnsupportedOperationException("Not in Virtual Thread!");
         }
-        var sqlConnection = getPool().getConnection().await();
+        var sqlConnection = acquireFromPool().await();
         borrowedConnectionCounter.incrementAndGet();
+        virtualThreadBorrowedAt.put(sqlConnection, System.nanoTime());
         C c = getSqlConnectionWrapper().apply(sqlConnection);
+        c.setDataSourceServices(dataSourceServices);
         if (this.lateFullVersion.isInitialized()) {
             c.setMysqlVersion(lateFullVersion.get());
         }
@@ -450,6 +909,9 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
             c.setMysqlSqlMode(escapeContext.sqlMode());
             c.setMysqlCharacterSetConnection(escapeContext.characterSet());
         }
+        if (this.lateMaxAllowedPacket.isInitialized()) {
+            c.setMysqlMaxAllowedPacket(lateMaxAllowedPacket.get());
+        }
         return c;
     }
 
@@ -474,7 +936,8 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
     private record ServerSessionInfo(
             @Nullable String version,
             @Nullable String sqlMode,
-            @Nullable String characterSetConnection
+            @Nullable String characterSetConnection,
+            @Nullable Long maxAllowedPacket
     ) {
         MySQLEscapeContext toEscapeContext() {
             return new MySQLEscapeContext(characterSetConnection, sqlMode);
@@ -491,8 +954,17 @@ public class NamedMySQLDataSource<C extends NamedMySQLConnection> implements Clo
      * @since 5.0.1
      */
     public void returnConnectionFromVirtualThread(C connection) {
+        Long borrowedAt = virtualThreadBorrowedAt.remove(connection.getSqlConnection());
+        if (resultCache != null) {
+            resultCache.flushPending(connection.getSqlConnection());
+        }
         connection.getSqlConnection().close()
-                  .andThen(ar -> borrowedConnectionCounter.decrementAndGet());
+                  .andThen(ar -> {
+                      borrowedConnectionCounter.decrementAndGet();
+                      if (borrowedAt != null) {
+                          recordRelease(borrowedAt);
+                      }
+                  });
     }
 
 
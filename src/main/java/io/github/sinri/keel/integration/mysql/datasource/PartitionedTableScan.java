@@ -0,0 +1,492 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.integration.mysql.condition.CompareCondition;
+import io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection;
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead;
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.pagination.KeysetCursor;
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.result.stream.ResultBatchReader;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.SqlConnection;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 按键范围分区的并行全表扫描。
+ * <p>
+ * 以一个整数或有序的唯一键列（通常为主键）将查询划分为若干个左闭右开的键区间，每个分区在各自的连接上以游标按键升序读取，
+ * 多个分区并发执行，从而同时利用多个 MySQL 线程。
+ * <p>
+ * 分区边界的确定方式：键的 {@code MIN}/{@code MAX} 均为整数时按值域等分；否则先计数，再按行数等分取样各分位点的键值。
+ * <p>
+ * 每个批次交给读取器处理完成后，记录该分区已读到的最后一个键并通知检查点处理器（见 {@link #setCheckpointHandler(Function)}）；
+ * 扫描失败后可以保存下来的分区状态调用 {@link #resume(List, ResultBatchReader)}，从各分区中断处继续。
+ * <p>
+ * 各分区在不同的连接上读取，彼此不是同一个一致性快照。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class PartitionedTableScan {
+    private final QueryRunner queryRunner;
+    private final PartitionStreamer partitionStreamer;
+    private final SelectStatement template;
+    private final String keyColumn;
+    private final String keyLabel;
+    private final AtomicLong scannedRowCounter = new AtomicLong(0);
+    private final List<Partition> partitions = new ArrayList<>();
+    private int partitionCount = 4;
+    private int fetchSize = 1000;
+    private boolean orderedDelivery = false;
+    private boolean replicaAllowed = false;
+    private @Nullable Function<List<Partition>, Future<Void>> checkpointHandler;
+
+    /**
+     * @param dataSource 数据源
+     * @param keel       异步调度器
+     * @param template   不含排序、{@code LIMIT} 与分组的查询，其结果列须包含键列
+     * @param keyColumn  用于划分区间的唯一键列，原样写入条件与排序
+     */
+    public PartitionedTableScan(
+            NamedMySQLDataSource<? extends NamedMySQLConnection> dataSource,
+            Keel keel,
+            SelectStatement template,
+            String keyColumn
+    ) {
+        this(
+                (statement, onReplica) -> onConnection(dataSource, onReplica, sqlConnection -> {
+                    RunnableStatementForRead runnable = statement.attachToConnection(sqlConnection);
+                    runnable.setReplicaRoutingAllowed(false);
+                    runnable.setResultCacheAllowed(false);
+                    return runnable.executeForResultMatrix();
+                }),
+                (statement, fetchSize, onReplica, reader) -> onConnection(
+                        dataSource,
+                        onReplica,
+                        sqlConnection -> statement.attachToConnectionForStream(keel, sqlConnection)
+                                                  .streamReadInBatches(reader, fetchSize)
+                ),
+                template,
+                keyColumn
+        );
+    }
+
+    PartitionedTableScan(QueryRunner queryRunner, PartitionStreamer partitionStreamer, SelectStatement template, String keyColumn) {
+        if (!template.getSortRules().isEmpty() || template.getLimit() > 0 || template.isGrouped()) {
+            throw new IllegalArgumentException("partitioned scan template must not have ORDER BY, LIMIT, GROUP BY or HAVING");
+        }
+        this.queryRunner = queryRunner;
+        this.partitionStreamer = partitionStreamer;
+        this.template = template;
+        this.keyColumn = keyColumn;
+        this.keyLabel = KeysetCursor.SortKey.parse(keyColumn).columnLabel();
+    }
+
+    /**
+     * 在副本（允许且已配置时）或主库的连接上执行操作；副本连接获取失败时回退到主库。
+     */
+    private static <T> Future<T> onConnection(
+            NamedMySQLDataSource<? extends NamedMySQLConnection> dataSource,
+            boolean onReplica,
+            Function<SqlConnection, Future<T>> action
+    ) {
+        ReplicaRouter replicaRouter = onReplica ? dataSource.getReplicaRouter() : null;
+        if (replicaRouter == null) {
+            return dataSource.withConnection(connection -> action.apply(connection.getSqlConnection()));
+        }
+        return replicaRouter.route(
+                action,
+                () -> dataSource.withConnection(connection -> action.apply(connection.getSqlConnection()))
+        );
+    }
+
+    /**
+     * 将 {@code [min, max]} 等分为至多 {@code count} 个区间，返回各区间之间的分界值（后一区间的下界）。
+     */
+    static List<Object> splitIntegerRange(long min, long max, int count) {
+        List<Object> boundaries = new ArrayList<>();
+        BigInteger span = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min)).add(BigInteger.ONE);
+        long previous = min;
+        for (int i = 1; i < count; i++) {
+            long boundary = BigInteger.valueOf(min)
+                                      .add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count)))
+                                      .longValueExact();
+            if (boundary > previous && boundary <= max) {
+                boundaries.add(boundary);
+                previous = boundary;
+            }
+        }
+        return boundaries;
+    }
+
+    private static List<Partition> partitionsBetween(List<Object> boundaries) {
+        List<Partition> list = new ArrayList<>(boundaries.size() + 1);
+        for (int i = 0; i <= boundaries.size(); i++) {
+            list.add(new Partition(
+                    i,
+                    i == 0 ? null : boundaries.get(i - 1),
+                    i == boundaries.size() ? null : boundaries.get(i),
+                    null,
+                    0,
+                    false
+            ));
+        }
+        return list;
+    }
+
+    private static @Nullable Long asLong(@Nullable Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger bigInteger && bigInteger.bitLength() < Long.SIZE) {
+            return bigInteger.longValue();
+        }
+        if (value instanceof BigDecimal bigDecimal) {
+            try {
+                return bigDecimal.longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 检查点中只保存数值与文本；其他类型（如日期时间）按文本保存，作为 SQL 字面值比较。
+     */
+    private static @Nullable Object checkpointValue(@Nullable Object value) {
+        if (value == null || value instanceof Number || value instanceof String) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    /**
+     * @param partitionCount 分区数，即同时占用的连接数，默认 4；应小于连接池大小
+     * @return 自身实例
+     */
+    public PartitionedTableScan setPartitionCount(int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partitionCount must be positive");
+        }
+        this.partitionCount = partitionCount;
+        return this;
+    }
+
+    /**
+     * @param fetchSize 每个分区每次从游标读取的行数，默认 1000
+     * @return 自身实例
+     */
+    public PartitionedTableScan setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * 设置是否按键的顺序交付批次。
+     * <p>
+     * 默认不保证顺序：各分区的批次一经读到即交给读取器，读取器可能被多个分区并发调用。
+     * 按顺序交付时，读取器依次处理第一个分区的全部批次、再处理下一个分区，同一时刻只处理一个批次；
+     * 某一分区开始交付时才打开下一个分区的游标，使其预读一到两个窗口后等待，
+     * 因此同时占用的连接不超过两个，读取的并行度仅体现在对下一个分区的预读上。
+     *
+     * @param orderedDelivery 是否按键的顺序交付
+     * @return 自身实例
+     */
+    public PartitionedTableScan setOrderedDelivery(boolean orderedDelivery) {
+        this.orderedDelivery = orderedDelivery;
+        return this;
+    }
+
+    /**
+     * @param replicaAllowed 是否在只读副本上执行（数据源配置了副本时）；副本存在复制延迟
+     * @return 自身实例
+     */
+    public PartitionedTableScan setReplicaAllowed(boolean replicaAllowed) {
+        this.replicaAllowed = replicaAllowed;
+        return this;
+    }
+
+    /**
+     * 设置检查点处理器。每个批次处理完成、以及每个分区读取完毕时，以全部分区的当前状态调用；
+     * 处理器返回的 Future 完成后才继续该分区的读取，处理器失败时扫描失败。
+     * <p>
+     * 可用 {@link Partition#toJsonArray(List)} 保存，以 {@link Partition#fromJsonArray(JsonArray)} 恢复。
+     *
+     * @param checkpointHandler 检查点处理器；为 {@code null} 时不记录
+     * @return 自身实例
+     */
+    public PartitionedTableScan setCheckpointHandler(@Nullable Function<List<Partition>, Future<Void>> checkpointHandler) {
+        this.checkpointHandler = checkpointHandler;
+        return this;
+    }
+
+    /**
+     * @return 本实例已交付给读取器的行数
+     */
+    public long getScannedRowCount() {
+        return scannedRowCounter.get();
+    }
+
+    /**
+     * @return 各分区当前状态的快照
+     */
+    public synchronized List<Partition> getPartitions() {
+        return List.copyOf(partitions);
+    }
+
+    /**
+     * 查询键的分布，确定各分区的边界。
+     *
+     * @return 各分区的初始状态
+     */
+    public Future<List<Partition>> planPartitions() {
+        SelectStatement minMax = new SelectStatement(template)
+                .resetColumns()
+                .columnWithAlias("MIN(" + keyColumn + ")", "min_key")
+                .columnWithAlias("MAX(" + keyColumn + ")", "max_key");
+        return queryRunner.query(minMax, replicaAllowed).compose(matrix -> {
+            JsonObject range = matrix.size() == 0 ? new JsonObject() : matrix.getRowList().get(0).toJsonObject();
+            Object min = range.getValue("min_key");
+            Object max = range.getValue("max_key");
+            if (min == null || max == null || partitionCount == 1) {
+                return Future.succeededFuture(partitionsBetween(List.of()));
+            }
+            Long minLong = asLong(min);
+            Long maxLong = asLong(max);
+            if (minLong != null && maxLong != null) {
+                return Future.succeededFuture(partitionsBetween(splitIntegerRange(minLong, maxLong, partitionCount)));
+            }
+            return sampleBoundaries().map(PartitionedTableScan::partitionsBetween);
+        });
+    }
+
+    /**
+     * 非整数键：按行数等分，逐个取出各分位点的键值。
+     */
+    private Future<List<Object>> sampleBoundaries() {
+        SelectStatement count = new SelectStatement(template)
+                .resetColumns()
+                .columnWithAlias("COUNT(*)", "row_count");
+        return queryRunner.query(count, replicaAllowed).compose(matrix -> {
+            Long rows = matrix.size() == 0 ? null : asLong(matrix.getRowList().get(0).toJsonObject().getValue("row_count"));
+            List<Object> boundaries = new ArrayList<>();
+            if (rows == null || rows < partitionCount) {
+                return Future.succeededFuture(boundaries);
+            }
+            Future<Void> chain = Future.succeededFuture();
+            for (int i = 1; i < partitionCount; i++) {
+                long offset = rows * i / partitionCount;
+                SelectStatement sample = new SelectStatement(template)
+                        .resetColumns()
+                        .columnWithAlias(keyColumn, "split_key")
+                        .orderByAsc(keyColumn)
+                        .limit(1, offset);
+                chain = chain.compose(v -> queryRunner.query(sample, replicaAllowed).compose(sampled -> {
+                    if (sampled.size() > 0) {
+                        Object value = checkpointValue(sampled.getRowList().get(0).toJsonObject().getValue("split_key"));
+                        if (value != null && (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(value))) {
+                            boundaries.add(value);
+                        }
+                    }
+                    return Future.succeededFuture();
+                }));
+            }
+            return chain.map(v -> boundaries);
+        });
+    }
+
+    /**
+     * 确定分区后扫描全部分区。
+     *
+     * @param reader 批量读取器，每次接收一个分区的一个游标窗口内的行
+     * @return 全部分区读取完毕的 Future
+     */
+    public Future<Void> run(ResultBatchReader reader) {
+        return planPartitions().compose(planned -> resume(planned, reader));
+    }
+
+    /**
+     * 以给定的分区状态扫描：已读取完毕的分区跳过，其余分区从其最后读到的键之后继续。
+     *
+     * @param checkpoint 由 {@link #planPartitions()} 得到或检查点处理器保存的分区状态
+     * @param reader     批量读取器，每次接收一个分区的一个游标窗口内的行
+     * @return 全部分区读取完毕的 Future；任一分区失败时其余分区停止读取
+     */
+    public Future<Void> resume(List<Partition> checkpoint, ResultBatchReader reader) {
+        synchronized (this) {
+            partitions.clear();
+            partitions.addAll(checkpoint);
+        }
+        int size = checkpoint.size();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<Promise<Void>> turns = new ArrayList<>(size + 1);
+        for (int i = 0; i <= size; i++) {
+            turns.add(Promise.promise());
+        }
+        turns.get(0).complete();
+
+        List<Future<Void>> futures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int position = i;
+            Partition partition = checkpoint.get(i);
+            Future<Void> gate = orderedDelivery ? turns.get(position).future() : Future.succeededFuture();
+            // 按顺序交付时，前一分区开始交付才打开本分区的游标，同时打开的游标不超过两个
+            Future<Void> opening = orderedDelivery && position > 0 ? turns.get(position - 1).future() : Future.succeededFuture();
+            Future<Void> future = partition.finished()
+                    ? Future.succeededFuture()
+                    : opening.compose(v -> scanPartition(position, gate, failed, reader));
+            future = future.andThen(ar -> {
+                if (ar.succeeded()) {
+                    turns.get(position).future().onSuccess(v -> turns.get(position + 1).tryComplete());
+                } else {
+                    failed.set(true);
+                    turns.forEach(turn -> turn.tryFail(ar.cause()));
+                }
+            });
+            futures.add(future);
+        }
+        return Future.all(futures).mapEmpty();
+    }
+
+    private Future<Void> scanPartition(int position, Future<Void> gate, AtomicBoolean failed, ResultBatchReader reader) {
+        Partition partition;
+        synchronized (this) {
+            partition = partitions.get(position);
+        }
+        SelectStatement statement = new SelectStatement(template).where(conditions -> {
+            if (partition.lastKey() != null) {
+                conditions.keysetSeek(seek -> seek.after(keyColumn, false, partition.lastKey()));
+            } else if (partition.lowerBound() != null) {
+                conditions.comparison(c -> bound(c.beEqualOrGreaterThan(), partition.lowerBound()));
+            }
+            if (partition.upperBound() != null) {
+                conditions.comparison(c -> bound(c.beLessThan(), partition.upperBound()));
+            }
+            return conditions;
+        }).orderByAsc(keyColumn);
+
+        return partitionStreamer.stream(statement, fetchSize, replicaAllowed, rows -> {
+                                    if (failed.get()) {
+                                        return Future.failedFuture("partitioned scan aborted");
+                                    }
+                                    return gate.compose(v -> reader.read(rows))
+                                               .compose(v -> {
+                                                   scannedRowCounter.addAndGet(rows.size());
+                                                   Object lastKey = checkpointValue(rows.get(rows.size() - 1).getValue(keyLabel));
+                                                   return checkpoint(position, current -> current.advance(lastKey, rows.size()));
+                                               });
+                                })
+                                .compose(v -> checkpoint(position, Partition::finish));
+    }
+
+    private CompareCondition bound(CompareCondition condition, Object value) {
+        condition.compareExpression(keyColumn);
+        return value instanceof Number number ? condition.againstNumericValue(number) : condition.againstLiteralValue(value);
+    }
+
+    private Future<Void> checkpoint(int position, Function<Partition, Partition> update) {
+        List<Partition> snapshot;
+        synchronized (this) {
+            partitions.set(position, update.apply(partitions.get(position)));
+            snapshot = List.copyOf(partitions);
+        }
+        Function<List<Partition>, Future<Void>> handler = checkpointHandler;
+        return handler == null ? Future.succeededFuture() : handler.apply(snapshot);
+    }
+
+    /**
+     * 执行一条查询。
+     */
+    @FunctionalInterface
+    interface QueryRunner {
+        Future<ResultMatrix<SimpleResultRow>> query(SelectStatement statement, boolean onReplica);
+    }
+
+    /**
+     * 在一个连接上以游标读取一个分区。
+     */
+    @FunctionalInterface
+    interface PartitionStreamer {
+        Future<Void> stream(SelectStatement statement, int fetchSize, boolean onReplica, ResultBatchReader reader);
+    }
+
+    /**
+     * 一个分区的状态，键区间为 {@code [lowerBound, upperBound)}，边界为 {@code null} 时不设限。
+     *
+     * @param index      分区序号，按键的顺序从 0 开始
+     * @param lowerBound 下界（含）
+     * @param upperBound 上界（不含）
+     * @param lastKey    已交付的最后一个键；为 {@code null} 时尚未交付任何行
+     * @param rowCount   已交付的行数
+     * @param finished   是否已读取完毕
+     */
+    public record Partition(
+            int index,
+            @Nullable Object lowerBound,
+            @Nullable Object upperBound,
+            @Nullable Object lastKey,
+            long rowCount,
+            boolean finished
+    ) {
+        public static Partition fromJsonObject(JsonObject jsonObject) {
+            return new Partition(
+                    jsonObject.getInteger("index"),
+                    jsonObject.getValue("lowerBound"),
+                    jsonObject.getValue("upperBound"),
+                    jsonObject.getValue("lastKey"),
+                    jsonObject.getLong("rowCount", 0L),
+                    jsonObject.getBoolean("finished", false)
+            );
+        }
+
+        public static List<Partition> fromJsonArray(JsonArray jsonArray) {
+            List<Partition> list = new ArrayList<>(jsonArray.size());
+            for (int i = 0; i < jsonArray.size(); i++) {
+                list.add(fromJsonObject(jsonArray.getJsonObject(i)));
+            }
+            return list;
+        }
+
+        public static JsonArray toJsonArray(List<Partition> partitions) {
+            JsonArray array = new JsonArray();
+            partitions.forEach(partition -> array.add(partition.toJsonObject()));
+            return array;
+        }
+
+        public JsonObject toJsonObject() {
+            return new JsonObject()
+                    .put("index", index)
+                    .put("lowerBound", lowerBound)
+                    .put("upperBound", upperBound)
+                    .put("lastKey", lastKey)
+                    .put("rowCount", rowCount)
+                    .put("finished", finished);
+        }
+
+        Partition advance(@Nullable Object lastKey, long rows) {
+            return new Partition(index, lowerBound, upperBound, lastKey, rowCount + rows, false);
+        }
+
+        Partition finish() {
+            return new Partition(index, lowerBound, upperBound, lastKey, rowCount, true);
+        }
+    }
+}
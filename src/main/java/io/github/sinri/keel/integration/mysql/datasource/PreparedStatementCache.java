@@ -0,0 +1,150 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.sqlclient.SqlConnectOptions;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.internal.SqlConnectionInternal;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 数据源的预编译语句缓存计数。
+ * <p>
+ * 预编译语句本身由 Vert.x 客户端按连接缓存（见连接选项的 {@code cachePreparedStatements} 与
+ * {@code preparedStatementCacheMaxSize}），客户端不对外提供命中计数；本类按与客户端相同的规则为每个物理连接
+ * 维护一份只记录 SQL 文本的 LRU 表，据此统计本数据源上预编译语句的命中、未命中与淘汰次数。
+ * 物理连接被连接池销毁后，其表随之被垃圾回收。
+ * <p>
+ * {@link io.github.sinri.keel.integration.mysql.connection.target.RunnableStatement} 的预编译执行路径每使用一次预编译语句
+ * （单条执行或一次批量、流水线执行）计一次。客户端因语句失效而移除缓存条目时本类无从感知，
+ * 因此计数是近似值，适合观察命中率的趋势与容量是否足够。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class PreparedStatementCache {
+    /**
+     * 物理连接到其 SQL 文本表的登记表，以弱引用持有物理连接；表中只保存字符串，不引用连接本身。
+     */
+    private final Map<Object, ConnectionPartition> partitions = Collections.synchronizedMap(new WeakHashMap<>());
+    private final int maxSize;
+    private final Predicate<String> sqlFilter;
+    private final AtomicLong hitCounter = new AtomicLong(0);
+    private final AtomicLong missCounter = new AtomicLong(0);
+    private final AtomicLong evictionCounter = new AtomicLong(0);
+
+    /**
+     * 以 Vert.x 默认的 SQL 长度限制（{@link SqlConnectOptions#DEFAULT_PREPARED_STATEMENT_CACHE_FILTER}）创建。
+     *
+     * @param maxSize 每个物理连接可缓存的预编译语句数量上限，须为正数
+     */
+    public PreparedStatementCache(int maxSize) {
+        this(maxSize, SqlConnectOptions.DEFAULT_PREPARED_STATEMENT_CACHE_FILTER);
+    }
+
+    /**
+     * @param maxSize   每个物理连接可缓存的预编译语句数量上限，须为正数
+     * @param sqlFilter 判断 SQL 文本能否进入缓存，应与连接选项的 {@code preparedStatementCacheSqlFilter} 一致
+     */
+    public PreparedStatementCache(int maxSize, Predicate<String> sqlFilter) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.sqlFilter = sqlFilter;
+    }
+
+    /**
+     * 记录一次在给定连接上以 SQL 文本使用预编译语句。
+     *
+     * @param sqlConnection 执行语句的连接
+     * @param sql           SQL 文本
+     */
+    public void record(SqlConnection sqlConnection, String sql) {
+        if (!sqlFilter.test(sql)) {
+            missCounter.incrementAndGet();
+            return;
+        }
+        Object physical = sqlConnection instanceof SqlConnectionInternal internal ? internal.unwrap() : sqlConnection;
+        partitions.computeIfAbsent(physical, key -> new ConnectionPartition()).record(sql);
+    }
+
+    /**
+     * @return 每个物理连接可缓存的预编译语句数量上限
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return 命中缓存、跳过预编译往返的次数
+     */
+    public long getHitCount() {
+        return hitCounter.get();
+    }
+
+    /**
+     * @return 未命中缓存、需要向服务端预编译的次数
+     */
+    public long getMissCount() {
+        return missCounter.get();
+    }
+
+    /**
+     * @return 因超出容量而被淘汰的语句数
+     */
+    public long getEvictionCount() {
+        return evictionCounter.get();
+    }
+
+    /**
+     * @return 仍存活的物理连接上当前缓存的语句数
+     */
+    public int getCachedStatementCount() {
+        List<ConnectionPartition> snapshot;
+        synchronized (partitions) {
+            snapshot = new ArrayList<>(partitions.values());
+        }
+        int count = 0;
+        for (ConnectionPartition partition : snapshot) {
+            count += partition.size();
+        }
+        return count;
+    }
+
+    /**
+     * 单个物理连接上的 SQL 文本表，按访问顺序淘汰。访问受 {@code synchronized(this)} 保护。
+     */
+    private final class ConnectionPartition {
+        private final LinkedHashMap<String, Boolean> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evictionCounter.incrementAndGet();
+                return true;
+            }
+        };
+
+        synchronized void record(String sql) {
+            if (statements.get(sql) != null) {
+                hitCounter.incrementAndGet();
+            } else {
+                missCounter.incrementAndGet();
+                statements.put(sql, Boolean.TRUE);
+            }
+        }
+
+        synchronized int size() {
+            return statements.size();
+        }
+    }
+}
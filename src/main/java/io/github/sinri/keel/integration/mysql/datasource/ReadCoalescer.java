@@ -0,0 +1,193 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Tuple;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 数据源级的只读语句合并器（single-flight）：同一时刻相同 SQL 与参数的只读语句只向 MySQL 发出一次，
+ * 其余并发执行共享这一次的结果。
+ * <p>
+ * 只合并仍在执行中的查询，查询完成即从合并表移除，不缓存结果。
+ * 合并只发生在事务之外的非锁定读上，由
+ * {@link io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead} 负责判断；
+ * 参数按值比较，类型不同的参数（如 {@code 1} 与 {@code 1L}）视为不同。
+ * <p>
+ * 默认关闭，通过 {@link #setEnabled(boolean)} 开启；此外语句须以
+ * {@link io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead#setReadCoalescingAllowed(boolean)}
+ * 声明可合并。合并的查询可能在另一个连接上执行，因此引用会话状态（{@code LAST_INSERT_ID()}、{@code FOUND_ROWS()}、
+ * {@code CONNECTION_ID()}、用户变量与会话变量等）的 SQL 不会合并。
+ * 合并器经 {@link DataSourceServices} 随数据源借出的连接提供给执行对象。
+ * <p>
+ * 执行对象上的合并发生在调用方已借出连接之后，只减少发往 MySQL 的查询，不减少借出的连接：
+ * 热点数据被大量并发读取时，每个调用方仍各占一个连接直至共享的查询完成，连接池同样可能被耗尽。
+ * 需要同时节省连接时，应改用 {@link NamedMySQLDataSource#executeRead(io.github.sinri.keel.integration.mysql.statement.mixin.ReadStatementMixin)}，
+ * 它在借出连接之前按 SQL 文本合并，被合并的调用不借出连接。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ReadCoalescer {
+    private static final Pattern SESSION_STATE_PATTERN = Pattern.compile(
+            "\\b(LAST_INSERT_ID|FOUND_ROWS|ROW_COUNT|CONNECTION_ID)\\s*\\(|@",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private final Map<StatementKey, Future<?>> inflight = new ConcurrentHashMap<>();
+    /**
+     * 可能在副本上执行的查询单独合并，以免要求读主库的执行（如填充结果缓存）共享到副本的结果。
+     */
+    private final Map<StatementKey, Future<?>> inflightOnReplica = new ConcurrentHashMap<>();
+    /**
+     * 由数据源在借出连接之前合并的只读语句，共享的是整条语句的执行结果，与以上两表分开登记。
+     *
+     * @see NamedMySQLDataSource#executeRead(io.github.sinri.keel.integration.mysql.statement.mixin.ReadStatementMixin)
+     */
+    private final Map<StatementKey, Future<?>> inflightBeforeAcquire = new ConcurrentHashMap<>();
+    private final AtomicLong executionCounter = new AtomicLong(0);
+    private final AtomicLong coalescedCounter = new AtomicLong(0);
+    private volatile boolean enabled = false;
+
+    ReadCoalescer() {
+    }
+
+    /**
+     * 判断 SQL 是否引用了连接会话状态：{@code LAST_INSERT_ID()}、{@code FOUND_ROWS()}、{@code ROW_COUNT()}、
+     * {@code CONNECTION_ID()}，或以 {@code @} 引用的用户变量与系统变量。
+     * <p>
+     * 判断是保守的：字符串字面量中的 {@code @} 同样视为引用，这类语句只是不参与合并。
+     *
+     * @param sql SQL 文本
+     * @return 是否引用会话状态
+     */
+    public static boolean referencesSessionState(String sql) {
+        return SESSION_STATE_PATTERN.matcher(sql).find();
+    }
+
+    /**
+     * @return 是否开启合并
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启或关闭合并。关闭立即生效；开启对此后借出的连接生效。
+     *
+     * @param enabled 是否开启
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 执行只读查询；已有相同 SQL 与参数的查询在执行中时，不再发出新的查询而是等待并共享其结果。
+     * <p>
+     * 共享的结果对象会被多个调用方同时读取，调用方不应修改它。
+     *
+     * @param sql   SQL 文本
+     * @param tuple 绑定参数；为 {@code null} 表示通过普通查询协议执行，与预编译执行不会合并
+     * @param query 实际发出查询的操作
+     * @param <T>   查询结果类型
+     * @return 查询结果
+     */
+    public <T> Future<T> execute(String sql, @Nullable Tuple tuple, Supplier<Future<T>> query) {
+        return execute(sql, tuple, false, query);
+    }
+
+    /**
+     * 执行只读查询，并指明查询是否可能路由到副本；可能路由到副本的查询只与同样可能路由到副本的相同查询合并。
+     *
+     * @param sql       SQL 文本
+     * @param tuple     绑定参数；为 {@code null} 表示通过普通查询协议执行，与预编译执行不会合并
+     * @param onReplica 查询是否可能在副本上执行
+     * @param query     实际发出查询的操作
+     * @param <T>       查询结果类型
+     * @return 查询结果
+     * @since 5.0.4
+     */
+    public <T> Future<T> execute(String sql, @Nullable Tuple tuple, boolean onReplica, Supplier<Future<T>> query) {
+        return execute(onReplica ? this.inflightOnReplica : this.inflight, StatementKey.of(sql, tuple), query);
+    }
+
+    /**
+     * 在借出连接之前合并只读语句：已有相同 SQL 文本的语句在执行中时，不再借出连接，而是等待并共享其结果。
+     *
+     * @param sql   语句的完整 SQL 文本（值已内联）
+     * @param query 借出连接并执行语句的操作
+     * @param <T>   执行结果类型
+     * @return 执行结果
+     */
+    <T> Future<T> executeBeforeAcquire(String sql, Supplier<Future<T>> query) {
+        return execute(inflightBeforeAcquire, StatementKey.of(sql, null), query);
+    }
+
+    private <T> Future<T> execute(Map<StatementKey, Future<?>> inflight, StatementKey key, Supplier<Future<T>> query) {
+        Promise<T> promise = Promise.promise();
+        Future<T> shared = promise.future();
+        @SuppressWarnings("unchecked")
+        Future<T> existing = (Future<T>) inflight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalescedCounter.incrementAndGet();
+            return onCurrentContext(existing);
+        }
+        executionCounter.incrementAndGet();
+        Future.succeededFuture()
+              .compose(v -> query.get())
+              .onComplete(ar -> {
+                  inflight.remove(key, shared);
+                  promise.handle(ar);
+              });
+        return shared;
+    }
+
+    /**
+     * @return 实际发出的查询次数
+     */
+    public long getExecutionCount() {
+        return executionCounter.get();
+    }
+
+    /**
+     * @return 被合并、未单独发出查询的执行次数
+     */
+    public long getCoalescedCount() {
+        return coalescedCounter.get();
+    }
+
+    /**
+     * @return 当前执行中的不同查询数
+     */
+    public int getInflightCount() {
+        return inflight.size() + inflightOnReplica.size() + inflightBeforeAcquire.size();
+    }
+
+    /**
+     * 共享结果可能在发起查询的调用方所在的上下文中完成；等待方在自己的上下文中继续后续处理。
+     */
+    private static <T> Future<T> onCurrentContext(Future<T> shared) {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            return shared;
+        }
+        Promise<T> promise = Promise.promise();
+        shared.onComplete(ar -> {
+            if (Vertx.currentContext() == context) {
+                promise.handle(ar);
+            } else {
+                context.runOnContext(v -> promise.handle(ar));
+            }
+        });
+        return promise.future();
+    }
+}
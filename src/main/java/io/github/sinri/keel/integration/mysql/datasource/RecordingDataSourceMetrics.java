@@ -0,0 +1,119 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内置的数据源指标实现，以 {@link LatencyHistogram} 与计数器在内存中记录各事件，供定期轮询或导出。
+ * <p>
+ * 一个实例通常只供一个数据源使用；多个数据源共享同一实例时，各项数据为合计值。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public class RecordingDataSourceMetrics implements DataSourceMetrics {
+    private final LatencyHistogram acquireWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram holdHistogram = new LatencyHistogram();
+    private final LatencyHistogram initializationHistogram = new LatencyHistogram();
+    private final AtomicLong acquireFailureCounter = new AtomicLong(0);
+    private final AtomicLong acquireTimeoutCounter = new AtomicLong(0);
+    private final AtomicLong initializationFailureCounter = new AtomicLong(0);
+    private final AtomicLong transactionRetryCounter = new AtomicLong(0);
+
+    @Override
+    public void onConnectionAcquired(String dataSourceName, long waitNanos) {
+        acquireWaitHistogram.record(waitNanos);
+    }
+
+    @Override
+    public void onConnectionAcquireFailed(String dataSourceName, long waitNanos, boolean timedOut) {
+        acquireWaitHistogram.record(waitNanos);
+        acquireFailureCounter.incrementAndGet();
+        if (timedOut) {
+            acquireTimeoutCounter.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onConnectionReleased(String dataSourceName, long holdNanos) {
+        holdHistogram.record(holdNanos);
+    }
+
+    @Override
+    public void onConnectionInitialized(String dataSourceName, long elapsedNanos, boolean succeeded) {
+        initializationHistogram.record(elapsedNanos);
+        if (!succeeded) {
+            initializationFailureCounter.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onTransactionRetry(String dataSourceName, int failedAttempt, Throwable cause) {
+        transactionRetryCounter.incrementAndGet();
+    }
+
+    /**
+     * @return 获取连接的等待时长分布（含失败的获取）
+     */
+    public LatencyHistogram getAcquireWaitHistogram() {
+        return acquireWaitHistogram;
+    }
+
+    /**
+     * @return 连接占用时长分布
+     */
+    public LatencyHistogram getHoldHistogram() {
+        return holdHistogram;
+    }
+
+    /**
+     * @return 新建连接的初始化耗时分布
+     */
+    public LatencyHistogram getInitializationHistogram() {
+        return initializationHistogram;
+    }
+
+    /**
+     * @return 获取连接失败的次数（含超时）
+     */
+    public long getAcquireFailureCount() {
+        return acquireFailureCounter.get();
+    }
+
+    /**
+     * @return 获取连接超时的次数
+     */
+    public long getAcquireTimeoutCount() {
+        return acquireTimeoutCounter.get();
+    }
+
+    /**
+     * @return 新建连接初始化失败的次数
+     */
+    public long getInitializationFailureCount() {
+        return initializationFailureCounter.get();
+    }
+
+    /**
+     * @return 事务重试次数
+     */
+    public long getTransactionRetryCount() {
+        return transactionRetryCounter.get();
+    }
+
+    /**
+     * @return 全部指标的快照，时长以毫秒为单位
+     */
+    public JsonObject toJsonObject() {
+        return new JsonObject()
+                .put("acquire_wait", acquireWaitHistogram.toJsonObject())
+                .put("hold", holdHistogram.toJsonObject())
+                .put("initialization", initializationHistogram.toJsonObject())
+                .put("acquire_failures", getAcquireFailureCount())
+                .put("acquire_timeouts", getAcquireTimeoutCount())
+                .put("initialization_failures", getInitializationFailureCount())
+                .put("transaction_retries", getTransactionRetryCount());
+    }
+}
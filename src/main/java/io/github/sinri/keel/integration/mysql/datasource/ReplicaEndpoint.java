@@ -0,0 +1,133 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.sqlclient.Pool;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 只读副本端点：持有副本的连接池，并记录其延迟的指数加权移动平均（EWMA）与在途请求数。
+ * <p>
+ * EWMA 按时间衰减：两次采样间隔越久，旧值权重越低；读取时同样按距上次采样的时间衰减，
+ * 因而曾经变慢或失败的副本会随时间重新获得被选中的机会。采样值高于当前均值时直接取采样值（峰值敏感），
+ * 使变慢的副本能被立即避开。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ReplicaEndpoint {
+    /**
+     * EWMA 衰减时间常数。
+     */
+    static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    /**
+     * 获取副本连接失败时记入的延迟惩罚。
+     */
+    static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String address;
+    private final Pool pool;
+    private final AtomicInteger inflightCounter = new AtomicInteger(0);
+    private final AtomicLong requestCounter = new AtomicLong(0);
+    private final AtomicLong failureCounter = new AtomicLong(0);
+    private double ewmaNanos = 0;
+    private long lastSampleNanoTime = System.nanoTime();
+
+    ReplicaEndpoint(String address, Pool pool) {
+        this.address = address;
+        this.pool = pool;
+    }
+
+    /**
+     * @return 副本地址，形如 {@code host:port}
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    Pool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return 当前（已按时间衰减的）延迟 EWMA，单位毫秒
+     */
+    public double getLatencyEwmaMillis() {
+        return decayedEwmaNanos(System.nanoTime()) / 1_000_000.0;
+    }
+
+    /**
+     * @return 正在该副本上执行的请求数
+     */
+    public int getInflightCount() {
+        return inflightCounter.get();
+    }
+
+    /**
+     * @return 路由到该副本的请求总数
+     */
+    public long getRequestCount() {
+        return requestCounter.get();
+    }
+
+    /**
+     * @return 获取该副本连接失败、回退到主库的次数
+     */
+    public long getFailureCount() {
+        return failureCounter.get();
+    }
+
+    /**
+     * @return 副本连接池中当前连接数（近似值）
+     */
+    public int getCurrentPoolSize() {
+        return pool.size();
+    }
+
+    /**
+     * 负载评分，越低越优先：衰减后的延迟 EWMA 乘以（在途请求数 + 1）。
+     */
+    double score(long nowNanoTime) {
+        return decayedEwmaNanos(nowNanoTime) * (inflightCounter.get() + 1);
+    }
+
+    void onStart() {
+        requestCounter.incrementAndGet();
+        inflightCounter.incrementAndGet();
+    }
+
+    void onFinish(long latencyNanos) {
+        inflightCounter.decrementAndGet();
+        sample(latencyNanos);
+    }
+
+    void onConnectFailure() {
+        failureCounter.incrementAndGet();
+        inflightCounter.decrementAndGet();
+        sample(Math.max((long) (decayedEwmaNanos(System.nanoTime()) * 2), FAILURE_PENALTY_NANOS));
+    }
+
+    private synchronized void sample(long latencyNanos) {
+        long now = System.nanoTime();
+        double current = decayedEwmaNanos(now);
+        if (latencyNanos > current) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-(double) Math.max(0, now - lastSampleNanoTime) / DECAY_NANOS);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanoTime = now;
+    }
+
+    private synchronized double decayedEwmaNanos(long nowNanoTime) {
+        long elapsed = Math.max(0, nowNanoTime - lastSampleNanoTime);
+        return ewmaNanos * Math.exp(-(double) elapsed / DECAY_NANOS);
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicaEndpoint{" + address + "}";
+    }
+}
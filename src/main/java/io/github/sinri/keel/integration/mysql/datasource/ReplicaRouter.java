@@ -0,0 +1,120 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.SqlConnection;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 数据源的只读副本路由器，按延迟加权选择副本执行只读语句。
+ * <p>
+ * 选择策略为"二选一"（power of two choices）：随机取两个副本，选择评分（延迟 EWMA 乘以在途请求数加一）较低者，
+ * 尚无采样的副本评分为 0，会被优先尝试。获取副本连接失败时记入延迟惩罚，并回退到主库执行。
+ * <p>
+ * 路由器经 {@link DataSourceServices} 随数据源借出的连接提供给执行对象；
+ * {@link io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead} 在事务之外执行允许路由的非锁定读时
+ * 改在副本上执行。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ReplicaRouter {
+    private static final Pattern LOCKING_READ_PATTERN = Pattern.compile(
+            "\\bFOR\\s+(UPDATE|SHARE)\\b|\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private final List<ReplicaEndpoint> endpoints;
+
+    ReplicaRouter(List<ReplicaEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("No replica endpoint");
+        }
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    /**
+     * 判断 SQL 是否为锁定读（{@code FOR UPDATE}、{@code FOR SHARE}、{@code LOCK IN SHARE MODE}），锁定读须在主库执行。
+     *
+     * @param sql SQL 文本
+     * @return 是否为锁定读
+     */
+    public static boolean isLockingRead(String sql) {
+        return LOCKING_READ_PATTERN.matcher(sql).find();
+    }
+
+    /**
+     * @return 各副本端点，可用于读取延迟与请求计数
+     */
+    public List<ReplicaEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 选择一个副本，借出其连接执行 {@code action}，完成后归还连接并记录延迟。
+     *
+     * @param action          在副本连接上执行的异步操作
+     * @param primaryFallback 无法获取副本连接时改在主库执行的操作
+     * @param <T>             操作结果类型
+     * @return 操作结果
+     */
+    public <T> Future<T> route(Function<SqlConnection, Future<T>> action, Supplier<Future<T>> primaryFallback) {
+        ReplicaEndpoint endpoint = choose();
+        endpoint.onStart();
+        long start = System.nanoTime();
+        return endpoint.getPool().getConnection()
+                       .compose(
+                               sqlConnection -> {
+                                   return Future.succeededFuture()
+                                                .compose(v -> action.apply(sqlConnection))
+                                                .andThen(ar -> {
+                                                    endpoint.onFinish(System.nanoTime() - start);
+                                                    sqlConnection.close();
+                                                });
+                               },
+                               throwable -> {
+                                   endpoint.onConnectFailure();
+                                   return primaryFallback.get();
+                               }
+                       );
+    }
+
+    /**
+     * 以"二选一"策略选择副本。
+     */
+    ReplicaEndpoint choose() {
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ReplicaEndpoint a = endpoints.get(first);
+        ReplicaEndpoint b = endpoints.get(second);
+        long now = System.nanoTime();
+        return a.score(now) <= b.score(now) ? a : b;
+    }
+
+    /**
+     * 关闭所有副本连接池。
+     *
+     * @return 关闭完成的 Future
+     */
+    Future<Void> close() {
+        List<Future<Void>> futures = new ArrayList<>(endpoints.size());
+        for (ReplicaEndpoint endpoint : endpoints) {
+            futures.add(endpoint.getPool().close());
+        }
+        return Future.join(futures).mapEmpty();
+    }
+}
@@ -0,0 +1,360 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import io.vertx.sqlclient.internal.SqlConnectionInternal;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 数据源级的查询结果缓存，以 SQL 文本与绑定参数为键，以语句引用的表为标签。
+ * <p>
+ * 容量按条目数限制，采用 W-TinyLFU 式的结构：新条目先进入约占容量 1% 的窗口区（LRU），
+ * 被挤出窗口时与主区（LRU）的淘汰候选比较近期访问频率，频率更高者留下，从而避免一次性扫描冲掉热点条目。
+ * 条目超过存活时间后失效。
+ * <p>
+ * 失效按表进行：经同一数据源执行的 {@code UPDATE}、{@code DELETE}、{@code INSERT}/{@code REPLACE}（无论成功与否，失败的写入可能已部分生效）
+ * 会递增所涉及表的版本，版本变化后的条目在下次读取时丢弃；无法确定所涉及表的写入（原始 SQL、模板语句、DDL 等）
+ * 使全部条目失效。事务中的写入在连接归还时才生效，期间其他连接读到并缓存的仍是已提交的数据。
+ * 查询开始后标签版本发生变化的结果不会写入缓存，因此与写入并发的查询不会留下过期条目。
+ * <p>
+ * 未命中时的查询只在主库上执行，不会以副本上可能滞后的数据填充缓存。
+ * <p>
+ * 缓存只感知经本数据源执行的写入；其他进程对数据的修改只能等待条目过期。
+ * <p>
+ * 标签取语句中出现的表名，视图不会展开为其基表：对视图的查询只以视图名为标签，写入基表不会使其失效。
+ * 查询视图的语句应以 {@link io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead#setResultCacheTables(Collection)}
+ * 声明其基表，或令允许缓存的表只列出基表，使视图上的查询不被缓存。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ResultCache {
+    private static final Pattern READ_ONLY_SQL_PATTERN = Pattern.compile(
+            "^(\\s|/\\*.*?\\*/|--[^\\n]*\\n|#[^\\n]*\\n|\\()*(SELECT|SHOW|EXPLAIN|DESC|DESCRIBE)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final long ttlNanos;
+    private final Set<String> cacheableTables;
+    private final LinkedHashMap<StatementKey, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<StatementKey, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final Map<String, Long> tableVersions = new HashMap<>();
+    private long epoch = 0;
+    /**
+     * 事务中尚未生效的写入，按物理连接登记，连接归还时生效。
+     */
+    private final Map<Object, PendingInvalidation> pendingInvalidations = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong hitCounter = new AtomicLong(0);
+    private final AtomicLong missCounter = new AtomicLong(0);
+    private final AtomicLong evictionCounter = new AtomicLong(0);
+    private final AtomicLong rejectionCounter = new AtomicLong(0);
+    private final AtomicLong expirationCounter = new AtomicLong(0);
+    private final AtomicLong invalidationCounter = new AtomicLong(0);
+
+    /**
+     * @param maxSize         条目数上限，须为正数
+     * @param ttl             条目存活时间
+     * @param cacheableTables 允许缓存的表（已规范化）；为空时不按表限制
+     */
+    public ResultCache(int maxSize, Duration ttl, Set<String> cacheableTables) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.windowCapacity = Math.max(1, maxSize / 100);
+        this.mainCapacity = maxSize - windowCapacity;
+        this.ttlNanos = ttl.toNanos();
+        this.cacheableTables = Set.copyOf(cacheableTables);
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    /**
+     * 判断引用给定表的只读语句能否被缓存：引用的表须可确定且非空，并全部在允许缓存的表之列（未限制时不检查）。
+     * 未限制允许缓存的表时，视图上的查询同样会被缓存，且不随其基表的写入失效。
+     *
+     * @param tables 语句引用的表
+     * @return 能否缓存
+     */
+    public boolean isCacheable(@Nullable Set<String> tables) {
+        if (tables == null || tables.isEmpty()) {
+            return false;
+        }
+        return cacheableTables.isEmpty() || cacheableTables.containsAll(tables);
+    }
+
+    /**
+     * 执行只读查询：缓存中有未过期且未失效的结果时直接返回，否则执行查询并在成功后写入缓存。
+     * <p>
+     * 缓存的结果对象会被多个调用方读取，调用方不应修改它。
+     *
+     * @param sql    SQL 文本
+     * @param tuple  绑定参数；为 {@code null} 表示通过普通查询协议执行
+     * @param tables 语句引用的表，作为条目的标签
+     * @param query  实际发出查询的操作
+     * @param <T>    查询结果类型
+     * @return 查询结果
+     */
+    public <T> Future<T> execute(String sql, @Nullable Tuple tuple, Set<String> tables, Supplier<Future<T>> query) {
+        StatementKey key = StatementKey.of(sql, tuple);
+        List<String> tags = List.copyOf(tables);
+        Snapshot snapshot;
+        synchronized (this) {
+            Entry entry = lookup(key);
+            if (entry != null) {
+                hitCounter.incrementAndGet();
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value();
+                return Future.succeededFuture(value);
+            }
+            snapshot = snapshot(tags);
+        }
+        missCounter.incrementAndGet();
+        return Future.succeededFuture()
+                     .compose(v -> query.get())
+                     .onSuccess(value -> store(key, tags, snapshot, value));
+    }
+
+    /**
+     * 语句在主库连接上执行结束（无论成功与否）后调用：写入语句使其涉及的表失效；事务中的写入延后到连接归还时生效。
+     * <p>
+     * 所涉及的表无法确定时，除明显的只读语句（{@code SELECT}、{@code SHOW} 等）外均使全部条目失效。
+     *
+     * @param sqlConnection 执行语句的主库连接
+     * @param sql           SQL 文本
+     * @param tables        语句涉及的表；无法确定时为 {@code null}
+     */
+    public void onStatementExecuted(SqlConnection sqlConnection, String sql, @Nullable Set<String> tables) {
+        if (tables == null && READ_ONLY_SQL_PATTERN.matcher(sql).find()) {
+            return;
+        }
+        if (sqlConnection.transaction() != null && sqlConnection instanceof SqlConnectionInternal internal) {
+            PendingInvalidation pending = pendingInvalidations.computeIfAbsent(internal.unwrap(), k -> new PendingInvalidation());
+            synchronized (pending) {
+                if (tables == null) {
+                    pending.all = true;
+                } else {
+                    pending.tables.addAll(tables);
+                }
+            }
+            return;
+        }
+        if (tables == null) {
+            invalidateAll();
+        } else {
+            invalidateTables(tables);
+        }
+    }
+
+    /**
+     * 连接归还时使该连接上事务中登记的写入生效。
+     *
+     * @param sqlConnection 归还的主库连接
+     */
+    void flushPending(SqlConnection sqlConnection) {
+        if (!(sqlConnection instanceof SqlConnectionInternal internal)) {
+            return;
+        }
+        PendingInvalidation pending = pendingInvalidations.remove(internal.unwrap());
+        if (pending == null) {
+            return;
+        }
+        synchronized (pending) {
+            if (pending.all) {
+                invalidateAll();
+            } else {
+                invalidateTables(pending.tables);
+            }
+        }
+    }
+
+    /**
+     * 使引用给定表的条目失效，用于本数据源之外发生的修改。
+     *
+     * @param tables 表名，按 {@link AnyStatement#normalizeTableName(String)} 规范化
+     */
+    public synchronized void invalidateTables(Collection<String> tables) {
+        for (String table : tables) {
+            String name = AnyStatement.normalizeTableName(table);
+            if (name != null) {
+                tableVersions.merge(name, 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * 使全部条目失效。
+     */
+    public synchronized void invalidateAll() {
+        epoch++;
+        invalidationCounter.addAndGet(window.size() + main.size());
+        window.clear();
+        main.clear();
+    }
+
+    /**
+     * @return 当前条目数（含尚未清理的已失效条目）
+     */
+    public synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCounter.get();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCounter.get();
+    }
+
+    /**
+     * @return 因容量被淘汰的条目数
+     */
+    public long getEvictionCount() {
+        return evictionCounter.get();
+    }
+
+    /**
+     * @return 因访问频率不足而未被准入主区的条目数
+     */
+    public long getRejectionCount() {
+        return rejectionCounter.get();
+    }
+
+    /**
+     * @return 因超过存活时间而丢弃的条目数
+     */
+    public long getExpirationCount() {
+        return expirationCounter.get();
+    }
+
+    /**
+     * @return 因写入失效而丢弃的条目数
+     */
+    public long getInvalidationCount() {
+        return invalidationCounter.get();
+    }
+
+    private @Nullable Entry lookup(StatementKey key) {
+        sketch.increment(key);
+        LinkedHashMap<StatementKey, Entry> region = window;
+        Entry entry = window.get(key);
+        if (entry == null) {
+            region = main;
+            entry = main.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expireAtNanoTime() >= 0) {
+            region.remove(key);
+            expirationCounter.incrementAndGet();
+            return null;
+        }
+        if (!isCurrent(entry.tables(), entry.snapshot())) {
+            region.remove(key);
+            invalidationCounter.incrementAndGet();
+            return null;
+        }
+        return entry;
+    }
+
+    private Snapshot snapshot(List<String> tables) {
+        long[] versions = new long[tables.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = tableVersions.getOrDefault(tables.get(i), 0L);
+        }
+        return new Snapshot(epoch, versions);
+    }
+
+    private boolean isCurrent(List<String> tables, Snapshot snapshot) {
+        if (snapshot.epoch() != epoch) {
+            return false;
+        }
+        for (int i = 0; i < tables.size(); i++) {
+            if (tableVersions.getOrDefault(tables.get(i), 0L) != snapshot.versions()[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void store(StatementKey key, List<String> tables, Snapshot snapshot, @Nullable Object value) {
+        if (!isCurrent(tables, snapshot)) {
+            return;
+        }
+        Entry entry = new Entry(value, tables, snapshot, System.nanoTime() + ttlNanos);
+        if (main.containsKey(key)) {
+            main.put(key, entry);
+            return;
+        }
+        window.put(key, entry);
+        if (window.size() <= windowCapacity) {
+            return;
+        }
+        Iterator<Map.Entry<StatementKey, Entry>> windowIterator = window.entrySet().iterator();
+        Map.Entry<StatementKey, Entry> candidate = windowIterator.next();
+        windowIterator.remove();
+        admit(candidate.getKey(), candidate.getValue());
+    }
+
+    /**
+     * TinyLFU 准入：主区未满时直接进入；已满时与主区最久未访问的条目比较访问频率，更高者留下。
+     */
+    private void admit(StatementKey candidateKey, Entry candidate) {
+        if (mainCapacity == 0) {
+            evictionCounter.incrementAndGet();
+            return;
+        }
+        if (main.size() < mainCapacity) {
+            main.put(candidateKey, candidate);
+            return;
+        }
+        Iterator<Map.Entry<StatementKey, Entry>> mainIterator = main.entrySet().iterator();
+        Map.Entry<StatementKey, Entry> victim = mainIterator.next();
+        if (sketch.frequency(candidateKey) > sketch.frequency(victim.getKey())) {
+            mainIterator.remove();
+            main.put(candidateKey, candidate);
+            evictionCounter.incrementAndGet();
+        } else {
+            rejectionCounter.incrementAndGet();
+        }
+    }
+
+    private record Snapshot(long epoch, long[] versions) {
+    }
+
+    private record Entry(@Nullable Object value, List<String> tables, Snapshot snapshot, long expireAtNanoTime) {
+    }
+
+    private static final class PendingInvalidation {
+        private final Set<String> tables = new HashSet<>();
+        private boolean all = false;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.sqlclient.Tuple;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 以 SQL 文本与绑定参数值标识一次语句执行，供只读语句合并与结果缓存使用。
+ * <p>
+ * 参数按值比较，类型不同的参数（如 {@code 1} 与 {@code 1L}）视为不同；
+ * {@code parameters} 为 {@code null} 表示通过普通查询协议执行，与预编译执行区分。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+record StatementKey(String sql, @Nullable List<@Nullable Object> parameters) {
+    static StatementKey of(String sql, @Nullable Tuple tuple) {
+        if (tuple == null) {
+            return new StatementKey(sql, null);
+        }
+        List<@Nullable Object> parameters = new ArrayList<>(tuple.size());
+        for (int i = 0; i < tuple.size(); i++) {
+            parameters.add(tuple.getValue(i));
+        }
+        return new StatementKey(sql, parameters);
+    }
+}
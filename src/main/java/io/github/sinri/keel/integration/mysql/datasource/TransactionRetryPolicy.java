@@ -0,0 +1,167 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.vertx.sqlclient.DatabaseException;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 事务重试策略，用于 {@link NamedMySQLDataSource#withTransaction(TransactionRetryPolicy, java.util.function.Function)}
+ * 等事务方法在遇到可重试的数据库错误时自动重试。
+ * <p>
+ * 默认可重试的错误码为 MySQL {@value #ER_LOCK_DEADLOCK}（死锁）与 {@value #ER_LOCK_WAIT_TIMEOUT}（锁等待超时）。
+ * 每次重试都会在新的连接与事务上重新执行整个事务函数，两次尝试之间按带随机抖动的指数退避等待：
+ * 第 n 次重试前等待 {@code [0, min(maxBackoff, baseBackoff * 2^(n-1))]} 内的随机时长。
+ * <p>
+ * 事务函数会被完整重复执行，其中不应包含无法重复的外部副作用（如发送消息）。
+ * <p>
+ * 本类的设置方法应在策略投入使用前调用；投入使用后可在线程间共享，计数器为原子更新。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class TransactionRetryPolicy {
+    /**
+     * MySQL 错误码：检测到死锁，事务已被回滚。
+     */
+    public static final int ER_LOCK_DEADLOCK = 1213;
+    /**
+     * MySQL 错误码：锁等待超时。
+     */
+    public static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    private final int maxAttempts;
+    private Duration baseBackoff = Duration.ofMillis(20);
+    private Duration maxBackoff = Duration.ofSeconds(1);
+    private Set<Integer> retryableErrorCodes = Set.of(ER_LOCK_DEADLOCK, ER_LOCK_WAIT_TIMEOUT);
+
+    private final AtomicLong attemptCounter = new AtomicLong(0);
+    private final AtomicLong retryCounter = new AtomicLong(0);
+    private final AtomicLong exhaustedCounter = new AtomicLong(0);
+
+    /**
+     * @param maxAttempts 最多尝试次数（含首次），须为正数；为 1 时不重试
+     */
+    public TransactionRetryPolicy(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * 设置退避时长。
+     *
+     * @param baseBackoff 首次重试前的最大等待时长
+     * @param maxBackoff  任意一次重试前等待时长的上限
+     * @return 自身实例
+     */
+    public TransactionRetryPolicy setBackoff(Duration baseBackoff, Duration maxBackoff) {
+        if (baseBackoff.isNegative() || maxBackoff.isNegative()) {
+            throw new IllegalArgumentException("backoff must not be negative");
+        }
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    /**
+     * 设置可重试的 MySQL 错误码，替换默认的 {@value #ER_LOCK_DEADLOCK} 与 {@value #ER_LOCK_WAIT_TIMEOUT}。
+     *
+     * @param errorCodes 可重试的错误码
+     * @return 自身实例
+     */
+    public TransactionRetryPolicy setRetryableErrorCodes(Collection<Integer> errorCodes) {
+        this.retryableErrorCodes = Set.copyOf(errorCodes);
+        return this;
+    }
+
+    /**
+     * @return 最多尝试次数（含首次）
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return 可重试的 MySQL 错误码
+     */
+    public Set<Integer> getRetryableErrorCodes() {
+        return retryableErrorCodes;
+    }
+
+    /**
+     * 判断失败原因是否可重试：沿异常链查找 {@link DatabaseException}，其错误码属于可重试错误码时可重试。
+     *
+     * @param throwable 事务失败的原因
+     * @return 是否可重试
+     */
+    public boolean isRetryable(Throwable throwable) {
+        @Nullable Throwable current = throwable;
+        int depth = 0;
+        while (current != null && depth++ < 16) {
+            if (current instanceof DatabaseException databaseException) {
+                return retryableErrorCodes.contains(databaseException.getErrorCode());
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * 计算第 {@code retry} 次重试前的等待时长（毫秒），带随机抖动。
+     *
+     * @param retry 重试序号，从 1 开始
+     * @return 等待时长（毫秒）
+     */
+    public long computeBackoffMillis(int retry) {
+        long base = baseBackoff.toMillis();
+        long cap = maxBackoff.toMillis();
+        long ceiling = base << Math.min(Math.max(0, retry - 1), 30);
+        if (ceiling < 0 || ceiling > cap) {
+            ceiling = cap;
+        }
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * @return 按本策略执行的事务尝试总次数（含首次与重试）
+     */
+    public long getAttemptCount() {
+        return attemptCounter.get();
+    }
+
+    /**
+     * @return 因可重试错误而发起的重试次数
+     */
+    public long getRetryCount() {
+        return retryCounter.get();
+    }
+
+    /**
+     * @return 遇到可重试错误但已用尽尝试次数而最终失败的事务数
+     */
+    public long getExhaustedCount() {
+        return exhaustedCounter.get();
+    }
+
+    void recordAttempt() {
+        attemptCounter.incrementAndGet();
+    }
+
+    void recordRetry() {
+        retryCounter.incrementAndGet();
+    }
+
+    void recordExhausted() {
+        exhaustedCounter.incrementAndGet();
+    }
+}
@@ -0,0 +1,346 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.connection.NamedMySQLConnection;
+import io.github.sinri.keel.integration.mysql.exception.KeelMySQLException;
+import io.github.sinri.keel.integration.mysql.statement.impl.WriteIntoStatement;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * 延迟批量写入器（write-behind）：接收来自多个调用方的单行写入，按目标表与列集合缓冲，
+ * 达到行数、SQL 长度或时间阈值时合并为一条多行 {@code INSERT} 写入。
+ * <p>
+ * 每次 {@link #write(String, WriteIntoStatement.RowToWrite)} 返回的 Future 在该行所在的批次执行完成后完成；
+ * 一个批次是一条语句，执行失败时批次内所有行均失败（例如其中一行违反唯一约束）。
+ * <p>
+ * 缓冲的行数（含正在写入的批次）有上限：达到上限时新的写入立即失败，
+ * 调用方可通过 {@link #writeQueueFull()} 与 {@link #drainHandler(Handler)} 实现背压。
+ *
+ * <pre>{@code
+ * WriteBehindInserter inserter = new WriteBehindInserter(dataSource)
+ *         .setMaxBatchRows(500)
+ *         .setFlushInterval(Duration.ofMillis(20));
+ * inserter.write("event_log", new WriteIntoStatement.RowToWrite().put("type", type).putNow("created_at"));
+ * }</pre>
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class WriteBehindInserter {
+    private final BiConsumer<Duration, Runnable> scheduler;
+    private final BiFunction<String, List<WriteIntoStatement.RowToWrite>, Future<?>> batchWriter;
+    /**
+     * 以表名与列集合为键的缓冲区，访问受 {@code synchronized(this)} 保护。
+     */
+    private final Map<String, Batch> buffers = new HashMap<>();
+    private final AtomicLong writtenRowCounter = new AtomicLong(0);
+    private final AtomicLong failedRowCounter = new AtomicLong(0);
+    private final AtomicLong rejectedRowCounter = new AtomicLong(0);
+    private final AtomicLong flushCounter = new AtomicLong(0);
+    private int bufferedRowCount = 0;
+    private boolean closed = false;
+    private @Nullable Handler<Void> drainHandler;
+    private volatile int maxBatchRows = 500;
+    private volatile int maxBatchLength = 1024 * 1024;
+    private volatile Duration flushInterval = Duration.ofMillis(50);
+    private volatile int maxBufferedRows = 10_000;
+
+    /**
+     * @param dataSource 写入所用的数据源
+     */
+    public WriteBehindInserter(NamedMySQLDataSource<? extends NamedMySQLConnection> dataSource) {
+        this(
+                (delay, task) -> schedule(dataSource.getVertx(), delay, task),
+                (table, rows) -> dataSource.withConnection(connection -> connection
+                        .insert(statement -> statement.intoTable(table).macroWriteRows(rows))
+                        .execute())
+        );
+    }
+
+    /**
+     * @param scheduler   延迟执行定时刷新的方式
+     * @param batchWriter 将同一表、同一列集合的若干行作为一个批次写入
+     */
+    WriteBehindInserter(
+            BiConsumer<Duration, Runnable> scheduler,
+            BiFunction<String, List<WriteIntoStatement.RowToWrite>, Future<?>> batchWriter
+    ) {
+        this.scheduler = scheduler;
+        this.batchWriter = batchWriter;
+    }
+
+    private static void schedule(Vertx vertx, Duration delay, Runnable task) {
+        vertx.setTimer(Math.max(1, delay.toMillis()), id -> task.run());
+    }
+
+    public int getMaxBatchRows() {
+        return maxBatchRows;
+    }
+
+    /**
+     * @param maxBatchRows 单个批次的最大行数，默认 500
+     * @return 自身实例
+     */
+    public WriteBehindInserter setMaxBatchRows(int maxBatchRows) {
+        if (maxBatchRows < 1) {
+            throw new IllegalArgumentException("maxBatchRows must be positive");
+        }
+        this.maxBatchRows = maxBatchRows;
+        return this;
+    }
+
+    public int getMaxBatchLength() {
+        return maxBatchLength;
+    }
+
+    /**
+     * 设置单个批次 {@code VALUES} 部分的最大估算字节数（UTF-8），默认 1 MiB；应小于服务端的 {@code max_allowed_packet}。
+     *
+     * @param maxBatchLength 最大估算字节数
+     * @return 自身实例
+     */
+    public WriteBehindInserter setMaxBatchLength(int maxBatchLength) {
+        if (maxBatchLength < 1) {
+            throw new IllegalArgumentException("maxBatchLength must be positive");
+        }
+        this.maxBatchLength = maxBatchLength;
+        return this;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * @param flushInterval 缓冲区自收到第一行起最长等待多久写入，默认 50 毫秒
+     * @return 自身实例
+     */
+    public WriteBehindInserter setFlushInterval(Duration flushInterval) {
+        if (flushInterval.isNegative()) {
+            throw new IllegalArgumentException("flushInterval must not be negative");
+        }
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    public int getMaxBufferedRows() {
+        return maxBufferedRows;
+    }
+
+    /**
+     * @param maxBufferedRows 缓冲与写入中的行数上限，默认 10000；达到上限后新的写入立即失败
+     * @return 自身实例
+     */
+    public WriteBehindInserter setMaxBufferedRows(int maxBufferedRows) {
+        if (maxBufferedRows < 1) {
+            throw new IllegalArgumentException("maxBufferedRows must be positive");
+        }
+        this.maxBufferedRows = maxBufferedRows;
+        return this;
+    }
+
+    /**
+     * 提交一行待写入的数据。
+     *
+     * @param table 目标表名
+     * @param row   行数据
+     * @return 该行所在批次写入完成时完成；缓冲已满或已关闭时立即失败
+     */
+    public Future<Void> write(String table, WriteIntoStatement.RowToWrite row) {
+        if (table.isBlank()) {
+            return Future.failedFuture(new IllegalArgumentException("Table is blank"));
+        }
+        if (row.getColumnNames().isEmpty()) {
+            return Future.failedFuture(new IllegalArgumentException("Row to write is empty"));
+        }
+        String key = table + "\n" + String.join(",", row.getColumnNames());
+        long length = row.estimateSqlBytes();
+        Promise<Void> promise = Promise.promise();
+        @Nullable Batch full = null;
+        @Nullable Batch overflowed = null;
+        @Nullable Batch created = null;
+        synchronized (this) {
+            if (closed) {
+                return Future.failedFuture(new KeelMySQLException("WriteBehindInserter is closed"));
+            }
+            if (bufferedRowCount >= maxBufferedRows) {
+                rejectedRowCounter.incrementAndGet();
+                return Future.failedFuture(new KeelMySQLException(
+                        "WriteBehindInserter buffer is full with " + bufferedRowCount + " rows"));
+            }
+            Batch batch = buffers.get(key);
+            if (batch != null && batch.length + length > maxBatchLength) {
+                overflowed = buffers.remove(key);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch(table);
+                buffers.put(key, batch);
+                created = batch;
+            }
+            batch.rows.add(row);
+            batch.promises.add(promise);
+            batch.length += length;
+            bufferedRowCount++;
+            if (batch.rows.size() >= maxBatchRows || batch.length >= maxBatchLength) {
+                full = buffers.remove(key);
+            }
+        }
+        if (overflowed != null) {
+            flushBatch(overflowed);
+        }
+        if (full != null) {
+            flushBatch(full);
+        } else if (created != null) {
+            Batch scheduled = created;
+            scheduler.accept(flushInterval, () -> flushIfCurrent(key, scheduled));
+        }
+        return promise.future();
+    }
+
+    /**
+     * 立即写入所有缓冲中的行。
+     *
+     * @return 本次发出的所有批次完成时完成；任一批次失败时失败
+     */
+    public Future<Void> flush() {
+        List<Batch> batches;
+        synchronized (this) {
+            batches = new ArrayList<>(buffers.values());
+            buffers.clear();
+        }
+        List<Future<Void>> futures = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            futures.add(flushBatch(batch));
+        }
+        return Future.all(futures).mapEmpty();
+    }
+
+    /**
+     * 关闭写入器：此后的写入立即失败，已缓冲的行全部写入。
+     *
+     * @return 已缓冲的行写入完成时完成
+     */
+    public Future<Void> close() {
+        synchronized (this) {
+            closed = true;
+        }
+        return flush();
+    }
+
+    /**
+     * @return 缓冲与写入中的行数是否已达上限
+     */
+    public synchronized boolean writeQueueFull() {
+        return bufferedRowCount >= maxBufferedRows;
+    }
+
+    /**
+     * 设置一次性的回调，在缓冲与写入中的行数降到上限的一半及以下时调用。
+     *
+     * @param handler 回调
+     * @return 自身实例
+     */
+    public synchronized WriteBehindInserter drainHandler(@Nullable Handler<Void> handler) {
+        this.drainHandler = handler;
+        return this;
+    }
+
+    /**
+     * @return 缓冲与写入中的行数
+     */
+    public synchronized int getBufferedRowCount() {
+        return bufferedRowCount;
+    }
+
+    /**
+     * @return 已成功写入的行数
+     */
+    public long getWrittenRowCount() {
+        return writtenRowCounter.get();
+    }
+
+    /**
+     * @return 因批次写入失败而失败的行数
+     */
+    public long getFailedRowCount() {
+        return failedRowCounter.get();
+    }
+
+    /**
+     * @return 因缓冲已满被拒绝的行数
+     */
+    public long getRejectedRowCount() {
+        return rejectedRowCounter.get();
+    }
+
+    /**
+     * @return 发出的批次数
+     */
+    public long getFlushCount() {
+        return flushCounter.get();
+    }
+
+    private void flushIfCurrent(String key, Batch batch) {
+        synchronized (this) {
+            if (!buffers.remove(key, batch)) {
+                return;
+            }
+        }
+        flushBatch(batch);
+    }
+
+    private Future<Void> flushBatch(Batch batch) {
+        flushCounter.incrementAndGet();
+        Promise<Void> done = Promise.promise();
+        Future.succeededFuture()
+              .compose(v -> batchWriter.apply(batch.table, batch.rows))
+              .onComplete(ar -> {
+                  @Nullable Handler<Void> drained = null;
+                  synchronized (this) {
+                      bufferedRowCount -= batch.rows.size();
+                      if (drainHandler != null && bufferedRowCount <= maxBufferedRows / 2) {
+                          drained = drainHandler;
+                          drainHandler = null;
+                      }
+                  }
+                  if (ar.succeeded()) {
+                      writtenRowCounter.addAndGet(batch.rows.size());
+                      batch.promises.forEach(Promise::complete);
+                      done.complete();
+                  } else {
+                      failedRowCounter.addAndGet(batch.rows.size());
+                      batch.promises.forEach(promise -> promise.fail(ar.cause()));
+                      done.fail(ar.cause());
+                  }
+                  if (drained != null) {
+                      drained.handle(null);
+                  }
+              });
+        return done.future();
+    }
+
+    private static final class Batch {
+        private final String table;
+        private final List<WriteIntoStatement.RowToWrite> rows = new ArrayList<>();
+        private final List<Promise<Void>> promises = new ArrayList<>();
+        private long length = 0;
+
+        private Batch(String table) {
+            this.table = table;
+        }
+    }
+}
@@ -75,11 +75,29 @@ public class KeelMySQLDataSourceProvider {
                 sqlConnectionWrapper
         );
         return waitForLoading(vertx, dataSource)
+                .compose(v -> warmUp(dataSource))
                 .compose(v -> {
                     return Future.succeededFuture(dataSource);
                 });
     }
 
+    /**
+     * 在连通性测试之后，按配置项 {@code poolMinSize} 并行预热连接池；未配置时不预热。
+     * <p>
+     * 预热耗时可通过 {@link NamedMySQLDataSource#getWarmUpElapsedMillis()} 读取。
+     *
+     * @param dataSource 已通过连通性测试的数据源
+     * @return 预热完成的 Future
+     * @since 5.0.4
+     */
+    protected Future<Void> warmUp(NamedMySQLDataSource<?> dataSource) {
+        int poolMinSize = dataSource.getConfiguration().getPoolMinSize();
+        if (poolMinSize <= 0) {
+            return Future.succeededFuture();
+        }
+        return dataSource.warmUp(poolMinSize).mapEmpty();
+    }
+
 
     protected Future<Void> waitForLoading(Vertx vertx, NamedMySQLDataSource<?> dataSource) {
         PoolOptions poolOptions = dataSource.getConfiguration().getPoolOptions();
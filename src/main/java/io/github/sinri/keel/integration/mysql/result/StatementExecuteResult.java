@@ -1,8 +1,11 @@
 package io.github.sinri.keel.integration.mysql.result;
 
+import io.github.sinri.keel.integration.mysql.result.columnar.ColumnarResult;
 import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
 import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.RowBackedResultRow;
 import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.StringDeduplicator;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mysqlclient.MySQLClient;
 import io.vertx.sqlclient.Row;
@@ -61,8 +64,55 @@ public class StatementExecuteResult implements Iterable<Row> {
         return ResultMatrix.createSimple(this.getRowSet());
     }
 
+    /**
+     * 转换为直接基于 {@link Row} 的结果矩阵，按需读取字段而不预先将每行转储为 JSON。
+     *
+     * @return 结果矩阵
+     * @since 5.0.4
+     */
+    public ResultMatrix<RowBackedResultRow> toRowBackedMatrix() {
+        return ResultMatrix.createRowBacked(this.getRowSet());
+    }
+
+    /**
+     * 转换为结果矩阵，各列字符串值按列去重，相同的值共享同一个实例；字典大小超过上限的列自动放弃去重。
+     *
+     * @param clazz          结果行类
+     * @param cardinalityCap 每列字典大小上限
+     * @param <R>            结果行类型
+     * @return 结果矩阵
+     * @see StringDeduplicator
+     * @since 5.0.4
+     */
+    public <R extends ResultRow> ResultMatrix<R> toDeduplicatedMatrix(Class<R> clazz, int cardinalityCap) {
+        return ResultMatrix.createDeduplicated(this.getRowSet(), ResultRow.factory(clazz), new StringDeduplicator(cardinalityCap));
+    }
+
+    /**
+     * 以默认的每列字典大小上限 {@link StringDeduplicator#DEFAULT_CARDINALITY_CAP} 转换为字符串去重的结果矩阵。
+     *
+     * @param clazz 结果行类
+     * @param <R>   结果行类型
+     * @return 结果矩阵
+     * @see #toDeduplicatedMatrix(Class, int)
+     * @since 5.0.4
+     */
+    public <R extends ResultRow> ResultMatrix<R> toDeduplicatedMatrix(Class<R> clazz) {
+        return toDeduplicatedMatrix(clazz, StringDeduplicator.DEFAULT_CARDINALITY_CAP);
+    }
+
+    /**
+     * 转换为列式结果，各列以原始类型数组或字典编码保存，适合批量汇总。
+     *
+     * @return 列式结果
+     * @since 5.0.4
+     */
+    public ColumnarResult toColumnar() {
+        return ColumnarResult.of(this.getRowSet());
+    }
+
     public <R extends ResultRow> ResultMatrix<R> toMatrix(Class<R> clazz) {
-        return toMatrix(jsonObject -> ResultRow.of(jsonObject, clazz));
+        return toMatrix(ResultRow.factory(clazz));
     }
 
     public <R extends ResultRow> ResultMatrix<R> toMatrix(Function<JsonObject, R> mapper) {
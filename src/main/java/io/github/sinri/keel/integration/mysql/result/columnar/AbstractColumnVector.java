@@ -0,0 +1,56 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.BitSet;
+
+/**
+ * 列的公共部分：列名、行数与空值位图。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+abstract class AbstractColumnVector implements ColumnVector {
+    protected final String name;
+    protected final int size;
+    protected final BitSet nulls;
+
+    protected AbstractColumnVector(String name, int size, BitSet nulls) {
+        this.name = name;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    @Override
+    public final String getName() {
+        return name;
+    }
+
+    @Override
+    public final int size() {
+        return size;
+    }
+
+    @Override
+    public final boolean isNull(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Index " + row + " out of bounds for length " + size);
+        }
+        return nulls.get(row);
+    }
+
+    @Override
+    public final int countNonNull() {
+        return size - nulls.cardinality();
+    }
+
+    protected final BitSet takeNulls(int[] rows) {
+        BitSet taken = new BitSet(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            if (nulls.get(rows[i])) {
+                taken.set(i);
+            }
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 列式结果中的一列。
+ * <p>
+ * 具体实现按列中的值类型选择：整数列为 {@link LongColumnVector}，浮点列为 {@link DoubleColumnVector}，
+ * 定点小数列为 {@link DecimalColumnVector}，字符串列为字典编码的 {@link StringColumnVector}，其余为 {@link ObjectColumnVector}。
+ * 各实现以位图记录空值，构建后不可变，可在线程间共享。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public interface ColumnVector {
+    /**
+     * @return 列名
+     */
+    String getName();
+
+    /**
+     * @return 行数
+     */
+    int size();
+
+    /**
+     * @param row 行序号
+     * @return 该行的值是否为 {@code null}
+     */
+    boolean isNull(int row);
+
+    /**
+     * 以装箱形式读取一个值，用于转换回行视图；批量计算应使用具体实现的原始类型读取方法。
+     *
+     * @param row 行序号
+     * @return 该行的值，与 {@link io.vertx.sqlclient.Row#toJson()} 中的值一致
+     */
+    @Nullable Object getValue(int row);
+
+    /**
+     * @return 非空值的个数
+     */
+    int countNonNull();
+
+    /**
+     * 按行序号抽取部分行，组成新的列。
+     *
+     * @param rows 行序号
+     * @return 新的列
+     */
+    ColumnVector take(int[] rows);
+}
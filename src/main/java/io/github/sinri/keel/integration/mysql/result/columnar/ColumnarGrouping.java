@@ -0,0 +1,208 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+/**
+ * 列式结果按某列分组后的行归属，可对其他列按组汇总。
+ * <p>
+ * 分组按键首次出现的顺序编号，{@code null} 也是一个分组。汇总结果为以分组编号为下标的数组，每个汇总只遍历一次对应的列。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ColumnarGrouping {
+    private final ColumnarResult result;
+    private final int[] groupOfRow;
+    private final List<@Nullable Object> keys;
+
+    ColumnarGrouping(ColumnarResult result, ColumnVector keyColumn) {
+        this.result = result;
+        this.groupOfRow = new int[keyColumn.size()];
+        this.keys = new ArrayList<>();
+        if (keyColumn instanceof StringColumnVector strings) {
+            // 字典编码到分组编号的映射，末位为 null 分组
+            int[] groupOfCode = new int[strings.getDictionarySize() + 1];
+            Arrays.fill(groupOfCode, -1);
+            for (int i = 0; i < groupOfRow.length; i++) {
+                int code = strings.getCode(i);
+                int slot = code == StringColumnVector.NULL_CODE ? groupOfCode.length - 1 : code;
+                int group = groupOfCode[slot];
+                if (group < 0) {
+                    group = keys.size();
+                    keys.add(code == StringColumnVector.NULL_CODE ? null : strings.getDictionaryValue(code));
+                    groupOfCode[slot] = group;
+                }
+                groupOfRow[i] = group;
+            }
+        } else {
+            Map<Object, Integer> groups = new HashMap<>();
+            int nullGroup = -1;
+            for (int i = 0; i < groupOfRow.length; i++) {
+                Object key = keyColumn.getValue(i);
+                int group;
+                if (key == null) {
+                    if (nullGroup < 0) {
+                        nullGroup = keys.size();
+                        keys.add(null);
+                    }
+                    group = nullGroup;
+                } else {
+                    Integer existing = groups.get(key);
+                    if (existing == null) {
+                        existing = keys.size();
+                        groups.put(key, existing);
+                        keys.add(key);
+                    }
+                    group = existing;
+                }
+                groupOfRow[i] = group;
+            }
+        }
+    }
+
+    /**
+     * @return 分组数
+     */
+    public int groupCount() {
+        return keys.size();
+    }
+
+    /**
+     * @param group 分组编号
+     * @return 分组键
+     */
+    public @Nullable Object getKey(int group) {
+        return keys.get(group);
+    }
+
+    /**
+     * @param row 行序号
+     * @return 该行所属的分组编号
+     */
+    public int groupOf(int row) {
+        return groupOfRow[row];
+    }
+
+    /**
+     * @param group 分组编号
+     * @return 属于该分组的行序号，可交给 {@link ColumnarResult#take(int[])}
+     */
+    public int[] rowsOf(int group) {
+        int[] rows = new int[groupOfRow.length];
+        int count = 0;
+        for (int i = 0; i < groupOfRow.length; i++) {
+            if (groupOfRow[i] == group) {
+                rows[count++] = i;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * @return 各分组的行数
+     */
+    public long[] count() {
+        long[] counts = new long[keys.size()];
+        for (int group : groupOfRow) {
+            counts[group]++;
+        }
+        return counts;
+    }
+
+    /**
+     * 按组对整数列的非空值求和。
+     *
+     * @param column 整数列名
+     * @return 各分组之和
+     * @throws ArithmeticException 溢出
+     */
+    public long[] sumLong(String column) {
+        LongColumnVector vector = result.getLongColumn(column);
+        long[] sums = new long[keys.size()];
+        for (int i = 0; i < groupOfRow.length; i++) {
+            sums[groupOfRow[i]] = Math.addExact(sums[groupOfRow[i]], vector.getLong(i));
+        }
+        return sums;
+    }
+
+    /**
+     * 按组对数值列的非空值求和，整数与定点小数列转换为 {@code double}。
+     *
+     * @param column 整数、浮点或定点小数列名
+     * @return 各分组之和
+     */
+    public double[] sumDouble(String column) {
+        ColumnVector vector = result.getColumn(column);
+        double[] sums = new double[keys.size()];
+        if (vector instanceof DoubleColumnVector doubles) {
+            for (int i = 0; i < groupOfRow.length; i++) {
+                sums[groupOfRow[i]] += doubles.getDouble(i);
+            }
+        } else if (vector instanceof LongColumnVector longs) {
+            for (int i = 0; i < groupOfRow.length; i++) {
+                sums[groupOfRow[i]] += longs.getLong(i);
+            }
+        } else if (vector instanceof DecimalColumnVector decimals) {
+            double divisor = Math.pow(10, decimals.getScale());
+            for (int i = 0; i < groupOfRow.length; i++) {
+                sums[groupOfRow[i]] += decimals.getUnscaled(i) / divisor;
+            }
+        } else {
+            throw new IllegalArgumentException("Column " + column + " is not numeric");
+        }
+        return sums;
+    }
+
+    /**
+     * 按组对定点小数或整数列的非空值精确求和。
+     *
+     * @param column 定点小数或整数列名
+     * @return 各分组之和
+     */
+    public BigDecimal[] sumDecimal(String column) {
+        ColumnVector vector = result.getColumn(column);
+        int scale;
+        IntToLongFunction unscaled;
+        if (vector instanceof DecimalColumnVector decimals) {
+            scale = decimals.getScale();
+            unscaled = decimals::getUnscaled;
+        } else if (vector instanceof LongColumnVector longs) {
+            scale = 0;
+            unscaled = longs::getLong;
+        } else {
+            throw new IllegalArgumentException("Column " + column + " is not a decimal or integer column");
+        }
+        long[] sums = new long[keys.size()];
+        @Nullable BigInteger[] overflowed = new BigInteger[keys.size()];
+        for (int i = 0; i < groupOfRow.length; i++) {
+            int group = groupOfRow[i];
+            long value = unscaled.applyAsLong(i);
+            BigInteger big = overflowed[group];
+            if (big != null) {
+                overflowed[group] = big.add(BigInteger.valueOf(value));
+                continue;
+            }
+            try {
+                sums[group] = Math.addExact(sums[group], value);
+            } catch (ArithmeticException e) {
+                overflowed[group] = BigInteger.valueOf(sums[group]).add(BigInteger.valueOf(value));
+            }
+        }
+        BigDecimal[] totals = new BigDecimal[keys.size()];
+        for (int group = 0; group < totals.length; group++) {
+            BigInteger big = overflowed[group];
+            totals[group] = big != null ? new BigDecimal(big, scale) : BigDecimal.valueOf(sums[group], scale);
+        }
+        return totals;
+    }
+}
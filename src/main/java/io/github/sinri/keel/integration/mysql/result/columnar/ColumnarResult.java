@@ -0,0 +1,468 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.data.Numeric;
+import io.vertx.sqlclient.desc.ColumnDescriptor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * 列式查询结果：直接由 {@link RowSet} 构建，每列以原始类型数组或字典编码保存，不为每行创建 {@link JsonObject}。
+ * <p>
+ * 由 {@link RowSet} 构建时，各列的类型由结果集的列描述（{@link ColumnDescriptor#jdbcType()}）决定，与返回了哪些行无关，
+ * 空结果或全为 {@code NULL} 的列同样得到对应类型的列：整数类型为 {@link LongColumnVector}；浮点类型为 {@link DoubleColumnVector}；
+ * DECIMAL 为 {@link DecimalColumnVector}；字符串与日期时间类型为 {@link StringColumnVector}；其余为 {@link ObjectColumnVector}。
+ * 列中的值与列描述不符（如无符号 BIGINT 超出 {@code long} 范围）时，改按列中的值决定类型。
+ * <p>
+ * 由若干行构建时没有列描述，各列的类型由列中的非空值决定：全部为整数时为 {@link LongColumnVector}；含浮点数时为 {@link DoubleColumnVector}；
+ * 含定点小数（如 DECIMAL）且统一小数位数后不超出 {@code long} 范围时为 {@link DecimalColumnVector}；
+ * 全部为字符串或时间类型时为 {@link StringColumnVector}；其余为 {@link ObjectColumnVector}。
+ * 值的转换规则与 {@link Row#toJson()} 一致（定点小数列的值统一为全列最大的小数位数），重复列名以最后出现的列为准。
+ * <p>
+ * 适合对大量行做求和、极值、分组汇总与筛选；需要逐行处理时可经 {@link #toJsonObject(int)} 或 {@link #toResultMatrix(Class)} 转回行视图。
+ * 构建后不可变，可在线程间共享。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ColumnarResult {
+    private final int size;
+    private final Map<String, ColumnVector> columns;
+
+    private ColumnarResult(int size, Map<String, ColumnVector> columns) {
+        this.size = size;
+        this.columns = columns;
+    }
+
+    /**
+     * 由结果集构建列式结果。
+     *
+     * @param rowSet 结果集
+     * @return 列式结果
+     */
+    public static ColumnarResult of(RowSet<Row> rowSet) {
+        List<Row> rows = new ArrayList<>(rowSet.size());
+        rowSet.forEach(rows::add);
+        List<String> columnNames = new ArrayList<>();
+        List<@Nullable ValueKind> declaredKinds = new ArrayList<>();
+        List<ColumnDescriptor> descriptors = rowSet.columnDescriptors();
+        if (descriptors != null) {
+            for (ColumnDescriptor descriptor : descriptors) {
+                columnNames.add(descriptor.name());
+                declaredKinds.add(ValueKind.declaredBy(descriptor));
+            }
+        } else if (rowSet.columnsNames() != null) {
+            for (String columnName : rowSet.columnsNames()) {
+                columnNames.add(columnName);
+                declaredKinds.add(null);
+            }
+        }
+        return build(columnNames, declaredKinds, rows);
+    }
+
+    /**
+     * 由若干行构建列式结果，例如游标读取的窗口；列名取自第一行，各行应来自同一结果集。
+     *
+     * @param rows SQL行
+     * @return 列式结果
+     */
+    public static ColumnarResult of(List<Row> rows) {
+        List<String> columnNames = new ArrayList<>();
+        List<@Nullable ValueKind> declaredKinds = new ArrayList<>();
+        if (!rows.isEmpty()) {
+            Row first = rows.get(0);
+            for (int i = 0; i < first.size(); i++) {
+                columnNames.add(first.getColumnName(i));
+                declaredKinds.add(null);
+            }
+        }
+        return build(columnNames, declaredKinds, rows);
+    }
+
+    private static ColumnarResult build(List<String> columnNames, List<@Nullable ValueKind> declaredKinds, List<Row> rows) {
+        // 重复列名以最后出现的列为准，与 Row#toJson() 一致
+        Map<String, Integer> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            indexes.put(columnNames.get(i), i);
+        }
+        Map<String, ColumnVector> columns = new LinkedHashMap<>();
+        indexes.forEach((name, index) -> columns.put(name, buildColumn(name, index, declaredKinds.get(index), rows)));
+        return new ColumnarResult(rows.size(), Collections.unmodifiableMap(columns));
+    }
+
+    /**
+     * @param declaredKind 列描述声明的值类型；为 {@code null} 或与列中的值不符时按列中的值决定
+     */
+    private static ColumnVector buildColumn(String name, int index, @Nullable ValueKind declaredKind, List<Row> rows) {
+        Set<ValueKind> kinds = EnumSet.noneOf(ValueKind.class);
+        int scale = 0;
+        for (Row row : rows) {
+            Object value = row.getValue(index);
+            if (value == null) {
+                continue;
+            }
+            ValueKind kind = ValueKind.of(value);
+            kinds.add(kind);
+            if (kind == ValueKind.DECIMAL) {
+                scale = Math.max(scale, toBigDecimal(value).scale());
+            }
+        }
+
+        ValueKind target = declaredKind != null && declaredKind.accepts(kinds) ? declaredKind : ValueKind.inferredFrom(kinds);
+
+        int size = rows.size();
+        if (target == ValueKind.INTEGRAL) {
+            long[] values = new long[size];
+            BitSet nulls = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                Object value = rows.get(i).getValue(index);
+                if (value == null) {
+                    nulls.set(i);
+                } else {
+                    values[i] = ((Number) value).longValue();
+                }
+            }
+            return new LongColumnVector(name, values, nulls);
+        }
+        if (target == ValueKind.FLOATING) {
+            double[] values = new double[size];
+            BitSet nulls = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                Object value = rows.get(i).getValue(index);
+                if (value == null) {
+                    nulls.set(i);
+                } else {
+                    values[i] = ((Number) value).doubleValue();
+                }
+            }
+            return new DoubleColumnVector(name, values, nulls);
+        }
+        if (target == ValueKind.DECIMAL) {
+            DecimalColumnVector decimal = buildDecimalColumn(name, index, rows, scale);
+            if (decimal != null) {
+                return decimal;
+            }
+        }
+        if (target == ValueKind.TEXT) {
+            int[] codes = new int[size];
+            Map<String, Integer> dictionary = new HashMap<>();
+            List<String> entries = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Object value = rows.get(i).getValue(index);
+                if (value == null) {
+                    codes[i] = StringColumnVector.NULL_CODE;
+                } else {
+                    String text = toText(value);
+                    Integer code = dictionary.get(text);
+                    if (code == null) {
+                        code = entries.size();
+                        dictionary.put(text, code);
+                        entries.add(text);
+                    }
+                    codes[i] = code;
+                }
+            }
+            return new StringColumnVector(name, codes, entries.toArray(new String[0]));
+        }
+        @Nullable Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = toJsonValue(rows.get(i).getValue(index));
+        }
+        return new ObjectColumnVector(name, values);
+    }
+
+    private static @Nullable DecimalColumnVector buildDecimalColumn(String name, int index, List<Row> rows, int scale) {
+        int size = rows.size();
+        long[] values = new long[size];
+        BitSet nulls = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            Object value = rows.get(i).getValue(index);
+            if (value == null) {
+                nulls.set(i);
+                continue;
+            }
+            var unscaled = toBigDecimal(value).setScale(scale).unscaledValue();
+            if (unscaled.bitLength() > 63) {
+                return null;
+            }
+            values[i] = unscaled.longValue();
+        }
+        return new DecimalColumnVector(name, values, scale, nulls);
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Numeric numeric) {
+            return numeric.bigDecimalValue();
+        }
+        return BigDecimal.valueOf(((Number) value).longValue());
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof Temporal temporal && temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return DateTimeFormatter.ISO_INSTANT.format(temporal);
+        }
+        return value.toString();
+    }
+
+    private static @Nullable Object toJsonValue(@Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Temporal) {
+            return toText(value);
+        }
+        if (value.getClass().isArray() && !(value instanceof byte[])) {
+            int length = Array.getLength(value);
+            JsonArray array = new JsonArray();
+            for (int i = 0; i < length; i++) {
+                array.add(toJsonValue(Array.get(value, i)));
+            }
+            return array;
+        }
+        return value;
+    }
+
+    /**
+     * @return 行数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 按结果集顺序排列的去重列名
+     */
+    public List<String> getColumnNames() {
+        return List.copyOf(columns.keySet());
+    }
+
+    /**
+     * @param name 列名
+     * @return 列
+     * @throws IllegalArgumentException 列不存在
+     */
+    public ColumnVector getColumn(String name) {
+        ColumnVector column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Column " + name + " not found");
+        }
+        return column;
+    }
+
+    /**
+     * @throws IllegalArgumentException 列不存在或不是整数列
+     */
+    public LongColumnVector getLongColumn(String name) {
+        return getTypedColumn(name, LongColumnVector.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException 列不存在或不是浮点列
+     */
+    public DoubleColumnVector getDoubleColumn(String name) {
+        return getTypedColumn(name, DoubleColumnVector.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException 列不存在或不是定点小数列
+     */
+    public DecimalColumnVector getDecimalColumn(String name) {
+        return getTypedColumn(name, DecimalColumnVector.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException 列不存在或不是字符串列
+     */
+    public StringColumnVector getStringColumn(String name) {
+        return getTypedColumn(name, StringColumnVector.class);
+    }
+
+    private <C extends ColumnVector> C getTypedColumn(String name, Class<C> type) {
+        ColumnVector column = getColumn(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("Column " + name + " is a " + column.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+
+    /**
+     * 按行序号抽取部分行。
+     *
+     * @param rows 行序号，例如各列 {@code select} 方法的结果
+     * @return 新的列式结果
+     */
+    public ColumnarResult take(int[] rows) {
+        for (int row : rows) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Index " + row + " out of bounds for length " + size);
+            }
+        }
+        Map<String, ColumnVector> taken = new LinkedHashMap<>();
+        columns.forEach((name, column) -> taken.put(name, column.take(rows)));
+        return new ColumnarResult(rows.length, Collections.unmodifiableMap(taken));
+    }
+
+    /**
+     * 按行序号筛选；单列条件优先使用各列的 {@code select} 方法。
+     *
+     * @param rowPredicate 对行序号的判断
+     * @return 新的列式结果
+     */
+    public ColumnarResult filter(IntPredicate rowPredicate) {
+        int[] selected = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (rowPredicate.test(i)) {
+                selected[count++] = i;
+            }
+        }
+        return take(Arrays.copyOf(selected, count));
+    }
+
+    /**
+     * 按指定列的值分组。字符串列直接以字典编码分组，不比较字符串。
+     *
+     * @param keyColumn 分组键所在的列
+     * @return 分组
+     */
+    public ColumnarGrouping groupBy(String keyColumn) {
+        return new ColumnarGrouping(this, getColumn(keyColumn));
+    }
+
+    /**
+     * 将一行转换为 JSON 对象。
+     *
+     * @param row 行序号
+     * @return 行数据JSON对象
+     */
+    public JsonObject toJsonObject(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Index " + row + " out of bounds for length " + size);
+        }
+        Map<String, @Nullable Object> map = new LinkedHashMap<>(Math.max(16, columns.size() * 2));
+        columns.forEach((name, column) -> map.put(name, column.getValue(row)));
+        return new JsonObject(map);
+    }
+
+    /**
+     * @return 以 {@link SimpleResultRow} 为行的结果矩阵
+     */
+    public ResultMatrix<SimpleResultRow> toResultMatrix() {
+        return toResultMatrix(SimpleResultRow::new);
+    }
+
+    /**
+     * @param clazz 结果行类
+     * @param <R>   结果行类型
+     * @return 结果矩阵
+     */
+    public <R extends ResultRow> ResultMatrix<R> toResultMatrix(Class<R> clazz) {
+        return toResultMatrix(ResultRow.factory(clazz));
+    }
+
+    private <R extends ResultRow> ResultMatrix<R> toResultMatrix(Function<JsonObject, R> factory) {
+        List<R> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(factory.apply(toJsonObject(i)));
+        }
+        return ResultMatrix.ofRows(rows);
+    }
+
+    private enum ValueKind {
+        INTEGRAL, FLOATING, DECIMAL, TEXT, OTHER;
+
+        static ValueKind of(Object value) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return INTEGRAL;
+            }
+            if (value instanceof Double || value instanceof Float) {
+                return FLOATING;
+            }
+            if (value instanceof BigDecimal || (value instanceof Numeric numeric && !numeric.isNaN())) {
+                return DECIMAL;
+            }
+            if (value instanceof String || value instanceof Temporal) {
+                return TEXT;
+            }
+            return OTHER;
+        }
+
+        /**
+         * @return 列描述声明的值类型；无法确定或为数组时返回 {@code null}
+         */
+        static @Nullable ValueKind declaredBy(ColumnDescriptor descriptor) {
+            JDBCType jdbcType = descriptor.jdbcType();
+            if (descriptor.isArray() || jdbcType == null) {
+                return null;
+            }
+            return switch (jdbcType) {
+                case TINYINT, SMALLINT, INTEGER, BIGINT -> INTEGRAL;
+                case REAL, FLOAT, DOUBLE -> FLOATING;
+                case DECIMAL, NUMERIC -> DECIMAL;
+                case CHAR, VARCHAR, LONGVARCHAR, NCHAR, NVARCHAR, LONGNVARCHAR, CLOB, NCLOB, DATE, TIMESTAMP,
+                     TIMESTAMP_WITH_TIMEZONE -> TEXT;
+                default -> null;
+            };
+        }
+
+        /**
+         * @return 以本类型为列类型时，列中出现的这些值类型能否按本类型保存
+         */
+        boolean accepts(Set<ValueKind> kinds) {
+            return switch (this) {
+                case INTEGRAL -> EnumSet.of(INTEGRAL).containsAll(kinds);
+                case FLOATING -> EnumSet.of(INTEGRAL, FLOATING).containsAll(kinds);
+                case DECIMAL -> EnumSet.of(INTEGRAL, DECIMAL).containsAll(kinds);
+                case TEXT -> EnumSet.of(TEXT).containsAll(kinds);
+                case OTHER -> true;
+            };
+        }
+
+        /**
+         * @return 由列中出现的非空值类型决定的列类型
+         */
+        static ValueKind inferredFrom(Set<ValueKind> kinds) {
+            if (kinds.equals(EnumSet.of(INTEGRAL))) {
+                return INTEGRAL;
+            }
+            if (kinds.contains(FLOATING) && FLOATING.accepts(kinds)) {
+                return FLOATING;
+            }
+            if (kinds.contains(DECIMAL) && DECIMAL.accepts(kinds)) {
+                return DECIMAL;
+            }
+            if (kinds.equals(EnumSet.of(TEXT))) {
+                return TEXT;
+            }
+            return OTHER;
+        }
+    }
+}
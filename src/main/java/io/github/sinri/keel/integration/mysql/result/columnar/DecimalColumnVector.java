@@ -0,0 +1,128 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.function.LongPredicate;
+
+/**
+ * 以统一小数位数的未缩放 {@code long[]} 保存的定点小数列，对应 DECIMAL 类型。
+ * <p>
+ * 值 {@code v} 保存为 {@code v × 10^scale}，求和与比较均在 {@code long} 上进行，不损失精度。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class DecimalColumnVector extends AbstractColumnVector {
+    private final long[] unscaledValues;
+    private final int scale;
+
+    DecimalColumnVector(String name, long[] unscaledValues, int scale, BitSet nulls) {
+        super(name, unscaledValues.length, nulls);
+        this.unscaledValues = unscaledValues;
+        this.scale = scale;
+    }
+
+    /**
+     * @return 全列统一的小数位数
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @param row 行序号
+     * @return 该行的未缩放值；为 {@code null} 时返回 0
+     */
+    public long getUnscaled(int row) {
+        return unscaledValues[row];
+    }
+
+    /**
+     * @param row 行序号
+     * @return 该行的值
+     */
+    public @Nullable BigDecimal getBigDecimal(int row) {
+        return isNull(row) ? null : BigDecimal.valueOf(unscaledValues[row], scale);
+    }
+
+    @Override
+    public @Nullable Object getValue(int row) {
+        return getBigDecimal(row);
+    }
+
+    /**
+     * @return 非空值之和，小数位数为 {@link #getScale()}
+     */
+    public BigDecimal sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            long next = sum + unscaledValues[i];
+            if (((sum ^ next) & (unscaledValues[i] ^ next)) < 0) {
+                // long 溢出时改用 BigInteger 累加剩余部分
+                BigInteger big = BigInteger.valueOf(sum);
+                for (int j = i; j < size; j++) {
+                    big = big.add(BigInteger.valueOf(unscaledValues[j]));
+                }
+                return new BigDecimal(big, scale);
+            }
+            sum = next;
+        }
+        return BigDecimal.valueOf(sum, scale);
+    }
+
+    /**
+     * @return 非空值中的最小值；全为空时为空
+     */
+    public Optional<BigDecimal> min() {
+        int found = -1;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            if (found < 0 || unscaledValues[i] < unscaledValues[found]) {
+                found = i;
+            }
+        }
+        return found < 0 ? Optional.empty() : Optional.of(BigDecimal.valueOf(unscaledValues[found], scale));
+    }
+
+    /**
+     * @return 非空值中的最大值；全为空时为空
+     */
+    public Optional<BigDecimal> max() {
+        int found = -1;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            if (found < 0 || unscaledValues[i] > unscaledValues[found]) {
+                found = i;
+            }
+        }
+        return found < 0 ? Optional.empty() : Optional.of(BigDecimal.valueOf(unscaledValues[found], scale));
+    }
+
+    /**
+     * @param predicate 对非空行未缩放值的判断
+     * @return 满足条件的行序号，可交给 {@link ColumnarResult#take(int[])}
+     */
+    public int[] selectUnscaled(LongPredicate predicate) {
+        int[] selected = new int[size];
+        int count = 0;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            if (predicate.test(unscaledValues[i])) {
+                selected[count++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    @Override
+    public DecimalColumnVector take(int[] rows) {
+        long[] taken = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            taken[i] = unscaledValues[rows[i]];
+        }
+        return new DecimalColumnVector(name, taken, scale, takeNulls(rows));
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.OptionalDouble;
+import java.util.function.DoublePredicate;
+
+/**
+ * 以 {@code double[]} 保存的浮点列，对应 FLOAT、DOUBLE 类型。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class DoubleColumnVector extends AbstractColumnVector {
+    private final double[] values;
+
+    DoubleColumnVector(String name, double[] values, BitSet nulls) {
+        super(name, values.length, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @param row 行序号
+     * @return 该行的值；为 {@code null} 时返回 0，需要区分时先调用 {@link #isNull(int)}
+     */
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public @Nullable Object getValue(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    /**
+     * @return 非空值之和
+     */
+    public double sum() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return 非空值中的最小值；全为空时为空
+     */
+    public OptionalDouble min() {
+        boolean found = false;
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            found = true;
+            min = Math.min(min, values[i]);
+        }
+        return found ? OptionalDouble.of(min) : OptionalDouble.empty();
+    }
+
+    /**
+     * @return 非空值中的最大值；全为空时为空
+     */
+    public OptionalDouble max() {
+        boolean found = false;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            found = true;
+            max = Math.max(max, values[i]);
+        }
+        return found ? OptionalDouble.of(max) : OptionalDouble.empty();
+    }
+
+    /**
+     * @param predicate 对非空值的判断
+     * @return 满足条件的行序号，可交给 {@link ColumnarResult#take(int[])}
+     */
+    public int[] select(DoublePredicate predicate) {
+        int[] selected = new int[size];
+        int count = 0;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            if (predicate.test(values[i])) {
+                selected[count++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    @Override
+    public DoubleColumnVector take(int[] rows) {
+        double[] taken = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            taken[i] = values[rows[i]];
+        }
+        return new DoubleColumnVector(name, taken, takeNulls(rows));
+    }
+}
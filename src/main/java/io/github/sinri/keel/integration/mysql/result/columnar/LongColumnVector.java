@@ -0,0 +1,99 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.OptionalLong;
+import java.util.function.LongPredicate;
+
+/**
+ * 以 {@code long[]} 保存的整数列，对应 TINYINT 至 BIGINT 等整数类型。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class LongColumnVector extends AbstractColumnVector {
+    private final long[] values;
+
+    LongColumnVector(String name, long[] values, BitSet nulls) {
+        super(name, values.length, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @param row 行序号
+     * @return 该行的值；为 {@code null} 时返回 0，需要区分时先调用 {@link #isNull(int)}
+     */
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    public @Nullable Object getValue(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    /**
+     * @return 非空值之和
+     * @throws ArithmeticException 溢出
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum = Math.addExact(sum, values[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * @return 非空值中的最小值；全为空时为空
+     */
+    public OptionalLong min() {
+        boolean found = false;
+        long min = Long.MAX_VALUE;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            found = true;
+            min = Math.min(min, values[i]);
+        }
+        return found ? OptionalLong.of(min) : OptionalLong.empty();
+    }
+
+    /**
+     * @return 非空值中的最大值；全为空时为空
+     */
+    public OptionalLong max() {
+        boolean found = false;
+        long max = Long.MIN_VALUE;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            found = true;
+            max = Math.max(max, values[i]);
+        }
+        return found ? OptionalLong.of(max) : OptionalLong.empty();
+    }
+
+    /**
+     * @param predicate 对非空值的判断
+     * @return 满足条件的行序号，可交给 {@link ColumnarResult#take(int[])}
+     */
+    public int[] select(LongPredicate predicate) {
+        int[] selected = new int[size];
+        int count = 0;
+        for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+            if (predicate.test(values[i])) {
+                selected[count++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    @Override
+    public LongColumnVector take(int[] rows) {
+        long[] taken = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            taken[i] = values[rows[i]];
+        }
+        return new LongColumnVector(name, taken, takeNulls(rows));
+    }
+}
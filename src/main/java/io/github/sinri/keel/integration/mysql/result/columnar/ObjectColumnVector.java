@@ -0,0 +1,45 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * 以对象数组保存的列，用于布尔、二进制、JSON 以及类型混杂或超出 {@code long} 范围的数值。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ObjectColumnVector extends AbstractColumnVector {
+    private final @Nullable Object[] values;
+
+    ObjectColumnVector(String name, @Nullable Object[] values) {
+        super(name, values.length, nullsOf(values));
+        this.values = values;
+    }
+
+    private static BitSet nullsOf(@Nullable Object[] values) {
+        BitSet nulls = new BitSet(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                nulls.set(i);
+            }
+        }
+        return nulls;
+    }
+
+    @Override
+    public @Nullable Object getValue(int row) {
+        return values[row];
+    }
+
+    @Override
+    public ObjectColumnVector take(int[] rows) {
+        @Nullable Object[] taken = new Object[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            taken[i] = values[rows[i]];
+        }
+        return new ObjectColumnVector(name, taken);
+    }
+}
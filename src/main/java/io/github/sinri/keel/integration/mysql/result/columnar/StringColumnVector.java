@@ -0,0 +1,113 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * 字典编码的字符串列：每个不同的字符串只保存一次，各行以 {@code int} 编码引用字典。
+ * <p>
+ * 时间类型按 {@link io.vertx.sqlclient.Row#toJson()} 的规则转为字符串后同样以字典编码保存。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class StringColumnVector extends AbstractColumnVector {
+    /**
+     * 空值的编码
+     */
+    public static final int NULL_CODE = -1;
+
+    private final int[] codes;
+    private final String[] dictionary;
+
+    StringColumnVector(String name, int[] codes, String[] dictionary) {
+        super(name, codes.length, nullsOf(codes));
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    private static BitSet nullsOf(int[] codes) {
+        BitSet nulls = new BitSet(codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == NULL_CODE) {
+                nulls.set(i);
+            }
+        }
+        return nulls;
+    }
+
+    /**
+     * @param row 行序号
+     * @return 该行的值
+     */
+    public @Nullable String getString(int row) {
+        int code = codes[row];
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+
+    @Override
+    public @Nullable Object getValue(int row) {
+        return getString(row);
+    }
+
+    /**
+     * @param row 行序号
+     * @return 该行值在字典中的编码；为 {@code null} 时返回 {@link #NULL_CODE}
+     */
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    /**
+     * @return 字典大小，即不同非空值的个数
+     */
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * @param code 编码
+     * @return 编码对应的字符串
+     */
+    public String getDictionaryValue(int code) {
+        return dictionary[code];
+    }
+
+    /**
+     * 筛选行：判断条件对每个字典值只执行一次。
+     *
+     * @param predicate 对非空值的判断
+     * @return 满足条件的行序号，可交给 {@link ColumnarResult#take(int[])}
+     */
+    public int[] select(Predicate<String> predicate) {
+        boolean[] accepted = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            accepted[code] = predicate.test(dictionary[code]);
+        }
+        int[] selected = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int code = codes[i];
+            if (code != NULL_CODE && accepted[code]) {
+                selected[count++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * 抽取部分行；新列沿用原字典，可能包含未被引用的字典值。
+     */
+    @Override
+    public StringColumnVector take(int[] rows) {
+        int[] taken = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            taken[i] = codes[rows[i]];
+        }
+        return new StringColumnVector(name, taken, dictionary);
+    }
+}
@@ -0,0 +1 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
\ No newline at end of file
@@ -3,7 +3,10 @@ package io.github.sinri.keel.integration.mysql.result.matrix;
 
 import io.github.sinri.keel.integration.mysql.exception.KeelSQLResultRowIndexError;
 import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.RowBackedResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.RowColumnIndex;
 import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.StringDeduplicator;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -34,6 +37,53 @@ public interface ResultMatrix<R extends ResultRow> extends Iterable<R> {
         return new SpecificResultMatrix<>(rowSet, mapper);
     }
 
+    /**
+     * 创建直接基于 {@link Row} 的结果矩阵，各行共享同一个列名映射，不预先将每行转储为 {@link JsonObject}。
+     *
+     * @param rowSet 结果集
+     * @return 结果矩阵
+     * @see RowBackedResultRow
+     * @since 5.0.4
+     */
+    static ResultMatrix<RowBackedResultRow> createRowBacked(RowSet<Row> rowSet) {
+        RowColumnIndex columnIndex = RowColumnIndex.of(rowSet);
+        List<RowBackedResultRow> rows = new ArrayList<>(rowSet.size());
+        for (Row row : rowSet) {
+            rows.add(new RowBackedResultRow(row, columnIndex));
+        }
+        return new AbstractResultMatrix<>(rows);
+    }
+
+    /**
+     * 创建结果矩阵，各行字符串列的值经 {@link StringDeduplicator} 按列去重后再映射为结果行，相同的值共享同一个实例。
+     *
+     * @param rowSet       结果集
+     * @param mapper       结果行映射函数
+     * @param deduplicator 本结果集使用的字符串去重器
+     * @param <T>          结果行类型
+     * @return 结果矩阵
+     * @since 5.0.4
+     */
+    static <T extends ResultRow> ResultMatrix<T> createDeduplicated(RowSet<Row> rowSet, Function<JsonObject, T> mapper, StringDeduplicator deduplicator) {
+        List<T> rows = new ArrayList<>(rowSet.size());
+        for (Row row : rowSet) {
+            rows.add(mapper.apply(deduplicator.toJsonObject(row)));
+        }
+        return new AbstractResultMatrix<>(rows);
+    }
+
+    /**
+     * 以已构造的结果行列表创建结果矩阵，例如截取查询结果的一部分。
+     *
+     * @param rows 结果行列表
+     * @param <T>  结果行类型
+     * @return 结果矩阵
+     * @since 5.0.4
+     */
+    static <T extends ResultRow> ResultMatrix<T> ofRows(List<T> rows) {
+        return new AbstractResultMatrix<>(List.copyOf(rows));
+    }
+
     int size();
 
     R getFirstRow() throws KeelSQLResultRowIndexError;
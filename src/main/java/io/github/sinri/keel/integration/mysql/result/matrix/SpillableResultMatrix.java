@@ -0,0 +1,609 @@
+package io.github.sinri.keel.integration.mysql.result.matrix;
+
+import io.github.sinri.keel.integration.mysql.exception.KeelSQLResultRowIndexError;
+import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 以紧凑二进制形式保存行数据的结果矩阵，超出内存预算的部分溢出到内存映射的临时文件。
+ * <p>
+ * 通过 {@link Builder} 逐行追加 {@link Row}：每行只保存去重后各列的值（列名全表共享一份），
+ * 编码后的字节先写入堆内缓冲区，累计超过内存预算后，后续各行追加写入临时文件；
+ * {@link Builder#build()} 之后临时文件按段以只读方式映射到内存，由操作系统按需换入换出，不占用 Java 堆。
+ * <p>
+ * 结果行在访问时才解码：{@link #getRowByIndex(int)}、迭代与 {@link #stream()} 每次都解码出新的结果行对象，
+ * 对其所做的修改不会写回；{@link #getRowList()} 返回按需解码的只读列表视图。值的转换规则与 {@link Row#toJson()} 一致。
+ * <p>
+ * 用完后应调用 {@link #close()} 删除临时文件，未关闭时临时文件不会自动删除；关闭后不可再读取。{@link #getMemoryUsage()} 记录本结果占用的堆内与溢出字节数。
+ * 构建完成后的读取操作可在线程间共享。
+ *
+ * @param <R> 结果行类型
+ * @since 5.0.4
+ */
+@NullMarked
+public final class SpillableResultMatrix<R extends ResultRow> implements ResultMatrix<R>, AutoCloseable {
+    /**
+     * 单个映射段的最大字节数；一行不会跨段存放。
+     */
+    static final int SEGMENT_SIZE = 1 << 28;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_TRUE = 5;
+    private static final byte TAG_FALSE = 6;
+    private static final byte TAG_DECIMAL = 7;
+    private static final byte TAG_BYTES = 8;
+    private static final byte TAG_JSON_OBJECT = 9;
+    private static final byte TAG_JSON_ARRAY = 10;
+
+    private final Function<JsonObject, R> mapper;
+    private final String[] columnNames;
+    private final int rowCount;
+    private final byte[] heapBytes;
+    private final int heapRowCount;
+    /**
+     * 各行起始位置：堆内行为 {@link #heapBytes} 中的下标，溢出行为临时文件中的位置。
+     */
+    private final long[] rowOffsets;
+    private final @Nullable Path spillFile;
+    private final long spilledBytes;
+    private final long[] segmentStarts;
+    private final @Nullable MappedByteBuffer[] segments;
+    private final @Nullable FileChannel spillChannel;
+    private volatile boolean closed = false;
+
+    private SpillableResultMatrix(Builder<R> builder) throws IOException {
+        this.mapper = builder.mapper;
+        this.columnNames = builder.columnNames == null ? new String[0] : builder.columnNames;
+        this.rowCount = builder.rowCount;
+        this.heapRowCount = builder.heapRowCount;
+        this.heapBytes = Arrays.copyOf(builder.heapBuffer, builder.heapLength);
+        this.rowOffsets = Arrays.copyOf(builder.rowOffsets, builder.rowCount);
+        this.spillFile = builder.spillFile;
+        this.spilledBytes = builder.spillLength;
+        this.segmentStarts = builder.segmentStarts.stream().mapToLong(Long::longValue).toArray();
+        this.segments = new MappedByteBuffer[segmentStarts.length];
+        this.spillChannel = spillFile == null ? null : FileChannel.open(spillFile, StandardOpenOption.READ);
+    }
+
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+    @Override
+    public R getFirstRow() throws KeelSQLResultRowIndexError {
+        return getRowByIndex(0);
+    }
+
+    @Override
+    public R getRowByIndex(int index) throws KeelSQLResultRowIndexError {
+        if (index < 0 || index >= rowCount) {
+            throw new KeelSQLResultRowIndexError(new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + rowCount));
+        }
+        return decodeRow(index);
+    }
+
+    /**
+     * @return 按需解码的只读列表视图
+     */
+    @Override
+    public List<R> getRowList() {
+        return new AbstractList<>() {
+            @Override
+            public R get(int index) {
+                if (index < 0 || index >= rowCount) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + rowCount);
+                }
+                return decodeRow(index);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    @Override
+    public Stream<R> stream() {
+        return IntStream.range(0, rowCount).mapToObj(this::decodeRow);
+    }
+
+    @Override
+    public Iterator<R> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < rowCount;
+            }
+
+            @Override
+            public R next() {
+                if (next >= rowCount) {
+                    throw new NoSuchElementException();
+                }
+                return decodeRow(next++);
+            }
+        };
+    }
+
+    /**
+     * @return 是否有行溢出到临时文件
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * @return 本结果的内存占用记录
+     */
+    public MemoryUsage getMemoryUsage() {
+        return new MemoryUsage(rowCount, heapBytes.length + rowOffsets.length * 8L, spilledBytes);
+    }
+
+    /**
+     * 删除临时文件。映射段在被回收后才会释放。
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Arrays.fill(segments, null);
+        try {
+            if (spillChannel != null) {
+                spillChannel.close();
+            }
+            if (spillFile != null) {
+                Files.deleteIfExists(spillFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private R decodeRow(int index) {
+        ByteBuffer buffer;
+        if (index < heapRowCount) {
+            int start = (int) rowOffsets[index];
+            int end = index + 1 < heapRowCount ? (int) rowOffsets[index + 1] : heapBytes.length;
+            buffer = ByteBuffer.wrap(heapBytes, start, end - start);
+        } else {
+            buffer = spilledRow(index);
+        }
+        Map<String, @Nullable Object> map = new LinkedHashMap<>(Math.max(16, columnNames.length * 2));
+        for (String columnName : columnNames) {
+            map.put(columnName, readValue(buffer));
+        }
+        return mapper.apply(new JsonObject(map));
+    }
+
+    private ByteBuffer spilledRow(int index) {
+        long start = rowOffsets[index];
+        long end = index + 1 == rowCount ? spilledBytes : rowOffsets[index + 1];
+        int segmentIndex = Arrays.binarySearch(segmentStarts, start);
+        if (segmentIndex < 0) {
+            segmentIndex = -segmentIndex - 2;
+        }
+        MappedByteBuffer segment = mapSegment(segmentIndex);
+        ByteBuffer buffer = segment.duplicate();
+        int position = (int) (start - segmentStarts[segmentIndex]);
+        buffer.limit(position + (int) (end - start)).position(position);
+        return buffer;
+    }
+
+    private synchronized MappedByteBuffer mapSegment(int segmentIndex) {
+        if (closed || spillChannel == null) {
+            throw new IllegalStateException("SpillableResultMatrix is closed");
+        }
+        MappedByteBuffer segment = segments[segmentIndex];
+        if (segment == null) {
+            long start = segmentStarts[segmentIndex];
+            long end = segmentIndex + 1 < segmentStarts.length ? segmentStarts[segmentIndex + 1] : spilledBytes;
+            try {
+                segment = spillChannel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments[segmentIndex] = segment;
+        }
+        return segment;
+    }
+
+    private static @Nullable Object readValue(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_STRING -> readString(buffer);
+            case TAG_INT -> buffer.getInt();
+            case TAG_LONG -> buffer.getLong();
+            case TAG_DOUBLE -> buffer.getDouble();
+            case TAG_TRUE -> true;
+            case TAG_FALSE -> false;
+            case TAG_DECIMAL -> new BigDecimal(readString(buffer));
+            case TAG_BYTES -> {
+                byte[] bytes = new byte[readVarInt(buffer)];
+                buffer.get(bytes);
+                yield Buffer.buffer(bytes);
+            }
+            case TAG_JSON_OBJECT -> new JsonObject(readString(buffer));
+            case TAG_JSON_ARRAY -> new JsonArray(readString(buffer));
+            default -> throw new IllegalStateException("Unknown value tag " + tag);
+        };
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        String string;
+        if (buffer.hasArray()) {
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * 单个结果的内存占用记录。
+     *
+     * @param rowCount     行数
+     * @param heapBytes    堆内保存行数据及行索引所用的字节数
+     * @param spilledBytes 溢出到临时文件的字节数
+     */
+    public record MemoryUsage(long rowCount, long heapBytes, long spilledBytes) {
+        /**
+         * @return 编码后的总字节数
+         */
+        public long totalBytes() {
+            return heapBytes + spilledBytes;
+        }
+    }
+
+    /**
+     * 逐行构建 {@link SpillableResultMatrix}。本类不是线程安全的，同一时刻只应有一个线程追加。
+     *
+     * @param <R> 结果行类型
+     */
+    public static final class Builder<R extends ResultRow> {
+        private final Function<JsonObject, R> mapper;
+        private final long memoryBudget;
+        private final @Nullable Path spillDirectory;
+        private final List<Long> segmentStarts = new ArrayList<>();
+        private String @Nullable [] columnNames;
+        private int @Nullable [] columnIndexes;
+        private byte[] heapBuffer = new byte[4096];
+        private int heapLength = 0;
+        private int heapRowCount = 0;
+        private long[] rowOffsets = new long[64];
+        private int rowCount = 0;
+        private byte[] scratch = new byte[256];
+        private int scratchLength = 0;
+        private @Nullable Path spillFile;
+        private @Nullable OutputStream spillOutput;
+        private long spillLength = 0;
+        private boolean built = false;
+
+        /**
+         * @param mapper       解码时由 JSON 对象构建结果行的函数，如 {@link ResultRow#factory(Class)}
+         * @param memoryBudget 堆内保存行数据的字节预算，超出后溢出到临时文件；为 0 时全部溢出
+         */
+        public Builder(Function<JsonObject, R> mapper, long memoryBudget) {
+            this(mapper, memoryBudget, null);
+        }
+
+        /**
+         * @param mapper         解码时由 JSON 对象构建结果行的函数，如 {@link ResultRow#factory(Class)}
+         * @param memoryBudget   堆内保存行数据的字节预算，超出后溢出到临时文件；为 0 时全部溢出
+         * @param spillDirectory 临时文件所在目录，为 {@code null} 时使用系统临时目录
+         */
+        public Builder(Function<JsonObject, R> mapper, long memoryBudget, @Nullable Path spillDirectory) {
+            if (memoryBudget < 0) {
+                throw new IllegalArgumentException("memory budget < 0");
+            }
+            this.mapper = mapper;
+            this.memoryBudget = Math.min(memoryBudget, Integer.MAX_VALUE - 8);
+            this.spillDirectory = spillDirectory;
+        }
+
+        /**
+         * @return 是否已开始溢出到临时文件
+         */
+        public boolean isSpilled() {
+            return spillFile != null;
+        }
+
+        /**
+         * 估计再追加 {@code rows} 行后是否可能写入临时文件。
+         * <p>
+         * 已开始溢出时返回 {@code true}；否则按已追加的堆内行的平均编码长度的两倍估算这些行的字节数，
+         * 与已用的堆内字节数之和超出内存预算时返回 {@code true}。尚无堆内行可供估算时，只要 {@code rows} 为正即返回 {@code true}。
+         *
+         * @param rows 待追加的行数
+         * @return 是否可能写入临时文件
+         */
+        public boolean mayExceedBudget(int rows) {
+            if (isSpilled()) {
+                return true;
+            }
+            if (rows <= 0) {
+                return false;
+            }
+            if (heapRowCount == 0) {
+                return true;
+            }
+            long averageRowLength = (heapLength + heapRowCount - 1L) / heapRowCount;
+            return heapLength + 2 * averageRowLength * rows > memoryBudget;
+        }
+
+        /**
+         * @return 已追加的行数
+         */
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * 追加一行。列名取自第一行，后续各行应来自同一结果集。
+         *
+         * @param row SQL行
+         * @return 当前实例
+         * @throws UncheckedIOException 写入临时文件失败
+         */
+        public Builder<R> append(Row row) {
+            if (built) {
+                throw new IllegalStateException("Builder has been built");
+            }
+            String[] names = columnNames;
+            int[] indexes = columnIndexes;
+            if (names == null || indexes == null) {
+                // 重复列名以最后出现的列为准，与 Row#toJson() 一致
+                Map<String, Integer> map = new LinkedHashMap<>();
+                for (int i = 0; i < row.size(); i++) {
+                    map.put(row.getColumnName(i), i);
+                }
+                names = map.keySet().toArray(new String[0]);
+                indexes = map.values().stream().mapToInt(Integer::intValue).toArray();
+                columnNames = names;
+                columnIndexes = indexes;
+            }
+
+            scratchLength = 0;
+            for (int index : indexes) {
+                writeValue(row.getValue(index));
+            }
+
+            if (rowCount + 1 >= rowOffsets.length) {
+                rowOffsets = Arrays.copyOf(rowOffsets, rowOffsets.length * 2);
+            }
+            try {
+                if (spillFile == null && heapLength + (long) scratchLength <= memoryBudget) {
+                    ensureHeapCapacity(heapLength + scratchLength);
+                    System.arraycopy(scratch, 0, heapBuffer, heapLength, scratchLength);
+                    rowOffsets[rowCount] = heapLength;
+                    heapLength += scratchLength;
+                    heapRowCount++;
+                } else {
+                    appendToSpillFile();
+                }
+            } catch (IOException e) {
+                discard();
+                throw new UncheckedIOException(e);
+            }
+            rowCount++;
+            return this;
+        }
+
+        /**
+         * 结束追加并构建结果矩阵。
+         *
+         * @return 结果矩阵
+         * @throws UncheckedIOException 关闭或映射临时文件失败
+         */
+        public SpillableResultMatrix<R> build() {
+            if (built) {
+                throw new IllegalStateException("Builder has been built");
+            }
+            built = true;
+            try {
+                if (spillOutput != null) {
+                    spillOutput.close();
+                    spillOutput = null;
+                }
+                return new SpillableResultMatrix<>(this);
+            } catch (IOException e) {
+                discard();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 放弃构建并删除临时文件，用于读取中途失败的情况。
+         */
+        public void discard() {
+            built = true;
+            try {
+                if (spillOutput != null) {
+                    spillOutput.close();
+                    spillOutput = null;
+                }
+                if (spillFile != null) {
+                    Files.deleteIfExists(spillFile);
+                }
+            } catch (IOException ignored) {
+                // 删除失败时临时文件留在溢出目录中，由调用方或系统的临时文件清理处理
+            }
+        }
+
+        private void appendToSpillFile() throws IOException {
+            OutputStream output = spillOutput;
+            if (output == null) {
+                Path file = spillDirectory == null
+                        ? Files.createTempFile("keel-result-", ".bin")
+                        : Files.createTempFile(spillDirectory, "keel-result-", ".bin");
+                spillFile = file;
+                output = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.WRITE), 64 * 1024);
+                spillOutput = output;
+                segmentStarts.add(0L);
+            }
+            long segmentStart = segmentStarts.get(segmentStarts.size() - 1);
+            if (spillLength > segmentStart && spillLength - segmentStart + scratchLength > SEGMENT_SIZE) {
+                segmentStarts.add(spillLength);
+            }
+            output.write(scratch, 0, scratchLength);
+            rowOffsets[rowCount] = spillLength;
+            spillLength += scratchLength;
+        }
+
+        private void ensureHeapCapacity(int capacity) {
+            if (capacity > heapBuffer.length) {
+                heapBuffer = Arrays.copyOf(heapBuffer, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, heapBuffer.length * 2L)));
+            }
+        }
+
+        private void ensureScratchCapacity(int additional) {
+            if (scratchLength + additional > scratch.length) {
+                scratch = Arrays.copyOf(scratch, Math.max(scratchLength + additional, scratch.length * 2));
+            }
+        }
+
+        private void writeTag(byte tag) {
+            ensureScratchCapacity(1);
+            scratch[scratchLength++] = tag;
+        }
+
+        private void writeVarInt(int value) {
+            ensureScratchCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                scratch[scratchLength++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            scratch[scratchLength++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensureScratchCapacity(bytes.length);
+            System.arraycopy(bytes, 0, scratch, scratchLength, bytes.length);
+            scratchLength += bytes.length;
+        }
+
+        private void writeLongBits(long value, int bytes) {
+            ensureScratchCapacity(bytes);
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+                scratch[scratchLength++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeTagged(byte tag, String string) {
+            writeTag(tag);
+            writeBytes(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 按 {@link Row#toJson()} 的规则转换后写入一个值。
+         */
+        private void writeValue(@Nullable Object value) {
+            if (value == null) {
+                writeTag(TAG_NULL);
+            } else if (value instanceof String string) {
+                writeTagged(TAG_STRING, string);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                writeTag(TAG_INT);
+                writeLongBits(((Number) value).intValue(), 4);
+            } else if (value instanceof Long l) {
+                writeTag(TAG_LONG);
+                writeLongBits(l, 8);
+            } else if (value instanceof Double || value instanceof Float) {
+                writeTag(TAG_DOUBLE);
+                writeLongBits(Double.doubleToRawLongBits(((Number) value).doubleValue()), 8);
+            } else if (value instanceof Boolean b) {
+                writeTag(b ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof BigDecimal decimal) {
+                writeTagged(TAG_DECIMAL, decimal.toString());
+            } else if (value instanceof Number number) {
+                String text = number.toString();
+                try {
+                    writeTagged(TAG_DECIMAL, new BigDecimal(text).toString());
+                } catch (NumberFormatException e) {
+                    writeTagged(TAG_STRING, text);
+                }
+            } else if (value instanceof Buffer buffer) {
+                writeTag(TAG_BYTES);
+                writeBytes(buffer.getBytes());
+            } else if (value instanceof byte[] bytes) {
+                writeTag(TAG_BYTES);
+                writeBytes(bytes);
+            } else if (value instanceof JsonObject jsonObject) {
+                writeTagged(TAG_JSON_OBJECT, jsonObject.encode());
+            } else if (value instanceof JsonArray jsonArray) {
+                writeTagged(TAG_JSON_ARRAY, jsonArray.encode());
+            } else if (value.getClass().isArray()) {
+                JsonArray array = new JsonArray();
+                int length = Array.getLength(value);
+                for (int i = 0; i < length; i++) {
+                    array.add(Array.get(value, i));
+                }
+                writeTagged(TAG_JSON_ARRAY, array.encode());
+            } else if (value instanceof Temporal temporal && temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+                writeTagged(TAG_STRING, DateTimeFormatter.ISO_INSTANT.format(temporal));
+            } else {
+                writeTagged(TAG_STRING, value.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.sinri.keel.integration.mysql.result.pagination;
+
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内、按固定存活时间过期的分页总数缓存。
+ * <p>
+ * 条目数超过上限时，写入前先清理已过期条目；仍超限时清空全部条目，以控制内存占用。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public class ExpiringPaginationTotalCountCache implements PaginationTotalCountCache {
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl        缓存存活时间
+     * @param maxEntries 最大条目数
+     */
+    public ExpiringPaginationTotalCountCache(Duration ttl, int maxEntries) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Future<@Nullable Long> getTotal(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Future.succeededFuture(null);
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return Future.succeededFuture(null);
+        }
+        return Future.succeededFuture(entry.total());
+    }
+
+    @Override
+    public Future<Void> putTotal(String key, long total) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(total, now + ttlNanos));
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 移除指定键的缓存，例如在数据写入后主动失效。
+     *
+     * @param key 查询形状键
+     */
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 清空全部缓存。
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return 当前条目数（含尚未清理的过期条目）
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(long total, long expireAtNanos) {
+        boolean isExpired(long now) {
+            return now - expireAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.sinri.keel.integration.mysql.result.pagination;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 键集（seek）分页的游标编解码。
+ * <p>
+ * 游标为不透明的 URL 安全 Base64 文本，内含上一页最后一行的排序键值以及排序规则的摘要；
+ * 使用与生成时不同的排序规则解码会被拒绝。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class KeysetCursor {
+    private static final String KEY_ORDER = "o";
+    private static final String KEY_VALUES = "v";
+    private static final String KEY_DECIMAL = "d";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * 解析 {@code ORDER BY} 各项为排序键。
+     *
+     * @param sortRules 排序规则，形如 {@code "t.id"}、{@code "t.id DESC"}
+     * @return 排序键列表
+     */
+    public static List<SortKey> parseSortRules(List<String> sortRules) {
+        List<SortKey> sortKeys = new ArrayList<>(sortRules.size());
+        for (String sortRule : sortRules) {
+            sortKeys.add(SortKey.parse(sortRule));
+        }
+        return sortKeys;
+    }
+
+    /**
+     * 编码游标。
+     *
+     * @param sortKeys 排序键
+     * @param values   与排序键一一对应的值
+     * @return 游标文本
+     */
+    public static String encode(List<SortKey> sortKeys, List<Object> values) {
+        if (sortKeys.size() != values.size()) {
+            throw new IllegalArgumentException("Keyset cursor values do not match sort keys");
+        }
+        JsonArray array = new JsonArray();
+        for (Object value : values) {
+            if (value instanceof BigDecimal || value instanceof Double || value instanceof Float) {
+                // JSON 数值解码后会变成 Double，以文本保留小数精度
+                array.add(new JsonObject().put(KEY_DECIMAL, new BigDecimal(value.toString()).toPlainString()));
+            } else if (value instanceof BigInteger bigInteger) {
+                array.add(new JsonObject().put(KEY_DECIMAL, bigInteger.toString()));
+            } else {
+                array.add(value);
+            }
+        }
+        String json = new JsonObject()
+                .put(KEY_ORDER, signature(sortKeys))
+                .put(KEY_VALUES, array)
+                .encode();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 以结果行中各排序键对应字段的值编码游标，字段名由 {@link SortKey#columnLabel()} 推断。
+     *
+     * @param sortKeys 排序键
+     * @param row      上一页最后一行
+     * @return 游标文本
+     * @throws IllegalStateException 结果行缺少排序键字段或字段值为 {@code NULL} 时
+     */
+    public static String encodeAfter(List<SortKey> sortKeys, JsonObject row) {
+        List<Object> values = new ArrayList<>(sortKeys.size());
+        for (SortKey sortKey : sortKeys) {
+            String label = sortKey.columnLabel();
+            if (!row.containsKey(label)) {
+                throw new IllegalStateException("Keyset pagination requires sort key " + sortKey.expression()
+                        + " to be selected as column " + label);
+            }
+            Object value = row.getValue(label);
+            if (value == null) {
+                throw new IllegalStateException("Keyset pagination requires non-null sort key values, but got NULL for "
+                        + sortKey.expression());
+            }
+            values.add(value);
+        }
+        return encode(sortKeys, values);
+    }
+
+    /**
+     * 解码游标。
+     *
+     * @param cursor   游标文本
+     * @param sortKeys 当前查询的排序键
+     * @return 与排序键一一对应的值
+     * @throws IllegalArgumentException 游标无法解析或与当前排序规则不一致时
+     */
+    public static List<Object> decode(String cursor, List<SortKey> sortKeys) {
+        JsonObject jsonObject;
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            jsonObject = new JsonObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | DecodeException e) {
+            throw new IllegalArgumentException("Invalid keyset cursor", e);
+        }
+        if (!signature(sortKeys).equals(jsonObject.getValue(KEY_ORDER))) {
+            throw new IllegalArgumentException("Keyset cursor does not match the sort rules of the statement");
+        }
+        Object rawValues = jsonObject.getValue(KEY_VALUES);
+        if (!(rawValues instanceof JsonArray array) || array.size() != sortKeys.size()) {
+            throw new IllegalArgumentException("Invalid keyset cursor");
+        }
+        List<Object> values = new ArrayList<>(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            Object value = array.getValue(i);
+            if (value instanceof JsonObject wrapped && wrapped.getValue(KEY_DECIMAL) instanceof String decimal) {
+                try {
+                    value = new BigDecimal(decimal);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid keyset cursor", e);
+                }
+            }
+            if (value == null || value instanceof JsonObject || value instanceof JsonArray) {
+                throw new IllegalArgumentException("Invalid keyset cursor");
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static String signature(List<SortKey> sortKeys) {
+        StringBuilder x = new StringBuilder();
+        for (SortKey sortKey : sortKeys) {
+            x.append(sortKey.expression()).append(sortKey.descending() ? " DESC" : " ASC").append(',');
+        }
+        return Integer.toHexString(x.toString().hashCode());
+    }
+
+    /**
+     * 排序键。
+     *
+     * @param expression 排序表达式
+     * @param descending 是否降序
+     */
+    public record SortKey(String expression, boolean descending) {
+        /**
+         * 解析一项排序规则，识别结尾的 {@code ASC} / {@code DESC}（不区分大小写）。
+         *
+         * @param sortRule 排序规则
+         * @return 排序键
+         */
+        public static SortKey parse(String sortRule) {
+            String trimmed = sortRule.trim();
+            String upper = trimmed.toUpperCase(Locale.ROOT);
+            if (upper.endsWith(" DESC")) {
+                return new SortKey(trimmed.substring(0, trimmed.length() - 5).trim(), true);
+            }
+            if (upper.endsWith(" ASC")) {
+                return new SortKey(trimmed.substring(0, trimmed.length() - 4).trim(), false);
+            }
+            return new SortKey(trimmed, false);
+        }
+
+        /**
+         * 推断排序键在结果行中的字段名：去掉表限定前缀与反引号，如 {@code `u`.`id`} 对应 {@code id}。
+         *
+         * @return 结果行中的字段名
+         */
+        public String columnLabel() {
+            String label = expression;
+            int dot = label.lastIndexOf('.');
+            if (dot >= 0) {
+                label = label.substring(dot + 1);
+            }
+            return label.replace("`", "");
+        }
+
+        @Override
+        public String toString() {
+            return expression + (descending ? " DESC" : "");
+        }
+    }
+}
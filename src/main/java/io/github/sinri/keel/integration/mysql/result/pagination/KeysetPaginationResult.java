@@ -0,0 +1,29 @@
+package io.github.sinri.keel.integration.mysql.result.pagination;
+
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 键集（seek）分页的一页结果。
+ *
+ * @param resultMatrix 本页数据
+ * @param nextCursor   获取下一页所用的游标；已是最后一页时为 {@code null}
+ * @since 5.0.4
+ */
+@NullMarked
+public record KeysetPaginationResult(ResultMatrix<?> resultMatrix, @Nullable String nextCursor) {
+    /**
+     * @return 是否还有下一页
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    public JsonObject toJsonObject() {
+        return new JsonObject()
+                .put("next_cursor", nextCursor)
+                .put("list", resultMatrix.toJsonArray());
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.sinri.keel.integration.mysql.result.pagination;
+
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 分页总数缓存，用于在翻页时复用同一查询条件下的总行数。
+ * <p>
+ * 键为去掉 {@code LIMIT} / {@code OFFSET} 后的完整查询 SQL（含条件值）；经命名连接创建的分页语句以数据源名称加冒号为前缀，
+ * 见 {@link io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForReadAndPagination#setTotalCountCacheNamespace(String)}。
+ * 实现可以是进程内缓存（见 {@link ExpiringPaginationTotalCountCache}），也可以对接外部缓存服务。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public interface PaginationTotalCountCache {
+    /**
+     * 读取缓存的总数。
+     *
+     * @param key 查询形状键
+     * @return 缓存的总数；未命中或已过期时为 {@code null}
+     */
+    Future<@Nullable Long> getTotal(String key);
+
+    /**
+     * 写入总数。
+     *
+     * @param key   查询形状键
+     * @param total 总行数
+     * @return 写入完成的 Future
+     */
+    Future<Void> putTotal(String key, long total);
+}
@@ -8,7 +8,6 @@ import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collection;
@@ -26,25 +25,25 @@ public interface ResultRow extends JsonifiableDataUnit {
     /**
      * {@code (Class&lt;? extends ResultRow&gt; -&gt; Constructor)} 反射构造器缓存，
      * 避免每次实例化都重复执行 {@link Class#getConstructor} 查找。
+     *
+     * @deprecated 自 5.0.4 起实例化改由 {@link #factory(Class)} 生成的工厂函数完成，不再经过反射构造器；
+     *         本字段仅为兼容保留，{@link #of(JsonObject, Class)} 仍会登记所用的构造器，将在后续版本移除。
      */
+    @Deprecated(since = "5.0.4", forRemoval = true)
     ConcurrentHashMap<Class<?>, Constructor<?>> CONSTRUCTOR_CACHE = new ConcurrentHashMap<>();
 
     /**
-     * 从缓存中获取指定结果行类的 {@code (JsonObject)} 构造器；缓存未命中时执行反射查找并写入缓存。
+     * 获取指定结果行类的工厂函数，以 {@code (JsonObject)} 构造器创建实例。
+     * <p>
+     * 工厂函数按类生成一次并缓存，调用时不经过反射；构造器抛出的异常原样传播。
      *
-     * @param clazz 结果行类
+     * @param clazz 结果行类，须有 {@code (JsonObject)} 构造器
      * @param <R>   结果行类型
-     * @return 构造器
+     * @return 工厂函数
+     * @since 5.0.4
      */
-    @SuppressWarnings("unchecked")
-    private static <R extends ResultRow> Constructor<R> findConstructor(Class<R> clazz) {
-        return (Constructor<R>) CONSTRUCTOR_CACHE.computeIfAbsent(clazz, c -> {
-            try {
-                return c.getConstructor(JsonObject.class);
-            } catch (NoSuchMethodException e) {
-                throw new RuntimeException(e);
-            }
-        });
+    static <R extends ResultRow> Function<JsonObject, R> factory(Class<R> clazz) {
+        return ResultRowFactories.get(clazz);
     }
 
     /**
@@ -54,13 +53,16 @@ public interface ResultRow extends JsonifiableDataUnit {
      * @param clazz    结果行类
      * @return 结果行对象
      */
+    @SuppressWarnings("removal")
     static <R extends ResultRow> R of(JsonObject tableRow, Class<R> clazz) {
-        Constructor<R> constructor = findConstructor(clazz);
-        try {
-            return constructor.newInstance(tableRow);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        CONSTRUCTOR_CACHE.computeIfAbsent(clazz, c -> {
+            try {
+                return c.getConstructor(JsonObject.class);
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        return factory(clazz).apply(tableRow);
     }
 
     /**
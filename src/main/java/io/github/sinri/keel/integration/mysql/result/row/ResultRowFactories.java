@@ -0,0 +1,30 @@
+package io.github.sinri.keel.integration.mysql.result.row;
+
+import io.github.sinri.keel.integration.mysql.ConstructorFunctions;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.function.Function;
+
+/**
+ * 按结果行类缓存的 {@code (JsonObject)} 构造函数。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+final class ResultRowFactories {
+    private static final ClassValue<Function<JsonObject, ?>> FACTORIES = new ClassValue<>() {
+        @Override
+        protected Function<JsonObject, ?> computeValue(Class<?> type) {
+            return ConstructorFunctions.of(type, JsonObject.class);
+        }
+    };
+
+    private ResultRowFactories() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R extends ResultRow> Function<JsonObject, R> get(Class<R> clazz) {
+        return (Function<JsonObject, R>) FACTORIES.get(clazz);
+    }
+}
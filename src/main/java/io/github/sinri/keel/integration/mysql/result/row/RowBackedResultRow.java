@@ -0,0 +1,407 @@
+package io.github.sinri.keel.integration.mysql.result.row;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 直接基于 {@link Row} 的结果行实现，不预先将整行转储为 {@link JsonObject}。
+ * <p>
+ * 同一结果集的所有行共享一个 {@link RowColumnIndex}；按字段读取时经列序号直接访问 {@link Row} 中驱动解码的原生值，
+ * 数值、布尔与时间类型的读取不经过 JSON 转换。仅在调用 {@link #toJsonObject()} 后遍历、编码或修改其内容时，
+ * 才按 {@link Row#toJson()} 相同的规则构建完整的 JSON 数据，且只构建一次。
+ * <p>
+ * 通过 {@link #toJsonObject()} 修改行数据后，后续读取均以修改后的 JSON 数据为准。
+ * <p>
+ * 本类持有对 {@link Row} 的引用，适合在单次请求内读取宽表中的少数字段；需长期缓存时宜改用 {@link SimpleResultRow}。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public class RowBackedResultRow extends SimpleResultRow {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Row row;
+    private final RowColumnIndex columnIndex;
+    private final RowJsonView view;
+    private final JsonObject jsonObject;
+
+    /**
+     * 构造基于 {@link Row} 的结果行对象
+     *
+     * @param row         SQL行对象
+     * @param columnIndex 所属结果集共享的列名映射
+     */
+    public RowBackedResultRow(Row row, RowColumnIndex columnIndex) {
+        this(row, columnIndex, new RowJsonView(row, columnIndex));
+    }
+
+    /**
+     * 构造基于 {@link Row} 的结果行对象，列名映射由该行单独构建
+     *
+     * @param row SQL行对象
+     */
+    public RowBackedResultRow(Row row) {
+        this(row, RowColumnIndex.of(row));
+    }
+
+    private RowBackedResultRow(Row row, RowColumnIndex columnIndex, RowJsonView view) {
+        this(row, columnIndex, view, new JsonObject(view));
+    }
+
+    private RowBackedResultRow(Row row, RowColumnIndex columnIndex, RowJsonView view, JsonObject jsonObject) {
+        super(jsonObject);
+        this.row = row;
+        this.columnIndex = columnIndex;
+        this.view = view;
+        this.jsonObject = jsonObject;
+    }
+
+    /**
+     * @return 底层的SQL行对象
+     */
+    public Row getSourceRow() {
+        return row;
+    }
+
+    /**
+     * @return 所属结果集共享的列名映射
+     */
+    public RowColumnIndex getColumnIndex() {
+        return columnIndex;
+    }
+
+    /**
+     * 行数据的 JSON 视图是否已完整构建。
+     * <p>
+     * 未构建时行数据未被修改，与 {@link #getSourceRow()} 完全一致，可直接基于底层行对象编码。
+     *
+     * @return JSON 视图是否已完整构建
+     * @since 5.0.4
+     */
+    public boolean isJsonObjectMaterialized() {
+        return view.isMaterialized();
+    }
+
+    /**
+     * 获取行数据的 JSON 对象视图；其内容在首次遍历、编码或修改时才完整构建。
+     *
+     * @return 行数据JSON对象
+     */
+    @Override
+    public JsonObject toJsonObject() {
+        return jsonObject;
+    }
+
+    @Override
+    public @Nullable Object readValue(String key) {
+        return jsonObject.getValue(key);
+    }
+
+    @Override
+    public @Nullable String readString(String key) {
+        Object value = nativeValue(key);
+        if (value instanceof String s) {
+            return s;
+        }
+        return view.isMaterialized() || value != null ? jsonObject.getString(key) : null;
+    }
+
+    @Override
+    public @Nullable Long readLong(String key) {
+        int index = nativeIndex(key);
+        if (index >= 0) {
+            Object value = row.getValue(index);
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Number) {
+                return row.getLong(index);
+            }
+        }
+        return super.readLong(key);
+    }
+
+    @Override
+    public @Nullable Integer readInteger(String key) {
+        int index = nativeIndex(key);
+        if (index >= 0) {
+            Object value = row.getValue(index);
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Number) {
+                return row.getInteger(index);
+            }
+        }
+        return super.readInteger(key);
+    }
+
+    @Override
+    public @Nullable Double readDouble(String key) {
+        int index = nativeIndex(key);
+        if (index >= 0) {
+            Object value = row.getValue(index);
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Number) {
+                return row.getDouble(index);
+            }
+        }
+        return super.readDouble(key);
+    }
+
+    @Override
+    public @Nullable Number readNumber(String key) {
+        int index = nativeIndex(key);
+        if (index >= 0) {
+            Object value = row.getValue(index);
+            if (value == null || value instanceof Number) {
+                return (Number) value;
+            }
+        }
+        return super.readNumber(key);
+    }
+
+    @Override
+    public @Nullable Boolean readBoolean(String key) {
+        int index = nativeIndex(key);
+        if (index >= 0) {
+            Object value = row.getValue(index);
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Boolean) {
+                return row.getBoolean(index);
+            }
+        }
+        return super.readBoolean(key);
+    }
+
+    @Override
+    public @Nullable String readDateTime(String field) {
+        if (nativeValue(field) instanceof LocalDateTime localDateTime) {
+            return localDateTime.format(DATE_TIME_FORMATTER);
+        }
+        return super.readDateTime(field);
+    }
+
+    @Override
+    public @Nullable Object readJson(String field) {
+        int index = nativeIndex(field);
+        if (index >= 0) {
+            // 不经 readValue 的 JSON 包装，直接取驱动解码的 JSON 值
+            Object value = row.getValue(index);
+            if (value == null || value instanceof JsonObject || value instanceof JsonArray) {
+                return value;
+            }
+        }
+        return super.readJson(field);
+    }
+
+    /**
+     * 读取日期时间字段的原生值
+     *
+     * @param field 字段名
+     * @return 日期时间；字段缺失或为 SQL {@code NULL} 时返回 {@code null}
+     */
+    public @Nullable LocalDateTime readLocalDateTime(String field) {
+        Object value = nativeValue(field);
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        String s = value == null ? null : readString(field);
+        return s == null ? null : LocalDateTime.parse(s);
+    }
+
+    /**
+     * 读取日期字段的原生值
+     *
+     * @param field 字段名
+     * @return 日期；字段缺失或为 SQL {@code NULL} 时返回 {@code null}
+     */
+    public @Nullable LocalDate readLocalDate(String field) {
+        Object value = nativeValue(field);
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        String s = value == null ? null : readString(field);
+        return s == null ? null : LocalDate.parse(s);
+    }
+
+    /**
+     * 读取定点数字段的原生值，不经过 {@link Double} 转换
+     *
+     * @param field 字段名
+     * @return 定点数；字段缺失或为 SQL {@code NULL} 时返回 {@code null}
+     */
+    public @Nullable BigDecimal readBigDecimal(String field) {
+        Object value = nativeValue(field);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    /**
+     * 读取二进制字段的原生值
+     *
+     * @param field 字段名
+     * @return 二进制数据；字段缺失或为 SQL {@code NULL} 时返回 {@code null}
+     */
+    public @Nullable Buffer readBuffer(String field) {
+        if (view.isMaterialized()) {
+            return jsonObject.getBuffer(field);
+        }
+        int index = columnIndex.indexOf(field);
+        return index < 0 ? null : row.getBuffer(index);
+    }
+
+    /**
+     * @return 列序号；行数据已被构建为 JSON（此后可能被修改）或字段不存在时返回 {@code -1}
+     */
+    private int nativeIndex(String key) {
+        if (view.isMaterialized()) {
+            return -1;
+        }
+        return columnIndex.indexOf(key);
+    }
+
+    private @Nullable Object nativeValue(String key) {
+        if (view.isMaterialized()) {
+            return jsonObject.getValue(key);
+        }
+        int index = columnIndex.indexOf(key);
+        return index < 0 ? null : row.getValue(index);
+    }
+
+    /**
+     * 将驱动解码的值转换为 JSON 值，规则与 {@link Row#toJson()} 一致。
+     */
+    private static @Nullable Object toJsonValue(@Nullable Object value) {
+        if (value == null
+                || value instanceof String
+                || value instanceof Boolean
+                || value instanceof Number
+                || value instanceof Buffer
+                || value instanceof JsonObject
+                || value instanceof JsonArray) {
+            return value;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            JsonArray array = new JsonArray();
+            for (int i = 0; i < length; i++) {
+                array.add(toJsonValue(Array.get(value, i)));
+            }
+            return array;
+        }
+        if (value instanceof Temporal temporal && temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return DateTimeFormatter.ISO_INSTANT.format(temporal);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 行数据的延迟 JSON 视图：按键读取时只转换单个值，遍历、修改等操作触发一次完整构建。
+     */
+    private static final class RowJsonView extends AbstractMap<String, @Nullable Object> {
+        private final Row row;
+        private final RowColumnIndex columnIndex;
+        private @Nullable Map<String, @Nullable Object> materialized;
+
+        RowJsonView(Row row, RowColumnIndex columnIndex) {
+            this.row = row;
+            this.columnIndex = columnIndex;
+        }
+
+        boolean isMaterialized() {
+            return materialized != null;
+        }
+
+        private Map<String, @Nullable Object> materialize() {
+            Map<String, @Nullable Object> map = materialized;
+            if (map == null) {
+                map = new LinkedHashMap<>();
+                int size = row.size();
+                for (int i = 0; i < size; i++) {
+                    map.put(row.getColumnName(i), toJsonValue(row.getValue(i)));
+                }
+                materialized = map;
+            }
+            return map;
+        }
+
+        @Override
+        public @Nullable Object get(Object key) {
+            Map<String, @Nullable Object> map = materialized;
+            if (map != null) {
+                return map.get(key);
+            }
+            if (!(key instanceof String columnName)) {
+                return null;
+            }
+            int index = columnIndex.indexOf(columnName);
+            return index < 0 ? null : toJsonValue(row.getValue(index));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Map<String, @Nullable Object> map = materialized;
+            if (map != null) {
+                return map.containsKey(key);
+            }
+            return key instanceof String columnName && columnIndex.contains(columnName);
+        }
+
+        @Override
+        public int size() {
+            Map<String, @Nullable Object> map = materialized;
+            return map != null ? map.size() : columnIndex.getDistinctColumnNames().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public @Nullable Object put(String key, @Nullable Object value) {
+            return materialize().put(key, value);
+        }
+
+        @Override
+        public @Nullable Object remove(Object key) {
+            return materialize().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            materialize().clear();
+        }
+
+        @Override
+        public Set<Entry<String, @Nullable Object>> entrySet() {
+            return materialize().entrySet();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.sinri.keel.integration.mysql.result.row;
+
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列名到列序号的映射，在同一个 {@link RowSet} 的所有行之间共享。
+ * <p>
+ * 列名重复时以最后出现的列为准，与 {@link Row#toJson()} 的覆盖行为一致。
+ * <p>
+ * 本类不可变，可在线程间共享。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class RowColumnIndex {
+    private final List<String> columnNames;
+    private final Map<String, Integer> indexMap;
+
+    private RowColumnIndex(List<String> columnNames) {
+        this.columnNames = List.copyOf(columnNames);
+        Map<String, Integer> map = new HashMap<>(Math.max(16, columnNames.size() * 2));
+        for (int i = 0; i < columnNames.size(); i++) {
+            map.put(columnNames.get(i), i);
+        }
+        this.indexMap = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * 以结果集的列名构建映射。
+     *
+     * @param rowSet 结果集
+     * @return 列名映射；结果集不含列信息（如修改类语句）时为空映射
+     */
+    public static RowColumnIndex of(RowSet<?> rowSet) {
+        @Nullable List<String> names = rowSet.columnsNames();
+        return new RowColumnIndex(names == null ? List.of() : names);
+    }
+
+    /**
+     * 以单行的列名构建映射；处理同一结果集的多行时应使用 {@link #of(RowSet)} 以共享映射。
+     *
+     * @param row 结果行
+     * @return 列名映射
+     */
+    public static RowColumnIndex of(Row row) {
+        String[] names = new String[row.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = row.getColumnName(i);
+        }
+        return new RowColumnIndex(List.of(names));
+    }
+
+    /**
+     * @param columnName 列名
+     * @return 列序号；不存在时返回 {@code -1}
+     */
+    public int indexOf(String columnName) {
+        Integer index = indexMap.get(columnName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param columnName 列名
+     * @return 是否存在该列
+     */
+    public boolean contains(String columnName) {
+        return indexMap.containsKey(columnName);
+    }
+
+    /**
+     * @return 按结果集顺序排列的列名（含重复）
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * @return 去重后的列名
+     */
+    public Set<String> getDistinctColumnNames() {
+        return indexMap.keySet();
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.sinri.keel.integration.mysql.result.row;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按列对字符串值做字典去重：同一列中相同的字符串只保留一个实例，供该结果集的所有行共享。
+ * <p>
+ * 适用于状态、币种、国家等低基数列。每列的字典大小达到 {@link #getCardinalityCap()} 后又出现新值时，
+ * 判定该列为高基数列，释放其字典并不再去重，因此高基数列只付出有限的开销。
+ * 时间等类型在 {@link Row#toJson()} 中已转换为字符串，同样参与去重。
+ * <p>
+ * 一个实例对应一个结果集或一次流式读取；本类不是线程安全的，应在同一上下文中使用。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class StringDeduplicator {
+    /**
+     * 默认的每列字典大小上限
+     */
+    public static final int DEFAULT_CARDINALITY_CAP = 256;
+
+    private final int cardinalityCap;
+    private final Map<String, Map<String, String>> dictionaries = new HashMap<>();
+    /**
+     * 已放弃去重的列
+     */
+    private final Set<String> backedOff = new HashSet<>();
+    private long sharedCount = 0;
+
+    public StringDeduplicator() {
+        this(DEFAULT_CARDINALITY_CAP);
+    }
+
+    /**
+     * @param cardinalityCap 每列字典大小上限，超出后该列不再去重
+     */
+    public StringDeduplicator(int cardinalityCap) {
+        if (cardinalityCap <= 0) {
+            throw new IllegalArgumentException("cardinality cap <= 0");
+        }
+        this.cardinalityCap = cardinalityCap;
+    }
+
+    public int getCardinalityCap() {
+        return cardinalityCap;
+    }
+
+    /**
+     * 返回与给定值相等的共享实例。
+     *
+     * @param column 列名
+     * @param value  字符串值
+     * @return 该列中首次出现的相等实例；该列已放弃去重时原样返回
+     */
+    public String deduplicate(String column, String value) {
+        if (backedOff.contains(column)) {
+            return value;
+        }
+        Map<String, String> dictionary = dictionaries.computeIfAbsent(column, c -> new HashMap<>());
+        String shared = dictionary.get(value);
+        if (shared != null) {
+            sharedCount++;
+            return shared;
+        }
+        if (dictionary.size() >= cardinalityCap) {
+            dictionaries.remove(column);
+            backedOff.add(column);
+            return value;
+        }
+        dictionary.put(value, value);
+        return value;
+    }
+
+    /**
+     * 就地替换 JSON 对象中第一层的字符串值为共享实例。
+     *
+     * @param jsonObject 行数据JSON对象
+     * @return 同一个 JSON 对象
+     */
+    public JsonObject deduplicate(JsonObject jsonObject) {
+        for (Map.Entry<String, Object> entry : jsonObject.getMap().entrySet()) {
+            if (entry.getValue() instanceof String string) {
+                entry.setValue(deduplicate(entry.getKey(), string));
+            }
+        }
+        return jsonObject;
+    }
+
+    /**
+     * 将 SQL 行转换为 JSON 对象并对字符串值去重。
+     *
+     * @param row SQL行
+     * @return 行数据JSON对象
+     */
+    public JsonObject toJsonObject(Row row) {
+        return deduplicate(row.toJson());
+    }
+
+    /**
+     * @param column 列名
+     * @return 该列是否因超出字典大小上限而已放弃去重
+     */
+    public boolean isBackedOff(String column) {
+        return backedOff.contains(column);
+    }
+
+    /**
+     * @param column 列名
+     * @return 该列当前字典中的不同值个数；已放弃去重时为 0
+     */
+    public int getDictionarySize(String column) {
+        Map<String, String> dictionary = dictionaries.get(column);
+        return dictionary == null ? 0 : dictionary.size();
+    }
+
+    /**
+     * @return 被替换为共享实例的值的个数，即省去的字符串实例数
+     */
+    public long getSharedCount() {
+        return sharedCount;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.sinri.keel.integration.mysql.result.stream;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+
+/**
+ * 结果批量读取器接口，每次处理一个游标窗口内的全部行
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+@FunctionalInterface
+public interface ResultBatchReader {
+    /**
+     * 读取一批数据
+     *
+     * @param rows 一个游标窗口内的SQL行，不为空
+     * @return 读取结果Future
+     */
+    Future<Void> read(List<Row> rows);
+}
@@ -0,0 +1,514 @@
+package io.github.sinri.keel.integration.mysql.result.stream;
+
+import io.github.sinri.keel.integration.mysql.connection.target.StreamableStatement;
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.RowBackedResultRow;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.sqlclient.Row;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 将查询结果逐行编码写入 {@link WriteStream}，不构建整个结果的 {@link JsonArray}。
+ * <p>
+ * 支持 NDJSON、CSV 与 JSON 数组三种格式；数据源可以是内存中的 {@link ResultMatrix}，
+ * 也可以是 {@link StreamableStatement} 的游标。编码结果先累积到缓冲区，达到 {@link #setBufferSize(int)} 后写出；
+ * 写出后目标流的写队列已满时，等待其 {@code drainHandler} 触发再继续，从游标读取时这一等待会一直传导到数据库。
+ * <p>
+ * 对 {@link Row} 以及尚未构建 JSON 视图的 {@link RowBackedResultRow}，直接按列读取驱动解码的值进行编码，不创建逐行的
+ * {@link JsonObject}；值的转换规则与 {@link Row#toJson()} 一致。其他结果行按 {@link ResultRow#toJsonObject()} 编码。
+ * <p>
+ * 导出完成后不会调用目标流的 {@code end()}，由调用方结束；写入 {@code HttpServerResponse} 时调用方需先设置分块传输或内容长度。
+ * 同一实例可复用于多次导出，但不应在同一个目标流上并发导出。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public class ResultExporter {
+    private static final Base64.Encoder BASE64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Format format;
+    private boolean csvHeader = true;
+    private int bufferSize = 64 * 1024;
+
+    /**
+     * @param format 输出格式
+     */
+    public ResultExporter(Format format) {
+        this.format = format;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * 设置 CSV 格式是否输出表头行，默认输出；表头取自第一行的列名，没有数据行时不输出。
+     *
+     * @param csvHeader 是否输出表头行
+     * @return 当前实例
+     */
+    public ResultExporter setCsvHeader(boolean csvHeader) {
+        this.csvHeader = csvHeader;
+        return this;
+    }
+
+    /**
+     * 设置缓冲区大小（字符数），默认 64 KiB；累积的编码结果达到该大小后写出一次。
+     *
+     * @param bufferSize 缓冲区大小
+     * @return 当前实例
+     */
+    public ResultExporter setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size <= 0");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * 将内存中的结果矩阵写入目标流。
+     *
+     * @param resultMatrix 结果矩阵
+     * @param out          目标流
+     * @return 写出的行数；最后一次写入完成后完成
+     */
+    public Future<Long> export(ResultMatrix<? extends ResultRow> resultMatrix, WriteStream<Buffer> out) {
+        ExportSession session = new ExportSession(out);
+        Promise<Void> promise = Promise.promise();
+        pump(session, resultMatrix.iterator(), promise);
+        return promise.future().compose(v -> session.finish());
+    }
+
+    /**
+     * 从游标读取查询结果并写入目标流。
+     * <p>
+     * 每个游标窗口编码写出后，目标流写队列已满时暂停读取游标，直到目标流可写。
+     *
+     * @param streamableStatement 可流式读取的语句
+     * @param fetchSize           每次从游标读取的行数
+     * @param out                 目标流
+     * @return 写出的行数；最后一次写入完成后完成
+     */
+    public Future<Long> export(StreamableStatement streamableStatement, int fetchSize, WriteStream<Buffer> out) {
+        ExportSession session = new ExportSession(out);
+        return streamableStatement
+                .streamReadInBatches(session::appendBatch, fetchSize)
+                .compose(v -> session.finish());
+    }
+
+    private void pump(ExportSession session, Iterator<? extends ResultRow> iterator, Promise<Void> promise) {
+        try {
+            while (iterator.hasNext()) {
+                session.append(iterator.next());
+                if (session.flushIfFull()) {
+                    Future<Void> drained = session.awaitDrain();
+                    if (!drained.isComplete()) {
+                        drained.onComplete(ar -> {
+                            if (ar.succeeded()) {
+                                pump(session, iterator, promise);
+                            } else {
+                                promise.fail(ar.cause());
+                            }
+                        });
+                        return;
+                    }
+                }
+            }
+            promise.complete();
+        } catch (Throwable throwable) {
+            promise.fail(throwable);
+        }
+    }
+
+    /**
+     * 输出格式
+     */
+    public enum Format {
+        /**
+         * 每行一个 JSON 对象，以换行符分隔
+         */
+        NDJSON,
+        /**
+         * RFC 4180 格式的 CSV，以 CRLF 换行，{@code null} 输出为空字段
+         */
+        CSV,
+        /**
+         * 由全部行的 JSON 对象组成的一个 JSON 数组
+         */
+        JSON_ARRAY
+    }
+
+    /**
+     * 基于 {@link Row} 的列输出计划：重复列名以最后出现的列为准，与 {@link Row#toJson()} 一致。
+     */
+    private record RowLayout(String[] names, int[] indexes, String[] jsonKeys) {
+        static RowLayout of(Row row) {
+            Map<String, Integer> map = new LinkedHashMap<>();
+            int size = row.size();
+            for (int i = 0; i < size; i++) {
+                map.put(row.getColumnName(i), i);
+            }
+            String[] names = new String[map.size()];
+            int[] indexes = new int[map.size()];
+            String[] jsonKeys = new String[map.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : map.entrySet()) {
+                names[i] = entry.getKey();
+                indexes[i] = entry.getValue();
+                StringBuilder key = new StringBuilder();
+                appendJsonString(key, entry.getKey());
+                jsonKeys[i] = key.append(':').toString();
+                i++;
+            }
+            return new RowLayout(names, indexes, jsonKeys);
+        }
+
+        boolean matches(Row row) {
+            if (row.size() < indexes.length) {
+                return false;
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (!names[i].equals(row.getColumnName(indexes[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 单次导出的状态。
+     */
+    private final class ExportSession {
+        private final WriteStream<Buffer> out;
+        private final StringBuilder pending = new StringBuilder();
+        private long rowCount = 0;
+        private @Nullable RowLayout layout;
+        private @Nullable List<String> csvColumns;
+        private @Nullable Future<Void> lastWrite;
+        private @Nullable Throwable writeFailure;
+
+        ExportSession(WriteStream<Buffer> out) {
+            this.out = out;
+        }
+
+        Future<Void> appendBatch(List<Row> rows) {
+            try {
+                for (Row row : rows) {
+                    appendRow(row);
+                    flushIfFull();
+                }
+            } catch (Throwable throwable) {
+                return Future.failedFuture(throwable);
+            }
+            return awaitDrain();
+        }
+
+        void append(ResultRow resultRow) {
+            if (resultRow instanceof RowBackedResultRow rowBacked && !rowBacked.isJsonObjectMaterialized()) {
+                appendRow(rowBacked.getSourceRow());
+            } else {
+                appendJsonObject(resultRow.toJsonObject());
+            }
+        }
+
+        private void appendRow(Row row) {
+            RowLayout rowLayout = layout;
+            if (rowLayout == null || !rowLayout.matches(row)) {
+                rowLayout = RowLayout.of(row);
+                layout = rowLayout;
+            }
+            beginRow();
+            switch (format) {
+                case CSV -> {
+                    List<String> columns = csvColumns(List.of(rowLayout.names()));
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (i > 0) pending.append(',');
+                        // 与表头顺序一致时直接按序号读取，否则按列名查找
+                        int index = i < rowLayout.names().length && rowLayout.names()[i].equals(columns.get(i))
+                                ? rowLayout.indexes()[i]
+                                : lastIndexOf(row, columns.get(i));
+                        appendCsvValue(pending, index < 0 ? null : row.getValue(index));
+                    }
+                    pending.append("\r\n");
+                }
+                case NDJSON, JSON_ARRAY -> {
+                    pending.append('{');
+                    for (int i = 0; i < rowLayout.names().length; i++) {
+                        if (i > 0) pending.append(',');
+                        pending.append(rowLayout.jsonKeys()[i]);
+                        appendJsonValue(pending, row.getValue(rowLayout.indexes()[i]));
+                    }
+                    pending.append('}');
+                    if (format == Format.NDJSON) pending.append('\n');
+                }
+            }
+            rowCount++;
+        }
+
+        private void appendJsonObject(JsonObject jsonObject) {
+            beginRow();
+            Map<String, Object> map = jsonObject.getMap();
+            switch (format) {
+                case CSV -> {
+                    List<String> columns = csvColumns(new ArrayList<>(map.keySet()));
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (i > 0) pending.append(',');
+                        appendCsvValue(pending, map.get(columns.get(i)));
+                    }
+                    pending.append("\r\n");
+                }
+                case NDJSON, JSON_ARRAY -> {
+                    pending.append('{');
+                    boolean first = true;
+                    for (Map.Entry<String, Object> entry : map.entrySet()) {
+                        if (!first) pending.append(',');
+                        first = false;
+                        appendJsonString(pending, entry.getKey());
+                        pending.append(':');
+                        appendJsonValue(pending, entry.getValue());
+                    }
+                    pending.append('}');
+                    if (format == Format.NDJSON) pending.append('\n');
+                }
+            }
+            rowCount++;
+        }
+
+        private void beginRow() {
+            if (format == Format.JSON_ARRAY) {
+                pending.append(rowCount == 0 ? '[' : ',');
+            }
+        }
+
+        /**
+         * CSV 的列取自第一行；首次调用时按需写出表头。
+         */
+        private List<String> csvColumns(List<String> candidate) {
+            List<String> columns = csvColumns;
+            if (columns == null) {
+                columns = candidate;
+                csvColumns = columns;
+                if (csvHeader) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (i > 0) pending.append(',');
+                        appendCsvValue(pending, columns.get(i));
+                    }
+                    pending.append("\r\n");
+                }
+            }
+            return columns;
+        }
+
+        boolean flushIfFull() {
+            if (pending.length() < bufferSize) {
+                return false;
+            }
+            flush();
+            return true;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Buffer buffer = Buffer.buffer(pending.toString());
+            pending.setLength(0);
+            Future<Void> write = out.write(buffer);
+            write.onFailure(throwable -> {
+                if (writeFailure == null) {
+                    writeFailure = throwable;
+                }
+            });
+            lastWrite = write;
+        }
+
+        Future<Void> awaitDrain() {
+            if (writeFailure != null) {
+                return Future.failedFuture(writeFailure);
+            }
+            if (!out.writeQueueFull()) {
+                return Future.succeededFuture();
+            }
+            Promise<Void> promise = Promise.promise();
+            out.drainHandler(v -> {
+                out.drainHandler(null);
+                promise.tryComplete();
+            });
+            // 设置处理器之前队列可能已经排空
+            if (!out.writeQueueFull()) {
+                out.drainHandler(null);
+                promise.tryComplete();
+            }
+            return promise.future();
+        }
+
+        Future<Long> finish() {
+            if (format == Format.JSON_ARRAY) {
+                pending.append(rowCount == 0 ? "[]" : "]");
+            }
+            flush();
+            Future<Void> write = lastWrite == null ? Future.succeededFuture() : lastWrite;
+            return write.compose(v -> writeFailure == null
+                    ? Future.succeededFuture(rowCount)
+                    : Future.failedFuture(writeFailure));
+        }
+    }
+
+    private static int lastIndexOf(Row row, String columnName) {
+        for (int i = row.size() - 1; i >= 0; i--) {
+            if (columnName.equals(row.getColumnName(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按 {@link Row#toJson()} 的规则转换后编码为 JSON 值。
+     */
+    static void appendJsonValue(StringBuilder sb, @Nullable Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String string) {
+            appendJsonString(sb, string);
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            sb.append(value);
+        } else if (value instanceof BigDecimal decimal) {
+            sb.append(decimal.toPlainString());
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                appendJsonString(sb, value.toString());
+            } else {
+                sb.append(value);
+            }
+        } else if (value instanceof Number) {
+            sb.append(value);
+        } else if (value instanceof JsonObject jsonObject) {
+            sb.append(jsonObject.encode());
+        } else if (value instanceof JsonArray jsonArray) {
+            sb.append(jsonArray.encode());
+        } else if (value instanceof Map<?, ?> || value instanceof List<?>) {
+            sb.append(Json.encode(value));
+        } else if (value.getClass().isArray() && !(value instanceof byte[])) {
+            sb.append('[');
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) sb.append(',');
+                appendJsonValue(sb, Array.get(value, i));
+            }
+            sb.append(']');
+        } else {
+            appendJsonString(sb, scalarText(value));
+        }
+    }
+
+    /**
+     * 编码为 CSV 字段：包含逗号、双引号或换行时加引号，内部双引号加倍。
+     */
+    static void appendCsvValue(StringBuilder sb, @Nullable Object value) {
+        if (value == null) {
+            return;
+        }
+        String text;
+        if (value instanceof String string) {
+            text = string;
+        } else if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof Number || value instanceof Boolean) {
+            text = value.toString();
+        } else if (value instanceof JsonObject || value instanceof JsonArray
+                || value instanceof Map<?, ?> || value instanceof List<?>
+                || (value.getClass().isArray() && !(value instanceof byte[]))) {
+            StringBuilder json = new StringBuilder();
+            appendJsonValue(json, value);
+            text = json.toString();
+        } else {
+            text = scalarText(value);
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            sb.append(text);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    /**
+     * 二进制值编码为不带填充的 URL 安全 Base64，时间值按 {@link Row#toJson()} 的规则转为文本。
+     */
+    private static String scalarText(Object value) {
+        if (value instanceof Buffer buffer) {
+            return BASE64_ENCODER.encodeToString(buffer.getBytes());
+        }
+        if (value instanceof byte[] bytes) {
+            return BASE64_ENCODER.encodeToString(bytes);
+        }
+        if (value instanceof Temporal temporal && temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return DateTimeFormatter.ISO_INSTANT.format(temporal);
+        }
+        return Objects.toString(value);
+    }
+
+    static void appendJsonString(StringBuilder sb, String string) {
+        sb.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                case '\b' -> sb.append("\\b");
+                case '\f' -> sb.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
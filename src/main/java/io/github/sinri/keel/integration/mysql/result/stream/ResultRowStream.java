@@ -0,0 +1,230 @@
+package io.github.sinri.keel.integration.mysql.result.stream;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.sqlclient.Cursor;
+import io.vertx.sqlclient.Row;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 基于游标的结果行流，按需求（demand）驱动并预取下一个游标窗口。
+ * <p>
+ * 每次从游标读取 {@code fetchSize} 行；缓冲区中剩余不超过一个窗口时即发起下一次读取，
+ * 因此消费当前窗口的同时下一个窗口已在传输中（双缓冲）。调用 {@link #pause()} 后缓冲区最多保留两个窗口，
+ * 不再继续读取，从而向服务器施加背压。
+ * <p>
+ * 流结束、出错或调用 {@link #close()} 时关闭游标及其预编译语句。
+ * 本类的回调在数据库连接所在的上下文中执行；与 Vert.x 其他流一样，应在同一上下文中操作本流。
+ *
+ * @param <R> 行映射后的类型
+ * @since 5.0.4
+ */
+@NullMarked
+public final class ResultRowStream<R> implements ReadStream<R> {
+    private final Cursor cursor;
+    private final int fetchSize;
+    private final Function<Row, R> mapper;
+    private final Supplier<Future<Void>> resourceCloser;
+    private final ArrayDeque<R> buffer = new ArrayDeque<>();
+
+    private @Nullable Handler<R> handler;
+    private @Nullable Handler<Throwable> exceptionHandler;
+    private @Nullable Handler<Void> endHandler;
+    private long demand = Long.MAX_VALUE;
+    private boolean reading = false;
+    private boolean emitting = false;
+    private boolean finished = false;
+    /**
+     * 游标是否已读完。只能在一次读取完成后通过 {@link Cursor#hasMore()} 判定，首次读取之前调用会抛出异常。
+     */
+    private boolean exhausted = false;
+    private @Nullable Future<Void> closeFuture;
+
+    /**
+     * @param cursor         游标
+     * @param fetchSize      每次从游标读取的行数
+     * @param mapper         行映射函数
+     * @param resourceCloser 关闭游标之后调用，用于释放预编译语句等关联资源
+     */
+    public ResultRowStream(Cursor cursor, int fetchSize, Function<Row, R> mapper, Supplier<Future<Void>> resourceCloser) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetch size <= 0");
+        }
+        this.cursor = cursor;
+        this.fetchSize = fetchSize;
+        this.mapper = mapper;
+        this.resourceCloser = resourceCloser;
+    }
+
+    @Override
+    public synchronized ResultRowStream<R> exceptionHandler(@Nullable Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    /**
+     * 设置行处理器；设置后开始读取。设置为 {@code null} 时关闭流。
+     */
+    @Override
+    public ResultRowStream<R> handler(@Nullable Handler<R> handler) {
+        synchronized (this) {
+            this.handler = handler;
+        }
+        if (handler == null) {
+            close();
+        } else {
+            drain();
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized ResultRowStream<R> pause() {
+        this.demand = 0;
+        return this;
+    }
+
+    @Override
+    public ResultRowStream<R> resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public ResultRowStream<R> fetch(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("fetch amount < 0");
+        }
+        synchronized (this) {
+            demand += amount;
+            if (demand < 0) {
+                demand = Long.MAX_VALUE;
+            }
+        }
+        drain();
+        return this;
+    }
+
+    @Override
+    public synchronized ResultRowStream<R> endHandler(@Nullable Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    /**
+     * 提前关闭流，释放游标与预编译语句；重复调用返回同一结果。
+     *
+     * @return 关闭完成的 Future
+     */
+    public Future<Void> close() {
+        synchronized (this) {
+            finished = true;
+            buffer.clear();
+            if (closeFuture != null) {
+                return closeFuture;
+            }
+            closeFuture = cursor.close()
+                                .transform(ar -> resourceCloser.get());
+            return closeFuture;
+        }
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (emitting || finished) {
+                return;
+            }
+            emitting = true;
+        }
+        try {
+            // 先发起下一个窗口的读取，再消费当前窗口
+            fetchNextWindowIfNeeded();
+            while (true) {
+                R item;
+                Handler<R> currentHandler;
+                synchronized (this) {
+                    if (finished || handler == null || demand == 0 || buffer.isEmpty()) {
+                        break;
+                    }
+                    item = buffer.poll();
+                    if (demand != Long.MAX_VALUE) {
+                        demand--;
+                    }
+                    currentHandler = handler;
+                }
+                currentHandler.handle(item);
+            }
+        } finally {
+            synchronized (this) {
+                emitting = false;
+            }
+        }
+        fetchNextWindowIfNeeded();
+        endIfExhausted();
+    }
+
+    private void fetchNextWindowIfNeeded() {
+        synchronized (this) {
+            if (finished || handler == null || reading || exhausted || buffer.size() > fetchSize) {
+                return;
+            }
+            reading = true;
+        }
+        cursor.read(fetchSize).onComplete(ar -> {
+            if (ar.failed()) {
+                synchronized (this) {
+                    reading = false;
+                }
+                fail(ar.cause());
+                return;
+            }
+            try {
+                synchronized (this) {
+                    reading = false;
+                    if (finished) {
+                        return;
+                    }
+                    exhausted = !cursor.hasMore();
+                    for (Row row : ar.result()) {
+                        buffer.add(mapper.apply(row));
+                    }
+                }
+            } catch (Throwable throwable) {
+                fail(throwable);
+                return;
+            }
+            drain();
+        });
+    }
+
+    private void endIfExhausted() {
+        Handler<Void> toEnd;
+        synchronized (this) {
+            if (finished || handler == null || reading || !exhausted || !buffer.isEmpty()) {
+                return;
+            }
+            finished = true;
+            toEnd = endHandler;
+        }
+        close();
+        if (toEnd != null) {
+            toEnd.handle(null);
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        Handler<Throwable> currentExceptionHandler;
+        synchronized (this) {
+            currentExceptionHandler = exceptionHandler;
+        }
+        close();
+        if (currentExceptionHandler != null) {
+            currentExceptionHandler.handle(throwable);
+        }
+    }
+}
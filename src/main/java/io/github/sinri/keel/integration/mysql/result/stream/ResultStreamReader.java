@@ -31,7 +31,7 @@ public interface ResultStreamReader {
      * @return 结果行对象
      */
     static <R extends ResultRow> R mapRowToResultRow(Row row, Class<R> clazz) {
-        return ResultRow.of(row, clazz);
+        return ResultRow.factory(clazz).apply(row.toJson());
     }
 
     /**
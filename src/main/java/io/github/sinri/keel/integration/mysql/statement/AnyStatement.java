@@ -9,8 +9,10 @@ import io.github.sinri.keel.integration.mysql.statement.mixin.WriteIntoStatement
 import io.github.sinri.keel.integration.mysql.statement.templated.TemplatedStatement;
 import io.vertx.sqlclient.SqlConnection;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
-import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+import java.util.Set;
 
 
 /**
@@ -45,18 +47,88 @@ public sealed interface AnyStatement<S> extends SelfInterface<S>
      */
     S setSqlComponentSeparator(String sqlComponentSeparator);
 
+    /**
+     * 将表表达式规范化为用于结果缓存标签的表名：取表名标识符，去除反引号与库名前缀，转为小写。
+     * <p>
+     * 例如 {@code `shop`.`Product` AS p} 规范化为 {@code product}。
+     * 去除库名会使不同库中的同名表共用标签，只会导致多余的失效，不会导致缓存过期数据。
+     * 表名之后只允许跟一个别名（可带 {@code AS}）；多表（{@code a, b}）、连接（{@code a JOIN b ON ...}）、
+     * 索引提示等其他写法无法确定所涉及的全部表，返回 {@code null}。
+     *
+     * @param tableExpression 表表达式
+     * @return 规范化后的表名；表达式不是单个表（如子查询、多表或连接）时为 {@code null}
+     * @since 5.0.4
+     */
+    static @Nullable String normalizeTableName(String tableExpression) {
+        String expression = tableExpression.strip();
+        String last = null;
+        int i = 0;
+        while (true) {
+            int end = identifierEnd(expression, i);
+            if (end < 0) {
+                return null;
+            }
+            last = expression.charAt(i) == '`'
+                    ? expression.substring(i + 1, end - 1)
+                    : expression.substring(i, end);
+            if (end < expression.length() && expression.charAt(end) == '.') {
+                i = end + 1;
+            } else {
+                i = end;
+                break;
+            }
+        }
+        if (!isAliasOnly(expression.substring(i))) {
+            return null;
+        }
+        return last.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 从 {@code start} 处读取一个标识符（反引号包围或由字母、数字、{@code _}、{@code $} 组成）。
+     *
+     * @return 标识符之后的位置；{@code start} 处不是标识符时为 -1
+     */
+    private static int identifierEnd(String expression, int start) {
+        if (start >= expression.length()) {
+            return -1;
+        }
+        if (expression.charAt(start) == '`') {
+            int close = expression.indexOf('`', start + 1);
+            return close <= start + 1 ? -1 : close + 1;
+        }
+        int end = start;
+        while (end < expression.length()) {
+            char c = expression.charAt(end);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '$') {
+                break;
+            }
+            end++;
+        }
+        return end == start ? -1 : end;
+    }
+
+    /**
+     * 判断表名之后的部分是否为空或仅为别名（{@code [AS] alias}）。
+     */
+    private static boolean isAliasOnly(String remainder) {
+        String rest = remainder.strip();
+        if (rest.isEmpty()) {
+            return true;
+        }
+        if (rest.length() > 2 && rest.regionMatches(true, 0, "AS", 0, 2) && Character.isWhitespace(rest.charAt(2))) {
+            rest = rest.substring(2).strip();
+        }
+        int end = identifierEnd(rest, 0);
+        return end == rest.length();
+    }
+
     S setRemarkAsComment(String remarkAsComment);
 
     default <R extends AnyStatementWithSqlConnection> R attachToConnectionForCertainRunnableStatement(SqlConnection sqlConnection, Class<R> clazz) {
-        try {
-            R r = clazz.getConstructor(AnyStatement.class)
-                       .newInstance(this);
-            r.setSQLConnection(sqlConnection);
-            return r;
-        } catch (InvocationTargetException | InstantiationException | IllegalAccessException |
-                 NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
+        R r = AnyStatementWithSqlConnection.factory(clazz).apply(this);
+        r.setSQLConnection(sqlConnection);
+        return r;
     }
 
     /**
@@ -80,6 +152,44 @@ public sealed interface AnyStatement<S> extends SelfInterface<S>
 
     String buildSql();
 
+    /**
+     * 返回语句在 FROM、JOIN 或写入目标位置直接引用的表（经 {@link #normalizeTableName(String)} 规范化），
+     * 用作结果缓存的标签以及写入后失效缓存的依据。
+     * <p>
+     * 条件中的子查询等其他位置引用的表不在其中。
+     *
+     * @return 引用的表；无法确定时（如原始 SQL、模板语句、存储过程调用）为 {@code null}
+     * @since 5.0.4
+     */
+    default @Nullable Set<String> getReferencedTables() {
+        return null;
+    }
+
+    /**
+     * 以参数化模式生成 SQL：可绑定的值登记到 {@code binder} 并以 {@code ?} 占位符输出。
+     * <p>
+     * 未支持参数化的语句（如原始 SQL、模板语句、DDL）保持 {@link #buildSql()} 的内联结果，不登记任何参数。
+     *
+     * @param binder 参数收集器
+     * @return 带占位符的 SQL
+     * @since 5.0.4
+     */
+    default String buildSql(SqlParameterBinder binder) {
+        return buildSql();
+    }
+
+    /**
+     * 以参数化模式生成 SQL 形状与对应的绑定参数。
+     *
+     * @return 参数化渲染结果
+     * @since 5.0.4
+     */
+    default ParameterizedSql buildParameterizedSql() {
+        SqlParameterBinder binder = new SqlParameterBinder();
+        String sql = buildSql(binder);
+        return new ParameterizedSql(sql, binder.toTuple());
+    }
+
     /**
      * 已废弃的语句级执行协议开关查询。
      * <p>
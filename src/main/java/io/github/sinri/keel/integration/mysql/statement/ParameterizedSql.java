@@ -0,0 +1,15 @@
+package io.github.sinri.keel.integration.mysql.statement;
+
+import io.vertx.sqlclient.Tuple;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 参数化渲染的结果：带 {@code ?} 占位符的 SQL 形状与按顺序对应的绑定参数。
+ *
+ * @param sql   带占位符的 SQL
+ * @param tuple 绑定参数
+ * @since 5.0.4
+ */
+@NullMarked
+public record ParameterizedSql(String sql, Tuple tuple) {
+}
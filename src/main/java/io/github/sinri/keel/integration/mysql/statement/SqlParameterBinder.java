@@ -0,0 +1,108 @@
+package io.github.sinri.keel.integration.mysql.statement;
+
+import io.vertx.sqlclient.Tuple;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 参数化渲染时的参数收集器。
+ * <p>
+ * 语句构建器在参数化模式下渲染时，将原本需要经 {@link io.github.sinri.keel.integration.mysql.statement.quoter.Quoter}
+ * 内联的值交给本类登记，并在 SQL 中输出 {@code ?} 占位符；渲染结束后按出现顺序生成 {@link Tuple}。
+ * 同一形状的语句因此得到相同的 SQL 文本，可命中同一个服务端预编译语句。
+ * <p>
+ * 本类不是线程安全的，一个实例只用于一次渲染。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class SqlParameterBinder {
+    public static final String PLACEHOLDER = "?";
+    private final List<@Nullable Object> values = new ArrayList<>();
+
+    /**
+     * 按 {@link io.github.sinri.keel.integration.mysql.statement.quoter.Quoter#quoteValue(Object)} 的取值规则规整待绑定值：
+     * {@code null} 和 {@link Boolean} 原样保留，{@link Number} 规整为驱动可编码的数值类型，其余按字符串处理。
+     *
+     * @param value 任意值
+     * @return 可直接放入 {@link Tuple} 的值
+     */
+    public static @Nullable Object normalizeValue(@Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return normalizeNumeric(number);
+        }
+        if (value instanceof Boolean) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    /**
+     * 将数值规整为 MySQL 客户端可编码的类型；非常用的 {@link Number} 实现按十进制文本转换为 {@link BigDecimal}。
+     *
+     * @param number 数值
+     * @return 规整后的数值
+     */
+    public static Number normalizeNumeric(Number number) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte
+                || number instanceof Double || number instanceof Float || number instanceof BigDecimal) {
+            return number;
+        }
+        if (number instanceof BigInteger bigInteger) {
+            return new BigDecimal(bigInteger);
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    /**
+     * 登记一个绑定值，并返回应写入 SQL 的占位符。
+     *
+     * @param value 绑定值，已经过规整
+     * @return 占位符 {@code ?}
+     */
+    public String bind(@Nullable Object value) {
+        values.add(value);
+        return PLACEHOLDER;
+    }
+
+    /**
+     * @return 已登记的绑定值数量
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return 按占位符出现顺序排列的绑定值的只读视图
+     */
+    public List<@Nullable Object> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * @return 按占位符出现顺序生成的参数元组
+     */
+    public Tuple toTuple() {
+        return Tuple.from(new ArrayList<>(values));
+    }
+
+    /**
+     * 记录在构建器中的可绑定值。
+     * <p>
+     * 构建器以本类型区分"可参数化的值"和"原样拼接的表达式"：前者在参数化渲染时输出占位符，
+     * 后者总是输出原文。
+     *
+     * @param value 已规整的绑定值
+     */
+    public record BoundValue(@Nullable Object value) {
+    }
+}
@@ -2,6 +2,7 @@ package io.github.sinri.keel.integration.mysql.statement.component;
 
 import io.github.sinri.keel.core.utils.value.ValueBox;
 import io.github.sinri.keel.integration.mysql.condition.*;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.mixin.ReadStatementMixin;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -375,6 +376,21 @@ public class ConditionsComponent {
         return this;
     }
 
+    /**
+     * 添加键集（seek）分页条件
+     *
+     * @param function 键集分页条件构建函数
+     * @return 自身实例
+     * @since 5.0.4
+     */
+    public ConditionsComponent keysetSeek(Function<KeysetSeekCondition, @Nullable KeysetSeekCondition> function) {
+        KeysetSeekCondition condition = function.apply(new KeysetSeekCondition());
+        if (condition != null) {
+            conditions.add(condition);
+        }
+        return this;
+    }
+
     /**
      * 添加交集条件（AND）
      *
@@ -421,4 +437,23 @@ public class ConditionsComponent {
         if (conditions.isEmpty()) return "";
         return String.join(" AND ", conditions.stream().map(MySQLCondition::toString).toList());
     }
+
+    /**
+     * 以参数化模式生成以 AND 连接的条件文本，可绑定的值登记到 {@code binder}。
+     *
+     * @param binder 参数收集器
+     * @return 带占位符的条件文本
+     * @since 5.0.4
+     */
+    public String toParameterizedString(SqlParameterBinder binder) {
+        if (conditions.isEmpty()) return "";
+        StringBuilder x = new StringBuilder();
+        for (MySQLCondition condition : conditions) {
+            if (!x.isEmpty()) {
+                x.append(" AND ");
+            }
+            x.append(condition.toParameterizedString(binder));
+        }
+        return x.toString();
+    }
 }
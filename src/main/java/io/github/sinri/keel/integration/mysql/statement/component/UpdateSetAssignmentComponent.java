@@ -1,5 +1,6 @@
 package io.github.sinri.keel.integration.mysql.statement.component;
 
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.quoter.Quoter;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -14,6 +15,7 @@ import org.jspecify.annotations.Nullable;
 public class UpdateSetAssignmentComponent {
     private final String fieldName;
     private String expression = "NULL";
+    private SqlParameterBinder.@Nullable BoundValue binding;
 
     /**
      * 构造更新SET赋值组件
@@ -32,6 +34,7 @@ public class UpdateSetAssignmentComponent {
      */
     public UpdateSetAssignmentComponent assignmentToExpression(String expression) {
         this.expression = expression;
+        this.binding = null;
         return this;
     }
 
@@ -43,6 +46,7 @@ public class UpdateSetAssignmentComponent {
      */
     public UpdateSetAssignmentComponent assignmentToValue(@Nullable Object expression) {
         this.expression = new Quoter().quoteValue(expression);
+        this.binding = new SqlParameterBinder.BoundValue(SqlParameterBinder.normalizeValue(expression));
         return this;
     }
 
@@ -53,6 +57,7 @@ public class UpdateSetAssignmentComponent {
      */
     public UpdateSetAssignmentComponent assignmentToNull() {
         this.expression = "NULL";
+        this.binding = null;
         return this;
     }
 
@@ -64,6 +69,7 @@ public class UpdateSetAssignmentComponent {
      */
     public UpdateSetAssignmentComponent assignmentToCaseOperator(CaseOperator caseOperator) {
         this.expression = caseOperator.toString();
+        this.binding = null;
         return this;
     }
 
@@ -72,4 +78,18 @@ public class UpdateSetAssignmentComponent {
         return fieldName + "=" + expression;
     }
 
+    /**
+     * 以参数化模式生成赋值文本；以值赋值时输出 {@code ?} 占位符。
+     *
+     * @param binder 参数收集器
+     * @return 带占位符的赋值文本
+     * @since 5.0.4
+     */
+    public String toParameterizedString(SqlParameterBinder binder) {
+        if (binding == null) {
+            return toString();
+        }
+        return fieldName + "=" + binder.bind(binding.value());
+    }
+
 }
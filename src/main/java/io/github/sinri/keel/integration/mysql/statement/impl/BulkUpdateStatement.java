@@ -0,0 +1,259 @@
+package io.github.sinri.keel.integration.mysql.statement.impl;
+
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForModify;
+import io.github.sinri.keel.integration.mysql.exception.KeelSQLGenerateError;
+import io.github.sinri.keel.integration.mysql.statement.AbstractStatement;
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
+import io.github.sinri.keel.integration.mysql.statement.component.CaseOperator;
+import io.github.sinri.keel.integration.mysql.statement.component.CaseOperatorPair;
+import io.github.sinri.keel.integration.mysql.statement.mixin.ModifyStatementMixin;
+import io.github.sinri.keel.integration.mysql.statement.quoter.Quoter;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按键批量更新语句，将多条“按键更新单行”合并为一条 UPDATE。
+ * <p>
+ * 以键列与“键 → (列 → 值)”的映射生成：
+ * <p>
+ * {@code UPDATE table SET col = CASE key WHEN k1 THEN v1 WHEN k2 THEN v2 ELSE col END, ... WHERE key IN (k1, k2)}
+ * <p>
+ * 某一行未指定的列保持原值。数据量较大时可以 {@link #divideByPacketSize(long, int)} 分块，
+ * 或经 {@link RunnableStatementForModify#executeInChunks()} 按服务端 {@code max_allowed_packet} 自动分块执行。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public class BulkUpdateStatement extends AbstractStatement<BulkUpdateStatement> implements ModifyStatementMixin<BulkUpdateStatement> {
+    /**
+     * 键 → (列 → 值)，按首次加入的顺序排列。
+     */
+    private final Map<Object, Map<String, @Nullable Object>> rows = new LinkedHashMap<>();
+    /**
+     * 各行涉及的列的并集，按首次出现的顺序排列。
+     */
+    private final Set<String> columns = new LinkedHashSet<>();
+    private String ignoreMark = "";
+    private @Nullable String schema;
+    private String table = "TABLE-NOT-SET";
+    private String keyColumn = "KEY-COLUMN-NOT-SET";
+
+    public BulkUpdateStatement() {
+    }
+
+    public BulkUpdateStatement ignore() {
+        this.ignoreMark = "IGNORE";
+        return this;
+    }
+
+    public BulkUpdateStatement table(String table) {
+        this.schema = null;
+        this.table = table;
+        return this;
+    }
+
+    public BulkUpdateStatement table(@Nullable String schema, String table) {
+        this.schema = schema;
+        this.table = table;
+        return this;
+    }
+
+    /**
+     * @param keyColumn 用于定位行的列，通常为主键或唯一键
+     * @return 自身实例
+     */
+    public BulkUpdateStatement keyColumn(String keyColumn) {
+        this.keyColumn = keyColumn;
+        return this;
+    }
+
+    /**
+     * 指定键所在行的一个列的新值；同一键多次调用时合并，后设置的值覆盖先设置的值。
+     *
+     * @param key    键值，数值或字符串
+     * @param column 列名
+     * @param value  新值，按 {@link Quoter#quoteValue(Object)} 的规则引用
+     * @return 自身实例
+     */
+    public BulkUpdateStatement setWithValue(Object key, String column, @Nullable Object value) {
+        rows.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(column, value);
+        columns.add(column);
+        return this;
+    }
+
+    /**
+     * 指定键所在行的若干列的新值；空映射将被忽略。
+     *
+     * @param key                键值，数值或字符串
+     * @param columnValueMapping 列 → 新值
+     * @return 自身实例
+     */
+    public BulkUpdateStatement setWithValues(Object key, Map<String, @Nullable Object> columnValueMapping) {
+        columnValueMapping.forEach((column, value) -> setWithValue(key, column, value));
+        return this;
+    }
+
+    /**
+     * @param keyToColumnValueMapping 键 → (列 → 新值)
+     * @return 自身实例
+     */
+    public BulkUpdateStatement setWithRows(Map<?, ? extends Map<String, @Nullable Object>> keyToColumnValueMapping) {
+        keyToColumnValueMapping.forEach(this::setWithValues);
+        return this;
+    }
+
+    /**
+     * @return 已加入的行数（去重后的键数）
+     */
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public @Nullable Set<String> getReferencedTables() {
+        String name = AnyStatement.normalizeTableName(table);
+        return name == null ? null : Set.of(name);
+    }
+
+    @Override
+    public String buildSql() {
+        return render(null);
+    }
+
+    /**
+     * 以参数化模式生成 SQL：各 {@code WHEN}/{@code THEN} 的键与值以及 {@code IN} 列表中的键以 {@code ?} 占位符输出。
+     */
+    @Override
+    public String buildSql(SqlParameterBinder binder) {
+        return render(binder);
+    }
+
+    /**
+     * @param binder 参数收集器；为 {@code null} 时按内联形式生成
+     */
+    private String render(@Nullable SqlParameterBinder binder) {
+        if (rows.isEmpty()) {
+            throw new KeelSQLGenerateError("BulkUpdateStatement has no rows to update");
+        }
+        Quoter quoter = new Quoter();
+        final var sqlComponentSeparator = getSqlComponentSeparator();
+        StringBuilder sql = new StringBuilder("UPDATE ").append(ignoreMark);
+        if (schema != null) {
+            sql.append(" ").append(schema).append(".");
+        }
+        sql.append(table).append(sqlComponentSeparator).append("SET ");
+
+        boolean firstColumn = true;
+        for (String column : columns) {
+            CaseOperator caseOperator = new CaseOperator()
+                    .setCaseValueExpression(keyColumn)
+                    .setElseResultExpression(column);
+            rows.forEach((key, values) -> {
+                if (values.containsKey(column)) {
+                    Object value = values.get(column);
+                    caseOperator.addWhenThenPair(new CaseOperatorPair()
+                            .setWhenExpression(renderValue(key, quoter, binder))
+                            .setThenExpression(renderValue(value, quoter, binder)));
+                }
+            });
+            if (!firstColumn) {
+                sql.append(", ");
+            }
+            firstColumn = false;
+            sql.append(column).append(" = ").append(caseOperator);
+        }
+
+        sql.append(sqlComponentSeparator).append("WHERE ").append(keyColumn).append(" IN (");
+        boolean firstKey = true;
+        for (Object key : rows.keySet()) {
+            if (!firstKey) {
+                sql.append(",");
+            }
+            firstKey = false;
+            sql.append(renderValue(key, quoter, binder));
+        }
+        sql.append(")");
+
+        if (!getRemarkAsComment().isEmpty()) {
+            sql.append("\n-- ").append(getRemarkAsComment()).append("\n");
+        }
+        return sql.toString();
+    }
+
+    private static String renderValue(@Nullable Object value, Quoter quoter, @Nullable SqlParameterBinder binder) {
+        if (binder == null) {
+            return quoter.quoteValue(value);
+        }
+        return binder.bind(SqlParameterBinder.normalizeValue(value));
+    }
+
+    /**
+     * 按内联形式生成的 SQL 的 UTF-8 字节数分裂，使每一块都不超过给定的字节数与占位符数；
+     * 单独一行即超过限制时，该行自成一块，由服务端报告错误。
+     *
+     * @param maxSqlBytes             每块 SQL 的最大字节数，通常取服务端 {@code max_allowed_packet} 减去少量余量
+     * @param maxPlaceholdersPerChunk 每块在参数化渲染时最多包含的占位符数；参数化执行时应不超过 65535
+     * @return 分裂后的语句列表；无需分裂时仅含自身
+     */
+    public List<BulkUpdateStatement> divideByPacketSize(long maxSqlBytes, int maxPlaceholdersPerChunk) {
+        if (maxSqlBytes <= 0 || maxPlaceholdersPerChunk <= 0) {
+            throw new IllegalArgumentException("maxSqlBytes and maxPlaceholdersPerChunk must be positive");
+        }
+        Quoter quoter = new Quoter();
+        // 无数据行时各列的 CASE 骨架与 WHERE 部分，作为每块固定开销的上界
+        long fixedBytes = WriteIntoStatement.utf8Length("UPDATE " + ignoreMark + " " + (schema == null ? "" : schema + ".") + table
+                + getSqlComponentSeparator() + "SET " + getSqlComponentSeparator() + "WHERE " + keyColumn + " IN ()"
+                + (getRemarkAsComment().isEmpty() ? "" : "\n-- " + getRemarkAsComment() + "\n"));
+        for (String column : columns) {
+            fixedBytes += WriteIntoStatement.utf8Length(", " + column + " = CASE " + keyColumn + " ELSE " + column + " END");
+        }
+
+        List<BulkUpdateStatement> list = new ArrayList<>();
+        List<Object> chunkKeys = new ArrayList<>();
+        long chunkBytes = fixedBytes;
+        int chunkPlaceholders = 0;
+        for (Map.Entry<Object, Map<String, @Nullable Object>> entry : rows.entrySet()) {
+            long keyBytes = WriteIntoStatement.utf8Length(quoter.quoteValue(entry.getKey()));
+            long rowBytes = keyBytes + 1;
+            for (Object value : entry.getValue().values()) {
+                rowBytes += " WHEN ".length() + keyBytes + " THEN ".length() + WriteIntoStatement.utf8Length(quoter.quoteValue(value));
+            }
+            int rowPlaceholders = 1 + 2 * entry.getValue().size();
+            if (!chunkKeys.isEmpty()
+                    && (chunkBytes + rowBytes > maxSqlBytes || chunkPlaceholders + rowPlaceholders > maxPlaceholdersPerChunk)) {
+                list.add(copyRows(chunkKeys));
+                chunkKeys = new ArrayList<>();
+                chunkBytes = fixedBytes;
+                chunkPlaceholders = 0;
+            }
+            chunkKeys.add(entry.getKey());
+            chunkBytes += rowBytes;
+            chunkPlaceholders += rowPlaceholders;
+        }
+        if (list.isEmpty()) {
+            return List.of(this);
+        }
+        list.add(copyRows(chunkKeys));
+        return list;
+    }
+
+    private BulkUpdateStatement copyRows(List<Object> keys) {
+        BulkUpdateStatement chunk = new BulkUpdateStatement();
+        chunk.ignoreMark = this.ignoreMark;
+        chunk.schema = this.schema;
+        chunk.table = this.table;
+        chunk.keyColumn = this.keyColumn;
+        chunk.setSqlComponentSeparator(this.getSqlComponentSeparator());
+        chunk.setRemarkAsComment(this.getRemarkAsComment());
+        keys.forEach(key -> chunk.setWithValues(key, this.rows.get(key)));
+        return chunk;
+    }
+}
@@ -2,6 +2,8 @@ package io.github.sinri.keel.integration.mysql.statement.impl;
 
 
 import io.github.sinri.keel.integration.mysql.statement.AbstractStatement;
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.component.ConditionsComponent;
 import io.github.sinri.keel.integration.mysql.statement.mixin.ModifyStatementMixin;
 import org.jspecify.annotations.NullMarked;
@@ -9,6 +11,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 
 
@@ -49,6 +52,12 @@ public class DeleteStatement extends AbstractStatement<DeleteStatement> implemen
         return this;
     }
 
+    @Override
+    public @Nullable Set<String> getReferencedTables() {
+        String name = AnyStatement.normalizeTableName(table);
+        return name == null ? null : Set.of(name);
+    }
+
     /**
      * @param function ConditionsComponent → this
      * @return this
@@ -76,6 +85,23 @@ public class DeleteStatement extends AbstractStatement<DeleteStatement> implemen
 
     @Override
     public String buildSql() {
+        return render(null);
+    }
+
+    /**
+     * 以参数化模式生成 SQL：WHERE 条件中的值以 {@code ?} 占位符输出。
+     *
+     * @since 5.0.4
+     */
+    @Override
+    public String buildSql(SqlParameterBinder binder) {
+        return render(binder);
+    }
+
+    /**
+     * @param binder 参数收集器；为 {@code null} 时按内联形式生成
+     */
+    private String render(@Nullable SqlParameterBinder binder) {
         final var sqlComponentSeparator = getSqlComponentSeparator();
         String sql = "DELETE FROM ";
         if (schema != null) {
@@ -83,7 +109,9 @@ public class DeleteStatement extends AbstractStatement<DeleteStatement> implemen
         }
         sql += table;
         if (!whereConditionsComponent.isEmpty()) {
-            sql += sqlComponentSeparator + "WHERE " + whereConditionsComponent;
+            sql += sqlComponentSeparator + "WHERE " + (binder == null
+                    ? whereConditionsComponent.toString()
+                    : whereConditionsComponent.toParameterizedString(binder));
         }
         if (!sortRules.isEmpty()) {
             sql += sqlComponentSeparator + "ORDER BY " + String.join(",", sortRules);
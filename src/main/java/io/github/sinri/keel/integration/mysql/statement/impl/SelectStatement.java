@@ -6,6 +6,8 @@ import io.github.sinri.keel.integration.mysql.condition.MySQLCondition;
 import io.github.sinri.keel.integration.mysql.condition.RawCondition;
 import io.github.sinri.keel.integration.mysql.exception.KeelSQLGenerateError;
 import io.github.sinri.keel.integration.mysql.statement.AbstractStatement;
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.component.ConditionsComponent;
 import io.github.sinri.keel.integration.mysql.statement.mixin.ReadStatementMixin;
 import io.github.sinri.keel.integration.mysql.statement.mixin.PaginatableStatementMixin;
@@ -13,9 +15,14 @@ import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 /**
@@ -25,9 +32,15 @@ import java.util.function.Function;
  */
 @NullMarked
 public final class SelectStatement extends AbstractStatement<SelectStatement> implements PaginatableStatementMixin<SelectStatement> {
+    private static final Pattern SELECT_KEYWORD_PATTERN = Pattern.compile("\\bSELECT\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern AGGREGATE_COLUMN_PATTERN = Pattern.compile(
+            "\\b(COUNT|SUM|AVG|MIN|MAX|GROUP_CONCAT|JSON_ARRAYAGG|JSON_OBJECTAGG|BIT_AND|BIT_OR|BIT_XOR"
+                    + "|STD|STDDEV|STDDEV_POP|STDDEV_SAMP|VARIANCE|VAR_POP|VAR_SAMP)\\s*\\(|^\\s*DISTINCT\\b",
+            Pattern.CASE_INSENSITIVE
+    );
     final ConditionsComponent whereConditionsComponent;
     final ConditionsComponent havingConditionsComponent;
-    private final List<String> tables;
+    private final List<TableReference> tables;
     private final List<String> columns;
     private final List<String> categories;
     private final List<String> sortRules;
@@ -39,6 +52,11 @@ public final class SelectStatement extends AbstractStatement<SelectStatement> im
      *
      */
     private @Nullable Long maxExecutionTime;
+    /**
+     * {@link #getReferencedTables()} 的计算结果；{@link #referencedTablesResolved} 为 {@code false} 时尚未计算。
+     */
+    private @Nullable Set<String> referencedTables;
+    private boolean referencedTablesResolved;
 
     /**
      * @param another To swift clone one instance based on without direct reference.
@@ -81,53 +99,125 @@ public final class SelectStatement extends AbstractStatement<SelectStatement> im
         if (alias != null) {
             x += " AS " + alias;
         }
-        if (tables.isEmpty()) {
-            tables.add(x);
-        } else {
-            tables.set(0, x);
-        }
-        return this;
+        return setMainTable(new TableReference(x, null, tableSet(AnyStatement.normalizeTableName(tableExpression)), 0));
     }
 
     public SelectStatement from(ReadStatementMixin<?> subQuery, String alias) {
         if (alias.isBlank()) {
             throw new KeelSQLGenerateError("Sub Query without alias");
         }
-        return this.from("(" + subQuery + ")", alias);
+        return setMainTable(new TableReference(
+                "(" + subQuery + ") AS " + alias,
+                binder -> "(" + subQuery.buildSql(binder) + ") AS " + alias,
+                subQuery.getReferencedTables(),
+                countSelectKeywords(subQuery.toString())
+        ));
     }
 
-    public SelectStatement leftJoin(Function<JoinComponent, JoinComponent> joinFunction) {
-        JoinComponent join = new JoinComponent("LEFT JOIN");
-        tables.add(joinFunction.apply(join).toString());
+    private SelectStatement setMainTable(TableReference tableReference) {
+        if (tables.isEmpty()) {
+            tables.add(tableReference);
+        } else {
+            tables.set(0, tableReference);
+        }
+        return modified();
+    }
+
+    private SelectStatement addJoin(String joinType, Function<JoinComponent, JoinComponent> joinFunction) {
+        JoinComponent join = joinFunction.apply(new JoinComponent(joinType));
+        tables.add(new TableReference(
+                join.toString(),
+                join::toParameterizedString,
+                tableSet(AnyStatement.normalizeTableName(join.tableExpression)),
+                0
+        ));
+        return modified();
+    }
+
+    private static @Nullable Set<String> tableSet(@Nullable String normalizedTableName) {
+        return normalizedTableName == null ? null : Set.of(normalizedTableName);
+    }
+
+    private static int countSelectKeywords(String sql) {
+        Matcher matcher = SELECT_KEYWORD_PATTERN.matcher(sql);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 返回 FROM 与各 JOIN 子句引用的表，FROM 子查询引用的表一并计入。
+     * <p>
+     * 若生成的 SQL 中还有其他 {@code SELECT}（如 WHERE、HAVING、ON 或列表达式中的子查询），
+     * 其引用的表无法确定，返回 {@code null}。
+     * <p>
+     * 结果在首次调用时计算并保留，经本类方法修改表、列、条件、分组或排序后重新计算；
+     * 在 {@link #where(Function)}、{@link #having(Function)} 之外保留并修改条件组件的，引用的表不会随之更新。
+     * 视图按其名称计入，不展开为其基表。
+     *
+     * @return 引用的表；无法确定时为 {@code null}
+     * @since 5.0.4
+     */
+    @Override
+    public @Nullable Set<String> getReferencedTables() {
+        if (!referencedTablesResolved) {
+            referencedTables = resolveReferencedTables();
+            referencedTablesResolved = true;
+        }
+        return referencedTables;
+    }
+
+    private @Nullable Set<String> resolveReferencedTables() {
+        Set<String> resolved = new HashSet<>();
+        int expectedSelectKeywords = 1;
+        for (TableReference table : tables) {
+            if (table.referencedTables() == null) {
+                return null;
+            }
+            resolved.addAll(table.referencedTables());
+            expectedSelectKeywords += table.selectKeywords();
+        }
+        if (countSelectKeywords(buildSql()) != expectedSelectKeywords) {
+            return null;
+        }
+        return Set.copyOf(resolved);
+    }
+
+    /**
+     * 语句的表、列或条件发生变化后，丢弃已计算的引用表。
+     */
+    private SelectStatement modified() {
+        referencedTablesResolved = false;
+        referencedTables = null;
         return this;
     }
 
+    public SelectStatement leftJoin(Function<JoinComponent, JoinComponent> joinFunction) {
+        return addJoin("LEFT JOIN", joinFunction);
+    }
+
     public SelectStatement rightJoin(Function<JoinComponent, JoinComponent> joinFunction) {
-        JoinComponent join = new JoinComponent("RIGHT JOIN");
-        tables.add(joinFunction.apply(join).toString());
-        return this;
+        return addJoin("RIGHT JOIN", joinFunction);
     }
 
     public SelectStatement innerJoin(Function<JoinComponent, JoinComponent> joinFunction) {
-        JoinComponent join = new JoinComponent("INNER JOIN");
-        tables.add(joinFunction.apply(join).toString());
-        return this;
+        return addJoin("INNER JOIN", joinFunction);
     }
 
     public SelectStatement straightJoin(Function<JoinComponent, JoinComponent> joinFunction) {
-        JoinComponent join = new JoinComponent("STRAIGHT_JOIN");
-        tables.add(joinFunction.apply(join).toString());
-        return this;
+        return addJoin("STRAIGHT_JOIN", joinFunction);
     }
 
     public SelectStatement resetColumns() {
         this.columns.clear();
-        return this;
+        return modified();
     }
 
     public SelectStatement column(Function<ColumnComponent, ColumnComponent> func) {
         columns.add(func.apply(new ColumnComponent()).toString());
-        return this;
+        return modified();
     }
 
     public SelectStatement columnWithAlias(String columnExpression, String alias) {
@@ -135,12 +225,12 @@ public final class SelectStatement extends AbstractStatement<SelectStatement> im
             throw new IllegalArgumentException("Column or its alias is empty.");
         }
         columns.add(columnExpression + " as `" + alias + "`");
-        return this;
+        return modified();
     }
 
     public SelectStatement columnAsExpression(String fieldName) {
         columns.add(fieldName);
-        return this;
+        return modified();
     }
 
     /**
@@ -150,32 +240,94 @@ public final class SelectStatement extends AbstractStatement<SelectStatement> im
      */
     public SelectStatement where(Function<ConditionsComponent, ConditionsComponent> function) {
         function.apply(whereConditionsComponent);
-        return this;
+        return modified();
     }
 
     public SelectStatement groupBy(String x) {
         categories.add(x);
-        return this;
+        return modified();
     }
 
     public SelectStatement groupBy(List<String> x) {
         categories.addAll(x);
-        return this;
+        return modified();
     }
 
     public SelectStatement having(Function<ConditionsComponent, ConditionsComponent> function) {
         function.apply(havingConditionsComponent);
-        return this;
+        return modified();
     }
 
     public SelectStatement orderByAsc(String x) {
         sortRules.add(x);
-        return this;
+        return modified();
     }
 
     public SelectStatement orderByDesc(String x) {
         sortRules.add(x + " DESC");
-        return this;
+        return modified();
+    }
+
+    /**
+     * @return 已设置的查询列（已渲染的列表达式）的只读视图；为空时查询 {@code *}
+     * @since 5.0.4
+     */
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * @return 已设置的排序规则（{@code ORDER BY} 的各项，降序项以 {@code " DESC"} 结尾）的只读视图
+     * @since 5.0.4
+     */
+    public List<String> getSortRules() {
+        return Collections.unmodifiableList(sortRules);
+    }
+
+    /**
+     * @return 是否含有 {@code GROUP BY} 或 {@code HAVING}
+     * @since 5.0.4
+     */
+    public boolean isGrouped() {
+        return !categories.isEmpty() || !havingConditionsComponent.isEmpty();
+    }
+
+    /**
+     * 判断查询结果是否由多行汇总而来，即含有 {@code GROUP BY} 或 {@code HAVING}，
+     * 或查询列中含有聚合函数（如 {@code COUNT(*)}、{@code SUM(..)}）或 {@code DISTINCT}。
+     * <p>
+     * 此类查询按键分块执行后，各块的结果不能直接拼接为原查询的结果。列表达式按文本判断，
+     * 列中的子查询若含聚合函数也会被视为汇总查询。
+     *
+     * @return 是否为汇总查询
+     * @since 5.0.4
+     */
+    public boolean isAggregated() {
+        if (isGrouped()) {
+            return true;
+        }
+        for (String column : columns) {
+            if (AGGREGATE_COLUMN_PATTERN.matcher(column).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code LIMIT} 的行数；为 0 时不限制
+     * @since 5.0.4
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return {@code OFFSET} 的行数
+     * @since 5.0.4
+     */
+    public long getOffset() {
+        return offset;
     }
 
     @Override
@@ -203,6 +355,23 @@ public final class SelectStatement extends AbstractStatement<SelectStatement> im
 
     @Override
     public String buildSql() {
+        return render(null);
+    }
+
+    /**
+     * 以参数化模式生成 SQL：条件中的值、子查询中的值以及 {@code LIMIT}/{@code OFFSET} 以 {@code ?} 占位符输出。
+     *
+     * @since 5.0.4
+     */
+    @Override
+    public String buildSql(SqlParameterBinder binder) {
+        return render(binder);
+    }
+
+    /**
+     * @param binder 参数收集器；为 {@code null} 时按内联形式生成
+     */
+    private String render(@Nullable SqlParameterBinder binder) {
         final var sqlComponentSeparator = getSqlComponentSeparator();
         StringBuilder sql = new StringBuilder();
         sql.append("SELECT ");
@@ -221,26 +390,38 @@ public final class SelectStatement extends AbstractStatement<SelectStatement> im
             sql.append(String.join(",", columns));
         }
         if (!tables.isEmpty()) {
-            sql.append(sqlComponentSeparator).append("FROM ")
-               .append(String.join(sqlComponentSeparator, tables));
+            sql.append(sqlComponentSeparator).append("FROM ");
+            for (int i = 0; i < tables.size(); i++) {
+                if (i > 0) {
+                    sql.append(sqlComponentSeparator);
+                }
+                sql.append(tables.get(i).render(binder));
+            }
         }
         if (!whereConditionsComponent.isEmpty()) {
-            sql.append(sqlComponentSeparator).append("WHERE ").append(whereConditionsComponent);
+            sql.append(sqlComponentSeparator).append("WHERE ")
+               .append(binder == null ? whereConditionsComponent.toString() : whereConditionsComponent.toParameterizedString(binder));
         }
         if (!categories.isEmpty()) {
             sql.append(sqlComponentSeparator).append("GROUP BY ")
                .append(String.join(",", categories));
         }
         if (!havingConditionsComponent.isEmpty()) {
-            sql.append(sqlComponentSeparator).append("HAVING ").append(havingConditionsComponent);
+            sql.append(sqlComponentSeparator).append("HAVING ")
+               .append(binder == null ? havingConditionsComponent.toString() : havingConditionsComponent.toParameterizedString(binder));
         }
         if (!sortRules.isEmpty()) {
             sql.append(sqlComponentSeparator).append("ORDER BY ")
                .append(String.join(",", sortRules));
         }
         if (limit > 0) {
-            sql.append(sqlComponentSeparator).append("LIMIT ").append(limit).append(" OFFSET ")
-               .append(offset);
+            if (binder == null) {
+                sql.append(sqlComponentSeparator).append("LIMIT ").append(limit).append(" OFFSET ")
+                   .append(offset);
+            } else {
+                sql.append(sqlComponentSeparator).append("LIMIT ").append(binder.bind(limit)).append(" OFFSET ")
+                   .append(binder.bind(offset));
+            }
         }
         if (!lockMode.isEmpty()) {
             sql.append(sqlComponentSeparator).append(lockMode);
@@ -305,6 +486,52 @@ public final class SelectStatement extends AbstractStatement<SelectStatement> im
             }
             return s;
         }
+
+        /**
+         * @param binder 参数收集器
+         * @return 以参数化模式生成的 JOIN 子句
+         * @since 5.0.4
+         */
+        public String toParameterizedString(SqlParameterBinder binder) {
+            StringBuilder s = new StringBuilder(joinType).append(" ").append(tableExpression);
+            if (alias != null) {
+                s.append(" AS ").append(alias);
+            }
+            if (!onConditions.isEmpty()) {
+                s.append(" ON ");
+                for (int i = 0; i < onConditions.size(); i++) {
+                    if (i > 0) {
+                        s.append(" AND ");
+                    }
+                    s.append(onConditions.get(i).toParameterizedString(binder));
+                }
+            }
+            return s.toString();
+        }
+    }
+
+    /**
+     * FROM 子句中的一项：主表（或子查询）与各 JOIN 子句。
+     * <p>
+     * 内联形式在登记时即已生成，与此前的行为保持一致；参数化形式在渲染时按需生成。
+     *
+     * @param inline           内联形式
+     * @param parameterized    参数化形式的生成方式；为 {@code null} 时两种模式均输出内联形式
+     * @param referencedTables 引用的表；无法确定时为 {@code null}
+     * @param selectKeywords   子查询中 {@code SELECT} 关键字的个数，非子查询时为 0
+     */
+    private record TableReference(
+            String inline,
+            @Nullable Function<SqlParameterBinder, String> parameterized,
+            @Nullable Set<String> referencedTables,
+            int selectKeywords
+    ) {
+        String render(@Nullable SqlParameterBinder binder) {
+            if (binder == null || parameterized == null) {
+                return inline;
+            }
+            return parameterized.apply(binder);
+        }
     }
 
     @NullMarked
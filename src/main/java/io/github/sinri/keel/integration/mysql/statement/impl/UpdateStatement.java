@@ -1,6 +1,8 @@
 package io.github.sinri.keel.integration.mysql.statement.impl;
 
 import io.github.sinri.keel.integration.mysql.statement.AbstractStatement;
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.component.ConditionsComponent;
 import io.github.sinri.keel.integration.mysql.statement.component.UpdateSetAssignmentComponent;
 import io.github.sinri.keel.integration.mysql.statement.mixin.ModifyStatementMixin;
@@ -11,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 
@@ -59,6 +62,12 @@ public class UpdateStatement extends AbstractStatement<UpdateStatement> implemen
         return this;
     }
 
+    @Override
+    public @Nullable Set<String> getReferencedTables() {
+        String name = AnyStatement.normalizeTableName(table);
+        return name == null ? null : Set.of(name);
+    }
+
     public UpdateStatement setWithAssignment(UpdateSetAssignmentComponent updateSetAssignmentComponent) {
         this.assignments.add(updateSetAssignmentComponent);
         return this;
@@ -113,6 +122,23 @@ public class UpdateStatement extends AbstractStatement<UpdateStatement> implemen
 
     @Override
     public String buildSql() {
+        return render(null);
+    }
+
+    /**
+     * 以参数化模式生成 SQL：SET 赋值与 WHERE 条件中的值以 {@code ?} 占位符输出。
+     *
+     * @since 5.0.4
+     */
+    @Override
+    public String buildSql(SqlParameterBinder binder) {
+        return render(binder);
+    }
+
+    /**
+     * @param binder 参数收集器；为 {@code null} 时按内联形式生成
+     */
+    private String render(@Nullable SqlParameterBinder binder) {
         final var sqlComponentSeparator = getSqlComponentSeparator();
         String sql = "UPDATE " + ignoreMark;
         if (schema != null) {
@@ -121,11 +147,15 @@ public class UpdateStatement extends AbstractStatement<UpdateStatement> implemen
         sql += table;
 
         List<String> setPairs = new ArrayList<>();
-        assignments.forEach(assignment -> setPairs.add(assignment.toString()));
+        assignments.forEach(assignment -> setPairs.add(binder == null
+                ? assignment.toString()
+                : assignment.toParameterizedString(binder)));
         sql += sqlComponentSeparator + "SET " + String.join(", ", setPairs);
 
         if (!whereConditionsComponent.isEmpty()) {
-            sql += sqlComponentSeparator + "WHERE " + whereConditionsComponent;
+            sql += sqlComponentSeparator + "WHERE " + (binder == null
+                    ? whereConditionsComponent.toString()
+                    : whereConditionsComponent.toParameterizedString(binder));
         }
         if (!sortRules.isEmpty()) {
             sql += sqlComponentSeparator + "ORDER BY " + String.join(",", sortRules);
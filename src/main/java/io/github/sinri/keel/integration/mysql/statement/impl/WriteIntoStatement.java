@@ -1,6 +1,8 @@
 package io.github.sinri.keel.integration.mysql.statement.impl;
 
 import io.github.sinri.keel.integration.mysql.statement.AbstractStatement;
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.SqlParameterBinder;
 import io.github.sinri.keel.integration.mysql.statement.mixin.WriteIntoStatementMixin;
 import io.github.sinri.keel.integration.mysql.statement.quoter.Quoter;
 import io.vertx.core.Handler;
@@ -30,6 +32,10 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
     private final List<String> columns = new ArrayList<>();
 
     private final List<List<String>> batchValues = new ArrayList<>();
+    /**
+     * 与 {@link #batchValues} 逐行逐列对应的绑定值，供参数化渲染使用；为 {@code null} 的单元格为表达式，原样输出。
+     */
+    private final List<List<SqlParameterBinder.@Nullable BoundValue>> batchBindings = new ArrayList<>();
 
     private final Map<String, String> onDuplicateKeyUpdateAssignmentMap = new HashMap<>();
 
@@ -62,6 +68,12 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
         return this;
     }
 
+    @Override
+    public @Nullable Set<String> getReferencedTables() {
+        String name = AnyStatement.normalizeTableName(table);
+        return name == null ? null : Set.of(name);
+    }
+
     public WriteIntoStatement ignore() {
         this.ignoreMark = "IGNORE";
         return this;
@@ -82,14 +94,19 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
     public <T extends @Nullable Object> WriteIntoStatement addDataRow(List<T> row) {
         Quoter quoter = new Quoter();
         List<String> t = new ArrayList<>();
+        List<SqlParameterBinder.@Nullable BoundValue> b = new ArrayList<>();
         for (Object item : row) {
             if (item == null) {
                 t.add(quoter.quoteNull());
+                b.add(new SqlParameterBinder.BoundValue(null));
             } else {
-                t.add(quoter.quoteLiteral(String.valueOf(item)));
+                String literal = String.valueOf(item);
+                t.add(quoter.quoteLiteral(literal));
+                b.add(new SqlParameterBinder.BoundValue(literal));
             }
         }
         this.batchValues.add(t);
+        this.batchBindings.add(b);
         return this;
     }
 
@@ -99,6 +116,7 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
         }
         columns.clear();
         this.batchValues.clear();
+        this.batchBindings.clear();
 
         rows.forEach(row -> {
             if (row.map.isEmpty()) {
@@ -106,6 +124,7 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
             }
 
             List<String> dataRow = new ArrayList<>();
+            List<SqlParameterBinder.@Nullable BoundValue> dataRowBindings = new ArrayList<>();
 
             if (columns.isEmpty()) {
                 columns.addAll(row.map.keySet());
@@ -114,9 +133,11 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
             columns.forEach(key -> {
                 var value = row.map.get(key);
                 dataRow.add(value);
+                dataRowBindings.add(row.bindings.get(key));
             });
 
             this.batchValues.add(dataRow);
+            this.batchBindings.add(dataRowBindings);
         });
 
         return this;
@@ -125,12 +146,16 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
     public WriteIntoStatement macroWriteOneRow(RowToWrite row) {
         columns.clear();
         this.batchValues.clear();
+        this.batchBindings.clear();
         List<String> dataRow = new ArrayList<>();
+        List<SqlParameterBinder.@Nullable BoundValue> dataRowBindings = new ArrayList<>();
         row.map.forEach((column, expression) -> {
             columns.add(column);
             dataRow.add(expression);
+            dataRowBindings.add(row.bindings.get(column));
         });
         this.batchValues.add(dataRow);
+        this.batchBindings.add(dataRowBindings);
         return this;
     }
 
@@ -208,35 +233,100 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
 
     @Override
     public String buildSql() {
+        return render(null);
+    }
+
+    /**
+     * 以参数化模式生成 SQL：VALUES 中以值写入的单元格以 {@code ?} 占位符输出，表达式单元格原样输出。
+     *
+     * @since 5.0.4
+     */
+    @Override
+    public String buildSql(SqlParameterBinder binder) {
+        return render(binder);
+    }
+
+    /**
+     * 以单个 {@link StringBuilder} 生成 SQL，容量按已收集单元格的长度预估，行与单元格直接追加，不产生中间字符串。
+     *
+     * @param binder 参数收集器；为 {@code null} 时按内联形式生成
+     */
+    private String render(@Nullable SqlParameterBinder binder) {
         final var sqlComponentSeparator = getSqlComponentSeparator();
-        String sql = writeType + " " + ignoreMark + " INTO ";
+        StringBuilder sql = new StringBuilder(estimateRenderCapacity());
+        sql.append(writeType).append(' ').append(ignoreMark).append(" INTO ");
         if (schema != null) {
-            sql += schema + ".";
+            sql.append(schema).append('.');
         }
-        sql += table;
-        sql += " (" + String.join(",", columns) + ")";
+        sql.append(table);
+        sql.append(" (");
+        appendJoined(sql, columns);
+        sql.append(')');
         if (sourceTableName != null) {
-            sql += sqlComponentSeparator + "TABLE " + sourceTableName;
+            sql.append(sqlComponentSeparator).append("TABLE ").append(sourceTableName);
         } else if (sourceSelectSQL != null) {
-            sql += sqlComponentSeparator + sourceSelectSQL;
+            sql.append(sqlComponentSeparator).append(sourceSelectSQL);
         } else {
-            sql += sqlComponentSeparator + "VALUES" + sqlComponentSeparator;
-            List<String> items = new ArrayList<>();
-            for (List<String> row : batchValues) {
-                items.add("(" + String.join(",", row) + ")");
+            sql.append(sqlComponentSeparator).append("VALUES").append(sqlComponentSeparator);
+            for (int rowIndex = 0; rowIndex < batchValues.size(); rowIndex++) {
+                if (rowIndex > 0) {
+                    sql.append(',').append(sqlComponentSeparator);
+                }
+                List<String> row = batchValues.get(rowIndex);
+                List<SqlParameterBinder.@Nullable BoundValue> rowBindings = batchBindings.get(rowIndex);
+                sql.append('(');
+                for (int columnIndex = 0; columnIndex < row.size(); columnIndex++) {
+                    if (columnIndex > 0) {
+                        sql.append(',');
+                    }
+                    var binding = binder == null ? null : rowBindings.get(columnIndex);
+                    if (binding == null) {
+                        sql.append(row.get(columnIndex));
+                    } else {
+                        sql.append(Objects.requireNonNull(binder).bind(binding.value()));
+                    }
+                }
+                sql.append(')');
             }
-            sql += String.join("," + sqlComponentSeparator, items);
         }
         if (!onDuplicateKeyUpdateAssignmentMap.isEmpty()) {
-            sql += sqlComponentSeparator + "ON DUPLICATE KEY UPDATE" + sqlComponentSeparator;
-            List<String> items = new ArrayList<>();
-            onDuplicateKeyUpdateAssignmentMap.forEach((key, value) -> items.add(key + " = " + value));
-            sql += String.join("," + sqlComponentSeparator, items);
+            sql.append(sqlComponentSeparator).append("ON DUPLICATE KEY UPDATE").append(sqlComponentSeparator);
+            boolean first = true;
+            for (Map.Entry<String, String> entry : onDuplicateKeyUpdateAssignmentMap.entrySet()) {
+                if (!first) {
+                    sql.append(',').append(sqlComponentSeparator);
+                }
+                first = false;
+                sql.append(entry.getKey()).append(" = ").append(entry.getValue());
+            }
         }
         if (!getRemarkAsComment().isEmpty()) {
-            sql += "\n-- " + getRemarkAsComment() + "\n";
+            sql.append("\n-- ").append(getRemarkAsComment()).append('\n');
+        }
+        return sql.toString();
+    }
+
+    private static void appendJoined(StringBuilder sql, List<String> items) {
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(items.get(i));
         }
-        return sql;
+    }
+
+    private int estimateRenderCapacity() {
+        long capacity = 128 + table.length();
+        for (String column : columns) {
+            capacity += column.length() + 1;
+        }
+        for (List<String> row : batchValues) {
+            capacity += 4;
+            for (String cell : row) {
+                capacity += cell.length() + 1;
+            }
+        }
+        return (int) Math.min(capacity, Integer.MAX_VALUE - 16);
     }
 
     /**
@@ -256,23 +346,95 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
         List<WriteIntoStatementMixin<WriteIntoStatement>> list = new ArrayList<>();
         int size = this.batchValues.size();
         for (int chunkStartIndex = 0; chunkStartIndex < size; chunkStartIndex += chunkSize) {
-            WriteIntoStatement chunkWIS = new WriteIntoStatement(this.writeType);
+            list.add(copyRows(chunkStartIndex, Math.min(size, chunkStartIndex + chunkSize)));
+        }
+        return list;
+    }
 
-            chunkWIS.columns.addAll(this.columns);
-            chunkWIS.onDuplicateKeyUpdateAssignmentMap.putAll(this.onDuplicateKeyUpdateAssignmentMap);
-            chunkWIS.ignoreMark = this.ignoreMark;
-            chunkWIS.schema = this.schema;
-            chunkWIS.table = this.table;
-            chunkWIS.batchValues.addAll(this.batchValues.subList(chunkStartIndex, Math.min(size, chunkStartIndex + chunkSize)));
+    /**
+     * 按内联形式生成的 SQL 的 UTF-8 字节数分裂，使每一块都不超过给定的字节数与单元格数；
+     * 单独一行即超过限制时，该行自成一块，由服务端报告错误。
+     *
+     * @param maxSqlBytes      每块 SQL 的最大字节数，通常取服务端 {@code max_allowed_packet} 减去少量余量
+     * @param maxCellsPerChunk 每块最多包含的单元格数（行数乘以列数）；参数化执行时应不超过 65535
+     * @return 分裂后的语句列表；以 {@code SELECT}/{@code TABLE} 为数据来源或没有数据行时仅含自身
+     * @since 5.0.4
+     */
+    @Override
+    public List<WriteIntoStatementMixin<WriteIntoStatement>> divideByPacketSize(long maxSqlBytes, int maxCellsPerChunk) {
+        if (maxSqlBytes <= 0 || maxCellsPerChunk <= 0) {
+            throw new IllegalArgumentException("maxSqlBytes and maxCellsPerChunk must be positive");
+        }
+        int size = this.batchValues.size();
+        if (sourceTableName != null || sourceSelectSQL != null || size == 0) {
+            return List.of(this);
+        }
 
-            list.add(chunkWIS);
+        WriteIntoStatement empty = copyRows(0, 0);
+        long fixedBytes = utf8Length(empty.buildSql());
+        long rowSeparatorBytes = 1 + utf8Length(empty.getSqlComponentSeparator());
+        int maxRowsPerChunk = Math.max(1, maxCellsPerChunk / Math.max(1, columns.size()));
+        List<WriteIntoStatementMixin<WriteIntoStatement>> list = new ArrayList<>();
+        int chunkStartIndex = 0;
+        long chunkBytes = fixedBytes;
+        for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+            long rowBytes = 2;
+            for (String cell : batchValues.get(rowIndex)) {
+                rowBytes += utf8Length(cell) + 1;
+            }
+            if (rowIndex > chunkStartIndex) {
+                rowBytes += rowSeparatorBytes;
+                if (chunkBytes + rowBytes > maxSqlBytes || rowIndex - chunkStartIndex >= maxRowsPerChunk) {
+                    list.add(copyRows(chunkStartIndex, rowIndex));
+                    chunkStartIndex = rowIndex;
+                    chunkBytes = fixedBytes;
+                    rowBytes -= rowSeparatorBytes;
+                }
+            }
+            chunkBytes += rowBytes;
         }
+        list.add(copyRows(chunkStartIndex, size));
         return list;
     }
 
+    private WriteIntoStatement copyRows(int fromIndex, int toIndex) {
+        WriteIntoStatement chunkWIS = new WriteIntoStatement(this.writeType);
+
+        chunkWIS.columns.addAll(this.columns);
+        chunkWIS.onDuplicateKeyUpdateAssignmentMap.putAll(this.onDuplicateKeyUpdateAssignmentMap);
+        chunkWIS.ignoreMark = this.ignoreMark;
+        chunkWIS.schema = this.schema;
+        chunkWIS.table = this.table;
+        chunkWIS.batchValues.addAll(this.batchValues.subList(fromIndex, toIndex));
+        chunkWIS.batchBindings.addAll(this.batchBindings.subList(fromIndex, toIndex));
+        return chunkWIS;
+    }
+
+    static long utf8Length(String s) {
+        long length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
     @NullMarked
     public static class RowToWrite {
         final Map<String, @Nullable String> map = new TreeMap<>();
+        /**
+         * 以值写入的列对应的绑定值；以表达式写入的列不在其中。
+         */
+        final Map<String, SqlParameterBinder.BoundValue> bindings = new HashMap<>();
 
         /**
          * @param jsonObject One row as a JsonObject
@@ -317,11 +479,37 @@ public class WriteIntoStatement extends AbstractStatement<WriteIntoStatement> im
 
         public RowToWrite putExpression(String columnName, String expression) {
             map.put(columnName, expression);
+            bindings.remove(columnName);
             return this;
         }
 
         public RowToWrite put(String columnName, @Nullable Object value) {
-            return this.putExpression(columnName, new Quoter().quoteValue(value));
+            this.putExpression(columnName, new Quoter().quoteValue(value));
+            bindings.put(columnName, new SqlParameterBinder.BoundValue(SqlParameterBinder.normalizeValue(value)));
+            return this;
+        }
+
+        /**
+         * @return 已设置的列名，按字典序排列
+         * @since 5.0.4
+         */
+        public Set<String> getColumnNames() {
+            return Collections.unmodifiableSet(map.keySet());
+        }
+
+        /**
+         * 估算本行写入 {@code VALUES} 子句后的 SQL 字节数（UTF-8），即各列取值（引用后的字面量或表达式）的字节数之和加上括号与分隔符，
+         * 与 {@link WriteIntoStatement#divideByPacketSize(long, int)} 对每行的计量一致。
+         *
+         * @return 估算的字节数
+         * @since 5.0.4
+         */
+        public long estimateSqlBytes() {
+            long bytes = 2;
+            for (String expression : map.values()) {
+                bytes += (expression == null ? 4 : utf8Length(expression)) + 1;
+            }
+            return bytes;
         }
     }
 }
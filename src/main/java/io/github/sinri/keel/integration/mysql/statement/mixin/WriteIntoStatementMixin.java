@@ -28,4 +28,18 @@ public non-sealed interface WriteIntoStatementMixin<S> extends AnyStatement<S> {
      * @return a list of WriteIntoStatement
      */
     List<WriteIntoStatementMixin<S>> divide(int chunkSize);
+
+    /**
+     * 按生成 SQL 的字节数分裂，使每一块都不超过给定的字节数与单元格数。
+     * <p>
+     * 默认实现不分裂，返回仅包含自身的列表。
+     *
+     * @param maxSqlBytes      每块 SQL 的最大字节数
+     * @param maxCellsPerChunk 每块最多包含的单元格数（行数乘以列数），用于限制参数化执行时的占位符数量
+     * @return a list of WriteIntoStatement
+     * @since 5.0.4
+     */
+    default List<WriteIntoStatementMixin<S>> divideByPacketSize(long maxSqlBytes, int maxCellsPerChunk) {
+        return List.of(this);
+    }
 }
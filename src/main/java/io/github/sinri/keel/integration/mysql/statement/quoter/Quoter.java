@@ -108,7 +108,15 @@ public final class Quoter {
         return quoteLiteral(value.toString());
     }
 
-    private static String escapeLikeWildcards(String value) {
+    /**
+     * 转义 LIKE 模式中的通配符 {@code %}、{@code _} 及转义符 {@code \}，不加引号、不做字符串字面量转义，
+     * 可用于参数化绑定的 LIKE 模式。
+     *
+     * @param value 原始文本
+     * @return 转义通配符后的文本
+     * @since 5.0.4
+     */
+    public static String escapeLikeWildcards(String value) {
         return value.replace("\\", "\\\\")
                     .replace("%", "\\%")
                     .replace("_", "\\_");
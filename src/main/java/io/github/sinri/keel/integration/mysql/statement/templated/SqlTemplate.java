@@ -0,0 +1,122 @@
+package io.github.sinri.keel.integration.mysql.statement.templated;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * 预解析的 SQL 模板。
+ * <p>
+ * 模板文本在构造时被一次性切分为字面量片段与 {@code {name}} 占位符片段，
+ * 渲染时按顺序写入同一个 {@link StringBuilder}，复杂度与模板长度加参数长度成正比，
+ * 且参数值写入后不会被再次扫描替换。
+ * <p>
+ * 未绑定的占位符按原文 {@code {name}} 输出，与逐个参数做文本替换的结果一致。
+ * <p>
+ * 本类不可变，可在线程间共享。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class SqlTemplate {
+    private final String source;
+    /**
+     * 字面量片段，数量总比占位符多一个；第 i 个占位符位于第 i 与第 i+1 个字面量之间。
+     */
+    private final String[] literals;
+    private final String[] placeholderNames;
+    private final int literalLength;
+
+    private SqlTemplate(String source, List<String> literals, List<String> placeholderNames) {
+        this.source = source;
+        this.literals = literals.toArray(new String[0]);
+        this.placeholderNames = placeholderNames.toArray(new String[0]);
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 解析模板文本。
+     * <p>
+     * 占位符为一对花括号包围、内部不含花括号的文本；不成对的花括号按字面量保留。
+     *
+     * @param source 模板文本
+     * @return 预解析的模板
+     */
+    public static SqlTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholderNames = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        int length = source.length();
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '{') {
+                int close = source.indexOf('}', i + 1);
+                int nextOpen = source.indexOf('{', i + 1);
+                if (close >= 0 && (nextOpen < 0 || nextOpen > close)) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    placeholderNames.add(source.substring(i + 1, close));
+                    i = close + 1;
+                    continue;
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(literal.toString());
+        return new SqlTemplate(source, literals, placeholderNames);
+    }
+
+    /**
+     * @return 模板原文
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return 模板中出现的占位符名称，按首次出现顺序去重
+     */
+    public Set<String> getPlaceholderNames() {
+        Set<String> names = new LinkedHashSet<>();
+        Collections.addAll(names, placeholderNames);
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * 以给定参数渲染模板。
+     *
+     * @param arguments 占位符名称到参数的映射
+     * @return 渲染后的 SQL
+     */
+    public String render(Map<String, TemplateArgument> arguments) {
+        StringBuilder sql = new StringBuilder(literalLength + placeholderNames.length * 16);
+        sql.append(literals[0]);
+        for (int i = 0; i < placeholderNames.length; i++) {
+            TemplateArgument argument = arguments.get(placeholderNames[i]);
+            if (argument == null) {
+                sql.append('{').append(placeholderNames[i]).append('}');
+            } else {
+                sql.append(argument);
+            }
+            sql.append(literals[i + 1]);
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
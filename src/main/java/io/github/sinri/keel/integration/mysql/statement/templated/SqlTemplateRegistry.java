@@ -0,0 +1,135 @@
+package io.github.sinri.keel.integration.mysql.statement.templated;
+
+import io.github.sinri.keel.core.utils.FileUtils;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * SQL 模板注册表，按模板路径缓存已加载并预解析的 {@link SqlTemplate}。
+ * <p>
+ * 每个模板只在首次使用时从文件（或类路径资源）读取并解析一次，之后直接复用。
+ * 开发环境可开启 {@link #setReloadOnChange(boolean)}：每次取用时检查文件修改时间，
+ * 文件变更后重新加载；来自 JAR 内资源的模板不会重新加载。
+ * <p>
+ * {@link TemplatedStatement#loadTemplateToRead(String)} 与 {@link TemplatedStatement#loadTemplateToModify(String)}
+ * 使用 {@link #shared()} 返回的共享实例。
+ *
+ * @since 5.0.4
+ */
+@NullMarked
+public final class SqlTemplateRegistry {
+    private static final SqlTemplateRegistry SHARED = new SqlTemplateRegistry();
+
+    private final Map<String, LoadedTemplate> templates = new ConcurrentHashMap<>();
+    private volatile boolean reloadOnChange = false;
+
+    /**
+     * @return 全局共享的模板注册表
+     */
+    public static SqlTemplateRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return 是否在取用模板时检查文件变更并重新加载
+     */
+    public boolean isReloadOnChange() {
+        return reloadOnChange;
+    }
+
+    /**
+     * 设置是否在取用模板时检查文件变更并重新加载。
+     * <p>
+     * 开启后每次取用都会读取一次文件修改时间，仅建议在开发环境使用。
+     *
+     * @param reloadOnChange 是否检查文件变更
+     * @return 自身实例
+     */
+    public SqlTemplateRegistry setReloadOnChange(boolean reloadOnChange) {
+        this.reloadOnChange = reloadOnChange;
+        return this;
+    }
+
+    /**
+     * 获取模板路径对应的预解析模板，首次取用时加载。
+     *
+     * @param templatePath 模板文件路径，文件不存在时按类路径资源查找
+     * @return 预解析的模板
+     * @throws RuntimeException 模板读取失败时
+     */
+    public SqlTemplate get(String templatePath) {
+        LoadedTemplate loaded = templates.get(templatePath);
+        if (loaded == null) {
+            return templates.computeIfAbsent(templatePath, SqlTemplateRegistry::load).template();
+        }
+        if (reloadOnChange && loaded.lastModified() != null) {
+            FileTime lastModified = readLastModified(templatePath);
+            if (lastModified != null && !lastModified.equals(loaded.lastModified())) {
+                LoadedTemplate reloaded = load(templatePath);
+                templates.put(templatePath, reloaded);
+                return reloaded.template();
+            }
+        }
+        return loaded.template();
+    }
+
+    /**
+     * 移除指定路径的缓存，下次取用时重新加载。
+     *
+     * @param templatePath 模板文件路径
+     */
+    public void invalidate(String templatePath) {
+        templates.remove(templatePath);
+    }
+
+    /**
+     * 清空所有已缓存的模板。
+     */
+    public void clear() {
+        templates.clear();
+    }
+
+    /**
+     * @return 已缓存的模板数量
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    private static LoadedTemplate load(String templatePath) {
+        // 先取修改时间再读内容：读取期间发生的变更会在下次检查时被发现
+        FileTime lastModified = readLastModified(templatePath);
+        try {
+            byte[] bytes = FileUtils.readFileAsByteArray(templatePath, true);
+            String sqlTemplate = new String(bytes, StandardCharsets.UTF_8);
+            return new LoadedTemplate(SqlTemplate.compile(sqlTemplate), lastModified);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static @Nullable FileTime readLastModified(String templatePath) {
+        try {
+            Path path = Path.of(templatePath);
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            return Files.getLastModifiedTime(path);
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private record LoadedTemplate(SqlTemplate template, @Nullable FileTime lastModified) {
+    }
+}
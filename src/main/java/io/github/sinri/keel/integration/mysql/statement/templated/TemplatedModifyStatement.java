@@ -14,7 +14,7 @@ import org.jspecify.annotations.NullMarked;
 @NullMarked
 public final class TemplatedModifyStatement extends AbstractStatement<TemplatedModifyStatement>
         implements ModifyStatementMixin<TemplatedModifyStatement>, TemplatedStatement<TemplatedModifyStatement> {
-    private final String templateSql;
+    private final SqlTemplate sqlTemplate;
     private final TemplateArgumentMapping argumentMapping;
 
     /**
@@ -23,7 +23,17 @@ public final class TemplatedModifyStatement extends AbstractStatement<TemplatedM
      * @param templateSql SQL模板字符串
      */
     public TemplatedModifyStatement(String templateSql) {
-        this.templateSql = templateSql;
+        this(SqlTemplate.compile(templateSql));
+    }
+
+    /**
+     * 以预解析的模板构造
+     *
+     * @param sqlTemplate 预解析的SQL模板
+     * @since 5.0.4
+     */
+    public TemplatedModifyStatement(SqlTemplate sqlTemplate) {
+        this.sqlTemplate = sqlTemplate;
         this.argumentMapping = new TemplateArgumentMapping();
     }
 
@@ -34,7 +44,7 @@ public final class TemplatedModifyStatement extends AbstractStatement<TemplatedM
 
     @Override
     public String getSqlTemplate() {
-        return this.templateSql;
+        return this.sqlTemplate.getSource();
     }
 
     @Override
@@ -42,6 +52,11 @@ public final class TemplatedModifyStatement extends AbstractStatement<TemplatedM
         return argumentMapping;
     }
 
+    @Override
+    public SqlTemplate getCompiledSqlTemplate() {
+        return sqlTemplate;
+    }
+
     /**
      * 绑定参数
      *
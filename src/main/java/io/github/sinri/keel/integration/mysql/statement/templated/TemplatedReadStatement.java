@@ -15,7 +15,7 @@ import org.jspecify.annotations.NullMarked;
 public final class TemplatedReadStatement extends AbstractStatement<TemplatedReadStatement>
         implements ReadStatementMixin<TemplatedReadStatement>, TemplatedStatement<TemplatedReadStatement> {
 
-    private final String templateSql;
+    private final SqlTemplate sqlTemplate;
     private final TemplateArgumentMapping argumentMapping;
 
     /**
@@ -24,7 +24,17 @@ public final class TemplatedReadStatement extends AbstractStatement<TemplatedRea
      * @param templateSql SQL模板字符串
      */
     public TemplatedReadStatement(String templateSql) {
-        this.templateSql = templateSql;
+        this(SqlTemplate.compile(templateSql));
+    }
+
+    /**
+     * 以预解析的模板构造
+     *
+     * @param sqlTemplate 预解析的SQL模板
+     * @since 5.0.4
+     */
+    public TemplatedReadStatement(SqlTemplate sqlTemplate) {
+        this.sqlTemplate = sqlTemplate;
         this.argumentMapping = new TemplateArgumentMapping();
     }
 
@@ -41,7 +51,7 @@ public final class TemplatedReadStatement extends AbstractStatement<TemplatedRea
 
     @Override
     public String getSqlTemplate() {
-        return templateSql;
+        return sqlTemplate.getSource();
     }
 
     @Override
@@ -49,6 +59,11 @@ public final class TemplatedReadStatement extends AbstractStatement<TemplatedRea
         return argumentMapping;
     }
 
+    @Override
+    public SqlTemplate getCompiledSqlTemplate() {
+        return sqlTemplate;
+    }
+
     @Override
     public String buildSql() {
         return TemplatedStatement.super.buildSql();
@@ -1,13 +1,9 @@
 package io.github.sinri.keel.integration.mysql.statement.templated;
 
 
-import io.github.sinri.keel.core.utils.FileUtils;
 import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
 import org.jspecify.annotations.NullMarked;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -27,34 +23,26 @@ public sealed interface TemplatedStatement<S> extends AnyStatement<S>
         permits TemplatedModifyStatement, TemplatedReadStatement {
     /**
      * 从文件加载模板生成读取语句
+     * <p>
+     * 模板经 {@link SqlTemplateRegistry#shared()} 加载，同一路径只读取并解析一次。
      *
      * @param templatePath 模板文件路径
      * @return 模板读取语句实例
      */
     static TemplatedReadStatement loadTemplateToRead(String templatePath) {
-        try {
-            byte[] bytes = FileUtils.readFileAsByteArray(templatePath, true);
-            String sqlTemplate = new String(bytes, StandardCharsets.UTF_8);
-            return new TemplatedReadStatement(sqlTemplate);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return new TemplatedReadStatement(SqlTemplateRegistry.shared().get(templatePath));
     }
 
     /**
      * 从文件加载模板生成修改语句
+     * <p>
+     * 模板经 {@link SqlTemplateRegistry#shared()} 加载，同一路径只读取并解析一次。
      *
      * @param templatePath 模板文件路径
      * @return 模板修改语句实例
      */
     static TemplatedModifyStatement loadTemplateToModify(String templatePath) {
-        try {
-            byte[] bytes = FileUtils.readFileAsByteArray(templatePath, true);
-            String sqlTemplate = new String(bytes, StandardCharsets.UTF_8);
-            return new TemplatedModifyStatement(sqlTemplate);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return new TemplatedModifyStatement(SqlTemplateRegistry.shared().get(templatePath));
     }
 
     /**
@@ -64,6 +52,14 @@ public sealed interface TemplatedStatement<S> extends AnyStatement<S>
      */
     String getSqlTemplate();
 
+    /**
+     * 获取预解析的SQL模板
+     *
+     * @return 预解析的SQL模板
+     * @since 5.0.4
+     */
+    SqlTemplate getCompiledSqlTemplate();
+
     /**
      * 获取参数映射
      *
@@ -74,22 +70,14 @@ public sealed interface TemplatedStatement<S> extends AnyStatement<S>
     /**
      * 构建最终的SQL字符串
      * <p>
-     * 此方法只做字面文本替换，不解析 SQL 上下文。若参数来自用户输入，应让占位符独占一个
+     * 此方法按预解析的占位符一次性拼接，不解析 SQL 上下文，参数值不会被再次替换；未绑定的占位符原样保留。若参数来自用户输入，应让占位符独占一个
      * SQL 表达式位置，并使用 {@link TemplateArgument#forString(String)} 或
      * {@link TemplateArgumentMapping#bindString(String, String)} 生成已转义的字符串字面量。
      *
      * @return 构建后的SQL字符串
      */
     default String buildSql() {
-        AtomicReference<String> sqlRef = new AtomicReference<>(getSqlTemplate());
-
-        getArguments().forEach((argumentName, argumentValue) -> {
-            String s = sqlRef.get()
-                             .replace("{" + argumentName + "}", argumentValue.toString());
-            sqlRef.set(s);
-        });
-
-        return sqlRef.get();
+        return getCompiledSqlTemplate().render(getArguments());
     }
 }
 
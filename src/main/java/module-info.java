@@ -7,6 +7,7 @@ module io.github.sinri.keel.integration.mysql {
     requires transitive io.vertx.sql.client.mysql;
     requires static org.jspecify;
     requires io.netty.codec.http;
+    requires java.sql;
 
     // 默认导出所有包
     exports io.github.sinri.keel.integration.mysql;
@@ -16,6 +17,7 @@ module io.github.sinri.keel.integration.mysql {
     exports io.github.sinri.keel.integration.mysql.dev;
     exports io.github.sinri.keel.integration.mysql.exception;
     // 注意：父包 result 无直接类型，导出其子包
+    exports io.github.sinri.keel.integration.mysql.result.columnar;
     exports io.github.sinri.keel.integration.mysql.result.matrix;
     exports io.github.sinri.keel.integration.mysql.result.row;
     exports io.github.sinri.keel.integration.mysql.result.stream;
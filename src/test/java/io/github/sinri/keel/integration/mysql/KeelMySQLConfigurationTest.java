@@ -12,8 +12,10 @@ import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class KeelMySQLConfigurationTest {
 
@@ -103,6 +105,55 @@ class KeelMySQLConfigurationTest {
         assertEquals(TimeUnit.SECONDS, poolOptions.getIdleTimeoutUnit());
     }
 
+    @Test
+    void getReplicaConnectOptionsShouldInheritPrimarySettings() throws Exception {
+        KeelMySQLConfiguration configuration = createConfiguration(
+                "mysql.secure.host", "primary.example.test",
+                "mysql.secure.port", "3307",
+                "mysql.secure.schema", "app",
+                "mysql.secure.replicas", "replica-a.example.test, replica-b.example.test:3308"
+        );
+
+        var replicaConnectOptions = configuration.getReplicaConnectOptions();
+
+        assertEquals(2, replicaConnectOptions.size());
+        assertEquals("replica-a.example.test", replicaConnectOptions.get(0).getHost());
+        assertEquals(3307, replicaConnectOptions.get(0).getPort());
+        assertEquals("replica-b.example.test", replicaConnectOptions.get(1).getHost());
+        assertEquals(3308, replicaConnectOptions.get(1).getPort());
+        assertEquals("app", replicaConnectOptions.get(1).getDatabase());
+        assertEquals("test_user", replicaConnectOptions.get(1).getUser());
+        assertEquals("primary.example.test", configuration.getConnectOptions().getHost());
+    }
+
+    @Test
+    void getReplicaHostsShouldBeEmptyWhenNotConfigured() throws Exception {
+        assertTrue(createConfiguration().getReplicaHosts().isEmpty());
+    }
+
+    @Test
+    void getPoolMinSizeShouldDefaultToZeroAndIgnoreNegative() throws Exception {
+        assertEquals(0, createConfiguration().getPoolMinSize());
+        assertEquals(4, createConfiguration("mysql.secure.poolMinSize", "4").getPoolMinSize());
+        assertEquals(0, createConfiguration("mysql.secure.poolMinSize", "-1").getPoolMinSize());
+    }
+
+    @Test
+    void getPipeliningLimitShouldApplyToConnectOptions() throws Exception {
+        assertEquals(KeelMySQLConfiguration.DEFAULT_PIPELINING_LIMIT, createConfiguration().getConnectOptions().getPipeliningLimit());
+        assertEquals(32, createConfiguration("mysql.secure.pipeliningLimit", "32").getConnectOptions().getPipeliningLimit());
+        assertEquals(KeelMySQLConfiguration.DEFAULT_PIPELINING_LIMIT, createConfiguration("mysql.secure.pipeliningLimit", "0").getPipeliningLimit());
+    }
+
+    @Test
+    void preparedStatementCacheMaxSizeShouldEnableClientCache() throws Exception {
+        assertFalse(createConfiguration().getConnectOptions().getCachePreparedStatements());
+
+        var connectOptions = createConfiguration("mysql.secure.preparedStatementCacheMaxSize", "64").getConnectOptions();
+        assertTrue(connectOptions.getCachePreparedStatements());
+        assertEquals(64, connectOptions.getPreparedStatementCacheMaxSize());
+    }
+
     private KeelMySQLConfiguration createConfiguration(String... keyAndValuePairs) throws Exception {
         Properties properties = new Properties();
         properties.setProperty("mysql.secure.username", "test_user");
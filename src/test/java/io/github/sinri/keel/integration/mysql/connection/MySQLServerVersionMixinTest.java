@@ -52,6 +52,21 @@ class MySQLServerVersionMixinTest {
         assertFalse(mixin.isMySQLVersion8dot0());
     }
 
+    @Test
+    void windowFunctionSupportShouldRequireKnownVersionAtLeast8dot0() {
+        TestVersionMixin mixin = new TestVersionMixin();
+        assertFalse(mixin.isWindowFunctionSupported());
+
+        mixin.setMysqlVersion("5.7.44-log");
+        assertFalse(mixin.isWindowFunctionSupported());
+
+        mixin.setMysqlVersion("8.0.35");
+        assertTrue(mixin.isWindowFunctionSupported());
+
+        mixin.setMysqlVersion("unknown");
+        assertFalse(mixin.isWindowFunctionSupported());
+    }
+
     @Test
     void parseMajorMinorShouldRejectMissingOrInvalidVersion() {
         TestVersionMixin mixin = new TestVersionMixin();
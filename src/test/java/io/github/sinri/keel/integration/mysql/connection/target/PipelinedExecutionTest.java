@@ -0,0 +1,185 @@
+package io.github.sinri.keel.integration.mysql.connection.target;
+
+import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.integration.mysql.result.StatementExecuteResult;
+import io.github.sinri.keel.integration.mysql.statement.RawStatement;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.PreparedStatement;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelinedExecutionTest {
+
+    private static final Keel UNUSED_KEEL = (Keel) Proxy.newProxyInstance(
+            Keel.class.getClassLoader(),
+            new Class<?>[]{Keel.class},
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException(method.getName());
+            }
+    );
+
+    @SuppressWarnings("unchecked")
+    private static RowSet<Row> rowSet(int rowCount) {
+        return (RowSet<Row>) Proxy.newProxyInstance(
+                RowSet.class.getClassLoader(),
+                new Class<?>[]{RowSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "rowCount" -> rowCount;
+                    case "size" -> 0;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static List<Tuple> tuples(int count) {
+        return IntStream.range(0, count).mapToObj(Tuple::of).toList();
+    }
+
+    private static List<Integer> affectedRows(List<StatementExecuteResult> results) {
+        return results.stream().map(StatementExecuteResult::getTotalAffectedRows).toList();
+    }
+
+    @Test
+    void resultsFollowInputOrderWhenResponsesArriveOutOfOrder() {
+        StubPreparedStatement prepared = new StubPreparedStatement();
+        Future<List<StatementExecuteResult>> future = prepared.attach()
+                                                              .executeThroughPrepare(UNUSED_KEEL, tuples(6), 3);
+
+        assertEquals(List.of(0, 1, 2), prepared.sent);
+        prepared.succeed(2);
+        prepared.succeed(0);
+        assertEquals(List.of(0, 1, 2, 3, 4), prepared.sent);
+        prepared.succeed(4);
+        prepared.succeed(3);
+        prepared.succeed(1);
+        assertFalse(future.isComplete());
+        prepared.succeed(5);
+
+        assertTrue(future.succeeded(), () -> String.valueOf(future.cause()));
+        assertEquals(List.of(0, 10, 20, 30, 40, 50), affectedRows(future.result()));
+        assertEquals(3, prepared.maxInflight);
+        assertTrue(prepared.closed);
+    }
+
+    @Test
+    void nothingIsSentAfterTheFirstFailure() {
+        StubPreparedStatement prepared = new StubPreparedStatement();
+        Future<List<StatementExecuteResult>> future = prepared.attach()
+                                                              .executeThroughPrepare(UNUSED_KEEL, tuples(8), 3);
+
+        RuntimeException failure = new RuntimeException("duplicate key");
+        prepared.fail(1, failure);
+        // 已发出的执行仍需返回，但不再补发
+        assertEquals(List.of(0, 1, 2), prepared.sent);
+        prepared.fail(2, new RuntimeException("later failure"));
+        prepared.succeed(0);
+
+        assertEquals(List.of(0, 1, 2), prepared.sent);
+        assertTrue(future.failed());
+        assertSame(failure, future.cause());
+        assertTrue(prepared.maxInflight <= 3);
+        assertTrue(prepared.closed);
+    }
+
+    @Test
+    void inflightNeverExceedsPipelineDepth() {
+        StubPreparedStatement prepared = new StubPreparedStatement();
+        Future<List<StatementExecuteResult>> future = prepared.attach()
+                                                              .executeThroughPrepare(UNUSED_KEEL, tuples(20), 4);
+
+        while (!prepared.pending.isEmpty()) {
+            assertTrue(prepared.pending.size() <= 4);
+            // 总是先完成最晚发出的执行，使补发与返回交错
+            List<Integer> inflight = new ArrayList<>(prepared.pending.keySet());
+            prepared.succeed(inflight.get(inflight.size() - 1));
+        }
+
+        assertTrue(future.succeeded());
+        assertEquals(20, future.result().size());
+        assertEquals(4, prepared.maxInflight);
+    }
+
+    /**
+     * 预编译语句桩：记录发出的参数组序号，执行结果由测试按任意顺序完成；返回结果的影响行数为序号乘以 10。
+     */
+    private static final class StubPreparedStatement {
+        private final List<Integer> sent = new ArrayList<>();
+        private final Map<Integer, Promise<RowSet<Row>>> pending = new LinkedHashMap<>();
+        private int maxInflight = 0;
+        private boolean closed = false;
+
+        RunnableStatement attach() {
+            PreparedStatement preparedStatement = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "query" -> query();
+                        case "close" -> {
+                            closed = true;
+                            yield Future.succeededFuture();
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+            );
+            SqlConnection sqlConnection = (SqlConnection) Proxy.newProxyInstance(
+                    SqlConnection.class.getClassLoader(),
+                    new Class<?>[]{SqlConnection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepare" -> Future.succeededFuture(preparedStatement);
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+            );
+            RunnableStatement runnableStatement = new RunnableStatement(new RawStatement("INSERT INTO t (id) VALUES (?)"));
+            runnableStatement.setSQLConnection(sqlConnection);
+            return runnableStatement;
+        }
+
+        @SuppressWarnings("unchecked")
+        private PreparedQuery<RowSet<Row>> query() {
+            return (PreparedQuery<RowSet<Row>>) Proxy.newProxyInstance(
+                    PreparedQuery.class.getClassLoader(),
+                    new Class<?>[]{PreparedQuery.class},
+                    (proxy, method, args) -> {
+                        if (!method.getName().equals("execute") || args == null || args.length != 1) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        int index = ((Tuple) args[0]).getInteger(0);
+                        Promise<RowSet<Row>> promise = Promise.promise();
+                        sent.add(index);
+                        pending.put(index, promise);
+                        maxInflight = Math.max(maxInflight, pending.size());
+                        return promise.future();
+                    }
+            );
+        }
+
+        void succeed(int index) {
+            pending.remove(index).complete(rowSet(index * 10));
+        }
+
+        void fail(int index, Throwable cause) {
+            pending.remove(index).fail(cause);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyBatchLoaderTest extends KeelJUnit5Test {
+
+    public KeyBatchLoaderTest() {
+        super();
+    }
+
+    private static Future<Map<Long, SimpleResultRow>> evenKeysOnly(List<List<Long>> batches, List<Long> keys) {
+        batches.add(List.copyOf(keys));
+        Map<Long, SimpleResultRow> rows = new HashMap<>();
+        keys.stream().filter(key -> key % 2 == 0)
+            .forEach(key -> rows.put(key, new SimpleResultRow(new JsonObject().put("id", key))));
+        return Future.succeededFuture(rows);
+    }
+
+    @Test
+    void loadsBeforeDispatchAreMergedDeduplicatedAndChunked() {
+        List<Runnable> scheduled = new ArrayList<>();
+        List<List<Long>> batches = new ArrayList<>();
+        KeyBatchLoader<SimpleResultRow> loader = new KeyBatchLoader<SimpleResultRow>(
+                (window, task) -> scheduled.add(task),
+                keys -> evenKeysOnly(batches, keys)
+        ).setMaxBatchSize(3);
+
+        List<Future<SimpleResultRow>> futures = new ArrayList<>();
+        for (long key : new long[]{1, 2, 2, 3, 4, 5, 6}) {
+            futures.add(loader.load(key));
+        }
+        assertEquals(1, scheduled.size());
+        assertEquals(6, loader.getPendingKeyCount());
+        assertFalse(futures.get(0).isComplete());
+
+        scheduled.get(0).run();
+
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L)), batches);
+        assertEquals(1, loader.getBatchCount());
+        assertEquals(2, loader.getQueryCount());
+        assertEquals(7, loader.getLoadCount());
+        assertNull(futures.get(0).result());
+        assertNotNull(futures.get(1).result());
+        assertSame(futures.get(1).result(), futures.get(2).result());
+        assertEquals(0, loader.getPendingKeyCount());
+
+        loader.load(8);
+        assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    void loadManyReturnsFoundRowsAndFailuresReachEveryCaller() {
+        List<Duration> windows = new ArrayList<>();
+        List<List<Long>> batches = new ArrayList<>();
+        KeyBatchLoader<SimpleResultRow> loader = new KeyBatchLoader<SimpleResultRow>(
+                (window, task) -> windows.add(window),
+                keys -> evenKeysOnly(batches, keys)
+        ).setBatchWindow(Duration.ofMillis(5));
+
+        Future<Map<Long, SimpleResultRow>> found = loader.loadMany(List.of(1L, 2L, 4L, 4L));
+        loader.dispatch();
+        assertEquals(List.of(2L, 4L), new ArrayList<>(found.result().keySet()));
+        assertEquals(List.of(List.of(1L, 2L, 4L)), batches);
+        assertEquals(List.of(Duration.ofMillis(5)), windows);
+
+        KeyBatchLoader<SimpleResultRow> failing = new KeyBatchLoader<>((window, task) -> {
+        }, keys -> {
+            throw new IllegalStateException("lost connection");
+        });
+        Future<SimpleResultRow> first = failing.load(1);
+        Future<SimpleResultRow> second = failing.load(2);
+        failing.dispatch();
+        assertTrue(first.failed());
+        assertTrue(second.failed());
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LargeInListReaderTest extends KeelJUnit5Test {
+
+    public LargeInListReaderTest() {
+        super();
+    }
+
+    private static Row row(long id, long score) {
+        return new Row(new JsonObject().put("id", id).put("score", score));
+    }
+
+    @Test
+    void chunksRunWithBoundedParallelismAndMergeInOrder() {
+        List<String> sqlList = new ArrayList<>();
+        List<Promise<ResultMatrix<Row>>> inFlight = new ArrayList<>();
+        LargeInListReader<Row> reader = new LargeInListReader<Row>(
+                statement -> {
+                    sqlList.add(statement.buildSql());
+                    Promise<ResultMatrix<Row>> promise = Promise.promise();
+                    inFlight.add(promise);
+                    return promise.future();
+                },
+                (keys, statement) -> Future.failedFuture("unexpected")
+        ).setChunkSize(2).setParallelism(2);
+
+        SelectStatement template = new SelectStatement().from("t").orderByDesc("t.score").limit(4);
+        Future<ResultMatrix<Row>> future = reader.read(template, "id", List.of(1, 2, 2L, 3, 4, 5));
+
+        assertEquals(2, inFlight.size());
+        assertEquals("SELECT * FROM t WHERE id IN (1,2) ORDER BY t.score DESC LIMIT 4 OFFSET 0", sqlList.get(0));
+        inFlight.get(0).complete(ResultMatrix.ofRows(List.of(row(2, 90), row(1, 10))));
+        assertEquals(3, inFlight.size());
+        inFlight.get(1).complete(ResultMatrix.ofRows(List.of(row(4, 50), row(3, 40))));
+        inFlight.get(2).complete(ResultMatrix.ofRows(List.of(row(5, 70))));
+
+        assertTrue(future.succeeded());
+        assertEquals(List.of(2L, 5L, 4L, 3L), future.result().column(r -> r.toJsonObject().getLong("id")));
+        assertEquals(3, reader.getChunkQueryCount());
+        assertEquals(0, reader.getTemporaryTableReadCount());
+    }
+
+    @Test
+    void strategyFollowsKeyCountAndQueryShape() {
+        List<List<Object>> temporaryKeys = new ArrayList<>();
+        List<String> temporarySql = new ArrayList<>();
+        LargeInListReader<Row> reader = new LargeInListReader<Row>(
+                statement -> Future.succeededFuture(ResultMatrix.ofRows(List.of())),
+                (keys, statement) -> {
+                    temporaryKeys.add(keys);
+                    temporarySql.add(statement.buildSql());
+                    return Future.succeededFuture(ResultMatrix.ofRows(List.of()));
+                }
+        ).setChunkSize(10).setTemporaryTableThreshold(100);
+
+        SelectStatement plain = new SelectStatement().from("t");
+        assertEquals(LargeInListReader.Strategy.SINGLE, reader.chooseStrategy(plain, 10));
+        assertEquals(LargeInListReader.Strategy.CHUNKED, reader.chooseStrategy(plain, 100));
+        assertEquals(LargeInListReader.Strategy.TEMPORARY_TABLE, reader.chooseStrategy(plain, 101));
+        assertEquals(LargeInListReader.Strategy.TEMPORARY_TABLE, reader.chooseStrategy(new SelectStatement().from("t").groupBy("g"), 11));
+        // 不分组的聚合与 DISTINCT 查询按块执行会得到每块一行的部分结果
+        assertEquals(LargeInListReader.Strategy.TEMPORARY_TABLE, reader.chooseStrategy(new SelectStatement().from("t").columnWithAlias("COUNT(*)", "c"), 11));
+        assertEquals(LargeInListReader.Strategy.TEMPORARY_TABLE, reader.chooseStrategy(new SelectStatement().from("t").columnWithAlias("sum( amount )", "total"), 11));
+        assertEquals(LargeInListReader.Strategy.TEMPORARY_TABLE, reader.chooseStrategy(new SelectStatement().from("t").columnAsExpression("DISTINCT region"), 11));
+        assertEquals(LargeInListReader.Strategy.CHUNKED, reader.chooseStrategy(new SelectStatement().from("t").columnWithAlias("max_amount", "m"), 11));
+
+        List<Integer> keys = IntStream.range(0, 150).boxed().toList();
+        assertTrue(reader.read(plain, "id", keys).succeeded());
+        assertEquals(1, reader.getTemporaryTableReadCount());
+        assertEquals(150, temporaryKeys.get(0).size());
+        assertEquals("SELECT * FROM t WHERE id IN (SELECT k FROM keel_in_list_keys)", temporarySql.get(0));
+        assertEquals("BIGINT", LargeInListReader.keyColumnDefinition(temporaryKeys.get(0)));
+        assertEquals("VARCHAR(3)", LargeInListReader.keyColumnDefinition(List.of("a", "abc")));
+
+        assertTrue(reader.read(plain, "id", List.of()).result().getRowList().isEmpty());
+        assertFalse(reader.getChunkQueryCount() > 0);
+    }
+
+    /**
+     * 直接返回所包装的 JSON 对象的结果行。
+     */
+    static final class Row extends SimpleResultRow {
+        private final JsonObject jsonObject;
+
+        Row(JsonObject jsonObject) {
+            super(jsonObject);
+            this.jsonObject = jsonObject;
+        }
+
+        @Override
+        public JsonObject toJsonObject() {
+            return jsonObject;
+        }
+    }
+}
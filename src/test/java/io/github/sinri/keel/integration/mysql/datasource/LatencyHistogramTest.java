@@ -0,0 +1,71 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest extends KeelJUnit5Test {
+
+    public LatencyHistogramTest() {
+        super();
+    }
+
+    @Test
+    void bucketsCoverValuesWithBoundedRelativeError() {
+        long[] samples = {0, 1, 3, 4, 5, 7, 8, 100, 1_000, 123_456, 9_999_999, Long.MAX_VALUE};
+        for (long sample : samples) {
+            int index = LatencyHistogram.indexOf(sample);
+            long upper = LatencyHistogram.upperBoundOf(index);
+            assertTrue(upper >= sample, "upper bound below sample " + sample);
+            assertTrue(upper - sample <= Math.max(0, sample / 4), "bucket too wide for " + sample);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < sample, "previous bucket covers " + sample);
+            }
+        }
+    }
+
+    @Test
+    void quantilesAndSummary() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getQuantileNanos(0.99));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), histogram.getMaxNanos());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5050), histogram.getSumNanos());
+
+        long p50 = histogram.getQuantileNanos(0.5);
+        assertTrue(p50 >= TimeUnit.MILLISECONDS.toNanos(50) && p50 <= TimeUnit.MILLISECONDS.toNanos(63), "p50=" + p50);
+        long p99 = histogram.getQuantileNanos(0.99);
+        assertTrue(p99 >= TimeUnit.MILLISECONDS.toNanos(99) && p99 <= TimeUnit.MILLISECONDS.toNanos(100), "p99=" + p99);
+        assertEquals(histogram.getMaxNanos(), histogram.getQuantileNanos(1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getQuantileNanos(1.5));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    @Test
+    void recordingMetricsCountsTimeouts() {
+        RecordingDataSourceMetrics metrics = new RecordingDataSourceMetrics();
+        metrics.onConnectionAcquired("ds", 1_000);
+        metrics.onConnectionAcquireFailed("ds", 30_000_000_000L, true);
+        metrics.onConnectionAcquireFailed("ds", 2_000, false);
+        metrics.onConnectionReleased("ds", 5_000);
+
+        assertEquals(3, metrics.getAcquireWaitHistogram().getCount());
+        assertEquals(2, metrics.getAcquireFailureCount());
+        assertEquals(1, metrics.getAcquireTimeoutCount());
+        assertEquals(1, metrics.getHoldHistogram().getCount());
+        assertEquals(2, metrics.toJsonObject().getLong("acquire_failures"));
+    }
+}
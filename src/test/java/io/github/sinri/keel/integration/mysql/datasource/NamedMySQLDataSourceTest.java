@@ -0,0 +1,49 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.SqlConnection;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NamedMySQLDataSourceTest extends KeelJUnit5Test {
+
+    public NamedMySQLDataSourceTest() {
+        super();
+    }
+
+    /**
+     * 以 Vert.x 连接池等待超时时相同的方式使获取失败：{@code Completable#fail(String)}，消息为 {@code "Timeout"}。
+     */
+    private static Throwable poolTimeout() {
+        Promise<SqlConnection> request = Promise.promise();
+        request.fail("Timeout");
+        return request.future().cause();
+    }
+
+    @Test
+    void poolTimeoutFailureCountsAsAcquireTimeout() {
+        long timeout = TimeUnit.SECONDS.toNanos(30);
+
+        assertTrue(NamedMySQLDataSource.isAcquireTimeout(poolTimeout(), timeout, timeout));
+        // 即使等待时长因计时起点不同而略短于配置值，仍按池的失败原因识别
+        assertTrue(NamedMySQLDataSource.isAcquireTimeout(poolTimeout(), timeout - 1, timeout));
+        assertTrue(NamedMySQLDataSource.isAcquireTimeout(new TimeoutException(), 0, timeout));
+    }
+
+    @Test
+    void otherFailuresCountAsTimeoutOnlyAfterConfiguredWait() {
+        long timeout = TimeUnit.SECONDS.toNanos(30);
+        RuntimeException refused = new RuntimeException("Connection refused");
+
+        assertFalse(NamedMySQLDataSource.isAcquireTimeout(refused, TimeUnit.SECONDS.toNanos(1), timeout));
+        assertTrue(NamedMySQLDataSource.isAcquireTimeout(refused, timeout, timeout));
+        // 未配置超时时不按等待时长判断
+        assertFalse(NamedMySQLDataSource.isAcquireTimeout(refused, timeout, 0));
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.github.sinri.keel.integration.mysql.result.stream.ResultBatchReader;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionedTableScanTest extends KeelJUnit5Test {
+
+    public PartitionedTableScanTest() {
+        super();
+    }
+
+    private static Row row(long id) {
+        return (Row) Proxy.newProxyInstance(
+                Row.class.getClassLoader(),
+                new Class<?>[]{Row.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getValue" -> "id".equals(args[0]) ? id : null;
+                    case "toString" -> "row#" + id;
+                    case "hashCode" -> Long.hashCode(id);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static PartitionedTableScan.QueryRunner minMax(long min, long max) {
+        JsonObject range = new JsonObject().put("min_key", min).put("max_key", max);
+        return (statement, onReplica) -> Future.succeededFuture(ResultMatrix.ofRows(List.of(new SimpleResultRow(range) {
+            @Override
+            public JsonObject toJsonObject() {
+                return range;
+            }
+        })));
+    }
+
+    @Test
+    void integerRangeIsSplitEvenly() {
+        assertEquals(List.of(26L, 51L, 76L), PartitionedTableScan.splitIntegerRange(1, 100, 4));
+        assertEquals(List.of(2L), PartitionedTableScan.splitIntegerRange(1, 2, 4));
+        assertEquals(List.of(), PartitionedTableScan.splitIntegerRange(7, 7, 4));
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedTableScan(
+                minMax(1, 2), (s, f, r, reader) -> Future.succeededFuture(), new SelectStatement().from("bill").limit(10), "id"));
+    }
+
+    @Test
+    void partitionsAreScannedWithBoundsAndCheckpointedForResume() {
+        List<String> sqlList = new ArrayList<>();
+        List<List<PartitionedTableScan.Partition>> checkpoints = new ArrayList<>();
+        List<Long> delivered = new ArrayList<>();
+        Map<Integer, List<List<Row>>> batchesByPartition = new HashMap<>();
+        batchesByPartition.put(0, List.of(List.of(row(1), row(2)), List.of(row(50))));
+        batchesByPartition.put(1, List.of(List.of(row(51), row(100))));
+
+        PartitionedTableScan scan = new PartitionedTableScan(
+                minMax(1, 100),
+                (statement, fetchSize, onReplica, reader) -> {
+                    String sql = statement.buildSql();
+                    sqlList.add(sql);
+                    Future<Void> chain = Future.succeededFuture();
+                    for (List<Row> batch : batchesByPartition.get(sql.contains("id < 51") ? 0 : 1)) {
+                        chain = chain.compose(v -> reader.read(batch));
+                    }
+                    return chain;
+                },
+                new SelectStatement().from("bill"),
+                "id"
+        ).setPartitionCount(2).setCheckpointHandler(list -> {
+            checkpoints.add(list);
+            return Future.succeededFuture();
+        });
+
+        ResultBatchReader reader = rows -> {
+            rows.forEach(r -> delivered.add((Long) r.getValue("id")));
+            return Future.succeededFuture();
+        };
+        assertTrue(scan.run(reader).succeeded());
+
+        assertEquals(List.of("SELECT * FROM bill WHERE id < 51 ORDER BY id", "SELECT * FROM bill WHERE id >= 51 ORDER BY id"), sqlList);
+        assertEquals(List.of(1L, 2L, 50L, 51L, 100L), delivered);
+        assertEquals(5, scan.getScannedRowCount());
+        List<PartitionedTableScan.Partition> last = checkpoints.get(checkpoints.size() - 1);
+        assertTrue(last.get(0).finished() && last.get(1).finished());
+        assertEquals(3, last.get(0).rowCount());
+
+        // 第一个分区读完两行后中断：自最后交付的键之后继续，已完成的分区跳过
+        List<PartitionedTableScan.Partition> saved = PartitionedTableScan.Partition.fromJsonArray(
+                PartitionedTableScan.Partition.toJsonArray(List.of(
+                        checkpoints.get(0).get(0),
+                        last.get(1)
+                )));
+        assertEquals(2L, ((Number) saved.get(0).lastKey()).longValue());
+        sqlList.clear();
+        assertTrue(scan.resume(saved, rows -> Future.succeededFuture()).succeeded());
+        assertEquals(List.of("SELECT * FROM bill WHERE id > 2 AND id < 51 ORDER BY id"), sqlList);
+    }
+
+    @Test
+    void orderedDeliveryWaitsForEarlierPartitions() {
+        Map<Integer, Promise<Void>> started = new HashMap<>();
+        Map<Integer, ResultBatchReader> readers = new HashMap<>();
+        PartitionedTableScan scan = new PartitionedTableScan(
+                minMax(1, 100),
+                (statement, fetchSize, onReplica, reader) -> {
+                    int index = statement.buildSql().contains("id < 51") ? 0 : 1;
+                    readers.put(index, reader);
+                    Promise<Void> promise = Promise.promise();
+                    started.put(index, promise);
+                    return promise.future();
+                },
+                new SelectStatement().from("bill"),
+                "id"
+        ).setPartitionCount(2).setOrderedDelivery(true);
+
+        List<Long> delivered = new ArrayList<>();
+        Future<Void> done = scan.run(rows -> {
+            rows.forEach(r -> delivered.add((Long) r.getValue("id")));
+            return Future.succeededFuture();
+        });
+        assertEquals(2, started.size());
+
+        Future<Void> laterBatch = readers.get(1).read(List.of(row(60)));
+        assertFalse(laterBatch.isComplete());
+        assertTrue(delivered.isEmpty());
+
+        assertTrue(readers.get(0).read(List.of(row(5))).succeeded());
+        started.get(0).complete();
+
+        assertTrue(laterBatch.succeeded());
+        assertEquals(List.of(5L, 60L), delivered);
+        started.get(1).complete();
+        assertTrue(done.succeeded());
+    }
+
+    @Test
+    void orderedDeliveryOpensNextPartitionOnlyWhenPreviousOneDelivers() {
+        Map<Integer, Promise<Void>> started = new HashMap<>();
+        Map<Integer, ResultBatchReader> readers = new HashMap<>();
+        PartitionedTableScan scan = new PartitionedTableScan(
+                minMax(1, 90),
+                (statement, fetchSize, onReplica, reader) -> {
+                    String sql = statement.buildSql();
+                    int index = sql.contains("id < 31") ? 0 : sql.contains("id < 61") ? 1 : 2;
+                    readers.put(index, reader);
+                    Promise<Void> promise = Promise.promise();
+                    started.put(index, promise);
+                    return promise.future();
+                },
+                new SelectStatement().from("bill"),
+                "id"
+        ).setPartitionCount(3).setOrderedDelivery(true);
+
+        List<Long> delivered = new ArrayList<>();
+        Future<Void> done = scan.run(rows -> {
+            rows.forEach(r -> delivered.add((Long) r.getValue("id")));
+            return Future.succeededFuture();
+        });
+        // 第一个分区交付时只预读第二个分区
+        assertEquals(List.of(0, 1), List.copyOf(started.keySet()));
+
+        assertTrue(readers.get(0).read(List.of(row(5))).succeeded());
+        started.get(0).complete();
+        // 第二个分区开始交付后才打开第三个分区
+        assertEquals(3, started.size());
+
+        assertTrue(readers.get(1).read(List.of(row(40))).succeeded());
+        started.get(1).complete();
+        assertTrue(readers.get(2).read(List.of(row(70))).succeeded());
+        started.get(2).complete();
+
+        assertEquals(List.of(5L, 40L, 70L), delivered);
+        assertTrue(done.succeeded());
+    }
+}
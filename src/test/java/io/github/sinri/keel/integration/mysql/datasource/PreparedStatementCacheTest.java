@@ -0,0 +1,157 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatement;
+import io.github.sinri.keel.integration.mysql.result.StatementExecuteResult;
+import io.github.sinri.keel.integration.mysql.statement.RawStatement;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreparedStatementCacheTest extends KeelJUnit5Test {
+
+    public PreparedStatementCacheTest() {
+        super();
+    }
+
+    private static SqlConnection connection() {
+        return (SqlConnection) Proxy.newProxyInstance(
+                SqlConnection.class.getClassLoader(),
+                new Class<?>[]{SqlConnection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    @Test
+    void countsHitsAndMissesPerConnection() {
+        PreparedStatementCache cache = new PreparedStatementCache(4);
+        SqlConnection first = connection();
+        SqlConnection second = connection();
+
+        cache.record(first, "SELECT 1");
+        cache.record(first, "SELECT 1");
+        // 预编译语句属于单个连接，另一连接上的同一 SQL 需要重新预编译
+        cache.record(second, "SELECT 1");
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(2, cache.getCachedStatementCount());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedStatementBeyondMaxSize() {
+        PreparedStatementCache cache = new PreparedStatementCache(2);
+        SqlConnection sqlConnection = connection();
+
+        cache.record(sqlConnection, "SELECT 1");
+        cache.record(sqlConnection, "SELECT 2");
+        cache.record(sqlConnection, "SELECT 1");
+        cache.record(sqlConnection, "SELECT 3");
+        cache.record(sqlConnection, "SELECT 1");
+        cache.record(sqlConnection, "SELECT 2");
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(2, cache.getCachedStatementCount());
+    }
+
+    @Test
+    void statementsRejectedByFilterAlwaysMiss() {
+        PreparedStatementCache cache = new PreparedStatementCache(4, sql -> sql.length() <= 8);
+        SqlConnection sqlConnection = connection();
+
+        cache.record(sqlConnection, "SELECT 12345");
+        cache.record(sqlConnection, "SELECT 12345");
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getCachedStatementCount());
+    }
+
+    @Test
+    void pipelinedExecutionGoesThroughClientCache() {
+        PreparedStatementCache cache = new PreparedStatementCache(8);
+        AtomicInteger prepareCount = new AtomicInteger(0);
+        AtomicInteger executeCount = new AtomicInteger(0);
+        SqlConnection sqlConnection = (SqlConnection) Proxy.newProxyInstance(
+                SqlConnection.class.getClassLoader(),
+                new Class<?>[]{SqlConnection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepare" -> {
+                        prepareCount.incrementAndGet();
+                        throw new UnsupportedOperationException("prepare");
+                    }
+                    case "preparedQuery" -> preparedQuery(executeCount);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+        Keel unusedKeel = (Keel) Proxy.newProxyInstance(
+                Keel.class.getClassLoader(),
+                new Class<?>[]{Keel.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        );
+        RunnableStatement runnableStatement = new RunnableStatement(new RawStatement("INSERT INTO t (id) VALUES (?)"));
+        runnableStatement.setSQLConnection(sqlConnection);
+        runnableStatement.setDataSourceServices(new DataSourceServices(null, new ReadCoalescer(), null, cache));
+        List<Tuple> tuples = List.of(Tuple.of(1), Tuple.of(2), Tuple.of(3));
+
+        Future<List<StatementExecuteResult>> first = runnableStatement.executeThroughPrepare(unusedKeel, tuples, 2);
+        Future<List<StatementExecuteResult>> second = runnableStatement.executeThroughPrepare(unusedKeel, tuples, 2);
+
+        assertTrue(first.succeeded(), () -> String.valueOf(first.cause()));
+        assertTrue(second.succeeded(), () -> String.valueOf(second.cause()));
+        // 启用缓存时不再逐次预编译，由客户端按 SQL 文本复用语句
+        assertEquals(0, prepareCount.get());
+        assertEquals(6, executeCount.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PreparedQuery<RowSet<Row>> preparedQuery(AtomicInteger executeCount) {
+        RowSet<Row> rowSet = (RowSet<Row>) Proxy.newProxyInstance(
+                RowSet.class.getClassLoader(),
+                new Class<?>[]{RowSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "rowCount" -> 1;
+                    case "size" -> 0;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+        return (PreparedQuery<RowSet<Row>>) Proxy.newProxyInstance(
+                PreparedQuery.class.getClassLoader(),
+                new Class<?>[]{PreparedQuery.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("execute") || args == null || args.length != 1) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    executeCount.incrementAndGet();
+                    return Future.succeededFuture(rowSet);
+                }
+        );
+    }
+}
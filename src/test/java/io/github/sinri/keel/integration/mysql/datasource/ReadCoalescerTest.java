@@ -0,0 +1,205 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead;
+import io.github.sinri.keel.integration.mysql.statement.RawStatement;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadCoalescerTest extends KeelJUnit5Test {
+
+    public ReadCoalescerTest() {
+        super();
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneQuery() {
+        ReadCoalescer coalescer = new ReadCoalescer();
+        Promise<String> pending = Promise.promise();
+        AtomicInteger queries = new AtomicInteger();
+
+        Future<String> first = coalescer.execute("SELECT ?", Tuple.of(1), () -> {
+            queries.incrementAndGet();
+            return pending.future();
+        });
+        Future<String> second = coalescer.execute("SELECT ?", Tuple.of(1), () -> {
+            queries.incrementAndGet();
+            return Future.succeededFuture("unexpected");
+        });
+
+        assertEquals(1, queries.get());
+        assertEquals(1, coalescer.getInflightCount());
+        pending.complete("row");
+
+        assertEquals("row", first.result());
+        assertEquals("row", second.result());
+        assertEquals(1, coalescer.getExecutionCount());
+        assertEquals(1, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInflightCount());
+    }
+
+    @Test
+    void differentParametersProtocolsAndCompletedQueriesAreNotShared() {
+        ReadCoalescer coalescer = new ReadCoalescer();
+        Promise<String> pending = Promise.promise();
+        AtomicInteger queries = new AtomicInteger();
+
+        coalescer.execute("SELECT ?", Tuple.of(1), () -> {
+            queries.incrementAndGet();
+            return pending.future();
+        });
+        coalescer.execute("SELECT ?", Tuple.of(1L), () -> {
+            queries.incrementAndGet();
+            return Future.succeededFuture("long");
+        });
+        coalescer.execute("SELECT ?", null, () -> {
+            queries.incrementAndGet();
+            return Future.succeededFuture("text protocol");
+        });
+        assertEquals(3, queries.get());
+
+        pending.complete("done");
+        coalescer.execute("SELECT ?", Tuple.of(1), () -> {
+            queries.incrementAndGet();
+            return Future.succeededFuture("again");
+        });
+        assertEquals(4, queries.get());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    void failureIsSharedAndThrowingQueryIsContained() {
+        ReadCoalescer coalescer = new ReadCoalescer();
+        Promise<String> pending = Promise.promise();
+        Future<String> first = coalescer.execute("SELECT 1", Tuple.tuple(), pending::future);
+        Future<String> second = coalescer.execute("SELECT 1", Tuple.tuple(), pending::future);
+        IllegalStateException failure = new IllegalStateException("lost connection");
+        pending.fail(failure);
+
+        assertSame(failure, first.cause());
+        assertSame(failure, second.cause());
+
+        Future<String> thrown = coalescer.execute("SELECT 2", Tuple.tuple(), () -> {
+            throw new IllegalStateException("broken");
+        });
+        assertTrue(thrown.failed());
+        assertEquals(0, coalescer.getInflightCount());
+    }
+
+    @Test
+    void replicaQueriesAreNotSharedWithPrimaryOnlyQueries() {
+        ReadCoalescer coalescer = new ReadCoalescer();
+        Promise<String> onReplica = Promise.promise();
+        coalescer.execute("SELECT 1", Tuple.tuple(), true, onReplica::future);
+
+        Future<String> primaryOnly = coalescer.execute("SELECT 1", Tuple.tuple(), false, () -> Future.succeededFuture("primary"));
+        assertEquals("primary", primaryOnly.result());
+        assertEquals(0, coalescer.getCoalescedCount());
+        onReplica.complete("replica");
+    }
+
+    @Test
+    void readsCoalescedBeforeAcquireAreKeptApartFromStatementLevelReads() {
+        ReadCoalescer coalescer = new ReadCoalescer();
+        coalescer.setEnabled(true);
+        Promise<String> acquired = Promise.promise();
+        AtomicInteger acquireCount = new AtomicInteger(0);
+
+        Future<String> first = coalescer.executeBeforeAcquire("SELECT 1", () -> {
+            acquireCount.incrementAndGet();
+            return acquired.future();
+        });
+        Future<String> second = coalescer.executeBeforeAcquire("SELECT 1", () -> {
+            acquireCount.incrementAndGet();
+            return Future.succeededFuture("unexpected");
+        });
+        // 执行对象上的同一 SQL 共享的是另一类结果，不与借出连接之前的合并混用
+        Future<String> statementLevel = coalescer.execute("SELECT 1", null, () -> Future.succeededFuture("statement"));
+
+        assertEquals(1, acquireCount.get());
+        assertEquals(1, coalescer.getCoalescedCount());
+        assertEquals("statement", statementLevel.result());
+        acquired.complete("row");
+        assertEquals("row", first.result());
+        assertEquals("row", second.result());
+        assertEquals(0, coalescer.getInflightCount());
+    }
+
+    @Test
+    void sessionStateReferencesAreDetected() {
+        assertTrue(ReadCoalescer.referencesSessionState("SELECT LAST_INSERT_ID()"));
+        assertTrue(ReadCoalescer.referencesSessionState("select found_rows ()"));
+        assertTrue(ReadCoalescer.referencesSessionState("SELECT CONNECTION_ID()"));
+        assertTrue(ReadCoalescer.referencesSessionState("SELECT * FROM t WHERE id = @last_id"));
+        assertTrue(ReadCoalescer.referencesSessionState("SELECT @@session.sql_mode"));
+        assertFalse(ReadCoalescer.referencesSessionState("SELECT id, last_insert_time FROM t WHERE id = ?"));
+    }
+
+    @Test
+    void statementsCoalesceOnlyWhenAllowedAndSessionIndependent() {
+        ReadCoalescer coalescer = new ReadCoalescer();
+        coalescer.setEnabled(true);
+        DataSourceServices services = new DataSourceServices(null, coalescer, null, null);
+        Promise<String> pending = Promise.promise();
+
+        CoalescingProbe first = new CoalescingProbe("SELECT 1", services);
+        first.setReadCoalescingAllowed(true);
+        first.run(pending::future);
+
+        // 未声明可合并的语句单独执行
+        CoalescingProbe notAllowed = new CoalescingProbe("SELECT 1", services);
+        assertEquals("own", notAllowed.run(() -> Future.succeededFuture("own")).result());
+
+        CoalescingProbe allowed = new CoalescingProbe("SELECT 1", services);
+        allowed.setReadCoalescingAllowed(true);
+        Future<String> shared = allowed.run(() -> Future.succeededFuture("unexpected"));
+        assertEquals(1, coalescer.getCoalescedCount());
+
+        CoalescingProbe sessionDependent = new CoalescingProbe("SELECT LAST_INSERT_ID()", services);
+        sessionDependent.setReadCoalescingAllowed(true);
+        sessionDependent.run(Promise.<String>promise()::future);
+        CoalescingProbe sessionDependentAgain = new CoalescingProbe("SELECT LAST_INSERT_ID()", services);
+        sessionDependentAgain.setReadCoalescingAllowed(true);
+        assertEquals("own", sessionDependentAgain.run(() -> Future.succeededFuture("own")).result());
+        assertEquals(1, coalescer.getCoalescedCount());
+
+        pending.complete("row");
+        assertEquals("row", shared.result());
+    }
+
+    private static final class CoalescingProbe extends RunnableStatementForRead {
+        private final String sql;
+
+        CoalescingProbe(String sql, DataSourceServices services) {
+            super(new RawStatement(sql));
+            this.sql = sql;
+            setSQLConnection((SqlConnection) Proxy.newProxyInstance(
+                    SqlConnection.class.getClassLoader(),
+                    new Class<?>[]{SqlConnection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "transaction" -> null;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+            ));
+            setDataSourceServices(services);
+        }
+
+        Future<String> run(Supplier<Future<String>> query) {
+            return executeOnConnection(sql, Tuple.tuple(), connection -> query.get());
+        }
+    }
+}
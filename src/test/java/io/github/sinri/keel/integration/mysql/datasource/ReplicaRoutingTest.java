@@ -0,0 +1,157 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatementForRead;
+import io.github.sinri.keel.integration.mysql.statement.AnyStatement;
+import io.github.sinri.keel.integration.mysql.statement.RawStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReplicaRoutingTest extends KeelJUnit5Test {
+
+    public ReplicaRoutingTest() {
+        super();
+    }
+
+    private static SqlConnection connection(@Nullable Transaction transaction, AtomicInteger closed) {
+        return (SqlConnection) Proxy.newProxyInstance(
+                SqlConnection.class.getClassLoader(),
+                new Class<?>[]{SqlConnection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "transaction" -> transaction;
+                    case "close" -> {
+                        closed.incrementAndGet();
+                        yield Future.succeededFuture();
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static Pool pool(SqlConnection sqlConnection) {
+        return (Pool) Proxy.newProxyInstance(
+                Pool.class.getClassLoader(),
+                new Class<?>[]{Pool.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getConnection" -> Future.succeededFuture(sqlConnection);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static Transaction transaction() {
+        return (Transaction) Proxy.newProxyInstance(
+                Transaction.class.getClassLoader(),
+                new Class<?>[]{Transaction.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    @Test
+    void readsStayOnPrimaryUnlessRoutingIsAllowed() {
+        AtomicInteger closed = new AtomicInteger();
+        SqlConnection primary = connection(null, closed);
+        SqlConnection replica = connection(null, closed);
+        ReplicaEndpoint endpoint = new ReplicaEndpoint("replica:3306", pool(replica));
+        DataSourceServices services = new DataSourceServices(new ReplicaRouter(List.of(endpoint)), new ReadCoalescer(), null, null);
+
+        Probe probe = new Probe("SELECT 1", primary, services);
+        assertSame(primary, probe.chooseConnection());
+        assertEquals(0, endpoint.getRequestCount());
+
+        probe.setReplicaRoutingAllowed(true);
+        assertSame(replica, probe.chooseConnection());
+        assertEquals(1, endpoint.getRequestCount());
+        // 副本连接用完即归还
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void transactionsLockingReadsAndUnboundStatementsStayOnPrimary() {
+        AtomicInteger closed = new AtomicInteger();
+        SqlConnection replica = connection(null, closed);
+        ReplicaEndpoint endpoint = new ReplicaEndpoint("replica:3306", pool(replica));
+        DataSourceServices services = new DataSourceServices(new ReplicaRouter(List.of(endpoint)), new ReadCoalescer(), null, null);
+
+        SqlConnection inTransaction = connection(transaction(), closed);
+        Probe transactional = new Probe("SELECT 1", inTransaction, services);
+        transactional.setReplicaRoutingAllowed(true);
+        assertSame(inTransaction, transactional.chooseConnection());
+
+        SqlConnection primary = connection(null, closed);
+        Probe locking = new Probe("SELECT id FROM t WHERE id = 1 FOR UPDATE", primary, services);
+        locking.setReplicaRoutingAllowed(true);
+        assertSame(primary, locking.chooseConnection());
+
+        // 直接以 SqlConnection 附着、未持有数据源服务的语句不路由
+        Probe unbound = new Probe("SELECT 1", primary, null);
+        unbound.setReplicaRoutingAllowed(true);
+        assertSame(primary, unbound.chooseConnection());
+
+        assertEquals(0, endpoint.getRequestCount());
+        assertEquals(0, closed.get());
+    }
+
+    @Test
+    void resultCacheIsFilledFromPrimaryOnly() {
+        AtomicInteger closed = new AtomicInteger();
+        SqlConnection primary = connection(null, closed);
+        SqlConnection replica = connection(null, closed);
+        ReplicaEndpoint endpoint = new ReplicaEndpoint("replica:3306", pool(replica));
+        ResultCache cache = new ResultCache(100, Duration.ofMinutes(1), Set.of());
+        DataSourceServices services = new DataSourceServices(new ReplicaRouter(List.of(endpoint)), new ReadCoalescer(), cache, null);
+
+        SelectStatement select = new SelectStatement().from("user");
+        Probe cached = new Probe(select, primary, services);
+        cached.setReplicaRoutingAllowed(true);
+        assertSame(primary, cached.chooseConnection());
+        assertEquals(1, cache.size());
+        assertEquals(0, endpoint.getRequestCount());
+
+        // 不使用缓存的语句仍按设置路由到副本
+        Probe uncached = new Probe(select, primary, services);
+        uncached.setReplicaRoutingAllowed(true);
+        uncached.setResultCacheAllowed(false);
+        assertSame(replica, uncached.chooseConnection());
+        assertEquals(1, endpoint.getRequestCount());
+    }
+
+    private static final class Probe extends RunnableStatementForRead {
+        private final String sql;
+
+        Probe(String sql, SqlConnection sqlConnection, @Nullable DataSourceServices services) {
+            this(new RawStatement(sql), sqlConnection, services);
+        }
+
+        Probe(AnyStatement<?> statement, SqlConnection sqlConnection, @Nullable DataSourceServices services) {
+            super(statement);
+            this.sql = statement.buildSql();
+            setSQLConnection(sqlConnection);
+            setDataSourceServices(services);
+        }
+
+        SqlConnection chooseConnection() {
+            return executeOnConnection(sql, null, Future::succeededFuture).result();
+        }
+    }
+}
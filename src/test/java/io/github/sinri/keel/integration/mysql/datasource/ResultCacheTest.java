@@ -0,0 +1,148 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.connection.target.RunnableStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.UpdateStatement;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultCacheTest extends KeelJUnit5Test {
+
+    public ResultCacheTest() {
+        super();
+    }
+
+    private static Future<String> read(ResultCache cache, String sql, Set<String> tables, AtomicInteger queries) {
+        return cache.execute(sql, Tuple.tuple(), tables, () -> {
+            queries.incrementAndGet();
+            return Future.succeededFuture("result-" + queries.get());
+        });
+    }
+
+    @Test
+    void repeatedReadsHitUntilTaggedTableIsInvalidated() {
+        ResultCache cache = new ResultCache(100, Duration.ofMinutes(1), Set.of());
+        AtomicInteger queries = new AtomicInteger();
+
+        assertEquals("result-1", read(cache, "SELECT * FROM user", Set.of("user"), queries).result());
+        assertEquals("result-1", read(cache, "SELECT * FROM user", Set.of("user"), queries).result());
+        assertEquals(1, cache.getHitCount());
+
+        cache.invalidateTables(List.of("`shop`.`Order`"));
+        assertEquals("result-1", read(cache, "SELECT * FROM user", Set.of("user"), queries).result());
+
+        cache.invalidateTables(List.of("USER"));
+        assertEquals("result-2", read(cache, "SELECT * FROM user", Set.of("user"), queries).result());
+        assertEquals(1, cache.getInvalidationCount());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals("result-3", read(cache, "SELECT * FROM user", Set.of("user"), queries).result());
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        ResultCache cache = new ResultCache(100, Duration.ZERO, Set.of());
+        AtomicInteger queries = new AtomicInteger();
+
+        read(cache, "SELECT 1 FROM dual_table", Set.of("dual_table"), queries);
+        read(cache, "SELECT 1 FROM dual_table", Set.of("dual_table"), queries);
+
+        assertEquals(2, queries.get());
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    void resultOfQueryRacingWithWriteIsNotStored() {
+        ResultCache cache = new ResultCache(100, Duration.ofMinutes(1), Set.of());
+        Promise<String> pending = Promise.promise();
+        cache.execute("SELECT * FROM user", null, Set.of("user"), pending::future);
+
+        cache.invalidateTables(Set.of("user"));
+        pending.complete("stale");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void admissionKeepsFrequentlyReadEntries() {
+        ResultCache cache = new ResultCache(3, Duration.ofMinutes(1), Set.of());
+        AtomicInteger queries = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            read(cache, "SELECT * FROM hot_a", Set.of("hot_a"), queries);
+            read(cache, "SELECT * FROM hot_b", Set.of("hot_b"), queries);
+        }
+        int loaded = queries.get();
+
+        for (int i = 0; i < 20; i++) {
+            read(cache, "SELECT * FROM scan WHERE id = " + i, Set.of("scan"), queries);
+        }
+        read(cache, "SELECT * FROM hot_a", Set.of("hot_a"), queries);
+        read(cache, "SELECT * FROM hot_b", Set.of("hot_b"), queries);
+
+        assertEquals(loaded + 20, queries.get());
+        assertTrue(cache.getRejectionCount() > 0);
+        assertTrue(cache.size() <= 3);
+    }
+
+    @Test
+    void cacheableTablesRestrictWhatIsCached() {
+        ResultCache cache = new ResultCache(10, Duration.ofMinutes(1), Set.of("config", "product"));
+
+        assertTrue(cache.isCacheable(Set.of("config")));
+        assertTrue(cache.isCacheable(Set.of("config", "product")));
+        assertFalse(cache.isCacheable(Set.of("config", "user")));
+        assertFalse(cache.isCacheable(Set.of()));
+        assertFalse(cache.isCacheable(null));
+    }
+
+    @Test
+    void failedWriteStillInvalidatesTaggedTables() {
+        ResultCache cache = new ResultCache(100, Duration.ofMinutes(1), Set.of());
+        AtomicInteger queries = new AtomicInteger();
+        read(cache, "SELECT * FROM user", Set.of("user"), queries);
+
+        UpdateStatement update = new UpdateStatement();
+        update.table("user");
+        WriteProbe probe = new WriteProbe(update, new DataSourceServices(null, new ReadCoalescer(), cache, null));
+        // 写入中途失败时可能已部分生效
+        Future<Void> failed = probe.run(Future.failedFuture(new IllegalStateException("lost connection")));
+
+        assertTrue(failed.failed());
+        assertEquals("result-2", read(cache, "SELECT * FROM user", Set.of("user"), queries).result());
+    }
+
+    private static final class WriteProbe extends RunnableStatement {
+        WriteProbe(UpdateStatement statement, DataSourceServices services) {
+            super(statement);
+            setSQLConnection((SqlConnection) Proxy.newProxyInstance(
+                    SqlConnection.class.getClassLoader(),
+                    new Class<?>[]{SqlConnection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "transaction" -> null;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+            ));
+            setDataSourceServices(services);
+        }
+
+        Future<Void> run(Future<Void> outcome) {
+            return executeOnConnection("UPDATE user SET name = 'x'", null, connection -> outcome);
+        }
+    }
+}
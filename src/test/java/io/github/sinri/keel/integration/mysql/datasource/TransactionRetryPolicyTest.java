@@ -0,0 +1,65 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.exception.KeelMySQLException;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.mysqlclient.MySQLException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionRetryPolicyTest extends KeelJUnit5Test {
+
+    public TransactionRetryPolicyTest() {
+        super();
+    }
+
+    @Test
+    void deadlockAndLockWaitTimeoutAreRetryableThroughWrappers() {
+        TransactionRetryPolicy policy = new TransactionRetryPolicy(3);
+
+        MySQLException deadlock = new MySQLException("Deadlock found", TransactionRetryPolicy.ER_LOCK_DEADLOCK, "40001");
+        MySQLException lockWaitTimeout = new MySQLException("Lock wait timeout", TransactionRetryPolicy.ER_LOCK_WAIT_TIMEOUT, "HY000");
+        MySQLException duplicateKey = new MySQLException("Duplicate entry", 1062, "23000");
+
+        assertTrue(policy.isRetryable(deadlock));
+        assertTrue(policy.isRetryable(new KeelMySQLException("ROLLBACK Finished", lockWaitTimeout)));
+        assertFalse(policy.isRetryable(duplicateKey));
+        assertFalse(policy.isRetryable(new IllegalStateException("not a database error")));
+    }
+
+    @Test
+    void retryableErrorCodesCanBeReplaced() {
+        TransactionRetryPolicy policy = new TransactionRetryPolicy(3)
+                .setRetryableErrorCodes(List.of(1062));
+
+        assertTrue(policy.isRetryable(new MySQLException("Duplicate entry", 1062, "23000")));
+        assertFalse(policy.isRetryable(new MySQLException("Deadlock found", TransactionRetryPolicy.ER_LOCK_DEADLOCK, "40001")));
+    }
+
+    @Test
+    void backoffIsJitteredWithinExponentialCeiling() {
+        TransactionRetryPolicy policy = new TransactionRetryPolicy(10)
+                .setBackoff(Duration.ofMillis(10), Duration.ofMillis(50));
+
+        for (int i = 0; i < 200; i++) {
+            long first = policy.computeBackoffMillis(1);
+            long third = policy.computeBackoffMillis(3);
+            long tenth = policy.computeBackoffMillis(10);
+            assertTrue(first >= 0 && first <= 10, "first retry backoff " + first);
+            assertTrue(third >= 0 && third <= 40, "third retry backoff " + third);
+            assertTrue(tenth >= 0 && tenth <= 50, "tenth retry backoff " + tenth);
+        }
+        assertEquals(0, new TransactionRetryPolicy(2).setBackoff(Duration.ZERO, Duration.ZERO).computeBackoffMillis(5));
+    }
+
+    @Test
+    void maxAttemptsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionRetryPolicy(0));
+    }
+}
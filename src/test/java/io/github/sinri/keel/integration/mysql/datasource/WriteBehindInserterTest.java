@@ -0,0 +1,107 @@
+package io.github.sinri.keel.integration.mysql.datasource;
+
+import io.github.sinri.keel.integration.mysql.statement.impl.WriteIntoStatement;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindInserterTest extends KeelJUnit5Test {
+
+    public WriteBehindInserterTest() {
+        super();
+    }
+
+    private static WriteIntoStatement.RowToWrite row(Object... columnsAndValues) {
+        WriteIntoStatement.RowToWrite row = new WriteIntoStatement.RowToWrite();
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            row.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    void rowsAreGroupedByTableAndColumnsAndFlushedByCountOrTimer() {
+        List<Runnable> timers = new ArrayList<>();
+        List<String> batches = new ArrayList<>();
+        WriteBehindInserter inserter = new WriteBehindInserter(
+                (delay, task) -> timers.add(task),
+                (table, rows) -> {
+                    batches.add(table + ":" + rows.size());
+                    return Future.succeededFuture();
+                }
+        ).setMaxBatchRows(3);
+
+        Future<Void> first = inserter.write("event", row("type", "a"));
+        inserter.write("event", row("type", "b"));
+        inserter.write("event", row("type", "c", "user_id", 1));
+        inserter.write("audit", row("type", "d"));
+        assertFalse(first.isComplete());
+        assertEquals(4, inserter.getBufferedRowCount());
+
+        inserter.write("event", row("type", "e"));
+        assertTrue(first.succeeded());
+        assertEquals(List.of("event:3"), batches);
+
+        timers.forEach(Runnable::run);
+        assertEquals(List.of("event:3", "event:1", "audit:1"), batches);
+        assertEquals(5, inserter.getWrittenRowCount());
+        assertEquals(0, inserter.getBufferedRowCount());
+    }
+
+    @Test
+    void batchIsSplitWhenLengthLimitWouldBeExceeded() {
+        List<Integer> sizes = new ArrayList<>();
+        WriteBehindInserter inserter = new WriteBehindInserter(
+                (delay, task) -> {
+                },
+                (table, rows) -> {
+                    sizes.add(rows.size());
+                    return Future.succeededFuture();
+                }
+        );
+        int length = (int) row("payload", "x".repeat(100)).estimateSqlBytes();
+        inserter.setMaxBatchLength(length * 2 + 1);
+
+        for (int i = 0; i < 5; i++) {
+            inserter.write("blob", row("payload", "x".repeat(100)));
+        }
+        inserter.flush();
+        assertEquals(List.of(2, 2, 1), sizes);
+    }
+
+    @Test
+    void fullBufferRejectsWritesUntilInflightBatchCompletes() {
+        Promise<Void> slowWrite = Promise.promise();
+        AtomicInteger drained = new AtomicInteger();
+        WriteBehindInserter inserter = new WriteBehindInserter(
+                (delay, task) -> {
+                },
+                (table, rows) -> slowWrite.future()
+        ).setMaxBatchRows(2).setMaxBufferedRows(2);
+
+        Future<Void> a = inserter.write("event", row("type", "a"));
+        inserter.write("event", row("type", "b"));
+        assertTrue(inserter.writeQueueFull());
+        assertTrue(inserter.write("event", row("type", "c")).failed());
+        assertEquals(1, inserter.getRejectedRowCount());
+
+        inserter.drainHandler(v -> drained.incrementAndGet());
+        slowWrite.fail(new IllegalStateException("duplicate entry"));
+        assertTrue(a.failed());
+        assertEquals(2, inserter.getFailedRowCount());
+        assertEquals(1, drained.get());
+        assertFalse(inserter.writeQueueFull());
+
+        inserter.close();
+        assertTrue(inserter.write("event", row("type", "d")).failed());
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.sinri.keel.integration.mysql.result.columnar;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.data.Numeric;
+import io.vertx.sqlclient.desc.ColumnDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.JDBCType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarResultTest {
+    private static final List<String> NAMES = List.of("id", "region", "amount", "ratio", "day", "flag");
+
+    private static Row row(Object... values) {
+        return (Row) Proxy.newProxyInstance(
+                Row.class.getClassLoader(),
+                new Class<?>[]{Row.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "size" -> NAMES.size();
+                    case "getColumnName" -> NAMES.get((Integer) args[0]);
+                    case "getValue" -> values[(Integer) args[0]];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static ColumnDescriptor column(String name, JDBCType jdbcType) {
+        return (ColumnDescriptor) Proxy.newProxyInstance(
+                ColumnDescriptor.class.getClassLoader(),
+                new Class<?>[]{ColumnDescriptor.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "name" -> name;
+                    case "jdbcType" -> jdbcType;
+                    case "typeName" -> jdbcType.getName();
+                    case "isArray" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RowSet<Row> rowSet(List<ColumnDescriptor> descriptors, List<Row> rows) {
+        return (RowSet<Row>) Proxy.newProxyInstance(
+                RowSet.class.getClassLoader(),
+                new Class<?>[]{RowSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "size", "rowCount" -> rows.size();
+                    case "columnDescriptors" -> descriptors;
+                    case "columnsNames" -> descriptors.stream().map(ColumnDescriptor::name).toList();
+                    case "forEach" -> {
+                        rows.forEach((Consumer<Row>) args[0]);
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static List<ColumnDescriptor> sampleDescriptors() {
+        return List.of(
+                column("id", JDBCType.BIGINT),
+                column("region", JDBCType.VARCHAR),
+                column("amount", JDBCType.DECIMAL),
+                column("ratio", JDBCType.DOUBLE),
+                column("day", JDBCType.DATE),
+                column("flag", JDBCType.BIT)
+        );
+    }
+
+    private static ColumnarResult sample() {
+        List<Row> rows = new ArrayList<>();
+        rows.add(row(1, "east", Numeric.create(new BigDecimal("10.5")), 0.5, LocalDate.of(2024, 1, 1), true));
+        rows.add(row(2L, "west", new BigDecimal("2.25"), 1, LocalDate.of(2024, 1, 1), false));
+        rows.add(row(3, "east", null, null, LocalDate.of(2024, 1, 2), null));
+        rows.add(row(4, null, new BigDecimal("-1"), 2.5, null, true));
+        return ColumnarResult.of(rows);
+    }
+
+    @Test
+    void columnsAreTypedAndAggregated() {
+        ColumnarResult result = sample();
+
+        assertEquals(4, result.size());
+        assertEquals(NAMES, result.getColumnNames());
+        LongColumnVector id = result.getLongColumn("id");
+        assertEquals(10, id.sum());
+        assertEquals(OptionalLong.of(4), id.max());
+
+        DecimalColumnVector amount = result.getDecimalColumn("amount");
+        assertEquals(2, amount.getScale());
+        assertEquals(new BigDecimal("11.75"), amount.sum());
+        assertEquals(new BigDecimal("-1.00"), amount.min().orElseThrow());
+        assertTrue(amount.isNull(2));
+
+        DoubleColumnVector ratio = result.getDoubleColumn("ratio");
+        assertEquals(4.0, ratio.sum());
+        assertEquals(0.5, ratio.min().orElseThrow());
+        assertEquals(3, ratio.countNonNull());
+
+        StringColumnVector day = result.getStringColumn("day");
+        assertEquals(2, day.getDictionarySize());
+        assertEquals(day.getCode(0), day.getCode(1));
+        assertEquals("2024-01-02", day.getString(2));
+
+        assertInstanceOf(ObjectColumnVector.class, result.getColumn("flag"));
+        assertThrows(IllegalArgumentException.class, () -> result.getLongColumn("region"));
+        assertThrows(IllegalArgumentException.class, () -> result.getColumn("missing"));
+    }
+
+    @Test
+    void groupFilterAndRowViews() {
+        ColumnarResult result = sample();
+
+        ColumnarGrouping grouping = result.groupBy("region");
+        assertEquals(3, grouping.groupCount());
+        assertEquals(Arrays.asList("east", "west", null), Arrays.asList(grouping.getKey(0), grouping.getKey(1), grouping.getKey(2)));
+        assertArrayEquals(new long[]{2, 1, 1}, grouping.count());
+        assertArrayEquals(new long[]{4, 2, 4}, grouping.sumLong("id"));
+        assertArrayEquals(new BigDecimal[]{new BigDecimal("10.50"), new BigDecimal("2.25"), new BigDecimal("-1.00")}, grouping.sumDecimal("amount"));
+        assertArrayEquals(new double[]{0.5, 1.0, 2.5}, grouping.sumDouble("ratio"));
+        assertArrayEquals(new int[]{0, 2}, grouping.rowsOf(0));
+
+        ColumnarGrouping byId = result.groupBy("id");
+        assertEquals(4, byId.groupCount());
+        assertEquals(3L, byId.getKey(2));
+
+        ColumnarResult east = result.take(result.getStringColumn("region").select("east"::equals));
+        assertEquals(2, east.size());
+        assertEquals(4, east.getLongColumn("id").sum());
+
+        ColumnarResult large = result.filter(i -> result.getLongColumn("id").getLong(i) > 2);
+        assertEquals(2, large.size());
+
+        JsonObject first = result.toJsonObject(0);
+        assertEquals(new JsonObject()
+                        .put("id", 1L)
+                        .put("region", "east")
+                        .put("amount", new BigDecimal("10.50"))
+                        .put("ratio", 0.5)
+                        .put("day", "2024-01-01")
+                        .put("flag", true)
+                        .encode(),
+                first.encode());
+        assertEquals(4, result.toResultMatrix().size());
+        assertEquals(0, ColumnarResult.of(List.of()).size());
+    }
+
+    @Test
+    void emptyResultSetColumnsFollowColumnDescriptors() {
+        ColumnarResult result = ColumnarResult.of(rowSet(sampleDescriptors(), List.of()));
+
+        assertEquals(0, result.size());
+        assertEquals(NAMES, result.getColumnNames());
+        assertEquals(0, result.getLongColumn("id").sum());
+        assertEquals(OptionalLong.empty(), result.getLongColumn("id").max());
+        assertEquals(0, result.getStringColumn("region").getDictionarySize());
+        assertEquals(0, result.getDecimalColumn("amount").countNonNull());
+        assertEquals(0.0, result.getDoubleColumn("ratio").sum());
+        assertInstanceOf(StringColumnVector.class, result.getColumn("day"));
+        assertInstanceOf(ObjectColumnVector.class, result.getColumn("flag"));
+    }
+
+    @Test
+    void columnDescriptorsDecideTypesRegardlessOfValues() {
+        List<Row> rows = List.of(
+                row(1, null, null, 2, null, 1L),
+                row(Numeric.create(new BigInteger("18446744073709551615")), null, null, null, null, 0L)
+        );
+        ColumnarResult result = ColumnarResult.of(rowSet(sampleDescriptors(), rows));
+
+        // 全为 NULL 的列与只含整数的浮点列仍按列描述决定类型
+        assertTrue(result.getStringColumn("region").isNull(0));
+        assertTrue(result.getDecimalColumn("amount").isNull(1));
+        assertEquals(2.0, result.getDoubleColumn("ratio").sum());
+        assertTrue(result.getStringColumn("day").isNull(0));
+        // 值与列描述不符时按值决定
+        assertInstanceOf(ObjectColumnVector.class, result.getColumn("id"));
+        assertInstanceOf(LongColumnVector.class, result.getColumn("flag"));
+
+        // 没有列描述的行列表按值决定类型
+        ColumnarResult inferred = ColumnarResult.of(rows);
+        assertInstanceOf(ObjectColumnVector.class, inferred.getColumn("region"));
+        assertInstanceOf(LongColumnVector.class, inferred.getColumn("ratio"));
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.sinri.keel.integration.mysql.result.matrix;
+
+import io.github.sinri.keel.integration.mysql.exception.KeelSQLResultRowIndexError;
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpillableResultMatrixTest {
+    private static final List<String> NAMES = List.of("id", "name", "amount", "created_at", "payload", "note", "id");
+
+    private static Row row(long id) {
+        Object[] values = {
+                (int) id,
+                "名称" + id,
+                new BigDecimal(id + ".50"),
+                LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id),
+                Buffer.buffer(new byte[]{(byte) id, 1}),
+                id % 2 == 0 ? null : new JsonObject().put("odd", true),
+                id * 10
+        };
+        return (Row) Proxy.newProxyInstance(
+                Row.class.getClassLoader(),
+                new Class<?>[]{Row.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "size" -> NAMES.size();
+                    case "getColumnName" -> NAMES.get((Integer) args[0]);
+                    case "getValue" -> values[(Integer) args[0]];
+                    case "toJson" -> {
+                        JsonObject json = new JsonObject();
+                        for (int i = 0; i < NAMES.size(); i++) {
+                            Object value = values[i];
+                            json.put(NAMES.get(i), value instanceof LocalDateTime ? value.toString() : value);
+                        }
+                        yield json;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    @Test
+    void rowsOverBudgetAreSpilledAndDecodedLazily(@TempDir Path directory) throws IOException, KeelSQLResultRowIndexError {
+        SpillableResultMatrix.Builder<Json> builder = new SpillableResultMatrix.Builder<>(Json::new, 200, directory);
+        for (long id = 0; id < 50; id++) {
+            builder.append(row(id));
+        }
+        assertTrue(builder.isSpilled());
+        SpillableResultMatrix<Json> matrix = builder.build();
+
+        assertEquals(50, matrix.size());
+        assertTrue(matrix.isSpilled());
+        SpillableResultMatrix.MemoryUsage usage = matrix.getMemoryUsage();
+        assertEquals(50, usage.rowCount());
+        assertTrue(usage.heapBytes() < 200 + 50 * 8);
+        assertTrue(usage.spilledBytes() > 0);
+
+        for (long id = 0; id < 50; id++) {
+            JsonObject expected = row(id).toJson();
+            assertEquals(expected.encode(), matrix.getRowByIndex((int) id).toJsonObject().encode());
+        }
+        assertEquals(490L, matrix.getRowList().get(49).toJsonObject().getLong("id"));
+        assertEquals(50, matrix.stream().count());
+        assertEquals("名称0", matrix.iterator().next().toJsonObject().getString("name"));
+        assertThrows(KeelSQLResultRowIndexError.class, () -> matrix.getRowByIndex(50));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        matrix.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, () -> matrix.getRowByIndex(49));
+    }
+
+    @Test
+    void rowsWithinBudgetStayOnHeap() throws KeelSQLResultRowIndexError {
+        SpillableResultMatrix.Builder<Json> builder = new SpillableResultMatrix.Builder<>(Json::new, 1 << 20);
+        builder.append(row(1)).append(row(2));
+        SpillableResultMatrix<Json> matrix = builder.build();
+
+        assertFalse(matrix.isSpilled());
+        assertEquals(0, matrix.getMemoryUsage().spilledBytes());
+        assertEquals(new BigDecimal("2.50"), matrix.getRowByIndex(1).toJsonObject().getValue("amount"));
+        assertEquals(List.of(10L, 20L), matrix.column(r -> r.toJsonObject().getLong("id")));
+        matrix.close();
+    }
+
+    @Test
+    void mayExceedBudgetEstimatesFromHeapRows(@TempDir Path directory) {
+        SpillableResultMatrix.Builder<Json> builder = new SpillableResultMatrix.Builder<>(Json::new, 1 << 10, directory);
+        // 尚无可供估算的行
+        assertTrue(builder.mayExceedBudget(1));
+        assertFalse(builder.mayExceedBudget(0));
+
+        builder.append(row(1));
+        assertFalse(builder.isSpilled());
+        assertFalse(builder.mayExceedBudget(1));
+        assertTrue(builder.mayExceedBudget(1 << 10));
+
+        while (!builder.isSpilled()) {
+            builder.append(row(2));
+        }
+        assertTrue(builder.mayExceedBudget(0));
+        builder.discard();
+    }
+
+    /**
+     * 直接返回所包装的 JSON 对象的结果行。
+     */
+    static final class Json extends SimpleResultRow {
+        private final JsonObject jsonObject;
+
+        Json(JsonObject jsonObject) {
+            super(jsonObject);
+            this.jsonObject = jsonObject;
+        }
+
+        @Override
+        public JsonObject toJsonObject() {
+            return jsonObject;
+        }
+    }
+}
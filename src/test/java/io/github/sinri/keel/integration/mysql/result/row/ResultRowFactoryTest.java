@@ -0,0 +1,73 @@
+package io.github.sinri.keel.integration.mysql.result.row;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultRowFactoryTest extends KeelJUnit5Test {
+
+    public ResultRowFactoryTest() {
+        super();
+    }
+
+    @Test
+    public void testFactoryIsCachedPerClass() {
+        JsonObject json = new JsonObject().put("id", 1).put("name", "alice");
+
+        Function<JsonObject, SimpleResultRow> simpleFactory = ResultRow.factory(SimpleResultRow.class);
+        // 同一类应复用同一个工厂函数
+        assertSame(simpleFactory, ResultRow.factory(SimpleResultRow.class));
+        assertEquals("alice", simpleFactory.apply(json).readString("name"));
+        assertEquals("alice", ResultRow.of(json, SimpleResultRow.class).readString("name"));
+
+        // 不同子类各自生成工厂函数，且创建的是子类实例
+        Function<JsonObject, TestRow> testRowFactory = ResultRow.factory(TestRow.class);
+        assertNotSame(simpleFactory, testRowFactory);
+        TestRow row = assertInstanceOf(TestRow.class, ResultRow.of(json, TestRow.class));
+        assertEquals("alice", row.readString("name"));
+    }
+
+    @Test
+    public void testConstructorExceptionIsNotWrapped() {
+        IllegalStateException e = assertThrows(
+                IllegalStateException.class,
+                () -> ResultRow.of(new JsonObject(), FailingRow.class)
+        );
+        assertEquals("rejected", e.getMessage());
+    }
+
+    @Test
+    public void testMissingConstructorIsRejected() {
+        assertThrows(RuntimeException.class, () -> ResultRow.factory(NoJsonConstructorRow.class));
+    }
+
+    /**
+     * 用于验证工厂函数针对不同子类各自生成。
+     */
+    public static class TestRow extends SimpleResultRow {
+        public TestRow(JsonObject tableRow) {
+            super(tableRow);
+        }
+    }
+
+    public static class FailingRow extends SimpleResultRow {
+        public FailingRow(JsonObject tableRow) {
+            super(tableRow);
+            throw new IllegalStateException("rejected");
+        }
+    }
+
+    public static class NoJsonConstructorRow extends SimpleResultRow {
+        public NoJsonConstructorRow() {
+            super(new JsonObject());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.sinri.keel.integration.mysql.result.row;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowBackedResultRowTest extends KeelJUnit5Test {
+
+    public RowBackedResultRowTest() {
+        super();
+    }
+
+    private static Row row(List<String> names, Object... values) {
+        return new ListRow(names, values);
+    }
+
+    @Test
+    public void readsNativeValuesThroughSharedIndex() {
+        List<String> names = List.of("id", "amount", "created_at", "name", "note");
+        RowColumnIndex columnIndex = RowColumnIndex.of(row(names, 0, 0, 0, 0, 0));
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 6, 7, 8, 9);
+        RowBackedResultRow a = new RowBackedResultRow(row(names, 1L, new BigDecimal("12.30"), createdAt, "x", null), columnIndex);
+        RowBackedResultRow b = new RowBackedResultRow(row(names, 2L, new BigDecimal("0.50"), createdAt, "y", null), columnIndex);
+
+        assertSame(a.getColumnIndex(), b.getColumnIndex());
+        assertEquals(1L, a.readLong("id"));
+        assertEquals(2, b.readInteger("id"));
+        assertEquals(new BigDecimal("12.30"), a.readBigDecimal("amount"));
+        assertSame(createdAt, a.readLocalDateTime("created_at"));
+        assertEquals("2024-05-06 07:08:09", a.readDateTime("created_at"));
+        assertEquals("2024-05-06T07:08:09", a.readString("created_at"));
+        assertEquals("y", b.readString("name"));
+        assertNull(a.readString("note"));
+        assertNull(a.readLong("note"));
+        assertNull(a.readLocalDateTime("missing"));
+    }
+
+    @Test
+    public void buildsJsonLazilyAndFollowsModifications() {
+        List<String> names = List.of("id", "created_at");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 6, 7, 8, 9);
+        Row source = row(names, 7, createdAt);
+        RowBackedResultRow resultRow = new RowBackedResultRow(source);
+
+        JsonObject jsonObject = resultRow.toJsonObject();
+        assertEquals(source.toJson(), jsonObject);
+        assertEquals(source.toJson().encode(), jsonObject.encode());
+
+        jsonObject.put("id", 8);
+        assertEquals(8, resultRow.readValue("id"));
+        assertEquals("2024-05-06T07:08:09", resultRow.readString("created_at"));
+        assertTrue(jsonObject.containsKey("created_at"));
+    }
+
+    /**
+     * 测试用的按列表存储值的行实现。
+     */
+    private static final class ListRow implements Row {
+        private final List<String> names;
+        private final List<Object> values = new ArrayList<>();
+
+        ListRow(List<String> names, Object... values) {
+            this.names = names;
+            for (Object value : values) {
+                this.values.add(value);
+            }
+        }
+
+        @Override
+        public String getColumnName(int pos) {
+            return names.get(pos);
+        }
+
+        @Override
+        public int getColumnIndex(String column) {
+            return names.indexOf(column);
+        }
+
+        @Override
+        public Object getValue(int pos) {
+            return values.get(pos);
+        }
+
+        @Override
+        public Tuple addValue(Object value) {
+            values.add(value);
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+
+        @Override
+        public List<Class<?>> types() {
+            List<Class<?>> types = new ArrayList<>();
+            for (Object value : values) {
+                types.add(value == null ? Object.class : value.getClass());
+            }
+            return types;
+        }
+    }
+}
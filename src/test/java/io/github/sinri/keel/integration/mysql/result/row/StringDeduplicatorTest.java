@@ -0,0 +1,45 @@
+package io.github.sinri.keel.integration.mysql.result.row;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StringDeduplicatorTest {
+
+    @Test
+    void equalValuesShareOneInstancePerColumn() {
+        StringDeduplicator deduplicator = new StringDeduplicator();
+        JsonObject a = deduplicator.deduplicate(new JsonObject().put("status", new String("PAID")).put("amount", 1));
+        JsonObject b = deduplicator.deduplicate(new JsonObject().put("status", new String("PAID")).put("amount", 2));
+
+        assertSame(a.getString("status"), b.getString("status"));
+        assertEquals(1, deduplicator.getDictionarySize("status"));
+        assertEquals(1, deduplicator.getSharedCount());
+
+        // 字典按列隔离
+        String other = deduplicator.deduplicate("currency", new String("PAID"));
+        assertNotSame(a.getString("status"), other);
+    }
+
+    @Test
+    void highCardinalityColumnsBackOff() {
+        StringDeduplicator deduplicator = new StringDeduplicator(3);
+        for (int i = 0; i < 3; i++) {
+            deduplicator.deduplicate("code", "c" + i);
+        }
+        assertFalse(deduplicator.isBackedOff("code"));
+
+        String fourth = new String("c3");
+        assertSame(fourth, deduplicator.deduplicate("code", fourth));
+        assertTrue(deduplicator.isBackedOff("code"));
+        assertEquals(0, deduplicator.getDictionarySize("code"));
+
+        String repeated = new String("c0");
+        assertSame(repeated, deduplicator.deduplicate("code", repeated));
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.sinri.keel.integration.mysql.result.stream;
+
+import io.github.sinri.keel.integration.mysql.result.matrix.ResultMatrix;
+import io.github.sinri.keel.integration.mysql.result.row.ResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.RowBackedResultRow;
+import io.github.sinri.keel.integration.mysql.result.row.SimpleResultRow;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.sqlclient.Row;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultExporterTest {
+
+    private static Row row(List<String> names, Object... values) {
+        return (Row) Proxy.newProxyInstance(
+                Row.class.getClassLoader(),
+                new Class<?>[]{Row.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "size" -> names.size();
+                    case "getColumnName" -> names.get((Integer) args[0]);
+                    case "getValue" -> values[(Integer) args[0]];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    @Test
+    void rowBackedRowsAreEncodedWithoutBuildingJson() {
+        List<String> names = List.of("id", "name", "amount", "created_at", "note", "id");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 6, 7, 8, 9);
+        List<RowBackedResultRow> rows = List.of(
+                new RowBackedResultRow(row(names, 1L, "a\"b,c", new BigDecimal("12.30"), createdAt, null, 10L)),
+                new RowBackedResultRow(row(names, 2L, "line\nbreak", new BigDecimal("1E+3"), createdAt, "x", 20L))
+        );
+        ResultMatrix<RowBackedResultRow> matrix = ResultMatrix.ofRows(rows);
+
+        CollectingStream ndjson = new CollectingStream();
+        assertEquals(2L, new ResultExporter(ResultExporter.Format.NDJSON).export(matrix, ndjson).result());
+        assertEquals("{\"id\":10,\"name\":\"a\\\"b,c\",\"amount\":12.30,\"created_at\":\"2024-05-06T07:08:09\",\"note\":null}\n"
+                        + "{\"id\":20,\"name\":\"line\\nbreak\",\"amount\":1000,\"created_at\":\"2024-05-06T07:08:09\",\"note\":\"x\"}\n",
+                ndjson.text());
+
+        CollectingStream csv = new CollectingStream();
+        new ResultExporter(ResultExporter.Format.CSV).export(matrix, csv);
+        assertEquals("id,name,amount,created_at,note\r\n"
+                        + "10,\"a\"\"b,c\",12.30,2024-05-06T07:08:09,\r\n"
+                        + "20,\"line\nbreak\",1000,2024-05-06T07:08:09,x\r\n",
+                csv.text());
+        assertFalse(rows.get(0).isJsonObjectMaterialized());
+
+        CollectingStream array = new CollectingStream();
+        SimpleResultRow plain = new SimpleResultRow(new JsonObject()) {
+            @Override
+            public JsonObject toJsonObject() {
+                return new JsonObject().put("k", "v").put("n", 1);
+            }
+        };
+        new ResultExporter(ResultExporter.Format.JSON_ARRAY).export(ResultMatrix.ofRows(List.of(plain, plain)), array);
+        assertEquals("[{\"k\":\"v\",\"n\":1},{\"k\":\"v\",\"n\":1}]", array.text());
+
+        CollectingStream empty = new CollectingStream();
+        new ResultExporter(ResultExporter.Format.JSON_ARRAY).export(ResultMatrix.<ResultRow>ofRows(List.of()), empty);
+        assertEquals("[]", empty.text());
+    }
+
+    @Test
+    void exportWaitsForDrainWhenWriteQueueIsFull() {
+        List<RowBackedResultRow> rows = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            rows.add(new RowBackedResultRow(row(List.of("id"), i)));
+        }
+        CollectingStream out = new CollectingStream();
+        out.full = true;
+
+        Future<Long> future = new ResultExporter(ResultExporter.Format.NDJSON)
+                .setBufferSize(20)
+                .export(ResultMatrix.ofRows(rows), out);
+
+        // 写满 20 个字符即写出一次，随后因写队列已满而暂停
+        assertFalse(future.isComplete());
+        assertEquals(1, out.writes.size());
+        assertEquals("{\"id\":0}\n{\"id\":1}\n{\"id\":2}\n", out.text());
+
+        out.full = false;
+        out.drain();
+        assertTrue(future.succeeded());
+        assertEquals(10L, future.result());
+        assertEquals(4, out.writes.size());
+        assertTrue(out.text().endsWith("{\"id\":9}\n"));
+    }
+
+    /**
+     * 收集写入内容的目标流，写队列是否已满由测试控制。
+     */
+    private static final class CollectingStream implements WriteStream<Buffer> {
+        private final List<Buffer> writes = new ArrayList<>();
+        private boolean full = false;
+        private Handler<Void> drainHandler;
+
+        String text() {
+            Buffer buffer = Buffer.buffer();
+            writes.forEach(buffer::appendBuffer);
+            return buffer.toString();
+        }
+
+        void drain() {
+            Handler<Void> handler = drainHandler;
+            if (handler != null) {
+                handler.handle(null);
+            }
+        }
+
+        @Override
+        public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public Future<Void> write(Buffer data) {
+            writes.add(data);
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public Future<Void> end() {
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+            return this;
+        }
+
+        @Override
+        public boolean writeQueueFull() {
+            return full;
+        }
+
+        @Override
+        public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+            this.drainHandler = handler;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.sinri.keel.integration.mysql.result.stream;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.Cursor;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
+import io.vertx.sqlclient.RowSet;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultRowStreamTest {
+
+    private static Row row(int value) {
+        return (Row) Proxy.newProxyInstance(
+                Row.class.getClassLoader(),
+                new Class<?>[]{Row.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getValue" -> value;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RowSet<Row> rowSet(List<Row> rows) {
+        return (RowSet<Row>) Proxy.newProxyInstance(
+                RowSet.class.getClassLoader(),
+                new Class<?>[]{RowSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "size", "rowCount" -> rows.size();
+                    case "iterator" -> {
+                        Iterator<Row> iterator = rows.iterator();
+                        yield Proxy.newProxyInstance(
+                                RowIterator.class.getClassLoader(),
+                                new Class<?>[]{RowIterator.class},
+                                (p, m, a) -> switch (m.getName()) {
+                                    case "hasNext" -> iterator.hasNext();
+                                    case "next" -> iterator.next();
+                                    default -> throw new UnsupportedOperationException(m.getName());
+                                }
+                        );
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static ResultRowStream<Integer> stream(StubCursor cursor, int fetchSize, AtomicBoolean resourceClosed) {
+        return new ResultRowStream<>(cursor, fetchSize, row -> (Integer) row.getValue(0), () -> {
+            resourceClosed.set(true);
+            return Future.succeededFuture();
+        });
+    }
+
+    @Test
+    void readsAllWindowsWithoutAskingCursorBeforeFirstRead() {
+        StubCursor cursor = new StubCursor(5);
+        AtomicBoolean resourceClosed = new AtomicBoolean(false);
+        List<Integer> received = new ArrayList<>();
+        AtomicBoolean ended = new AtomicBoolean(false);
+        List<Throwable> errors = new ArrayList<>();
+
+        stream(cursor, 2, resourceClosed)
+                .exceptionHandler(errors::add)
+                .endHandler(v -> ended.set(true))
+                .handler(received::add);
+
+        // 首个窗口未返回前只发起一次读取
+        assertEquals(1, cursor.pending.size());
+        cursor.completeNext();
+        // 消费第一个窗口前已预取第二个窗口
+        assertEquals(1, cursor.pending.size());
+        cursor.completeNext();
+        cursor.completeNext();
+
+        assertTrue(errors.isEmpty(), () -> errors.get(0).toString());
+        assertEquals(List.of(0, 1, 2, 3, 4), received);
+        assertEquals(3, cursor.reads);
+        assertTrue(ended.get());
+        assertTrue(cursor.closed);
+        assertTrue(resourceClosed.get());
+    }
+
+    @Test
+    void pausedStreamStopsReadingAfterTwoWindows() {
+        StubCursor cursor = new StubCursor(10);
+        AtomicBoolean resourceClosed = new AtomicBoolean(false);
+        List<Integer> received = new ArrayList<>();
+        AtomicBoolean ended = new AtomicBoolean(false);
+
+        ResultRowStream<Integer> stream = stream(cursor, 2, resourceClosed);
+        stream.pause();
+        stream.endHandler(v -> ended.set(true)).handler(received::add);
+
+        while (!cursor.pending.isEmpty()) {
+            cursor.completeNext();
+        }
+        assertTrue(received.isEmpty());
+        assertEquals(2, cursor.reads);
+
+        stream.fetch(3);
+        assertEquals(List.of(0, 1, 2), received);
+        while (!cursor.pending.isEmpty()) {
+            cursor.completeNext();
+        }
+        assertEquals(3, cursor.reads);
+        assertFalse(ended.get());
+
+        stream.resume();
+        while (!cursor.pending.isEmpty()) {
+            cursor.completeNext();
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), received);
+        assertTrue(ended.get());
+        assertTrue(resourceClosed.get());
+    }
+
+    /**
+     * 与 Vert.x 游标行为一致的桩：首次读取完成之前调用 {@link #hasMore()} 抛出 {@link IllegalStateException}，
+     * 读取结果由测试逐个完成。
+     */
+    private static final class StubCursor implements Cursor {
+        private final int total;
+        private final List<Promise<RowSet<Row>>> pending = new ArrayList<>();
+        private final List<Integer> requested = new ArrayList<>();
+        private int delivered = 0;
+        private int reads = 0;
+        private boolean readCompleted = false;
+        private boolean closed = false;
+
+        StubCursor(int total) {
+            this.total = total;
+        }
+
+        void completeNext() {
+            Promise<RowSet<Row>> promise = pending.remove(0);
+            int count = Math.min(requested.remove(0), total - delivered);
+            List<Row> rows = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                rows.add(row(delivered++));
+            }
+            readCompleted = true;
+            promise.complete(rowSet(rows));
+        }
+
+        @Override
+        public Future<RowSet<Row>> read(int count) {
+            if (!pending.isEmpty()) {
+                throw new IllegalStateException("Concurrent cursor read");
+            }
+            reads++;
+            Promise<RowSet<Row>> promise = Promise.promise();
+            pending.add(promise);
+            requested.add(count);
+            return promise.future();
+        }
+
+        @Override
+        public boolean hasMore() {
+            if (!readCompleted) {
+                throw new IllegalStateException("No current cursor read");
+            }
+            return delivered < total;
+        }
+
+        @Override
+        public Future<Void> close() {
+            closed = true;
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+}
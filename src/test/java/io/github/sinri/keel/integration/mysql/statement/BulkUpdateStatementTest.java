@@ -0,0 +1,69 @@
+package io.github.sinri.keel.integration.mysql.statement;
+
+import io.github.sinri.keel.integration.mysql.statement.impl.BulkUpdateStatement;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkUpdateStatementTest {
+
+    private static BulkUpdateStatement priceUpdates(int rows) {
+        BulkUpdateStatement statement = new BulkUpdateStatement().table("product").keyColumn("id");
+        for (int i = 0; i < rows; i++) {
+            statement.setWithValue(i, "price", i * 10).setWithValue(i, "name", "商品" + i);
+        }
+        return statement;
+    }
+
+    @Test
+    void rendersCaseAssignmentsAndKeepsUnsetColumns() {
+        BulkUpdateStatement statement = new BulkUpdateStatement()
+                .table("product")
+                .keyColumn("id")
+                .setWithValues(1, Map.of("price", 100))
+                .setWithValue(2, "price", 200)
+                .setWithValue(2, "name", "b");
+
+        assertEquals(
+                "UPDATE product SET price = CASE id WHEN 1 THEN 100 WHEN 2 THEN 200 ELSE price END, "
+                        + "name = CASE id WHEN 2 THEN 'b' ELSE name END WHERE id IN (1,2)",
+                statement.buildSql()
+        );
+
+        SqlParameterBinder binder = new SqlParameterBinder();
+        assertEquals(
+                "UPDATE product SET price = CASE id WHEN ? THEN ? WHEN ? THEN ? ELSE price END, "
+                        + "name = CASE id WHEN ? THEN ? ELSE name END WHERE id IN (?,?)",
+                statement.buildSql(binder)
+        );
+        assertEquals(Arrays.asList(1, 100, 2, 200, 2, "b", 1, 2), binder.getValues());
+    }
+
+    @Test
+    void divideByPacketSizeKeepsEveryChunkWithinLimits() {
+        BulkUpdateStatement statement = priceUpdates(200);
+        long limit = 2000;
+
+        List<BulkUpdateStatement> chunks = statement.divideByPacketSize(limit, Integer.MAX_VALUE);
+        assertTrue(chunks.size() > 1);
+        int rows = 0;
+        for (BulkUpdateStatement chunk : chunks) {
+            assertTrue(chunk.buildSql().getBytes(StandardCharsets.UTF_8).length <= limit, chunk.buildSql());
+            rows += chunk.getRowCount();
+        }
+        assertEquals(200, rows);
+
+        List<BulkUpdateStatement> byPlaceholders = priceUpdates(10).divideByPacketSize(1 << 20, 10);
+        assertEquals(5, byPlaceholders.size());
+
+        BulkUpdateStatement small = priceUpdates(3);
+        assertSame(small, small.divideByPacketSize(1 << 20, Integer.MAX_VALUE).get(0));
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.sinri.keel.integration.mysql.statement;
+
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.UpdateStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.WriteIntoStatement;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParameterizedRenderingTest {
+
+    private static List<Object> valuesOf(ParameterizedSql parameterizedSql) {
+        Object[] values = new Object[parameterizedSql.tuple().size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parameterizedSql.tuple().getValue(i);
+        }
+        return Arrays.asList(values);
+    }
+
+    @Test
+    void selectShouldBindValuesInTextualOrder() {
+        SelectStatement subQuery = new SelectStatement()
+                .columnAsExpression("user_id")
+                .from("blacklist")
+                .where(conditions -> conditions.expressionEqualsNumericValue("level", 3));
+
+        SelectStatement statement = new SelectStatement()
+                .from("user", "u")
+                .leftJoin(join -> join.table("profile").alias("p")
+                                      .onForCompare(c -> c.compareExpression("p.user_id").beEqual().againstExpression("u.id"))
+                                      .onForCompare(c -> c.compareExpression("p.kind").beEqual().againstLiteralValue("main")))
+                .where(conditions -> conditions
+                        .expressionEqualsLiteralValue("u.status", "ACTIVE")
+                        .expressionAmongNumericValues("u.group_id", List.of(1, 2))
+                        .comparison(c -> c.compareExpression("u.name").hasPrefix("a_b"))
+                        .expressionNotInSubquery("u.id", subQuery)
+                        .expressionIsNull("u.deleted_at"))
+                .limit(10, 20);
+
+        ParameterizedSql parameterizedSql = statement.buildParameterizedSql();
+
+        assertEquals(
+                "SELECT * FROM user AS u LEFT JOIN profile AS p ON p.user_id = u.id AND p.kind = ?"
+                        + " WHERE u.status = ? AND u.group_id IN (?,?) AND u.name LIKE ?"
+                        + " AND u.id NOT IN (SELECT user_id FROM blacklist WHERE level = ?) AND u.deleted_at IS NULL"
+                        + " LIMIT ? OFFSET ?",
+                parameterizedSql.sql()
+        );
+        assertEquals(List.of("main", "ACTIVE", 1, 2, "a\\_b%", 3, 10L, 20L), valuesOf(parameterizedSql));
+
+        assertEquals(
+                "SELECT * FROM user AS u LEFT JOIN profile AS p ON p.user_id = u.id AND p.kind = 'main'"
+                        + " WHERE u.status = 'ACTIVE' AND u.group_id IN (1,2) AND u.name LIKE 'a\\\\_b%'"
+                        + " AND u.id NOT IN (SELECT user_id FROM blacklist WHERE level = 3) AND u.deleted_at IS NULL"
+                        + " LIMIT 10 OFFSET 20",
+                statement.buildSql()
+        );
+    }
+
+    @Test
+    void sameShapeShouldRenderSameSql() {
+        ParameterizedSql first = new SelectStatement()
+                .from("user")
+                .where(conditions -> conditions.expressionEqualsNumericValue("id", 1))
+                .buildParameterizedSql();
+        ParameterizedSql second = new SelectStatement()
+                .from("user")
+                .where(conditions -> conditions.expressionEqualsNumericValue("id", 2))
+                .buildParameterizedSql();
+
+        assertEquals(first.sql(), second.sql());
+        assertEquals(List.of(1), valuesOf(first));
+        assertEquals(List.of(2), valuesOf(second));
+    }
+
+    @Test
+    void updateShouldBindAssignmentsAndConditions() {
+        UpdateStatement statement = new UpdateStatement()
+                .table("user")
+                .setWithValue("name", "O'Reilly")
+                .setWithExpression("updated_at", "now()")
+                .setWithValue("score", 5)
+                .where(conditions -> conditions.expressionEqualsNumericValue("id", 7L));
+
+        ParameterizedSql parameterizedSql = statement.buildParameterizedSql();
+
+        assertEquals("UPDATE user SET name=?, updated_at=now(), score=? WHERE id = ?", parameterizedSql.sql());
+        assertEquals(List.of("O'Reilly", 5, 7L), valuesOf(parameterizedSql));
+    }
+
+    @Test
+    void writeIntoShouldBindValuesButKeepExpressions() {
+        WriteIntoStatement statement = new WriteIntoStatement()
+                .intoTable("user")
+                .macroWriteRows(List.of(
+                        new WriteIntoStatement.RowToWrite().put("name", "a").put("age", 1).putNow("created_at"),
+                        new WriteIntoStatement.RowToWrite().put("name", null).put("age", 2).putNow("created_at")
+                ));
+
+        ParameterizedSql parameterizedSql = statement.buildParameterizedSql();
+
+        assertEquals(
+                "INSERT  INTO user (age,created_at,name) VALUES (?,now(),?), (?,now(),?)",
+                parameterizedSql.sql()
+        );
+        assertEquals(Arrays.asList(1, "a", 2, null), valuesOf(parameterizedSql));
+    }
+}
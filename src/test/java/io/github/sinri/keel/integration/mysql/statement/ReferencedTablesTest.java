@@ -0,0 +1,87 @@
+package io.github.sinri.keel.integration.mysql.statement;
+
+import io.github.sinri.keel.integration.mysql.condition.RawCondition;
+import io.github.sinri.keel.integration.mysql.statement.impl.DeleteStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.UpdateStatement;
+import io.github.sinri.keel.integration.mysql.statement.impl.WriteIntoStatement;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReferencedTablesTest {
+
+    @Test
+    void normalizeTableNameShouldStripSchemaQuotesAndAlias() {
+        assertEquals("product", AnyStatement.normalizeTableName("`shop`.`Product` AS p"));
+        assertEquals("user", AnyStatement.normalizeTableName(" shop.user u"));
+        assertEquals("order item", AnyStatement.normalizeTableName("`Order Item`"));
+        assertNull(AnyStatement.normalizeTableName("(SELECT 1) AS t"));
+        assertNull(AnyStatement.normalizeTableName(""));
+    }
+
+    @Test
+    void normalizeTableNameShouldRejectMultiTableExpressions() {
+        assertEquals("user", AnyStatement.normalizeTableName("user AS `u`"));
+        assertNull(AnyStatement.normalizeTableName("a, b"));
+        assertNull(AnyStatement.normalizeTableName("a JOIN b ON a.id = b.id"));
+        assertNull(AnyStatement.normalizeTableName("a AS x LEFT JOIN b ON x.id = b.id"));
+        assertNull(AnyStatement.normalizeTableName("a FORCE INDEX (idx)"));
+        assertNull(AnyStatement.normalizeTableName("shop."));
+        // 无法确定所涉及的表时，写语句使全部缓存失效
+        assertNull(new UpdateStatement().table("a JOIN b ON a.id = b.id").getReferencedTables());
+        assertNull(new SelectStatement().from("a, b").getReferencedTables());
+    }
+
+    @Test
+    void selectShouldCollectFromJoinAndFromSubqueryTables() {
+        SelectStatement subQuery = new SelectStatement().from("archived_order");
+        SelectStatement statement = new SelectStatement()
+                .from(subQuery, "o")
+                .leftJoin(join -> join.table("shop.user").alias("u")
+                                      .onForRaw(raw -> new RawCondition("o.user_id = u.id")));
+
+        assertEquals(Set.of("archived_order", "user"), statement.getReferencedTables());
+    }
+
+    @Test
+    void selectWithSubqueryInConditionsShouldBeUnknown() {
+        SelectStatement statement = new SelectStatement()
+                .from("user")
+                .where(conditions -> conditions.expressionInSubquery(
+                        "id",
+                        new SelectStatement().columnAsExpression("user_id").from("blacklist")
+                ));
+
+        assertNull(statement.getReferencedTables());
+    }
+
+    @Test
+    void selectShouldRecomputeReferencedTablesAfterModification() {
+        SelectStatement statement = new SelectStatement().from("user");
+        assertEquals(Set.of("user"), statement.getReferencedTables());
+
+        statement.where(conditions -> conditions.expressionInSubquery(
+                "id",
+                new SelectStatement().columnAsExpression("user_id").from("blacklist")
+        ));
+        assertNull(statement.getReferencedTables());
+
+        SelectStatement joined = new SelectStatement().from("user");
+        assertEquals(Set.of("user"), joined.getReferencedTables());
+        joined.innerJoin(join -> join.table("order").alias("o")
+                                     .onForRaw(raw -> new RawCondition("o.user_id = user.id")));
+        assertEquals(Set.of("user", "order"), joined.getReferencedTables());
+    }
+
+    @Test
+    void modifyStatementsShouldReportTargetTable() {
+        assertEquals(Set.of("user"), new UpdateStatement().table("shop", "user").getReferencedTables());
+        assertEquals(Set.of("user"), new DeleteStatement().from("`User`").getReferencedTables());
+        assertEquals(Set.of("user"), new WriteIntoStatement().intoTable("user").getReferencedTables());
+        assertNull(new RawStatement("UPDATE user SET a = 1").getReferencedTables());
+    }
+}
@@ -1,9 +1,15 @@
 package io.github.sinri.keel.integration.mysql.statement;
 
+import io.github.sinri.keel.integration.mysql.result.pagination.KeysetCursor;
 import io.github.sinri.keel.integration.mysql.statement.impl.SelectStatement;
+import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class SelectStatementTest {
 
@@ -39,4 +45,56 @@ class SelectStatementTest {
                 statement.toString()
         );
     }
+
+    @Test
+    void keysetSeekShouldUseRowComparisonForUniformDirection() {
+        SelectStatement statement = new SelectStatement()
+                .from("orders")
+                .where(conditions -> conditions.keysetSeek(seek -> seek
+                        .after("created_at", true, "2024-01-01 00:00:00")
+                        .after("id", true, 10)))
+                .orderByDesc("created_at")
+                .orderByDesc("id")
+                .limit(21);
+
+        assertEquals(
+                "SELECT * FROM orders WHERE (created_at,id) < ('2024-01-01 00:00:00',10) ORDER BY created_at DESC,id DESC LIMIT 21 OFFSET 0",
+                statement.toString()
+        );
+        ParameterizedSql parameterizedSql = statement.buildParameterizedSql();
+        assertEquals(
+                "SELECT * FROM orders WHERE (created_at,id) < (?,?) ORDER BY created_at DESC,id DESC LIMIT ? OFFSET ?",
+                parameterizedSql.sql()
+        );
+        assertEquals(4, parameterizedSql.tuple().size());
+    }
+
+    @Test
+    void keysetSeekShouldExpandMixedDirections() {
+        SelectStatement statement = new SelectStatement()
+                .from("orders")
+                .where(conditions -> conditions.keysetSeek(seek -> seek
+                        .after("score", true, 5)
+                        .after("id", false, 10)));
+
+        assertEquals(
+                "SELECT * FROM orders WHERE (score < 5 OR (score = 5 AND id > 10))",
+                statement.toString()
+        );
+    }
+
+    @Test
+    void keysetCursorShouldRoundTripSortKeyValues() {
+        List<KeysetCursor.SortKey> sortKeys = KeysetCursor.parseSortRules(List.of("o.`amount` DESC", "o.id"));
+        assertEquals("amount", sortKeys.get(0).columnLabel());
+
+        String cursor = KeysetCursor.encodeAfter(sortKeys, new JsonObject()
+                .put("amount", new BigDecimal("12.30"))
+                .put("id", 99L)
+                .put("remark", "ignored"));
+
+        assertEquals(List.of(new BigDecimal("12.30"), 99), KeysetCursor.decode(cursor, sortKeys));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(cursor, KeysetCursor.parseSortRules(List.of("o.id"))));
+    }
 }
@@ -0,0 +1,81 @@
+package io.github.sinri.keel.integration.mysql.statement;
+
+import io.github.sinri.keel.integration.mysql.statement.impl.WriteIntoStatement;
+import io.github.sinri.keel.integration.mysql.statement.mixin.WriteIntoStatementMixin;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteIntoStatementTest {
+
+    private static WriteIntoStatement statementWithRows(int rows, String payload) {
+        List<WriteIntoStatement.RowToWrite> list = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            list.add(new WriteIntoStatement.RowToWrite().put("id", i).put("payload", payload));
+        }
+        return new WriteIntoStatement().intoTable("event").macroWriteRows(list);
+    }
+
+    @Test
+    void inlineRenderingKeepsLayout() {
+        WriteIntoStatement statement = statementWithRows(2, "a")
+                .onDuplicateKeyUpdateField("payload");
+
+        assertEquals(
+                "INSERT  INTO event (id,payload) VALUES (0,'a'), (1,'a') ON DUPLICATE KEY UPDATE payload = values(payload)",
+                statement.buildSql()
+        );
+    }
+
+    @Test
+    void divideByPacketSizeKeepsEveryChunkWithinLimit() {
+        WriteIntoStatement statement = statementWithRows(100, "数据".repeat(20));
+        long limit = 1000;
+
+        List<WriteIntoStatementMixin<WriteIntoStatement>> chunks = statement.divideByPacketSize(limit, Integer.MAX_VALUE);
+
+        assertTrue(chunks.size() > 1);
+        int rows = 0;
+        for (WriteIntoStatementMixin<WriteIntoStatement> chunk : chunks) {
+            String sql = chunk.buildSql();
+            assertTrue(sql.getBytes(StandardCharsets.UTF_8).length <= limit, sql);
+            rows += sql.split("\\), \\(").length;
+        }
+        assertEquals(100, rows);
+
+        WriteIntoStatement single = statementWithRows(3, "x");
+        List<WriteIntoStatementMixin<WriteIntoStatement>> whole = single.divideByPacketSize(1 << 20, Integer.MAX_VALUE);
+        assertEquals(1, whole.size());
+        assertEquals(single.buildSql(), whole.get(0).buildSql());
+    }
+
+    @Test
+    void estimateSqlBytesCountsUtf8Bytes() {
+        WriteIntoStatement.RowToWrite row = new WriteIntoStatement.RowToWrite().put("id", 1).put("payload", "数据");
+        WriteIntoStatement statement = new WriteIntoStatement().intoTable("event").macroWriteRows(List.of(row));
+        String sql = statement.buildSql();
+        String values = sql.substring(sql.indexOf("VALUES ") + "VALUES ".length());
+
+        // "(1,'数据')" 共 12 字节，另计每列一个分隔符
+        assertEquals(values.getBytes(StandardCharsets.UTF_8).length + 1, row.estimateSqlBytes());
+    }
+
+    @Test
+    void divideByPacketSizeLimitsCellsAndKeepsOversizedRowAlone() {
+        List<WriteIntoStatementMixin<WriteIntoStatement>> byCells = statementWithRows(10, "x")
+                .divideByPacketSize(1 << 20, 6);
+        assertEquals(4, byCells.size());
+
+        WriteIntoStatement oversized = statementWithRows(2, "y".repeat(500));
+        assertEquals(2, oversized.divideByPacketSize(100, Integer.MAX_VALUE).size());
+
+        WriteIntoStatement fromSelect = new WriteIntoStatement().intoTable("event").fromSelection("SELECT * FROM event_archive");
+        assertSame(fromSelect, fromSelect.divideByPacketSize(100, 1).get(0));
+    }
+}
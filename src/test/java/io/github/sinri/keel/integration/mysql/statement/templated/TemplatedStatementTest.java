@@ -1,8 +1,16 @@
 package io.github.sinri.keel.integration.mysql.statement.templated;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class TemplatedStatementTest {
     @Test
@@ -26,4 +34,37 @@ class TemplatedStatementTest {
                 statement.buildSql()
         );
     }
+
+    @Test
+    void compiledTemplateShouldKeepUnboundAndUnpairedBraces() {
+        SqlTemplate template = SqlTemplate.compile("SELECT '{\"a\":1}', {a{b} FROM t WHERE id IN {ids} AND x = {missing} {");
+
+        assertEquals(Set.of("\"a\":1", "b", "ids", "missing"), template.getPlaceholderNames());
+        assertEquals(
+                "SELECT '{\"a\":1}', {aB FROM t WHERE id IN (1,2) AND x = {missing} {",
+                template.render(new TemplateArgumentMapping()
+                        .bindExpression("b", "B")
+                        .bindNumbers("ids", List.of(1, 2)))
+        );
+    }
+
+    @Test
+    void registryShouldLoadOnceAndReloadOnChangeWhenEnabled(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("query.sql");
+        Files.writeString(file, "SELECT {column} FROM t");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L));
+        String path = file.toString();
+        SqlTemplateRegistry registry = new SqlTemplateRegistry();
+
+        SqlTemplate first = registry.get(path);
+        Files.writeString(file, "SELECT {column} FROM t2");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000L));
+        assertSame(first, registry.get(path));
+
+        registry.setReloadOnChange(true);
+        SqlTemplate reloaded = registry.get(path);
+        assertEquals("SELECT {column} FROM t2", reloaded.getSource());
+        assertSame(reloaded, registry.get(path));
+        assertEquals(1, registry.size());
+    }
 }